@@ -1,7 +1,10 @@
 package com.awc.industrial_asset_companion.alarms;
 
+import com.awc.industrial_asset_companion.liftstations.StationViewInvalidator;
+import com.awc.industrial_asset_companion.sync.ChangeTracker;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
@@ -12,6 +15,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name="alarm")
+@EntityListeners({StationViewInvalidator.class, ChangeTracker.class})
 public class Alarm {
 
     @Id
@@ -51,6 +51,11 @@ public class ApiErrors {
             body.put("message", "Station code already exists");
         }
 
+        if (msg != null && msg.contains("uk_device_qr_hash")) {
+            fieldErrors.put("qr", "This QR code is already assigned to another device");
+            body.put("message", "QR code already in use");
+        }
+
         if (!fieldErrors.isEmpty()) {
             body.put("fieldErrors", fieldErrors);              // <-- what the frontend expects
             return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
@@ -2,12 +2,26 @@ package com.awc.industrial_asset_companion.devices_locator.controller;
 
 import com.awc.industrial_asset_companion.devices_locator.dto.*;
 import com.awc.industrial_asset_companion.devices_locator.service.DeviceCrudService;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceExportService;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceImportService;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceResolveService;
+import com.awc.industrial_asset_companion.dr.QrEngine;
+import com.awc.industrial_asset_companion.liftstations.controller.QrCodeController;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping({"/api/devices", "/v1/devices"})
@@ -16,17 +30,117 @@ public class DeviceCrudController {
 
     // ✅ Interface, not implementation
     private final DeviceCrudService service;
+    private final QrEngine qrEngine;
+    private final DeviceExportService export;
+    private final DeviceImportService importer;
+    private final DeviceResolveService resolver;
 
     @GetMapping("/{id}")
     public DeviceListItemDto get(@PathVariable String id) {
         return service.get(id);
     }
 
+    /** Scanned code -> device (QR payload, else device id, else device code) with its live SCADA reading. */
+    @GetMapping("/resolve")
+    public DeviceResolveDto resolve(@RequestParam String qr) {
+        return resolver.resolve(qr);
+    }
+
+    /** Device scan code (qr_payload, else the device id) through the shared QR engine. */
+    @GetMapping("/{id}/qr")
+    public ResponseEntity<byte[]> qr(@PathVariable String id,
+                                     @RequestParam(required = false) String format,
+                                     @RequestParam(required = false) String ecc,
+                                     @RequestParam(required = false) String preset,
+                                     @RequestParam(required = false) Integer size,
+                                     @RequestParam(required = false) Integer margin,
+                                     WebRequest request) throws Exception {
+        var dto = service.get(id);
+        String payload = dto.getScan() != null && dto.getScan().getQr() != null && !dto.getScan().getQr().isBlank()
+                ? dto.getScan().getQr() : dto.getId();
+        return QrCodeController.render(qrEngine,
+                QrCodeController.spec(payload, format, ecc, preset, size, margin), "device-" + id + "-qr", request);
+    }
+
     @GetMapping
     public List<DeviceListItemDto> listByPlant(@RequestParam String plantId) {
         return service.listByPlant(plantId);
     }
 
+    /** Devices in the plant carrying ALL given tags (?tag=a&tag=b), case-insensitive. */
+    @GetMapping("/by-tag")
+    public List<DeviceListItemDto> byTag(@RequestParam String plantId, @RequestParam("tag") List<String> tags) {
+        return service.listByTags(plantId, tags);
+    }
+
+    /** Tag -> device count for the plant, most used first. */
+    @GetMapping("/tags/facets")
+    public List<TagFacetDto> tagFacets(@RequestParam String plantId) {
+        return service.tagFacets(plantId);
+    }
+
+    /** Ranked search over ids, codes, names, tags and location text, e.g. ?q=PH-1 or ?q=filter gallery panel 3. */
+    @GetMapping("/search")
+    public List<DeviceSearchHitDto> search(@RequestParam String plantId,
+                                           @RequestParam String q,
+                                           @RequestParam(defaultValue = "20") int limit) {
+        return service.search(plantId, q, limit);
+    }
+
+    /** Place the device on a floor layer (or move it); the layer's spatial index is rebuilt on next query. */
+    @PutMapping("/{id}/location")
+    public DeviceListItemDto setLocation(@PathVariable String id, @RequestBody LocationUpdateDto dto) {
+        return service.setLocation(id, dto);
+    }
+
+    @DeleteMapping("/{id}/location")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clearLocation(@PathVariable String id) {
+        service.clearLocation(id);
+    }
+
+    /** Keyset page ordered by device id: pass the returned nextCursor as ?after= until it is null. */
+    @GetMapping("/page")
+    public DevicePageDto listPage(@RequestParam String plantId,
+                                  @RequestParam(required = false) String after,
+                                  @RequestParam(defaultValue = "500") int limit) {
+        return service.listPage(plantId, after, limit);
+    }
+
+    /** Whole plant as NDJSON (one DeviceListItemDto per line) or CSV, streamed from a DB cursor. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam String plantId,
+                                                        @RequestParam(defaultValue = "ndjson") String format) {
+        DeviceExportService.Format f = switch (format.toLowerCase()) {
+            case "ndjson", "jsonl" -> DeviceExportService.Format.NDJSON;
+            case "csv" -> DeviceExportService.Format.CSV;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv");
+        };
+        boolean csv = f == DeviceExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"devices-" + plantId.replaceAll("[^A-Za-z0-9_-]", "_") + (csv ? ".csv" : ".ndjson") + "\"")
+                .contentType(csv ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                                 : MediaType.parseMediaType("application/x-ndjson"))
+                .body(out -> export.export(plantId, f, out));
+    }
+
+    /**
+     * Bulk load; the raw request body is the file (curl --data-binary @devices.csv).
+     * CSV uses the export's column names (id, plant_id, area_id | area_name [+ area_level], tags "a|b", ...).
+     */
+    @PostMapping(value = "/import", consumes = MediaType.ALL_VALUE)
+    public DeviceImportReportDto importDevices(@RequestParam(defaultValue = "csv") String format,
+                                               @RequestParam(defaultValue = "false") boolean upsert,
+                                               InputStream body) throws IOException {
+        DeviceImportService.Format f = switch (format.toLowerCase()) {
+            case "csv" -> DeviceImportService.Format.CSV;
+            case "ndjson", "jsonl" -> DeviceImportService.Format.NDJSON;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or ndjson");
+        };
+        return importer.importDevices(body, f, upsert);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public DeviceListItemDto create(@Valid @RequestBody DeviceCreateDto dto) {
@@ -58,4 +172,15 @@ public class DeviceCrudController {
     public List<String> removeTag(@PathVariable String id, @PathVariable String tag) {
         return service.removeTag(id, tag);
     }
+
+    /** Apply one tag to many devices: {tag, deviceIds} or {tag, plantId[, system]}. */
+    @PostMapping("/tags/bulk")
+    public Map<String, Object> bulkAddTag(@RequestBody BulkTagDto dto) {
+        return Map.of("tag", dto.getTag(), "affected", service.bulkTag(dto, false));
+    }
+
+    @PostMapping("/tags/bulk/remove")
+    public Map<String, Object> bulkRemoveTag(@RequestBody BulkTagDto dto) {
+        return Map.of("tag", dto.getTag(), "affected", service.bulkTag(dto, true));
+    }
 }
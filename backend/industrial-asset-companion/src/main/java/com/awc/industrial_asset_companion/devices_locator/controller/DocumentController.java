@@ -0,0 +1,143 @@
+package com.awc.industrial_asset_companion.devices_locator.controller;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.DocDto;
+import com.awc.industrial_asset_companion.devices_locator.service.DocumentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+@RestController
+@RequestMapping({"/api/documents", "/v1/documents"})
+@RequiredArgsConstructor
+public class DocumentController {
+
+    // Tomcat NIO connector: set these request attributes and it sends the file with sendfile(2)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // the stored mime is whatever the uploader claimed: only these are rendered by the browser,
+    // anything else (html, svg, xml, ...) could run script on our origin and is downloaded instead
+    private static final Set<String> INLINE_TYPES = Set.of(
+            "application/pdf", "image/png", "image/jpeg", "image/gif", "image/webp", "image/bmp", "text/plain");
+
+    private final DocumentService documents;
+
+    /** Raw body upload (Content-Type = document mime); optionally linked to a device. */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public DocDto upload(@RequestParam(required = false) String title,
+                         @RequestParam(required = false) String kind,
+                         @RequestParam(required = false) String deviceId,
+                         @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String mime,
+                         InputStream body) throws IOException {
+        return documents.upload(body, mime, title, kind, deviceId);
+    }
+
+    /**
+     * Document bytes straight from the blob file: single byte ranges (206 / 416), If-Range,
+     * ETag / If-None-Match (304). Several ranges in one request get the whole document.
+     */
+    @GetMapping("/{id}/content")
+    public void content(@PathVariable UUID id, HttpServletRequest req, HttpServletResponse res) throws IOException {
+        send(documents.content(id), req, res);
+    }
+
+    /** Thumbnail or preview ("thumb" | "preview"), generated on first request if the upload's job hasn't run. */
+    @GetMapping("/{id}/variants/{variant}")
+    public void variant(@PathVariable UUID id, @PathVariable String variant,
+                        HttpServletRequest req, HttpServletResponse res) throws IOException {
+        send(documents.variant(id, variant), req, res);
+    }
+
+    private static void send(DocumentService.Content c, HttpServletRequest req, HttpServletResponse res) throws IOException {
+        res.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        res.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        res.setHeader("X-Content-Type-Options", "nosniff");
+        if (new ServletWebRequest(req, res).checkNotModified(c.etag())) return;
+
+        long size = c.size();
+        long start = 0, end = size - 1;
+        boolean partial = false;
+        String range = req.getHeader(HttpHeaders.RANGE);
+        String ifRange = req.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(c.etag()))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();   // malformed: ignore the header
+            }
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                    // HttpRange clamps the end but not the start: "bytes=20-" of a 10-byte file
+                    if (start >= size || start > end) throw new IllegalArgumentException("Range starts past the end");
+                    partial = true;
+                } catch (IllegalArgumentException e) {
+                    res.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    res.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+            }
+        }
+
+        long count = end - start + 1;
+        res.setStatus(partial ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        if (partial) res.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        String inline = inlineType(c.mime());
+        res.setContentType(inline != null ? inline : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        res.setHeader(HttpHeaders.CONTENT_DISPOSITION, (inline != null ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(c.title() != null && !c.title().isBlank() ? c.title() : "document", StandardCharsets.UTF_8)
+                .build().toString());
+        res.setContentLengthLong(count);
+        if ("HEAD".equals(req.getMethod()) || count <= 0) return;
+
+        if (Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORT))) {
+            req.setAttribute(SENDFILE_FILENAME, c.file().toAbsolutePath().toString());
+            req.setAttribute(SENDFILE_START, start);
+            req.setAttribute(SENDFILE_END, end + 1);   // exclusive
+            return;
+        }
+        // other containers: kernel-side copy where the channel allows it, never the whole file in heap
+        try (FileChannel file = FileChannel.open(c.file(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(res.getOutputStream());
+            for (long pos = start, left = count; left > 0; ) {
+                long n = file.transferTo(pos, left, out);
+                if (n <= 0) break;   // file shrank underneath us
+                pos += n;
+                left -= n;
+            }
+        }
+    }
+
+    /** The stored mime without parameters if the browser may render it inline; null otherwise. */
+    private static String inlineType(String mime) {
+        if (mime == null) return null;
+        int semi = mime.indexOf(';');
+        String type = (semi < 0 ? mime : mime.substring(0, semi)).trim().toLowerCase(Locale.ROOT);
+        if (!INLINE_TYPES.contains(type)) return null;
+        return type.equals("text/plain") ? "text/plain;charset=UTF-8" : type;
+    }
+}
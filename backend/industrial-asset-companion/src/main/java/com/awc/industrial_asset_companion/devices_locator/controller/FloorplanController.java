@@ -0,0 +1,44 @@
+package com.awc.industrial_asset_companion.devices_locator.controller;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.FloorplanPointDto;
+import com.awc.industrial_asset_companion.devices_locator.dto.RouteQueryDto;
+import com.awc.industrial_asset_companion.devices_locator.service.FloorplanIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/** Spatial queries over device markers of one floor layer (coordinates in the layer's CRS). */
+@RestController
+@RequestMapping({"/api/floorplan", "/v1/floorplan"})
+@RequiredArgsConstructor
+public class FloorplanController {
+
+    private final FloorplanIndex index;
+
+    /** Markers inside the viewport, for pan/zoom. */
+    @GetMapping("/layers/{layerId}/devices")
+    public List<FloorplanPointDto> viewport(@PathVariable UUID layerId,
+                                            @RequestParam double minX, @RequestParam double minY,
+                                            @RequestParam double maxX, @RequestParam double maxY,
+                                            @RequestParam(defaultValue = "2000") int limit) {
+        return index.within(layerId, minX, minY, maxX, maxY, limit);
+    }
+
+    /** Closest devices to a point, nearest first (maxDistance 0 = unbounded). */
+    @GetMapping("/layers/{layerId}/nearest")
+    public List<FloorplanPointDto> nearest(@PathVariable UUID layerId,
+                                           @RequestParam double x, @RequestParam double y,
+                                           @RequestParam(defaultValue = "10") int k,
+                                           @RequestParam(defaultValue = "0") double maxDistance) {
+        return index.nearest(layerId, x, y, k, maxDistance);
+    }
+
+    /** Devices within radius of a walking route, in the order they are passed. */
+    @PostMapping("/layers/{layerId}/along-route")
+    public List<FloorplanPointDto> alongRoute(@PathVariable UUID layerId, @RequestBody RouteQueryDto route) {
+        return index.alongRoute(layerId, route.getPoints(), route.getRadius(),
+                route.getLimit() == null ? FloorplanIndex.MAX_RESULTS : route.getLimit());
+    }
+}
@@ -3,12 +3,18 @@ package com.awc.industrial_asset_companion.devices_locator.controller;
 import com.awc.industrial_asset_companion.devices_locator.dto.*;
 import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
 import com.awc.industrial_asset_companion.devices_locator.service.PlantCrudService;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantDirectory;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantTreeCache;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Comparator;
 import java.util.List;
 
 @RestController
@@ -17,14 +23,27 @@ import java.util.List;
 public class PlantCrudController {
 
     private final PlantCrudService service;
+    private final PlantDirectory directory;
+    private final PlantTreeCache trees;
 
     @GetMapping
-    public List<Plant> list() {
-        return service.listPlants().stream()
-                .sorted(Comparator.comparing(Plant::getName, String.CASE_INSENSITIVE_ORDER))
-                .toList();
+    public List<PlantSummaryDto> list() {
+        return service.listSummaries();   // sorted by name, with counts
     }
     @GetMapping("/{id}") public Plant get(@PathVariable String id) { return service.get(id); }
+    @GetMapping("/{id}/counts") public PlantCountsDto counts(@PathVariable String id) { return service.counts(id); }
+
+    /** Plant -> areas -> devices in one body for offline clients; 304 when If-None-Match still matches. */
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<byte[]> tree(@PathVariable String id, WebRequest request) {
+        PlantTreeCache.Cached c = trees.tree(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (request.checkNotModified(c.etag())) return null;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .eTag(c.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(c.json());
+    }
 
     @PostMapping @ResponseStatus(HttpStatus.CREATED)
     public Plant create(@Valid @RequestBody PlantCreateDto dto) { return service.create(dto); }
@@ -39,11 +58,6 @@ public class PlantCrudController {
 
     @GetMapping("/options")
     public List<PlantOptionDto> options(@RequestParam(required = false) String q) {
-        return service.listPlants().stream()
-                .filter(p -> q == null || q.isBlank()
-                        || p.getName().toLowerCase().contains(q.toLowerCase())
-                        || p.getId().toLowerCase().contains(q.toLowerCase()))
-                .map(p -> new PlantOptionDto(p.getId(), p.getName()))
-                .toList();
+        return directory.options(q);
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.awc.industrial_asset_companion.devices_locator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTagDto {
+    private String tag;
+    // target: explicit devices, or every device of a plant (optionally one system, e.g. "Filters")
+    private List<String> deviceIds;
+    private String plantId;
+    private String system;
+}
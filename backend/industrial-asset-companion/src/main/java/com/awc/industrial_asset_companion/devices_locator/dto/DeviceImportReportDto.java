@@ -0,0 +1,24 @@
+package com.awc.industrial_asset_companion.devices_locator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceImportReportDto {
+    private int rows;        // data rows read (header excluded)
+    private int imported;
+    private int failed;
+    private long millis;
+    private boolean errorsTruncated;   // only the first N row errors are listed
+    private List<RowError> errors;
+
+    /** line = CSV record / NDJSON line number (CSV header is line 1). */
+    public record RowError(long line, String deviceId, String message) {}
+}
@@ -0,0 +1,17 @@
+package com.awc.industrial_asset_companion.devices_locator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DevicePageDto {
+    private List<DeviceListItemDto> items;
+    private String nextCursor;   // pass as ?after= for the next page; null on the last page
+}
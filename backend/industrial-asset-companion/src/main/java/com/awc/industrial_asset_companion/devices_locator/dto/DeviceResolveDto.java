@@ -0,0 +1,17 @@
+package com.awc.industrial_asset_companion.devices_locator.dto;
+
+import com.awc.industrial_asset_companion.devices_locator.scada.ScadaReadingDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceResolveDto {
+    private DeviceListItemDto device;   // with area, location, docs, tags
+    private ScadaReadingDto reading;    // live value for the device tag; null if SCADA has none
+    private String matchedBy;           // "qr" | "id" | "code"
+}
@@ -0,0 +1,12 @@
+package com.awc.industrial_asset_companion.devices_locator.dto;
+
+/** Search result row: enough to render a pick list; GET /api/devices/{id} for the full device. */
+public record DeviceSearchHitDto(
+        String id,
+        String name,
+        String type,
+        String system,
+        String area,
+        String panel,
+        int score
+) {}
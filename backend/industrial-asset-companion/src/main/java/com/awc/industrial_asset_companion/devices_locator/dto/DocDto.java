@@ -1,10 +1,14 @@
 package com.awc.industrial_asset_companion.devices_locator.dto;
 
+import com.awc.industrial_asset_companion.devices_locator.service.DocumentVariant;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,4 +17,17 @@ public class DocDto {
     private String id;
     private String kind;
     private String title;
+    private String mime;
+
+    // variant id ("thumb", "preview") -> URL; derived on first request if not there yet
+    private Map<String, String> variants;
+
+    /** Variant links for a document of this mime type (null if it has none). */
+    public static Map<String, String> variantUrls(String id, String mime) {
+        var vs = DocumentVariant.forMime(mime);
+        if (vs.isEmpty()) return null;
+        Map<String, String> out = new LinkedHashMap<>();
+        for (DocumentVariant v : vs) out.put(v.id(), "/api/documents/" + id + "/variants/" + v.id());
+        return out;
+    }
 }
@@ -0,0 +1,16 @@
+package com.awc.industrial_asset_companion.devices_locator.dto;
+
+/**
+ * A device marker on a floor layer. distance: from the query point (nearest) or from the
+ * route (along-route), null for viewport queries; along: position along the route.
+ */
+public record FloorplanPointDto(
+        String id,
+        String name,
+        String type,
+        String system,
+        double x,
+        double y,
+        Double distance,
+        Double along
+) {}
@@ -0,0 +1,16 @@
+package com.awc.industrial_asset_companion.devices_locator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LocationUpdateDto {
+    private String layerId;  // floor layer UUID
+    private Double x;        // layer coordinates (e.g. SVG px)
+    private Double y;
+}
@@ -0,0 +1,5 @@
+package com.awc.industrial_asset_companion.devices_locator.dto;
+
+public record PlantCountsDto(long devices, long areas, long documents) {
+    public static final PlantCountsDto EMPTY = new PlantCountsDto(0, 0, 0);
+}
@@ -0,0 +1,24 @@
+package com.awc.industrial_asset_companion.devices_locator.dto;
+
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Plant list row: the plant's own fields (same JSON as the entity) plus its counts. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlantSummaryDto {
+    private String id;
+    private String name;
+    private String kind;
+    private Boolean isActive;
+    private PlantCountsDto counts;
+
+    public static PlantSummaryDto of(Plant p, PlantCountsDto counts) {
+        return new PlantSummaryDto(p.getId(), p.getName(), p.getKind(), p.getIsActive(), counts);
+    }
+}
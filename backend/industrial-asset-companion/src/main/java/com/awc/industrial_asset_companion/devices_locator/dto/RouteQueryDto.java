@@ -0,0 +1,20 @@
+package com.awc.industrial_asset_companion.devices_locator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RouteQueryDto {
+    public record Point(double x, double y) {}
+
+    private List<Point> points;   // polyline in layer coordinates, walk order
+    private double radius;        // max distance from the route
+    private Integer limit;
+}
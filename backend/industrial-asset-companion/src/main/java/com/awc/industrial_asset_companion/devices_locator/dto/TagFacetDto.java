@@ -0,0 +1,4 @@
+package com.awc.industrial_asset_companion.devices_locator.dto;
+
+public record TagFacetDto(String tag, int count) {
+}
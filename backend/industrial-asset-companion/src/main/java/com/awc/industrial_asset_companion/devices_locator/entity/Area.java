@@ -1,5 +1,6 @@
 package com.awc.industrial_asset_companion.devices_locator.entity;
 
+import com.awc.industrial_asset_companion.sync.ChangeTracker;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,7 +10,8 @@ import lombok.NoArgsConstructor;
 import java.util.UUID;
 
 @Entity
-@Table(name = "area")
+@EntityListeners(ChangeTracker.class)
+@Table(name = "area", indexes = @Index(name = "ix_area_plant_id", columnList = "plant_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,11 +2,19 @@ package com.awc.industrial_asset_companion.devices_locator.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
-@Table(name = "device")
+@Table(name = "device", indexes = {
+        // per-plant lists and keyset pages (plant_id = ? and id > ? order by id)
+        @Index(name = "ix_device_plant_id", columnList = "plant_id, id"),
+        // scan fallback when a label carries the device code instead of the QR payload
+        @Index(name = "ix_device_code", columnList = "device_code")
+}, uniqueConstraints = {
+        // one device per scan: SHA-256 of the normalized qr_payload (service.QrCodes)
+        @UniqueConstraint(name = "uk_device_qr_hash", columnNames = "qr_hash")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,16 +49,23 @@ public class Device {
     @Column(name = "qr_payload")
     private String qrPayload;
 
+    // kept in step with qrPayload on every write path; null when there is no payload
+    @Column(name = "qr_hash", length = 32)
+    private byte[] qrHash;
+
     @Column(name = "device_code")
     private String deviceCode;
 
     // ✅ MySQL-friendly tags: store as element collection (join table)
+    // normalized (trim + lower-case, see service.Tags) on every write path; a set, one row per tag
     @ElementCollection
     @CollectionTable(
             name = "device_tag",
-            joinColumns = @JoinColumn(name = "device_id")
+            joinColumns = @JoinColumn(name = "device_id"),
+            indexes = @Index(name = "ix_device_tag_tag", columnList = "tag"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_device_tag", columnNames = {"device_id", "tag"})
     )
     @Column(name = "tag", length = 128)
     @Builder.Default
-    private List<String> tags = new ArrayList<>();
+    private Set<String> tags = new LinkedHashSet<>();
 }
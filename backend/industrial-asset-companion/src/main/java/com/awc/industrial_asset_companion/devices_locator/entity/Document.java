@@ -1,5 +1,6 @@
 package com.awc.industrial_asset_companion.devices_locator.entity;
 
+import com.awc.industrial_asset_companion.sync.ChangeTracker;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ChangeTracker.class)
 @Table(name="document")
 @Data
 @NoArgsConstructor
@@ -20,6 +22,7 @@ public class Document {
     private UUID id;
     private String title;                 // "Filters P&ID page 1"
     private String kind;                  // "PID", "Datasheet", "Photo"
-    @Column(name="blob_key") private String blobKey;
+    @Column(name="blob_key") private String blobKey;   // sha256 hex, see service.BlobStore
     private String mime;
+    @Column(name="size_bytes") private Long sizeBytes;
 }
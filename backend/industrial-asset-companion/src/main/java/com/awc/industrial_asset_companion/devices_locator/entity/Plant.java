@@ -1,7 +1,9 @@
 package com.awc.industrial_asset_companion.devices_locator.entity;
 
+import com.awc.industrial_asset_companion.sync.ChangeTracker;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -11,6 +13,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "plant")
+@EntityListeners(ChangeTracker.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
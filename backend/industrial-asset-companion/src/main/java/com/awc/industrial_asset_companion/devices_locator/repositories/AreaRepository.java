@@ -1,10 +1,18 @@
 package com.awc.industrial_asset_companion.devices_locator.repositories;
 
 import com.awc.industrial_asset_companion.devices_locator.entity.Area;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.PlantCountRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface AreaRepository extends JpaRepository<Area, UUID> {
-}
+    List<Area> findByPlantId(String plantId);
+
+    long countByPlantId(String plantId);
 
+    @Query("select new com.awc.industrial_asset_companion.devices_locator.repositories.projection.PlantCountRow(a.plantId, count(a)) from Area a group by a.plantId")
+    List<PlantCountRow> countGroupedByPlant();
+}
@@ -1,10 +1,23 @@
 package com.awc.industrial_asset_companion.devices_locator.repositories;
 
 import com.awc.industrial_asset_companion.devices_locator.entity.DeviceLocation;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DevicePointRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface DeviceLocationRepository extends JpaRepository<DeviceLocation, String> {
     Optional < DeviceLocation> findFirstByDeviceId(String deviceId);
-}
\ No newline at end of file
+
+    @Query("""
+           select new com.awc.industrial_asset_companion.devices_locator.repositories.projection.DevicePointRow(
+                  l.deviceId, d.plantId, d.name, d.type, d.system, l.x, l.y)
+           from DeviceLocation l join l.device d
+           where l.layerId = :layerId and l.x is not null and l.y is not null
+           """)
+    List<DevicePointRow> findPointsByLayerId(@Param("layerId") UUID layerId);
+}
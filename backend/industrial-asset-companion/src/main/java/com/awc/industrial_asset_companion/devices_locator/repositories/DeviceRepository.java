@@ -1,20 +1,167 @@
 package com.awc.industrial_asset_companion.devices_locator.repositories;
 
 import com.awc.industrial_asset_companion.devices_locator.entity.Device;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceDocRow;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceListRow;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceSearchRow;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceTagRow;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.PlantCountRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface DeviceRepository extends JpaRepository<Device, String> {
     List<Device> findByPlantId(String plantId);
 
+    /* ---- existence / counts: index-only on ix_device_plant_id ---- */
+
+    boolean existsByPlantId(String plantId);
+
+    long countByPlantId(String plantId);
+
+    @Query("select new com.awc.industrial_asset_companion.devices_locator.repositories.projection.PlantCountRow(d.plantId, count(d)) from Device d group by d.plantId")
+    List<PlantCountRow> countGroupedByPlant();
+
     @Query("""
-           select d
-           from Device d
-           left join fetch d.area a
-           where d.plantId = :plantId
+           select count(distinct dd.documentId) from DeviceDocument dd
+           where dd.deviceId in (select d.id from Device d where d.plantId = :plantId)
            """)
-    List<Device> findByPlantIdFetchArea(@Param("plantId") String plantId);
+    long countDocumentsByPlantId(@Param("plantId") String plantId);
+
+    @Query("""
+           select new com.awc.industrial_asset_companion.devices_locator.repositories.projection.PlantCountRow(d.plantId, count(distinct dd.documentId))
+           from DeviceDocument dd join Device d on d.id = dd.deviceId
+           group by d.plantId
+           """)
+    List<PlantCountRow> countDocumentsGroupedByPlant();
+
+    @Query("select d.plantId from Device d where d.id = :id")
+    Optional<String> findPlantIdById(@Param("id") String id);
+
+    /* ---- scan resolution ---- */
+
+    @Query("select d.id from Device d where d.qrHash = :hash")
+    Optional<String> findIdByQrHash(@Param("hash") byte[] hash);
+
+    @Query("select d.id from Device d where d.deviceCode = :code")
+    List<String> findIdsByDeviceCode(@Param("code") String code);
+
+    @Query("select distinct d.plantId from Device d where d.id in :ids")
+    List<String> findPlantIdsByIds(@Param("ids") Collection<String> ids);
+
+    /* ---- tag mutations: set semantics, one statement per changed tag (uk_device_tag) ---- */
+
+    @Modifying
+    @Query(value = "insert ignore into device_tag (device_id, tag) values (:id, :tag)", nativeQuery = true)
+    int insertTag(@Param("id") String id, @Param("tag") String tag);
+
+    @Modifying
+    @Query(value = "delete from device_tag where device_id = :id and tag = :tag", nativeQuery = true)
+    int deleteTag(@Param("id") String id, @Param("tag") String tag);
+
+    @Modifying
+    @Query(value = """
+           insert ignore into device_tag (device_id, tag)
+           select d.id, :tag from device d where d.id in (:ids)
+           """, nativeQuery = true)
+    int insertTagForDevices(@Param("tag") String tag, @Param("ids") Collection<String> ids);
+
+    /** system == null: every device of the plant. */
+    @Modifying
+    @Query(value = """
+           insert ignore into device_tag (device_id, tag)
+           select d.id, :tag from device d
+           where d.plant_id = :plantId and (:system is null or d.system_name = :system)
+           """, nativeQuery = true)
+    int insertTagForPlant(@Param("tag") String tag, @Param("plantId") String plantId, @Param("system") String system);
+
+    @Modifying
+    @Query(value = "delete from device_tag where tag = :tag and device_id in (:ids)", nativeQuery = true)
+    int deleteTagForDevices(@Param("tag") String tag, @Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query(value = """
+           delete t from device_tag t join device d on d.id = t.device_id
+           where t.tag = :tag and d.plant_id = :plantId and (:system is null or d.system_name = :system)
+           """, nativeQuery = true)
+    int deleteTagForPlant(@Param("tag") String tag, @Param("plantId") String plantId, @Param("system") String system);
+
+    /* ---- list read path: 3 queries per plant (rows, tags, docs), DTO projections only ---- */
+
+    String LIST_ROW = """
+           select new com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceListRow(
+                  d.id, d.plantId, d.type, d.name, d.system,
+                  d.panel, d.bucket, d.aisle, d.navText, d.qrPayload,
+                  a.id, a.name, a.level,
+                  l.layerId, l.x, l.y)
+           from Device d
+           left join d.area a
+           left join DeviceLocation l on l.deviceId = d.id
+           """;
+
+    String TAG_ROW = """
+           select new com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceTagRow(d.id, t)
+           from Device d join d.tags t
+           """;
+
+    String DOC_ROW = """
+           select new com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceDocRow(
+                  dd.deviceId, doc.id, doc.kind, doc.title, doc.mime)
+           from DeviceDocument dd
+           join Document doc on doc.id = dd.documentId
+           """;
+
+    @Query(LIST_ROW + "where d.plantId = :plantId")
+    List<DeviceListRow> findListRowsByPlantId(@Param("plantId") String plantId);
+
+    @Query(LIST_ROW + "where d.id = :id")
+    Optional<DeviceListRow> findListRowById(@Param("id") String id);
+
+    @Query(LIST_ROW + "where d.id in :ids order by d.id")
+    List<DeviceListRow> findListRowsByIds(@Param("ids") Collection<String> ids);
+
+    /** Keyset page: ids strictly after {@code after} ("" for the first page), limit via pageable size. */
+    @Query(LIST_ROW + "where d.plantId = :plantId and d.id > :after order by d.id")
+    List<DeviceListRow> findListRowsAfter(@Param("plantId") String plantId, @Param("after") String after, Pageable limit);
+
+    /* ---- search index source ---- */
+
+    String SEARCH_ROW = """
+           select new com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceSearchRow(
+                  d.id, d.plantId, d.type, d.name, d.system,
+                  d.panel, d.bucket, d.aisle, d.navText, d.qrPayload, d.deviceCode,
+                  a.name, a.level)
+           from Device d
+           left join d.area a
+           """;
+
+    @Query(SEARCH_ROW + "where d.plantId = :plantId")
+    List<DeviceSearchRow> findSearchRowsByPlantId(@Param("plantId") String plantId);
+
+    @Query(SEARCH_ROW + "where d.id = :id")
+    Optional<DeviceSearchRow> findSearchRowById(@Param("id") String id);
+
+    @Query(TAG_ROW + "where d.plantId = :plantId")
+    List<DeviceTagRow> findTagRowsByPlantId(@Param("plantId") String plantId);
+
+    @Query(TAG_ROW + "where d.id = :id")
+    List<DeviceTagRow> findTagRowsByDeviceId(@Param("id") String id);
+
+    @Query(TAG_ROW + "where d.id in :ids")
+    List<DeviceTagRow> findTagRowsByDeviceIds(@Param("ids") Collection<String> ids);
+
+    @Query(DOC_ROW + "where dd.deviceId in (select d.id from Device d where d.plantId = :plantId) order by doc.title")
+    List<DeviceDocRow> findDocRowsByPlantId(@Param("plantId") String plantId);
+
+    @Query(DOC_ROW + "where dd.deviceId in :ids order by doc.title")
+    List<DeviceDocRow> findDocRowsByDeviceIds(@Param("ids") Collection<String> ids);
+
+    @Query(DOC_ROW + "where dd.deviceId = :id order by doc.title")
+    List<DeviceDocRow> findDocRowsByDeviceId(@Param("id") String id);
 }
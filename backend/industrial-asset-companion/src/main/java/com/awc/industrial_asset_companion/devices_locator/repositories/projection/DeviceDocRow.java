@@ -0,0 +1,6 @@
+package com.awc.industrial_asset_companion.devices_locator.repositories.projection;
+
+import java.util.UUID;
+
+/** A document linked to a device through device_document. */
+public record DeviceDocRow(String deviceId, UUID documentId, String kind, String title, String mime) {}
@@ -0,0 +1,23 @@
+package com.awc.industrial_asset_companion.devices_locator.repositories.projection;
+
+import java.util.UUID;
+
+/** One device with its area and map anchor, flattened for the list read path (no managed entities). */
+public record DeviceListRow(
+        String id,
+        String plantId,
+        String type,
+        String name,
+        String system,
+        String panel,
+        String bucket,
+        String aisle,
+        String navText,
+        String qrPayload,
+        UUID areaId,
+        String areaName,
+        String areaLevel,
+        UUID layerId,
+        Double x,
+        Double y
+) {}
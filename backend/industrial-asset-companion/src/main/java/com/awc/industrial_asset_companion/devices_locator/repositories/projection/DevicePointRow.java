@@ -0,0 +1,12 @@
+package com.awc.industrial_asset_companion.devices_locator.repositories.projection;
+
+/** A placed device on one floor layer (source of the floorplan spatial index). */
+public record DevicePointRow(
+        String deviceId,
+        String plantId,
+        String name,
+        String type,
+        String system,
+        double x,
+        double y
+) {}
@@ -0,0 +1,18 @@
+package com.awc.industrial_asset_companion.devices_locator.repositories.projection;
+
+/** The searchable text of one device (tags come separately as {@link DeviceTagRow}s). */
+public record DeviceSearchRow(
+        String id,
+        String plantId,
+        String type,
+        String name,
+        String system,
+        String panel,
+        String bucket,
+        String aisle,
+        String navText,
+        String qrPayload,
+        String deviceCode,
+        String areaName,
+        String areaLevel
+) {}
@@ -0,0 +1,3 @@
+package com.awc.industrial_asset_companion.devices_locator.repositories.projection;
+
+public record DeviceTagRow(String deviceId, String tag) {}
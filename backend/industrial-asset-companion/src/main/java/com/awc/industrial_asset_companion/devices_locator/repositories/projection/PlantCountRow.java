@@ -0,0 +1,4 @@
+package com.awc.industrial_asset_companion.devices_locator.repositories.projection;
+
+/** One row of a per-plant GROUP BY count. */
+public record PlantCountRow(String plantId, Long count) {}
@@ -0,0 +1,170 @@
+package com.awc.industrial_asset_companion.devices_locator.scada;
+
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantDirectory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The application's ScadaDataSource: routes each plant to its {@link ScadaAdapter}
+ * (app.scada.routes=PLANT:adapter,...; others go to app.scada.default-adapter, or to the only
+ * adapter there is). Every plant read runs on its own virtual thread under its adapter's timeout
+ * (app.scada.timeout-ms, per adapter app.scada.adapter-timeout-ms=adapter:ms,...).
+ * <p>
+ * "ALL" fans out to every active plant at once and waits at most the longest timeout; a plant
+ * that fails or runs late contributes its last good readings flagged stale instead of holding
+ * up the others.
+ */
+@Slf4j
+@Component
+public class CompositeScadaDataSource implements ScadaDataSource {
+
+    private final Map<String, ScadaAdapter> adapters = new HashMap<>();
+    private final PlantDirectory plants;
+    private final Map<String, String> routes;
+    private final String defaultAdapter;
+    private final long timeoutMs;
+    private final Map<String, Long> adapterTimeoutMs;
+    private final ExecutorService reads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("scada-read-", 0).factory());
+    // last successful read per plant: served, flagged stale, when a read fails or times out
+    private final Map<String, PlantReadings> lastGood = new ConcurrentHashMap<>();
+
+    public CompositeScadaDataSource(List<ScadaAdapter> adapters, PlantDirectory plants,
+                                    @Value("${app.scada.routes:}") String routes,
+                                    @Value("${app.scada.default-adapter:}") String defaultAdapter,
+                                    @Value("${app.scada.timeout-ms:3000}") long timeoutMs,
+                                    @Value("${app.scada.adapter-timeout-ms:}") String adapterTimeouts) {
+        for (ScadaAdapter a : adapters) {
+            if (this.adapters.putIfAbsent(a.id(), a) != null) throw new IllegalStateException("Two SCADA adapters with id " + a.id());
+        }
+        this.plants = plants;
+        this.routes = pairs("app.scada.routes", routes);
+        this.defaultAdapter = !defaultAdapter.isBlank() ? defaultAdapter.trim()
+                : adapters.size() == 1 ? adapters.get(0).id() : null;
+        this.timeoutMs = Math.max(1, timeoutMs);
+        Map<String, Long> t = new HashMap<>();
+        pairs("app.scada.adapter-timeout-ms", adapterTimeouts).forEach((k, v) -> t.put(k, Math.max(1, Long.parseLong(v))));
+        this.adapterTimeoutMs = Map.copyOf(t);
+        this.routes.forEach((plant, a) -> {
+            if (!this.adapters.containsKey(a)) log.warn("app.scada.routes: plant {} routed to unknown adapter '{}'", plant, a);
+        });
+        log.info("SCADA adapters {}; default {}", this.adapters.keySet(), this.defaultAdapter);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reads.shutdownNow();
+    }
+
+    @Override
+    public List<Reading> readSnapshot(String plantId) {
+        List<Reading> out = new ArrayList<>();
+        for (PlantReadings p : readPlants(plantId)) out.addAll(p.readings());
+        return out;
+    }
+
+    @Override
+    public List<PlantReadings> readPlants(String plantId) {
+        List<String> ids = isAll(plantId) ? activePlants() : List.of(plantId.trim());
+
+        // fan out: every plant on its own virtual thread
+        long start = System.nanoTime();
+        List<Future<List<Reading>>> futures = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            ScadaAdapter a = adapterFor(id);
+            futures.add(a == null ? null : reads.submit(() -> a.read(id)));
+        }
+
+        List<PlantReadings> out = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            String source = sourceFor(id);
+            Future<List<Reading>> f = futures.get(i);
+            if (f == null) {
+                out.add(stale(id, source, "No SCADA adapter for plant"));
+                continue;
+            }
+            // deadlines run from the fan-out, not from when we got round to this plant
+            long left = timeoutFor(source) - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            try {
+                List<Reading> readings = f.get(Math.max(0, left), TimeUnit.MILLISECONDS);
+                PlantReadings fresh = new PlantReadings(id, source, readings == null ? List.of() : List.copyOf(readings),
+                        Instant.now(), false, null);
+                lastGood.put(id, fresh);
+                out.add(fresh);
+            } catch (TimeoutException e) {
+                f.cancel(true);
+                out.add(stale(id, source, "Timed out after " + timeoutFor(source) + " ms"));
+            } catch (ExecutionException e) {
+                log.warn("SCADA read of plant {} via {} failed: {}", id, source, e.getCause().toString());
+                out.add(stale(id, source, e.getCause().toString()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                f.cancel(true);
+                out.add(stale(id, source, "Interrupted"));
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public String sourceFor(String plantId) {
+        String routed = routes.get(plantId);
+        return routed != null ? routed : defaultAdapter != null ? defaultAdapter : "none";
+    }
+
+    /* ---------------- internals ---------------- */
+
+    private ScadaAdapter adapterFor(String plantId) {
+        return adapters.get(sourceFor(plantId));
+    }
+
+    private long timeoutFor(String source) {
+        return adapterTimeoutMs.getOrDefault(source, timeoutMs);
+    }
+
+    private PlantReadings stale(String plantId, String source, String error) {
+        PlantReadings last = lastGood.get(plantId);
+        return last == null
+                ? new PlantReadings(plantId, source, List.of(), null, true, error)
+                : new PlantReadings(plantId, source, last.readings(), last.readAt(), true, error);
+    }
+
+    private List<String> activePlants() {
+        List<String> ids = new ArrayList<>();
+        for (Plant p : plants.all()) {
+            if (!Boolean.FALSE.equals(p.getIsActive())) ids.add(p.getId());
+        }
+        return ids;
+    }
+
+    private static boolean isAll(String plantId) {
+        return plantId == null || plantId.isBlank() || "ALL".equalsIgnoreCase(plantId.trim());
+    }
+
+    private static Map<String, String> pairs(String property, String spec) {
+        Map<String, String> out = new HashMap<>();
+        if (spec == null || spec.isBlank()) return out;
+        for (String part : spec.split(",")) {
+            int c = part.lastIndexOf(':');
+            if (c <= 0) throw new IllegalArgumentException(property + ": expected KEY:value, got '" + part.trim() + "'");
+            out.put(part.substring(0, c).trim(), part.substring(c + 1).trim());
+        }
+        return Map.copyOf(out);
+    }
+}
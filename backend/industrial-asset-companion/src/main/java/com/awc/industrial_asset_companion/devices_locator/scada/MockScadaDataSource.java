@@ -1,7 +1,7 @@
 package com.awc.industrial_asset_companion.devices_locator.scada;
 
 import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
-import com.awc.industrial_asset_companion.devices_locator.service.PlantCrudService;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
@@ -16,40 +16,45 @@ import java.util.Locale;
 @Component
 @Profile({"dev","mock"})
 @RequiredArgsConstructor
-public class MockScadaDataSource implements ScadaDataSource {
+public class MockScadaDataSource implements ScadaAdapter {
 
-    private final PlantCrudService plantService; // <- use your real plants to normalize
+    private final PlantDirectory plants; // <- use your real plants to normalize
 
     @Override
-    public List<Reading> readSnapshot(String plantId) {
+    public String id() {
+        return "mock";
+    }
+
+    @Override
+    public List<ScadaDataSource.Reading> read(String plantId) {
         final String raw = (plantId == null || plantId.isBlank()) ? "ALL" : plantId;
         final String canon = canonicalPlantId(raw);
 
-        log.info("MockScadaDataSource.readSnapshot raw='{}' canon='{}'", raw, canon);
+        log.debug("MockScadaDataSource.read raw='{}' canon='{}'", raw, canon);
 
         Instant now = Instant.now();
-        List<Reading> out = new ArrayList<>();
+        List<ScadaDataSource.Reading> out = new ArrayList<>();
 
         // ULLRICH sample
         if ("ALL".equals(canon) || "ULLRICH".equals(canon)) {
-            out.add(new Reading("PH-101","pH","",             drift(7.2, 0.05),  now, "ULLRICH"));
-            out.add(new Reading("PH-102","pH","",             drift(7.1, 0.05),  now, "ULLRICH"));
-            out.add(new Reading("TUR-201","Turbidity","NTU",  drift(0.10, 0.05), now, "ULLRICH"));
-            out.add(new Reading("CL2-301","Free Chlor","mg/L",drift(2.0, 0.20),  now, "ULLRICH"));
-            out.add(new Reading("FLOW-701","Flow","MGD",      drift(11.0, 1.2),  now, "ULLRICH"));
-            out.add(new Reading("TEMP-001","Temperature","°C",drift(23.0, 1.0),  now, "ULLRICH"));
+            out.add(new ScadaDataSource.Reading("PH-101","pH","",             drift(7.2, 0.05),  now, "ULLRICH"));
+            out.add(new ScadaDataSource.Reading("PH-102","pH","",             drift(7.1, 0.05),  now, "ULLRICH"));
+            out.add(new ScadaDataSource.Reading("TUR-201","Turbidity","NTU",  drift(0.10, 0.05), now, "ULLRICH"));
+            out.add(new ScadaDataSource.Reading("CL2-301","Free Chlor","mg/L",drift(2.0, 0.20),  now, "ULLRICH"));
+            out.add(new ScadaDataSource.Reading("FLOW-701","Flow","MGD",      drift(11.0, 1.2),  now, "ULLRICH"));
+            out.add(new ScadaDataSource.Reading("TEMP-001","Temperature","°C",drift(23.0, 1.0),  now, "ULLRICH"));
         }
 
         // DAVIS sample
         if ("ALL".equals(canon) || "DAVIS".equals(canon)) {
-            out.add(new Reading("PH-501","pH","",             drift(7.3, 0.05),  now, "DAVIS"));
-            out.add(new Reading("TUR-501","Turbidity","NTU",  drift(0.08, 0.05), now, "DAVIS"));
-            out.add(new Reading("CL2-501","Free Chlor","mg/L",drift(1.7, 0.25),  now, "DAVIS"));
-            out.add(new Reading("FLOW-501","Flow","MGD",      drift(9.5, 1.0),   now, "DAVIS"));
-            out.add(new Reading("TEMP-501","Temperature","°C",drift(22.0, 1.2),  now, "DAVIS"));
+            out.add(new ScadaDataSource.Reading("PH-501","pH","",             drift(7.3, 0.05),  now, "DAVIS"));
+            out.add(new ScadaDataSource.Reading("TUR-501","Turbidity","NTU",  drift(0.08, 0.05), now, "DAVIS"));
+            out.add(new ScadaDataSource.Reading("CL2-501","Free Chlor","mg/L",drift(1.7, 0.25),  now, "DAVIS"));
+            out.add(new ScadaDataSource.Reading("FLOW-501","Flow","MGD",      drift(9.5, 1.0),   now, "DAVIS"));
+            out.add(new ScadaDataSource.Reading("TEMP-501","Temperature","°C",drift(22.0, 1.2),  now, "DAVIS"));
         }
 
-        log.info("MockScadaDataSource -> {} readings", out.size());
+        log.debug("MockScadaDataSource -> {} readings", out.size());
         return out;
     }
 
@@ -59,16 +64,12 @@ public class MockScadaDataSource implements ScadaDataSource {
         String u = input.toUpperCase(Locale.ROOT);
         if ("ALL".equals(u)) return "ALL";
 
-        // 1) Try DB lookup first (handles UUIDs / custom IDs)
-        try {
-            Plant p = plantService.get(input); // will succeed if 'input' is the DB id
-            if (p != null && p.getName() != null) {
-                String name = p.getName().toUpperCase(Locale.ROOT);
-                if (name.contains("ULLRICH")) return "ULLRICH";
-                if (name.contains("DAVIS"))   return "DAVIS";
-            }
-        } catch (Exception ignore) {
-            // not a direct DB id; fall through to heuristics
+        // 1) Try the plant directory first (handles UUIDs / custom IDs)
+        String name = plants.find(input).map(Plant::getName).orElse(null);
+        if (name != null) {
+            String n = name.toUpperCase(Locale.ROOT);
+            if (n.contains("ULLRICH")) return "ULLRICH";
+            if (n.contains("DAVIS"))   return "DAVIS";
         }
 
         // 2) Heuristic on the string itself (works for names or codes sent directly)
@@ -7,10 +7,15 @@ import java.util.List;
 
 @Component
 @Profile("prod")
-public class OpcUaScadaDataSource implements ScadaDataSource {
+public class OpcUaScadaDataSource implements ScadaAdapter {
     // inject OPC UA client / connections
     @Override
-    public List<Reading> readSnapshot(String plantId) {
+    public String id() {
+        return "opcua";
+    }
+
+    @Override
+    public List<ScadaDataSource.Reading> read(String plantId) {
         // 1) Resolve tag list for plant (DB or config)
         // 2) Batch-read current values from SCADA
         // 3) Map to Reading(tag, type, unit, value, timestamp, plantId)
@@ -0,0 +1,17 @@
+package com.awc.industrial_asset_companion.devices_locator.scada;
+
+import java.util.List;
+
+/**
+ * One SCADA backend (OPC UA server, Modbus gateway, historian, ...). Plants are routed to
+ * adapters by {@link CompositeScadaDataSource}; an adapter is only ever asked for one plant
+ * at a time and may block (it runs on its own virtual thread, under a timeout).
+ */
+public interface ScadaAdapter {
+
+    /** Name used in app.scada.routes ("mock", "opcua", "modbus", ...). */
+    String id();
+
+    /** Current readings of one plant. */
+    List<ScadaDataSource.Reading> read(String plantId) throws Exception;
+}
@@ -1,11 +1,19 @@
 package com.awc.industrial_asset_companion.devices_locator.scada;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
 
@@ -15,9 +23,24 @@ import java.util.*;
 public class ScadaController {
 
     private final ScadaSnapshotService snapshotService;
+    private final ScadaReadingStore store;
+    private final ObjectMapper json;
 
     @GetMapping("/readings")
     public Map<String, Object> getReadings(@RequestParam(required = false) String plantId) {
         return snapshotService.getSnapshot(plantId);
     }
+
+    /** Polled history of one tag as columnar arrays (epoch ms, value, quality), oldest first. */
+    @GetMapping("/history")
+    public ResponseEntity<byte[]> history(@RequestParam String plantId, @RequestParam String tag,
+                                          @RequestParam(defaultValue = "120") int limit) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+        try (JsonGenerator gen = json.getFactory().createGenerator(body)) {
+            if (!store.writeHistory(plantId, tag, limit, gen)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No polled samples for " + tag);
+            }
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body.toByteArray());
+    }
 }
\ No newline at end of file
@@ -15,10 +15,32 @@ public interface ScadaDataSource {
             String plantId        // which plant produced this reading
     ) {}
 
+    /**
+     * One plant's part of a snapshot. stale: these are the last good readings (from readAt),
+     * because this read failed or timed out (error says why); readings may then be empty.
+     */
+    record PlantReadings(
+            String plantId,
+            String source,        // adapter id that served the plant ("opcua", "modbus", ...)
+            List<Reading> readings,
+            Instant readAt,
+            boolean stale,
+            String error
+    ) {}
+
     /**
      * Return the current readings for the given plant.
      * If plantId == "ALL" or null/blank, return a union of all plants you serve.
      */
     List<Reading> readSnapshot(String plantId);
 
-}
\ No newline at end of file
+    /** Same as {@link #readSnapshot}, split per plant with freshness; single-source default. */
+    default List<PlantReadings> readPlants(String plantId) {
+        return List.of(new PlantReadings(plantId, sourceFor(plantId), readSnapshot(plantId), Instant.now(), false, null));
+    }
+
+    /** Which backend serves the plant; callers that throttle per backend key on this. */
+    default String sourceFor(String plantId) {
+        return "default";
+    }
+}
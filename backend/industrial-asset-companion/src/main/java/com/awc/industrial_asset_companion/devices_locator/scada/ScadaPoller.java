@@ -0,0 +1,260 @@
+package com.awc.industrial_asset_companion.devices_locator.scada;
+
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantDirectory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls every active plant's SCADA data source at its own rate and keeps the result in
+ * {@link ScadaReadingStore}, failed reads included (last good readings flagged stale, with the
+ * error). First polls are spread uniformly over one period and every next poll is jittered by
+ * ±app.scada.poll.jitter, so plants never fire in lockstep. A plant whose previous read is still
+ * running skips the cycle, and at most max-concurrent-per-source reads
+ * run against one adapter (ScadaDataSource.sourceFor) at once; a cycle that finds no permit is
+ * skipped too. SCADA load is bounded by configuration, not by how many users open the readings page.
+ * <p>
+ * Rates: app.scada.poll.default-ms, overridden per plant with app.scada.poll.plant-ms=ID:ms,ID:ms.
+ * The plant set follows PlantDirectory (re-checked every refresh-ms); inactive plants are not polled.
+ */
+@Slf4j
+@Component
+public class ScadaPoller {
+
+    private final class Poll {
+        final String plantId;
+        final long periodMs;
+        final AtomicBoolean running = new AtomicBoolean();
+        volatile ScheduledFuture<?> next;
+        volatile boolean cancelled;
+
+        Poll(String plantId, long periodMs) {
+            this.plantId = plantId;
+            this.periodMs = periodMs;
+        }
+
+        void schedule(long delayMs) {
+            if (cancelled) return;
+            try {
+                next = timer.schedule(this::fire, delayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // shutting down
+            }
+        }
+
+        void fire() {
+            schedule(jittered(periodMs));   // fixed cadence: the next tick doesn't wait for this read
+            if (!running.compareAndSet(false, true)) {
+                skipped.increment();
+                return;
+            }
+            try {
+                workers.execute(this::read);
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+                saturated.increment();
+            }
+        }
+
+        void read() {
+            ScadaDataSource source = sources.getIfAvailable();
+            Semaphore permits = source == null ? null
+                    : perSource.computeIfAbsent(source.sourceFor(plantId), s -> new Semaphore(maxPerSource));
+            try {
+                if (source == null || !permits.tryAcquire()) {
+                    saturated.increment();
+                    return;
+                }
+                try {
+                    List<ScadaDataSource.PlantReadings> result = pollTimer.recordCallable(() -> source.readPlants(plantId));
+                    for (ScadaDataSource.PlantReadings p : result) {
+                        if (p.stale()) {
+                            // last good readings stay, now flagged with this error
+                            if (!cancelled) store.putStale(p);
+                            failed.increment();
+                            log.debug("SCADA poll of plant {} via {}: {}", plantId, p.source(), p.error());
+                        } else {
+                            if (!cancelled) store.put(p);
+                            ok.increment();
+                        }
+                    }
+                } finally {
+                    permits.release();
+                }
+            } catch (Exception e) {
+                failed.increment();
+                if (!cancelled && source != null) {
+                    store.putStale(new ScadaDataSource.PlantReadings(plantId, source.sourceFor(plantId), List.of(), null, true, e.toString()));
+                }
+                log.warn("SCADA poll of plant {} failed: {}", plantId, e.toString());
+            } finally {
+                running.set(false);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> f = next;
+            if (f != null) f.cancel(false);
+        }
+    }
+
+    private final ObjectProvider<ScadaDataSource> sources;
+    private final PlantDirectory plants;
+    private final ScadaReadingStore store;
+    private final boolean enabled;
+    private final long defaultMs;
+    private final Map<String, Long> plantMs;
+    private final double jitter;
+    private final int maxPerSource;
+    private final long refreshMs;
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, Poll> polls = new ConcurrentHashMap<>();
+    // keyed by ScadaDataSource.sourceFor(plant): the adapter behind the plant
+    private final Map<String, Semaphore> perSource = new ConcurrentHashMap<>();
+
+    private final Counter ok;
+    private final Counter skipped;
+    private final Counter saturated;
+    private final Counter failed;
+    private final Timer pollTimer;
+
+    public ScadaPoller(ObjectProvider<ScadaDataSource> sources, PlantDirectory plants, ScadaReadingStore store,
+                       MeterRegistry metrics,
+                       @Value("${app.scada.poll.enabled:true}") boolean enabled,
+                       @Value("${app.scada.poll.default-ms:5000}") long defaultMs,
+                       @Value("${app.scada.poll.plant-ms:}") String plantMs,
+                       @Value("${app.scada.poll.jitter:0.1}") double jitter,
+                       @Value("${app.scada.poll.threads:4}") int threads,
+                       @Value("${app.scada.poll.max-concurrent-per-source:2}") int maxPerSource,
+                       @Value("${app.scada.poll.refresh-ms:60000}") long refreshMs) {
+        this.sources = sources;
+        this.plants = plants;
+        this.store = store;
+        this.enabled = enabled;
+        this.defaultMs = Math.max(100, defaultMs);
+        this.plantMs = parseRates(plantMs);
+        this.jitter = Math.max(0, Math.min(jitter, 0.5));
+        this.maxPerSource = Math.max(1, maxPerSource);
+        this.refreshMs = Math.max(1000, refreshMs);
+
+        var seq = new AtomicInteger();
+        this.timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "scada-poll-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+        int n = Math.max(1, threads);
+        // no queueing beyond one cycle per worker: a backlog of stale polls is worth nothing
+        this.workers = new ThreadPoolExecutor(n, n, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(n), r -> {
+            Thread t = new Thread(r, "scada-poll-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.ok = Counter.builder("scada.polls").tag("result", "ok").register(metrics);
+        this.skipped = Counter.builder("scada.polls").tag("result", "still-running").register(metrics);
+        this.saturated = Counter.builder("scada.polls").tag("result", "saturated").register(metrics);
+        this.failed = Counter.builder("scada.polls").tag("result", "failed").register(metrics);
+        this.pollTimer = Timer.builder("scada.poll.duration").register(metrics);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("SCADA polling disabled (app.scada.poll.enabled=false)");
+            return;
+        }
+        timer.scheduleWithFixedDelay(this::syncPlants, 0, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        polls.values().forEach(Poll::cancel);
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /** Polled plant ids and their periods (ms). */
+    public Map<String, Long> schedule() {
+        Map<String, Long> out = new HashMap<>();
+        polls.forEach((id, p) -> out.put(id, p.periodMs));
+        return out;
+    }
+
+    /* ---------------- internals ---------------- */
+
+    /** Starts polls for new active plants, stops them for removed/deactivated ones. */
+    void syncPlants() {
+        try {
+            Set<String> wanted = new HashSet<>();
+            for (Plant p : plants.all()) {
+                if (Boolean.FALSE.equals(p.getIsActive())) continue;
+                wanted.add(p.getId());
+                polls.computeIfAbsent(p.getId(), id -> {
+                    long period = plantMs.getOrDefault(id, defaultMs);
+                    Poll poll = new Poll(id, period);
+                    poll.schedule(ThreadLocalRandom.current().nextLong(period));   // spread first polls
+                    return poll;
+                });
+            }
+            polls.entrySet().removeIf(e -> {
+                if (wanted.contains(e.getKey())) return false;
+                e.getValue().cancel();
+                store.remove(e.getKey());
+                return true;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh SCADA poll plan: {}", e.toString());
+        }
+    }
+
+    private long jittered(long periodMs) {
+        if (jitter == 0) return periodMs;
+        double f = 1 + jitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1);
+        return Math.max(1, Math.round(periodMs * f));
+    }
+
+    private static Map<String, Long> parseRates(String spec) {
+        Map<String, Long> out = new HashMap<>();
+        if (spec == null || spec.isBlank()) return out;
+        for (String part : spec.split(",")) {
+            int c = part.lastIndexOf(':');
+            if (c <= 0) throw new IllegalArgumentException("app.scada.poll.plant-ms: expected ID:ms, got '" + part.trim() + "'");
+            out.put(part.substring(0, c).trim(), Math.max(100, Long.parseLong(part.substring(c + 1).trim())));
+        }
+        return Map.copyOf(out);
+    }
+}
@@ -0,0 +1,150 @@
+package com.awc.industrial_asset_companion.devices_locator.scada;
+
+import com.awc.industrial_asset_companion.telemetry.Deadbands;
+import com.awc.industrial_asset_companion.telemetry.SampleQuality;
+import com.awc.industrial_asset_companion.telemetry.SampleRing;
+import com.awc.industrial_asset_companion.telemetry.SwingingDoor;
+import com.awc.industrial_asset_companion.telemetry.TagRegistry;
+import com.awc.industrial_asset_companion.telemetry.TelemetrySamples;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What the poller last read, per plant: the latest snapshot (swapped whole, readers never see
+ * half a poll) plus a primitive sample history per plant/tag. Requests read from here only,
+ * so they never wait on SCADA I/O.
+ * <p>
+ * The history is swinging-door compressed per tag ({@link SwingingDoor}, door width = the tag
+ * type's deadband): a ring keeps the points that shape the curve, not one per poll, so the same
+ * capacity covers far more time. app.scada.history.compression=false stores every poll.
+ */
+@Component
+public class ScadaReadingStore {
+
+    private final Map<String, ScadaDataSource.PlantReadings> latest = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, Series>> history = new ConcurrentHashMap<>();
+    private final TagRegistry tags = new TagRegistry();
+    private final Deadbands deadbands;
+    private final int capacity;
+    private final boolean compression;
+
+    /** One plant/tag: stored points plus the compressor deciding which polls become points. */
+    private record Series(SampleRing ring, SwingingDoor door) {}
+
+    public ScadaReadingStore(Deadbands deadbands,
+                             @Value("${app.scada.history.capacity:720}") int capacity,
+                             @Value("${app.scada.history.compression:true}") boolean compression) {
+        this.deadbands = deadbands;
+        this.capacity = capacity;
+        this.compression = compression;
+    }
+
+    /** Stores one successful poll of a plant. */
+    public void put(ScadaDataSource.PlantReadings polled) {
+        String plantId = polled.plantId();
+        Instant polledAt = polled.readAt() != null ? polled.readAt() : Instant.now();
+        latest.put(plantId, polled);
+        Map<Integer, Series> plant = history.computeIfAbsent(plantId, k -> new ConcurrentHashMap<>());
+        long maxSilence = deadbands.maxSilenceNanos();
+        for (ScadaDataSource.Reading r : polled.readings()) {
+            if (r.tag() == null) continue;
+            int tag = tags.index(r.tag());
+            Series series = plant.computeIfAbsent(tag, k -> new Series(new SampleRing(k, capacity), new SwingingDoor()));
+            long t = TelemetrySamples.epochNanos(r.timestamp() != null ? r.timestamp() : polledAt);
+            double v = r.value() == null ? Double.NaN : r.value();
+            byte q = SampleQuality.of(QualityRules.quality(r.type(), r.value()));
+            if (!compression) {
+                series.ring().append(t, v, q);
+                continue;
+            }
+            synchronized (series.door()) {
+                series.door().offer(t, v, q, deadbands.band(r.type()).width(v), maxSilence, series.ring()::append);
+            }
+        }
+    }
+
+    /**
+     * Records a failed poll: the plant keeps its last good readings (the failed result's own, else
+     * what was stored before) flagged stale with the new error. The history is left alone.
+     */
+    public void putStale(ScadaDataSource.PlantReadings failed) {
+        latest.compute(failed.plantId(), (id, prev) -> {
+            boolean own = failed.readAt() != null || prev == null;
+            return new ScadaDataSource.PlantReadings(id, failed.source(),
+                    own ? failed.readings() : prev.readings(), own ? failed.readAt() : prev.readAt(), true, failed.error());
+        });
+    }
+
+    public ScadaDataSource.PlantReadings latest(String plantId) {
+        return latest.get(plantId);
+    }
+
+    /** Union of every polled plant, in no particular order. */
+    public List<ScadaDataSource.PlantReadings> all() {
+        return new ArrayList<>(latest.values());
+    }
+
+    /** Plant dropped from polling: forget what it last reported. */
+    public void remove(String plantId) {
+        latest.remove(plantId);
+        history.remove(plantId);
+    }
+
+    /** {"plantId","tag","t":[epoch ms],"v":[..],"q":[..]}, oldest first; false if nothing was recorded. */
+    public boolean writeHistory(String plantId, String tagName, int limit, JsonGenerator gen) throws IOException {
+        Map<Integer, Series> plant = history.get(plantId);
+        int tag = tags.find(tagName);
+        Series series = plant == null || tag < 0 ? null : plant.get(tag);
+        if (series == null) return false;
+
+        int cap = Math.max(0, Math.min(limit, series.ring().capacity()));
+        long[] t = new long[cap];
+        double[] v = new double[cap];
+        byte[] q = new byte[cap];
+        int[] filled = new int[1];
+        synchronized (series.door()) {
+            filled[0] = series.ring().copyRecent(t, v, q);
+            // stored points end with the newest poll the compressor is still holding back
+            if (cap > 0) series.door().held((ht, hv, hq) -> {
+                int k = filled[0];
+                if (k == cap) {   // full: drop the oldest to make room
+                    System.arraycopy(t, 1, t, 0, cap - 1);
+                    System.arraycopy(v, 1, v, 0, cap - 1);
+                    System.arraycopy(q, 1, q, 0, cap - 1);
+                    k--;
+                }
+                t[k] = ht;
+                v[k] = hv;
+                q[k] = hq;
+                filled[0] = k + 1;
+            });
+        }
+        int n = filled[0];
+
+        gen.writeStartObject();
+        gen.writeStringField("plantId", plantId);
+        gen.writeStringField("tag", tagName);
+        gen.writeArrayFieldStart("t");
+        for (int i = 0; i < n; i++) gen.writeNumber(t[i] / 1_000_000L);
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("v");
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(v[i])) gen.writeNull();
+            else gen.writeNumber(v[i]);
+        }
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("q");
+        for (int i = 0; i < n; i++) gen.writeString(SampleQuality.name(q[i]));
+        gen.writeEndArray();
+        gen.writeEndObject();
+        return true;
+    }
+}
@@ -1,8 +1,9 @@
 package com.awc.industrial_asset_companion.devices_locator.scada;
 
 import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
-import com.awc.industrial_asset_companion.devices_locator.service.PlantCrudService;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantDirectory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -13,7 +14,13 @@ import java.util.*;
 public class ScadaSnapshotService {
 
     private final ScadaDataSource dataSource;
-    private final PlantCrudService plantService;
+    private final PlantDirectory plants;
+    private final ScadaPoller poller;
+    private final ScadaReadingStore store;
+
+    // readings older than this are flagged stale (e.g. the poller has been failing for that plant)
+    @Value("${app.scada.stale-ms:15000}")
+    long staleMs;
 
     // Sort order used by the app
     private static final List<String> UI_ORDER = List.of(
@@ -24,10 +31,41 @@ public class ScadaSnapshotService {
         final String pid = (plantId == null || plantId.isBlank()) ? "ALL" : plantId;
         final String plantName = !"ALL".equals(pid) ? plantNameFromId(pid) : "All Plants";
 
-        List<ScadaDataSource.Reading> readings = dataSource.readSnapshot(pid);
+        // polled: serve what the poller last stored, never wait on SCADA I/O; ids the poller does not
+        // know (codes like "ULLRICH" that only the data source maps to a plant) are read through
+        List<ScadaDataSource.PlantReadings> parts;
+        if (!poller.enabled()) {
+            parts = dataSource.readPlants(pid);
+        } else if ("ALL".equals(pid)) {
+            parts = store.all();
+        } else {
+            parts = polled(pid);
+            if (parts.isEmpty()) parts = dataSource.readPlants(pid);
+        }
+
+        // several plants may be served the same readings (one SCADA plant behind two plant rows):
+        // each plant/tag once, from the freshest read
+        parts = new ArrayList<>(parts);
+        parts.sort(Comparator.comparing(ScadaDataSource.PlantReadings::readAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        Map<String, ScadaDataSource.Reading> byTag = new LinkedHashMap<>();
+        List<Map<String, Object>> plantStatus = new ArrayList<>(parts.size());
+        Instant now = Instant.now();
+        for (var p : parts) {
+            for (var r : p.readings()) {
+                byTag.putIfAbsent(Objects.toString(r.plantId(), p.plantId()) + '\u0000' + r.tag(), r);
+            }
+            boolean stale = p.stale() || p.readAt() == null || p.readAt().isBefore(now.minusMillis(staleMs));
+            Map<String, Object> st = new LinkedHashMap<>();
+            st.put("plantId", p.plantId());
+            st.put("source", p.source());
+            st.put("readAt", p.readAt() == null ? null : p.readAt().toString());
+            st.put("stale", stale);
+            st.put("error", p.error());
+            plantStatus.add(st);
+        }
 
-        List<Map<String, Object>> metrics = new ArrayList<>(readings.size());
-        for (var r : readings) {
+        List<Map<String, Object>> metrics = new ArrayList<>(byTag.size());
+        for (var r : byTag.values()) {
             String qual = QualityRules.quality(r.type(), r.value());
             metrics.add(mapMetric(r, qual));
         }
@@ -46,17 +84,25 @@ public class ScadaSnapshotService {
         res.put("plantId", pid);
         res.put("plantName", plantName);
         res.put("timestamp", Instant.now().toString());
+        res.put("plants", plantStatus);   // per plant: source, readAt, stale, error
         res.put("metrics", metrics);
         return res;
     }
 
-    private String plantNameFromId(String id) {
-        try {
-            Plant p = plantService.get(id);
-            return p.getName();
-        } catch (Exception ignored) {
-            return "Plant " + id;
+    /** The polled plant with this id, else the ones whose id or name matches it ignoring case. */
+    private List<ScadaDataSource.PlantReadings> polled(String pid) {
+        ScadaDataSource.PlantReadings exact = store.latest(pid);
+        if (exact != null) return List.of(exact);
+        List<ScadaDataSource.PlantReadings> out = new ArrayList<>();
+        for (var p : store.all()) {
+            String name = plants.find(p.plantId()).map(Plant::getName).orElse(null);
+            if (pid.equalsIgnoreCase(p.plantId()) || pid.equalsIgnoreCase(name)) out.add(p);
         }
+        return out;
+    }
+
+    private String plantNameFromId(String id) {
+        return plants.find(id).map(Plant::getName).orElse("Plant " + id);
     }
 
     private Map<String, Object> mapMetric(ScadaDataSource.Reading r, String quality) {
@@ -0,0 +1,66 @@
+package com.awc.industrial_asset_companion.devices_locator.scada.modbus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Merges the points of one RTU into the fewest register block reads: points of the same slave
+ * and table are sorted by address and joined while the hole between them is at most maxGap
+ * registers and the block stays within maxRegisters (125 is the protocol limit for function 3/4).
+ * Reading a few unused registers is far cheaper than another round trip to a radio-linked RTU.
+ */
+public final class ModbusBlockPlanner {
+
+    /** Protocol limit for one read holding / input registers request. */
+    public static final int MAX_REGISTERS = 125;
+
+    /** One request: count registers from start; every point lies inside. */
+    public record Block(int slave, ModbusPoint.Table table, int start, int count, List<ModbusPoint> points) {
+
+        /** Offset of a point's first register in this block's response. */
+        public int offsetOf(ModbusPoint p) {
+            return p.address() - start;
+        }
+    }
+
+    private ModbusBlockPlanner() {}
+
+    public static List<Block> plan(Collection<ModbusPoint> points, int maxGap, int maxRegisters) {
+        int limit = Math.max(2, Math.min(MAX_REGISTERS, maxRegisters));
+        int gap = Math.max(0, maxGap);
+        List<ModbusPoint> sorted = new ArrayList<>(points);
+        sorted.sort(Comparator.comparingInt(ModbusPoint::slave)
+                .thenComparing(ModbusPoint::table)
+                .thenComparingInt(ModbusPoint::address));
+
+        List<Block> out = new ArrayList<>();
+        List<ModbusPoint> current = new ArrayList<>();
+        int start = 0, end = 0;
+        for (ModbusPoint p : sorted) {
+            if (!current.isEmpty()) {
+                ModbusPoint first = current.get(0);
+                boolean sameRun = first.slave() == p.slave() && first.table() == p.table()
+                        && p.address() - end <= gap
+                        && Math.max(end, p.end()) - start <= limit;
+                if (!sameRun) {
+                    out.add(new Block(first.slave(), first.table(), start, end - start, List.copyOf(current)));
+                    current.clear();
+                }
+            }
+            if (current.isEmpty()) {
+                start = p.address();
+                end = p.end();
+            } else {
+                end = Math.max(end, p.end());
+            }
+            current.add(p);
+        }
+        if (!current.isEmpty()) {
+            ModbusPoint first = current.get(0);
+            out.add(new Block(first.slave(), first.table(), start, end - start, List.copyOf(current)));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,178 @@
+package com.awc.industrial_asset_companion.devices_locator.scada.modbus;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One Modbus TCP connection with pipelined requests: up to window requests are on the wire at
+ * once and responses are matched to them by MBAP transaction id, so a block read does not
+ * wait for the previous block's round trip. A reader virtual thread owns the input side.
+ * <p>
+ * Any I/O error, malformed frame or request that goes unanswered for timeoutMs closes the
+ * connection and fails everything still outstanding: the stream can no longer be trusted to be
+ * in step. Callers get a new connection from {@link ModbusConnectionPool}.
+ */
+public final class ModbusConnection implements AutoCloseable {
+
+    private record Pending(int function, int count, CompletableFuture<short[]> future) {}
+
+    private final String endpoint;
+    private final Socket socket;
+    private final DataInputStream in;
+    private final OutputStream out;
+    private final long timeoutMs;
+    private final Semaphore window;
+    private final ReentrantLock writeLock = new ReentrantLock();   // not synchronized: no carrier pinning on I/O
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTx = new AtomicInteger();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    private ModbusConnection(String endpoint, Socket socket, long timeoutMs, int window) throws IOException {
+        this.endpoint = endpoint;
+        this.socket = socket;
+        this.in = new DataInputStream(socket.getInputStream());
+        this.out = socket.getOutputStream();
+        this.timeoutMs = timeoutMs;
+        this.window = new Semaphore(Math.max(1, window));
+    }
+
+    public static ModbusConnection open(String host, int port, int connectTimeoutMs, long timeoutMs, int window) throws IOException {
+        Socket s = new Socket();
+        try {
+            s.setTcpNoDelay(true);   // small request frames: never wait for Nagle
+            s.setKeepAlive(true);
+            s.connect(new InetSocketAddress(host, port), connectTimeoutMs);
+            ModbusConnection c = new ModbusConnection(host + ":" + port, s, timeoutMs, window);
+            Thread.ofVirtual().name("modbus-rx-" + c.endpoint).start(c::receive);
+            return c;
+        } catch (IOException e) {
+            s.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a read holding / input registers request; the future completes with count registers,
+     * or exceptionally (ModbusException for an exception response, IOException otherwise).
+     * Blocks only while the window is full.
+     */
+    public CompletableFuture<short[]> read(int slave, ModbusPoint.Table table, int start, int count) {
+        IOException dead = failure.get();
+        if (dead != null) return CompletableFuture.failedFuture(dead);
+        try {
+            if (!window.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(new SocketTimeoutException(endpoint + ": request window full for " + timeoutMs + " ms"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        int tx = nextTx.getAndIncrement() & 0xFFFF;
+        Pending p = new Pending(table.function, count, new CompletableFuture<>());
+        pending.put(tx, p);
+        p.future().orTimeout(timeoutMs, TimeUnit.MILLISECONDS).whenComplete((regs, e) -> {
+            pending.remove(tx, p);
+            window.release();
+            if (e instanceof TimeoutException) {
+                fail(new SocketTimeoutException(endpoint + ": no answer to transaction " + tx + " in " + timeoutMs + " ms"));
+            }
+        });
+
+        byte[] frame = new byte[12];
+        ByteBuffer.wrap(frame)
+                .putShort((short) tx).putShort((short) 0).putShort((short) 6)   // MBAP: tx id, protocol 0, length
+                .put((byte) slave).put((byte) table.function)
+                .putShort((short) start).putShort((short) count);
+        writeLock.lock();
+        try {
+            out.write(frame);
+        } catch (IOException e) {
+            fail(e);
+        } finally {
+            writeLock.unlock();
+        }
+        dead = failure.get();   // failed while we were registering: fail() may have missed this entry
+        if (dead != null) p.future().completeExceptionally(dead);
+        return p.future();
+    }
+
+    public boolean isOpen() {
+        return failure.get() == null;
+    }
+
+    /** Requests sent and not yet answered. */
+    public int inFlight() {
+        return pending.size();
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public void close() {
+        fail(new IOException(endpoint + ": connection closed"));
+    }
+
+    /* ---------------- internals ---------------- */
+
+    private void receive() {
+        byte[] header = new byte[7];
+        try {
+            while (true) {
+                in.readFully(header);
+                ByteBuffer h = ByteBuffer.wrap(header);
+                int tx = h.getShort() & 0xFFFF;
+                int protocol = h.getShort() & 0xFFFF;
+                int length = h.getShort() & 0xFFFF;   // unit id + PDU
+                if (protocol != 0 || length < 3 || length > 254) throw new IOException(endpoint + ": malformed MBAP header");
+                byte[] pdu = new byte[length - 1];
+                in.readFully(pdu);
+                Pending p = pending.get(tx);
+                if (p != null) complete(p, pdu);   // no entry: answered after its timeout, dropped
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void complete(Pending p, byte[] pdu) {
+        int function = pdu[0] & 0xFF;
+        if (function == (p.function() | 0x80)) {
+            p.future().completeExceptionally(new ModbusException(endpoint, p.function(), pdu[1] & 0xFF));
+            return;
+        }
+        if (function != p.function() || (pdu[1] & 0xFF) != p.count() * 2 || pdu.length != 2 + p.count() * 2) {
+            p.future().completeExceptionally(new IOException(endpoint + ": response does not match request"));
+            return;
+        }
+        short[] regs = new short[p.count()];
+        ByteBuffer.wrap(pdu, 2, pdu.length - 2).asShortBuffer().get(regs);
+        p.future().complete(regs);
+    }
+
+    private void fail(IOException e) {
+        if (!failure.compareAndSet(null, e)) return;
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // closing anyway
+        }
+        for (Pending p : pending.values()) p.future().completeExceptionally(e);
+    }
+}
@@ -0,0 +1,103 @@
+package com.awc.industrial_asset_companion.devices_locator.scada.modbus;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Up to perEndpoint shared {@link ModbusConnection}s per RTU (host:port). Connections are not
+ * checked out exclusively: requests are pipelined, so a caller gets the least busy open one and
+ * a further connection is only opened while all existing ones have requests outstanding.
+ * Closed connections are dropped and replaced on the next acquire.
+ */
+public final class ModbusConnectionPool implements AutoCloseable {
+
+    private final int perEndpoint;
+    private final int window;
+    private final int connectTimeoutMs;
+    private final long timeoutMs;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public ModbusConnectionPool(int perEndpoint, int window, int connectTimeoutMs, long timeoutMs) {
+        this.perEndpoint = Math.max(1, perEndpoint);
+        this.window = Math.max(1, window);
+        this.connectTimeoutMs = Math.max(1, connectTimeoutMs);
+        this.timeoutMs = Math.max(1, timeoutMs);
+    }
+
+    public ModbusConnection acquire(String host, int port) throws IOException {
+        return endpoints.computeIfAbsent(host + ":" + port, k -> new Endpoint(host, port)).acquire();
+    }
+
+    /** Open connections across all RTUs. */
+    public int size() {
+        int n = 0;
+        for (Endpoint e : endpoints.values()) n += e.size();
+        return n;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        endpoints.values().forEach(Endpoint::close);
+    }
+
+    private final class Endpoint {
+        private final String host;
+        private final int port;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<ModbusConnection> open = new ArrayList<>();
+
+        Endpoint(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+
+        ModbusConnection acquire() throws IOException {
+            lock.lock();
+            try {
+                if (closed) throw new IOException("Modbus connection pool closed");
+                open.removeIf(c -> !c.isOpen());
+                ModbusConnection best = null;
+                for (ModbusConnection c : open) {
+                    if (best == null || c.inFlight() < best.inFlight()) best = c;
+                }
+                if (best != null && (best.inFlight() == 0 || open.size() >= perEndpoint)) return best;
+                try {
+                    ModbusConnection c = ModbusConnection.open(host, port, connectTimeoutMs, timeoutMs, window);
+                    open.add(c);
+                    return c;
+                } catch (IOException e) {
+                    if (best != null) return best;   // busy beats unreachable
+                    throw e;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                open.removeIf(c -> !c.isOpen());
+                return open.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                open.forEach(ModbusConnection::close);
+                open.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
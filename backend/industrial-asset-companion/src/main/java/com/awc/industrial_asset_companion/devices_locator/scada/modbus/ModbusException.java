@@ -0,0 +1,18 @@
+package com.awc.industrial_asset_companion.devices_locator.scada.modbus;
+
+import java.io.IOException;
+
+/** The slave answered with a Modbus exception response (function code | 0x80). */
+public class ModbusException extends IOException {
+
+    private final int code;   // 1 illegal function, 2 illegal data address, 4 slave failure, 6 busy, 10/11 gateway
+
+    public ModbusException(String endpoint, int function, int code) {
+        super(endpoint + ": function " + function + " answered with exception code " + code);
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,78 @@
+package com.awc.industrial_asset_companion.devices_locator.scada.modbus;
+
+import java.util.Locale;
+
+/**
+ * One tag in the Modbus register map: where it lives (RTU endpoint, slave id, table, 0-based
+ * register address) and how to turn its registers into an engineering value
+ * ({@code raw * scale + offset}).
+ */
+public record ModbusPoint(
+        String plantId,
+        String host,
+        int port,
+        int slave,            // Modbus unit id
+        String tag,           // e.g. "LS-12-LVL"
+        String type,          // e.g. "Level", "Flow"
+        String unit,          // "ft", "MGD", ...
+        Table table,
+        int address,          // 0-based (register 40001 = holding 0)
+        Format format,
+        double scale,
+        double offset
+) {
+
+    public enum Table {
+        HOLDING(3), INPUT(4);
+
+        public final int function;
+
+        Table(int function) { this.function = function; }
+    }
+
+    /** Register encodings; _CDAB variants have the low word first (word-swapped). */
+    public enum Format {
+        INT16(1), UINT16(1), INT32(2), UINT32(2), FLOAT32(2), INT32_CDAB(2), UINT32_CDAB(2), FLOAT32_CDAB(2);
+
+        public final int words;
+
+        Format(int words) { this.words = words; }
+
+        public static Format of(String s) {
+            return valueOf(s.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public String endpoint() {
+        return host + ":" + port;
+    }
+
+    public int words() {
+        return format.words;
+    }
+
+    /** First register after this point. */
+    public int end() {
+        return address + format.words;
+    }
+
+    /** Engineering value from the registers at regs[at..]; null for NaN / infinite floats. */
+    public Double decode(short[] regs, int at) {
+        double raw = switch (format) {
+            case INT16 -> regs[at];
+            case UINT16 -> regs[at] & 0xFFFF;
+            case INT32 -> int32(regs[at], regs[at + 1]);
+            case UINT32 -> int32(regs[at], regs[at + 1]) & 0xFFFFFFFFL;
+            case FLOAT32 -> Float.intBitsToFloat(int32(regs[at], regs[at + 1]));
+            case INT32_CDAB -> int32(regs[at + 1], regs[at]);
+            case UINT32_CDAB -> int32(regs[at + 1], regs[at]) & 0xFFFFFFFFL;
+            case FLOAT32_CDAB -> Float.intBitsToFloat(int32(regs[at + 1], regs[at]));
+        };
+        if (Double.isNaN(raw) || Double.isInfinite(raw)) return null;
+        return raw * scale + offset;
+    }
+
+    private static int int32(short hi, short lo) {
+        return (hi << 16) | (lo & 0xFFFF);
+    }
+}
@@ -0,0 +1,101 @@
+package com.awc.industrial_asset_companion.devices_locator.scada.modbus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Loads the Modbus register map: a CSV file with a header row and one tag per line
+ * <pre>
+ * plant,host,port,slave,tag,type,unit,table,address,format,scale,offset
+ * LS12,10.20.0.12,502,1,LS12-LVL,Level,ft,holding,0,int16,0.01,0
+ * </pre>
+ * Only plant, host, tag and address are required (port 502, slave 1, holding, int16, scale 1,
+ * offset 0, type = tag). Addresses are 0-based register offsets, not 4xxxx references.
+ * Blank lines and lines starting with # are skipped; values may not contain commas.
+ */
+public final class ModbusRegisterMap {
+
+    private ModbusRegisterMap() {}
+
+    public static List<ModbusPoint> load(Path file) throws IOException {
+        try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(r);
+        }
+    }
+
+    public static List<ModbusPoint> parse(BufferedReader r) throws IOException {
+        Map<String, Integer> col = null;
+        List<ModbusPoint> out = new ArrayList<>();
+        int lineNo = 0;
+        for (String line = r.readLine(); line != null; line = r.readLine()) {
+            lineNo++;
+            String trimmed = line.replace("\uFEFF", "").trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            String[] cells = trimmed.split(",", -1);
+            if (col == null) {
+                col = new HashMap<>();
+                for (int i = 0; i < cells.length; i++) col.put(cells[i].trim().toLowerCase(Locale.ROOT), i);
+                for (String required : List.of("plant", "host", "tag", "address")) {
+                    if (!col.containsKey(required)) throw new IllegalArgumentException("Modbus map: header has no '" + required + "' column");
+                }
+                continue;
+            }
+            try {
+                String tag = required(cells, col, "tag");
+                String type = cell(cells, col, "type");
+                String table = cell(cells, col, "table");
+                String format = cell(cells, col, "format");
+                ModbusPoint p = new ModbusPoint(
+                        required(cells, col, "plant"),
+                        required(cells, col, "host"),
+                        intCell(cells, col, "port", 502),
+                        intCell(cells, col, "slave", 1),
+                        tag,
+                        type != null ? type : tag,
+                        cell(cells, col, "unit"),
+                        table == null ? ModbusPoint.Table.HOLDING : ModbusPoint.Table.valueOf(table.toUpperCase(Locale.ROOT)),
+                        Integer.parseInt(required(cells, col, "address")),
+                        format == null ? ModbusPoint.Format.INT16 : ModbusPoint.Format.of(format),
+                        doubleCell(cells, col, "scale", 1.0),
+                        doubleCell(cells, col, "offset", 0.0));
+                if (p.address() < 0 || p.end() > 0x10000) throw new IllegalArgumentException("address out of range");
+                if (p.slave() < 0 || p.slave() > 255) throw new IllegalArgumentException("slave out of range");
+                out.add(p);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Modbus map line " + lineNo + ": " + e.getMessage(), e);
+            }
+        }
+        return out;
+    }
+
+    private static String cell(String[] cells, Map<String, Integer> col, String name) {
+        Integer i = col.get(name);
+        if (i == null || i >= cells.length) return null;
+        String v = cells[i].trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static String required(String[] cells, Map<String, Integer> col, String name) {
+        String v = cell(cells, col, name);
+        if (v == null) throw new IllegalArgumentException("missing " + name);
+        return v;
+    }
+
+    private static int intCell(String[] cells, Map<String, Integer> col, String name, int dflt) {
+        String v = cell(cells, col, name);
+        return v == null ? dflt : Integer.parseInt(v);
+    }
+
+    private static double doubleCell(String[] cells, Map<String, Integer> col, String name, double dflt) {
+        String v = cell(cells, col, name);
+        return v == null ? dflt : Double.parseDouble(v);
+    }
+}
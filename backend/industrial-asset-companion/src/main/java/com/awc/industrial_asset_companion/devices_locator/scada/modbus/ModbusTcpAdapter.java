@@ -0,0 +1,133 @@
+package com.awc.industrial_asset_companion.devices_locator.scada.modbus;
+
+import com.awc.industrial_asset_companion.devices_locator.scada.ScadaAdapter;
+import com.awc.industrial_asset_companion.devices_locator.scada.ScadaDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Reads lift-station RTUs over Modbus TCP (adapter id "modbus"). Tags come from the register
+ * map in app.scada.modbus.map (see {@link ModbusRegisterMap}); at startup each RTU's tags are
+ * merged into the fewest block reads ({@link ModbusBlockPlanner}). A plant read sends every
+ * block of every RTU before waiting on any, so the requests overlap on the pooled, pipelined
+ * connections and a plant costs about one round trip rather than one per block.
+ * <p>
+ * A block that fails yields its tags with a null value (bad quality); only when every block of
+ * the plant fails does the read throw, and the plant is then served stale by the composite.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.scada.modbus.enabled", havingValue = "true")
+public class ModbusTcpAdapter implements ScadaAdapter {
+
+    /** One RTU of a plant and its planned block reads. */
+    private record Rtu(String host, int port, List<ModbusBlockPlanner.Block> blocks) {}
+
+    private final Map<String, List<Rtu>> byPlant = new LinkedHashMap<>();
+    private final ModbusConnectionPool pool;
+
+    public ModbusTcpAdapter(@Value("${app.scada.modbus.map:}") String map,
+                            @Value("${app.scada.modbus.connections-per-rtu:2}") int connectionsPerRtu,
+                            @Value("${app.scada.modbus.max-in-flight:4}") int maxInFlight,
+                            @Value("${app.scada.modbus.max-gap:8}") int maxGap,
+                            @Value("${app.scada.modbus.max-block:125}") int maxBlock,
+                            @Value("${app.scada.modbus.timeout-ms:2000}") long timeoutMs,
+                            @Value("${app.scada.modbus.connect-timeout-ms:2000}") int connectTimeoutMs) throws IOException {
+        List<ModbusPoint> points = map.isBlank() ? List.of() : ModbusRegisterMap.load(Path.of(map.trim()));
+        if (points.isEmpty()) log.warn("Modbus adapter enabled without tags (app.scada.modbus.map='{}')", map);
+
+        Map<String, Map<String, List<ModbusPoint>>> grouped = new LinkedHashMap<>();
+        for (ModbusPoint p : points) {
+            grouped.computeIfAbsent(p.plantId(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(p.endpoint(), k -> new ArrayList<>()).add(p);
+        }
+        int blocks = 0;
+        for (var plant : grouped.entrySet()) {
+            List<Rtu> rtus = new ArrayList<>();
+            for (List<ModbusPoint> rtuPoints : plant.getValue().values()) {
+                ModbusPoint first = rtuPoints.get(0);
+                Rtu rtu = new Rtu(first.host(), first.port(), ModbusBlockPlanner.plan(rtuPoints, maxGap, maxBlock));
+                blocks += rtu.blocks().size();
+                rtus.add(rtu);
+            }
+            byPlant.put(plant.getKey(), List.copyOf(rtus));
+        }
+        this.pool = new ModbusConnectionPool(connectionsPerRtu, maxInFlight, connectTimeoutMs, timeoutMs);
+        log.info("Modbus: {} tags on {} plants in {} block reads", points.size(), byPlant.size(), blocks);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.close();
+    }
+
+    @Override
+    public String id() {
+        return "modbus";
+    }
+
+    @Override
+    public List<ScadaDataSource.Reading> read(String plantId) throws Exception {
+        List<Rtu> rtus = byPlant.get(plantId);
+        if (rtus == null) return List.of();
+
+        // send everything first: block requests overlap on the wire, RTUs are read side by side
+        List<List<CompletableFuture<short[]>>> sent = new ArrayList<>(rtus.size());
+        for (Rtu rtu : rtus) {
+            List<CompletableFuture<short[]>> futures = new ArrayList<>(rtu.blocks().size());
+            ModbusConnection c = null;
+            IOException unreachable = null;
+            try {
+                c = pool.acquire(rtu.host(), rtu.port());
+            } catch (IOException e) {
+                unreachable = e;
+            }
+            for (ModbusBlockPlanner.Block b : rtu.blocks()) {
+                futures.add(c == null ? CompletableFuture.failedFuture(unreachable)
+                        : c.read(b.slave(), b.table(), b.start(), b.count()));
+            }
+            sent.add(futures);
+        }
+
+        List<ScadaDataSource.Reading> out = new ArrayList<>();
+        Throwable firstError = null;
+        int failed = 0, total = 0;
+        for (int i = 0; i < rtus.size(); i++) {
+            List<ModbusBlockPlanner.Block> blocks = rtus.get(i).blocks();
+            for (int j = 0; j < blocks.size(); j++) {
+                ModbusBlockPlanner.Block b = blocks.get(j);
+                total++;
+                short[] regs = null;
+                try {
+                    regs = sent.get(i).get(j).get();   // bounded: every request times out on its own
+                } catch (ExecutionException e) {
+                    failed++;
+                    if (firstError == null) firstError = e.getCause();
+                }
+                Instant at = Instant.now();
+                for (ModbusPoint p : b.points()) {
+                    Double value = regs == null ? null : p.decode(regs, b.offsetOf(p));
+                    out.add(new ScadaDataSource.Reading(p.tag(), p.type(), p.unit(), value, at, plantId));
+                }
+            }
+        }
+        if (total > 0 && failed == total) {
+            throw firstError instanceof Exception e ? e : new IOException(firstError);
+        }
+        if (failed > 0) log.debug("Modbus read of plant {}: {} of {} blocks failed, first: {}", plantId, failed, total, firstError.toString());
+        return out;
+    }
+}
@@ -0,0 +1,128 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed blob store on local disk: key = sha256(content) in hex, file at
+ * {@code <dir>/ab/cd/<key>}. Blobs are immutable, so the key doubles as a strong ETag and
+ * identical uploads are stored once. Uploads stream to a temp file in the same filesystem
+ * and are renamed into place, never held in heap.
+ */
+@Component
+public class BlobStore {
+
+    public record Stored(String key, long size) {}
+
+    /** Produces a derived file (thumbnail, preview) into the given stream. */
+    @FunctionalInterface
+    public interface Producer {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern SUFFIX = Pattern.compile("[a-z0-9]+(\\.[a-z0-9]+)*");
+
+    private final Path dir;
+    private final Path tmp;
+    private final long maxBytes;
+
+    public BlobStore(@Value("${app.blobs.dir:${user.home}/iac-blobs}") String dir,
+                     @Value("${app.blobs.max-bytes:1073741824}") long maxBytes) {
+        this.dir = Path.of(dir);
+        this.tmp = this.dir.resolve("tmp");
+        this.maxBytes = maxBytes;
+    }
+
+    /** Streams the upload to disk while hashing it; 413 beyond app.blobs.max-bytes. */
+    public Stored put(InputStream in) throws IOException {
+        Files.createDirectories(tmp);
+        Path part = Files.createTempFile(tmp, "up-", ".part");
+        try {
+            MessageDigest sha = sha256();
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(part)) {
+                byte[] buf = new byte[64 * 1024];
+                for (int n = in.read(buf); n >= 0; n = in.read(buf)) {
+                    size += n;
+                    if (size > maxBytes) {
+                        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Document larger than " + maxBytes + " bytes");
+                    }
+                    sha.update(buf, 0, n);
+                    out.write(buf, 0, n);
+                }
+            }
+            String key = HexFormat.of().formatHex(sha.digest());
+            Path file = fileFor(key);
+            if (!Files.isRegularFile(file)) {
+                Files.createDirectories(file.getParent());
+                // same bytes under the same name: a racing identical upload is harmless
+                Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new Stored(key, size);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /** File for a key, or null if the key is malformed or the blob is missing. */
+    public Path path(String key) {
+        if (key == null || !KEY.matcher(key).matches()) return null;
+        Path file = fileFor(key);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    /** Derived file {@code <key>.<suffix>} next to its blob, or null if not (yet) produced. */
+    public Path derived(String key, String suffix) {
+        Path file = derivedFile(key, suffix);
+        return file != null && Files.isRegularFile(file) ? file : null;
+    }
+
+    /** Writes {@code <key>.<suffix>} through a temp file and renames it into place. */
+    public Path putDerived(String key, String suffix, Producer producer) throws IOException {
+        Path file = derivedFile(key, suffix);
+        if (file == null) throw new IllegalArgumentException("Bad blob key or suffix");
+        Files.createDirectories(tmp);
+        Path part = Files.createTempFile(tmp, "der-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(part)) {
+                producer.write(out);
+            }
+            Files.createDirectories(file.getParent());
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return file;
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    private Path derivedFile(String key, String suffix) {
+        if (key == null || !KEY.matcher(key).matches() || suffix == null || !SUFFIX.matcher(suffix).matches()) return null;
+        return fileFor(key).resolveSibling(key + "." + suffix);
+    }
+
+    private Path fileFor(String key) {
+        return dir.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
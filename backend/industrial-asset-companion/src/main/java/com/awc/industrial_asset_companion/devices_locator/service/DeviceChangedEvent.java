@@ -0,0 +1,27 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by device writes; in-memory indexes listen after commit.
+ * deviceId == null: anything in the plant may have changed (bulk import), rebuild.
+ * tags == null with a deviceId: the device left the plant (deleted or moved).
+ */
+public record DeviceChangedEvent(String plantId, String deviceId, List<String> tags) {
+
+    public static DeviceChangedEvent upserted(String plantId, String deviceId, Collection<String> tags) {
+        return new DeviceChangedEvent(plantId, deviceId, tags == null ? List.of() : List.copyOf(tags));
+    }
+
+    public static DeviceChangedEvent removed(String plantId, String deviceId) {
+        return new DeviceChangedEvent(plantId, deviceId, null);
+    }
+
+    public static DeviceChangedEvent plantChanged(String plantId) {
+        return new DeviceChangedEvent(plantId, null, null);
+    }
+
+    public boolean wholePlant() { return deviceId == null; }
+    public boolean removal() { return deviceId != null && tags == null; }
+}
@@ -3,6 +3,7 @@ package com.awc.industrial_asset_companion.devices_locator.service;
 import com.awc.industrial_asset_companion.devices_locator.dto.*;
 import com.awc.industrial_asset_companion.devices_locator.dto.DeviceListItemDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DeviceCrudService {
@@ -11,8 +12,18 @@ public interface DeviceCrudService {
     void delete(String id);
     DeviceListItemDto get(String id);
     List<DeviceListItemDto> listByPlant(String plantId); // simple list for now
+    List<DeviceListItemDto> listByIds(Collection<String> ids); // unknown ids are skipped
+    DeviceListItemDto setLocation(String id, LocationUpdateDto dto); // floorplan anchor (layer + x/y)
+    void clearLocation(String id);
+    DevicePageDto listPage(String plantId, String after, int limit); // keyset by device id
     // tags utilities
     List<String> replaceTags(String id, List<String> tags);
     List<String> addTags(String id, List<String> tagsToAdd);
     List<String> removeTag(String id, String tag);
+    int bulkTag(BulkTagDto dto, boolean remove); // one statement per chunk/plant; returns rows affected
+    // tag index (normalized tags)
+    List<DeviceListItemDto> listByTags(String plantId, List<String> tags); // devices having ALL tags
+    List<TagFacetDto> tagFacets(String plantId);
+    // search index: every token prefix-matches, best first
+    List<DeviceSearchHitDto> search(String plantId, String q, int limit);
 }
\ No newline at end of file
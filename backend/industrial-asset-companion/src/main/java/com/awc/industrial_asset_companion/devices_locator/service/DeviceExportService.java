@@ -0,0 +1,220 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.*;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Whole-plant device export that never materializes the plant: one forward-only, read-only
+ * MySQL streaming cursor (fetch size Integer.MIN_VALUE), each row written to the response as
+ * it arrives. Tags and documents come back aggregated per row, so memory is one row at a time.
+ */
+@Service
+@RequiredArgsConstructor
+public class DeviceExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    // group_concat separators: ASCII record / unit separators never occur in tags or titles
+    private static final char RS = '\u001E';
+    private static final char US = '\u001F';
+
+    private static final String SQL = """
+            select d.id, d.plant_id, d.type, d.name, d.system_name,
+                   d.panel, d.bucket, d.aisle, d.nav_text, d.qr_payload,
+                   bin_to_uuid(a.id) as area_id, a.name as area_name, a.level_label,
+                   bin_to_uuid(l.layer_id) as layer_id, l.x, l.y,
+                   (select group_concat(t.tag order by t.tag separator '\u001E')
+                      from device_tag t where t.device_id = d.id) as tags,
+                   (select group_concat(concat_ws(char(31 using utf8mb4), bin_to_uuid(doc.id), coalesce(doc.kind, ''), coalesce(doc.title, ''), coalesce(doc.mime, ''))
+                                        order by doc.title separator '\u001E')
+                      from device_document dd join document doc on doc.id = dd.document_id
+                     where dd.device_id = d.id) as docs
+            from device d
+            left join area a on a.id = d.area_id
+            left join device_location l on l.device_id = d.id
+            where d.plant_id = ?
+            order by d.id
+            """;
+
+    private static final String[] CSV_HEADER = {
+            "id", "plant_id", "type", "name", "system", "area_id", "area_name", "area_level",
+            "panel", "bucket", "aisle", "nav_text", "qr", "layer_id", "x", "y", "tags", "document_ids"
+    };
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper json;
+
+    public void export(String plantId, Format format, OutputStream out) throws IOException {
+        try {
+            jdbc.execute((ConnectionCallback<Void>) con -> {
+                stream(con, plantId, format, out);
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();   // client went away mid-stream
+        }
+    }
+
+    private void stream(Connection con, String plantId, Format format, OutputStream out) throws SQLException {
+        try (Statement session = con.createStatement()) {
+            session.execute("SET SESSION group_concat_max_len = 1048576");
+        }
+        try (PreparedStatement ps = con.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE);   // Connector/J: stream rows instead of buffering the result
+            ps.setString(1, plantId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (format == Format.CSV) writeCsv(rs, out);
+                else writeNdjson(rs, out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // pooled connection: don't leak session state to the next borrower
+            try (Statement session = con.createStatement()) {
+                session.execute("SET SESSION group_concat_max_len = DEFAULT");
+            }
+        }
+    }
+
+    private void writeNdjson(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        // one generator for the whole stream; flush only when its buffer fills, not per row
+        ObjectWriter writer = json.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator gen = json.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setRootValueSeparator(new SerializedString("\n"));
+        boolean any = false;
+        while (rs.next()) {
+            writer.writeValue(gen, toDto(rs));
+            any = true;
+        }
+        if (any) gen.writeRaw('\n');
+        gen.flush();
+    }
+
+    private void writeCsv(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        csvLine(w, CSV_HEADER);
+        while (rs.next()) {
+            String docs = rs.getString("docs");
+            List<String> docIds = new ArrayList<>();
+            if (docs != null) {
+                for (String d : split(docs, RS)) docIds.add(d.substring(0, d.indexOf(US)));
+            }
+            csvLine(w, new String[]{
+                    rs.getString("id"), rs.getString("plant_id"), rs.getString("type"), rs.getString("name"),
+                    rs.getString("system_name"), rs.getString("area_id"), rs.getString("area_name"),
+                    rs.getString("level_label"), rs.getString("panel"), rs.getString("bucket"),
+                    rs.getString("aisle"), rs.getString("nav_text"), rs.getString("qr_payload"),
+                    rs.getString("layer_id"), rs.getString("x"), rs.getString("y"),
+                    joinOrNull(rs.getString("tags"), '|'), docIds.isEmpty() ? null : String.join("|", docIds)
+            });
+        }
+        w.flush();
+    }
+
+    private static DeviceListItemDto toDto(ResultSet rs) throws SQLException {
+        String areaId = rs.getString("area_id");
+        String tags = rs.getString("tags");
+        String docs = rs.getString("docs");
+
+        List<DocDto> docDtos = new ArrayList<>();
+        if (docs != null) {
+            for (String d : split(docs, RS)) {
+                List<String> f = split(d, US);
+                String mime = f.size() > 3 ? ns(f.get(3)) : null;
+                docDtos.add(DocDto.builder()
+                        .id(f.get(0))
+                        .kind(f.size() > 1 ? ns(f.get(1)) : null)
+                        .title(f.size() > 2 ? ns(f.get(2)) : null)
+                        .mime(mime)
+                        .variants(DocDto.variantUrls(f.get(0), mime))
+                        .build());
+            }
+        }
+
+        return DeviceListItemDto.builder()
+                .id(rs.getString("id"))
+                .plantId(ns(rs.getString("plant_id")))
+                .type(ns(rs.getString("type")))
+                .name(ns(rs.getString("name")))
+                .system(ns(rs.getString("system_name")))
+                .area(areaId == null ? null : AreaDto.builder()
+                        .id(areaId)
+                        .name(ns(rs.getString("area_name")))
+                        .level(ns(rs.getString("level_label")))
+                        .build())
+                .loc(LocationDto.builder()
+                        .panel(ns(rs.getString("panel")))
+                        .bucket(ns(rs.getString("bucket")))
+                        .aisle(ns(rs.getString("aisle")))
+                        .navText(ns(rs.getString("nav_text")))
+                        .layerId(rs.getString("layer_id"))
+                        .x(rs.getObject("x", Double.class))
+                        .y(rs.getObject("y", Double.class))
+                        .build())
+                .scan(ScanDto.builder().qr(ns(rs.getString("qr_payload"))).build())
+                .docs(docDtos)
+                .tags(tags == null ? new ArrayList<>() : split(tags, RS))
+                .build();
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static List<String> split(String s, char sep) {
+        List<String> out = new ArrayList<>();
+        int from = 0;
+        for (int i = s.indexOf(sep); i >= 0; i = s.indexOf(sep, from)) {
+            out.add(s.substring(from, i));
+            from = i + 1;
+        }
+        out.add(s.substring(from));
+        return out;
+    }
+
+    private static String joinOrNull(String aggregated, char sep) {
+        return aggregated == null ? null : aggregated.replace(RS, sep);
+    }
+
+    private static void csvLine(Writer w, String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) w.write(',');
+            String c = cells[i];
+            if (c == null) continue;
+            if (c.indexOf(',') >= 0 || c.indexOf('"') >= 0 || c.indexOf('\n') >= 0 || c.indexOf('\r') >= 0) {
+                w.write('"');
+                w.write(c.replace("\"", "\"\""));
+                w.write('"');
+            } else {
+                w.write(c);
+            }
+        }
+        w.write("\r\n");
+    }
+
+    private static String ns(String s) {
+        return (s == null || s.isBlank()) ? null : s;
+    }
+}
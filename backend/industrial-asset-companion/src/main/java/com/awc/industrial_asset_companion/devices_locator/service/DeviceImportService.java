@@ -0,0 +1,457 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceCreateDto;
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceImportReportDto;
+import com.awc.industrial_asset_companion.devices_locator.entity.Area;
+import com.awc.industrial_asset_companion.devices_locator.repositories.AreaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk device load for commissioning (CSV or NDJSON, read as a stream).
+ * Rows are validated one by one, areas resolved from a per-plant map loaded once, and
+ * valid rows written with JDBC batches (device + device_tag), one transaction per batch,
+ * so a bad batch never rolls back the rest; a batch the database rejects is retried in halves
+ * down to the offending rows. With rewriteBatchedStatements=true on the datasource URL,
+ * Connector/J sends each batch as multi-row INSERTs.
+ */
+@Slf4j
+@Service
+public class DeviceImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_ID_LENGTH = 255;
+    private static final int MAX_TAG_LENGTH = 128;
+
+    private static final String DEVICE_COLUMNS =
+            "id, plant_id, area_id, type, name, system_name, panel, bucket, aisle, nav_text, qr_payload, qr_hash, device_code";
+    private static final String INSERT_DEVICE =
+            "insert into device (" + DEVICE_COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_DEVICE = INSERT_DEVICE + """
+             on duplicate key update plant_id = values(plant_id), area_id = values(area_id),
+               type = values(type), name = values(name), system_name = values(system_name),
+               panel = values(panel), bucket = values(bucket), aisle = values(aisle),
+               nav_text = values(nav_text), qr_payload = values(qr_payload),
+               qr_hash = values(qr_hash), device_code = values(device_code)
+            """;
+    private static final String INSERT_TAG = "insert into device_tag (device_id, tag) values (?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final AreaRepository areaRepo;
+    private final PlantDirectory plantDirectory;
+    private final ObjectMapper json;
+    private final ApplicationEventPublisher events;
+    private final int batchSize;
+
+    public DeviceImportService(NamedParameterJdbcTemplate jdbc, TransactionTemplate tx,
+                               AreaRepository areaRepo, PlantDirectory plantDirectory, ObjectMapper json,
+                               ApplicationEventPublisher events,
+                               @Value("${app.devices.import.batch-size:1000}") int batchSize) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.areaRepo = areaRepo;
+        this.plantDirectory = plantDirectory;
+        this.json = json;
+        this.events = events;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * @param upsert false: ids that already exist are reported as errors;
+     *               true: existing devices are overwritten and their tags replaced.
+     */
+    public DeviceImportReportDto importDevices(InputStream in, Format format, boolean upsert) throws IOException {
+        long t0 = System.nanoTime();
+        var run = new Run(upsert);
+        try (var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024)) {
+            if (format == Format.CSV) readCsv(reader, run);
+            else readNdjson(reader, run);
+        }
+        run.flush();
+        // bulk change: per-plant indexes rebuild lazily
+        run.touchedPlants.forEach(p -> events.publishEvent(DeviceChangedEvent.plantChanged(p)));
+
+        long millis = (System.nanoTime() - t0) / 1_000_000;
+        log.info("Device import: {} rows, {} imported, {} failed in {} ms", run.rows, run.imported, run.failed, millis);
+        return DeviceImportReportDto.builder()
+                .rows(run.rows)
+                .imported(run.imported)
+                .failed(run.failed)
+                .millis(millis)
+                .errorsTruncated(run.failed > run.errors.size())
+                .errors(run.errors)
+                .build();
+    }
+
+    /* ---------------- readers ---------------- */
+
+    private void readNdjson(BufferedReader reader, Run run) throws IOException {
+        long line = 0;
+        for (String s = reader.readLine(); s != null; s = reader.readLine()) {
+            line++;
+            if (s.isBlank()) continue;
+            run.rows++;
+            DeviceCreateDto dto;
+            try {
+                dto = json.readValue(s, DeviceCreateDto.class);
+            } catch (JsonProcessingException e) {
+                run.error(line, null, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.accept(line, dto);
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Run run) throws IOException {
+        var csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return;
+        Map<String, Integer> col = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) col.put(normalizeHeader(header.get(i)), i);
+
+        for (List<String> rec = csv.next(); rec != null; rec = csv.next()) {
+            if (rec.size() == 1 && rec.get(0).isBlank()) continue;
+            run.rows++;
+            String tags = cell(rec, col, "tags");
+            run.accept(csv.recordLine, DeviceCreateDto.builder()
+                    .id(cell(rec, col, "id"))
+                    .plantId(cell(rec, col, "plantid"))
+                    .type(cell(rec, col, "type"))
+                    .name(cell(rec, col, "name"))
+                    .system(cell(rec, col, "system"))
+                    .panel(cell(rec, col, "panel"))
+                    .bucket(cell(rec, col, "bucket"))
+                    .aisle(cell(rec, col, "aisle"))
+                    .navText(cell(rec, col, "navtext"))
+                    .qr(cell(rec, col, "qr"))
+                    .deviceCode(cell(rec, col, "devicecode"))
+                    .areaId(cell(rec, col, "areaid"))
+                    .areaName(cell(rec, col, "areaname"))
+                    .areaLevel(cell(rec, col, "arealevel"))
+                    .tags(tags == null ? null : List.of(tags.split("[|;]")))
+                    .build());
+        }
+    }
+
+    /** "Plant ID", "plant_id", "plantId" -> "plantid"; a few export/legacy aliases folded in. */
+    private static String normalizeHeader(String h) {
+        String n = h.replace("\uFEFF", "").toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        return switch (n) {
+            case "systemname" -> "system";
+            case "qrpayload" -> "qr";
+            case "level", "arealevellabel" -> "arealevel";
+            default -> n;
+        };
+    }
+
+    private static String cell(List<String> rec, Map<String, Integer> col, String name) {
+        Integer i = col.get(name);
+        if (i == null || i >= rec.size()) return null;
+        String v = rec.get(i).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    /* ---------------- one import run ---------------- */
+
+    private record Row(long line, DeviceCreateDto dto, UUID areaId, List<String> tags) {}
+
+    private final class Run {
+        final boolean upsert;
+        final Map<String, PlantAreas> areasByPlant = new HashMap<>();
+        final Set<String> seenIds = new HashSet<>();
+        final Set<String> seenQrs = new HashSet<>();
+        final Set<String> touchedPlants = new HashSet<>();
+        final List<DeviceImportReportDto.RowError> errors = new ArrayList<>();
+        List<Row> pending = new ArrayList<>();
+        int rows, imported, failed;
+
+        Run(boolean upsert) {
+            this.upsert = upsert;
+        }
+
+        void accept(long line, DeviceCreateDto d) {
+            String id = trim(d.getId());
+            String plantId = trim(d.getPlantId());
+            if (id == null) { error(line, null, "id is required"); return; }
+            if (id.length() > MAX_ID_LENGTH) { error(line, id, "id longer than " + MAX_ID_LENGTH); return; }
+            if (plantId == null) { error(line, id, "plantId is required"); return; }
+            if (!plantDirectory.exists(plantId)) { error(line, id, "Unknown plant " + plantId); return; }
+            d.setId(id);
+            d.setPlantId(plantId);
+
+            UUID areaId = null;
+            if (trim(d.getAreaId()) != null || trim(d.getAreaName()) != null) {
+                PlantAreas areas = areasByPlant.computeIfAbsent(plantId, p -> new PlantAreas(areaRepo.findByPlantId(p)));
+                areaId = areas.resolve(trim(d.getAreaId()), trim(d.getAreaName()), trim(d.getAreaLevel()));
+                if (areaId == null) { error(line, id, "Unknown area for plant " + plantId); return; }
+            }
+
+            List<String> tags = Tags.normalize(d.getTags());
+            for (String tag : tags) {
+                if (tag.length() > MAX_TAG_LENGTH) { error(line, id, "tag longer than " + MAX_TAG_LENGTH); return; }
+            }
+
+            if (!seenIds.add(id)) { error(line, id, "Duplicate id in file"); return; }
+            String qr = QrCodes.normalize(d.getQr());
+            if (qr != null && !seenQrs.add(qr)) { error(line, id, "Duplicate QR in file"); return; }
+            pending.add(new Row(line, d, areaId, tags));
+            if (pending.size() >= batchSize) flush();
+        }
+
+        void flush() {
+            if (pending.isEmpty()) return;
+            List<Row> batch = pending;
+            pending = new ArrayList<>(batchSize);
+
+            if (!upsert) {
+                Set<String> existing = new HashSet<>(jdbc.queryForList(
+                        "select id from device where id in (:ids)",
+                        Map.of("ids", batch.stream().map(r -> r.dto().getId()).toList()), String.class));
+                if (!existing.isEmpty()) {
+                    List<Row> fresh = new ArrayList<>(batch.size());
+                    for (Row r : batch) {
+                        if (existing.contains(r.dto().getId())) error(r.line(), r.dto().getId(), "Device already exists");
+                        else fresh.add(r);
+                    }
+                    batch = fresh;
+                    if (batch.isEmpty()) return;
+                }
+            }
+
+            batch = withoutQrConflicts(batch);
+            if (batch.isEmpty()) return;
+
+            if (upsert) {
+                // devices may move plants: the old plant's indexes must be dropped too
+                touchedPlants.addAll(jdbc.queryForList(
+                        "select distinct plant_id from device where id in (:ids)",
+                        Map.of("ids", batch.stream().map(r -> r.dto().getId()).toList()), String.class));
+            }
+
+            writeOrSplit(batch);
+        }
+
+        /**
+         * One transaction for the rows; if the database rejects a row (constraint, length), the
+         * halves are retried on their own, so only the offending rows end up reported. Any other
+         * failure (connection, timeout) fails the rows as they are, without retrying.
+         */
+        private void writeOrSplit(List<Row> rows) {
+            try {
+                tx.executeWithoutResult(status -> write(rows));
+                imported += rows.size();
+                for (Row r : rows) touchedPlants.add(r.dto().getPlantId());
+            } catch (DataIntegrityViolationException e) {
+                if (rows.size() > 1) {
+                    log.debug("Device import: {} rows rejected, retrying in halves", rows.size());
+                    int mid = rows.size() / 2;
+                    writeOrSplit(rows.subList(0, mid));
+                    writeOrSplit(rows.subList(mid, rows.size()));
+                    return;
+                }
+                Row r = rows.get(0);
+                error(r.line(), r.dto().getId(), "Rejected by database: " + e.getMostSpecificCause().getMessage());
+            } catch (DataAccessException e) {
+                String msg = "Batch rejected by database: " + e.getMostSpecificCause().getMessage();
+                log.warn("Device import: batch of {} rows failed", rows.size(), e);
+                for (Row r : rows) error(r.line(), r.dto().getId(), msg);
+            }
+        }
+
+        /**
+         * Rows whose QR already belongs to another device are reported, not written: with
+         * uk_device_qr_hash an upsert would otherwise update that other device.
+         */
+        private List<Row> withoutQrConflicts(List<Row> batch) {
+            Map<String, Row> byQr = new HashMap<>();
+            for (Row r : batch) {
+                byte[] h = QrCodes.hash(r.dto().getQr());
+                if (h != null) byQr.put(HexFormat.of().formatHex(h), r);
+            }
+            if (byQr.isEmpty()) return batch;
+
+            Set<Row> rejected = new HashSet<>();
+            jdbc.query("select id, qr_hash from device where qr_hash in (:hashes)",
+                    Map.of("hashes", byQr.keySet().stream().map(HexFormat.of()::parseHex).toList()),
+                    rs -> {
+                        Row r = byQr.get(HexFormat.of().formatHex(rs.getBytes("qr_hash")));
+                        if (r != null && !r.dto().getId().equals(rs.getString("id"))) {
+                            error(r.line(), r.dto().getId(), "QR already assigned to device " + rs.getString("id"));
+                            rejected.add(r);
+                        }
+                    });
+            if (rejected.isEmpty()) return batch;
+            return batch.stream().filter(r -> !rejected.contains(r)).toList();
+        }
+
+        private void write(List<Row> batch) {
+            var ops = jdbc.getJdbcOperations();
+            ops.batchUpdate(upsert ? UPSERT_DEVICE : INSERT_DEVICE, batch, batchSize, DeviceImportService::bindDevice);
+
+            if (upsert) {
+                jdbc.update("delete from device_tag where device_id in (:ids)",
+                        Map.of("ids", batch.stream().map(r -> r.dto().getId()).toList()));
+            }
+            List<String[]> tags = new ArrayList<>();
+            for (Row r : batch) {
+                for (String t : r.tags()) tags.add(new String[]{r.dto().getId(), t});
+            }
+            if (!tags.isEmpty()) {
+                ops.batchUpdate(INSERT_TAG, tags, batchSize, (ps, t) -> {
+                    ps.setString(1, t[0]);
+                    ps.setString(2, t[1]);
+                });
+            }
+        }
+
+        void error(long line, String id, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new DeviceImportReportDto.RowError(line, id, message));
+        }
+    }
+
+    /** Areas of one plant, by id and by (name, level) / name, case-insensitive. */
+    private static final class PlantAreas {
+        final Set<UUID> ids = new HashSet<>();
+        final Map<String, UUID> byNameLevel = new HashMap<>();
+        final Map<String, UUID> byName = new HashMap<>();
+
+        PlantAreas(List<Area> areas) {
+            for (Area a : areas) {
+                ids.add(a.getId());
+                String name = a.getName().toLowerCase(Locale.ROOT);
+                byNameLevel.put(name + "\u0000" + (a.getLevel() == null ? "" : a.getLevel().toLowerCase(Locale.ROOT)), a.getId());
+                byName.putIfAbsent(name, a.getId());
+            }
+        }
+
+        UUID resolve(String id, String name, String level) {
+            if (id != null) {
+                try {
+                    UUID uuid = UUID.fromString(id);
+                    return ids.contains(uuid) ? uuid : null;
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+            String n = name.toLowerCase(Locale.ROOT);
+            return level != null
+                    ? byNameLevel.get(n + "\u0000" + level.toLowerCase(Locale.ROOT))
+                    : byName.get(n);
+        }
+    }
+
+    /* ---------------- JDBC binding ---------------- */
+
+    private static void bindDevice(PreparedStatement ps, Row r) throws SQLException {
+        DeviceCreateDto d = r.dto();
+        ps.setString(1, d.getId());
+        ps.setString(2, d.getPlantId());
+        if (r.areaId() == null) ps.setNull(3, Types.BINARY);
+        else ps.setBytes(3, uuidBytes(r.areaId()));   // Hibernate maps UUID to binary(16) on MySQL
+        ps.setString(4, trim(d.getType()));
+        ps.setString(5, trim(d.getName()));
+        ps.setString(6, trim(d.getSystem()));
+        ps.setString(7, trim(d.getPanel()));
+        ps.setString(8, trim(d.getBucket()));
+        ps.setString(9, trim(d.getAisle()));
+        ps.setString(10, trim(d.getNavText()));
+        ps.setString(11, trim(d.getQr()));
+        byte[] qrHash = QrCodes.hash(d.getQr());
+        if (qrHash == null) ps.setNull(12, Types.BINARY);
+        else ps.setBytes(12, qrHash);
+        ps.setString(13, trim(d.getDeviceCode()));
+    }
+
+    private static byte[] uuidBytes(UUID u) {
+        return ByteBuffer.allocate(16)
+                .putLong(u.getMostSignificantBits())
+                .putLong(u.getLeastSignificantBits())
+                .array();
+    }
+
+    private static String trim(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+
+    /* ---------------- minimal RFC 4180 reader (quoted fields may span lines) ---------------- */
+
+    private static final class CsvReader {
+        private final BufferedReader in;
+        private final StringBuilder field = new StringBuilder();
+        private long line = 1;      // physical line of the next char
+        long recordLine;            // physical line where the last returned record started
+
+        CsvReader(BufferedReader in) { this.in = in; }
+
+        List<String> next() throws IOException {
+            int c = in.read();
+            if (c < 0) return null;
+            recordLine = line;
+            List<String> rec = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            while (true) {
+                if (c < 0) { rec.add(field.toString()); return rec; }
+                if (quoted) {
+                    if (c == '"') {
+                        int d = in.read();
+                        if (d == '"') field.append('"');
+                        else { quoted = false; c = d; continue; }
+                    } else {
+                        if (c == '\n') line++;
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    rec.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        in.mark(1);
+                        if (in.read() != '\n') in.reset();
+                    }
+                    line++;
+                    rec.add(field.toString());
+                    return rec;
+                } else {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceListItemDto;
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceResolveDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.scada.QualityRules;
+import com.awc.industrial_asset_companion.devices_locator.scada.ScadaDataSource;
+import com.awc.industrial_asset_companion.devices_locator.scada.ScadaReadingDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scan -> device. A scan is tried as a QR payload (unique qr_hash probe), then as a device id,
+ * then as a device code. Recent scans are kept in a bounded LRU of fully assembled devices,
+ * dropped on {@link DeviceChangedEvent}s, so a repeat scan costs no query; the SCADA reading
+ * is always read live.
+ */
+@Slf4j
+@Service
+public class DeviceResolveService {
+
+    private record Resolved(DeviceListItemDto device, String matchedBy) {}
+
+    private final DeviceRepository deviceRepo;
+    private final DeviceCrudService devices;
+    private final ObjectProvider<ScadaDataSource> scada;
+    private final int maxEntries;
+
+    // normalized scan -> device; access-ordered => LRU; guarded by "this"
+    private final LinkedHashMap<String, Resolved> cache = new LinkedHashMap<>(256, 0.75f, true);
+    // bumped on every invalidation; a lookup that raced one is served but not stored
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public DeviceResolveService(DeviceRepository deviceRepo, DeviceCrudService devices,
+                                ObjectProvider<ScadaDataSource> scada,
+                                @Value("${app.devices.resolve-cache.max-entries:5000}") int maxEntries) {
+        this.deviceRepo = deviceRepo;
+        this.devices = devices;
+        this.scada = scada;
+        this.maxEntries = maxEntries;
+    }
+
+    public DeviceResolveDto resolve(String qr) {
+        String key = QrCodes.normalize(qr);
+        if (key == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "qr is required");
+
+        Resolved r;
+        synchronized (this) {
+            r = cache.get(key);
+        }
+        if (r == null) {
+            long seen = invalidations.get();
+            r = lookup(qr.strip());
+            synchronized (this) {
+                if (invalidations.get() == seen) {
+                    cache.put(key, r);
+                    if (cache.size() > maxEntries) {
+                        var it = cache.keySet().iterator();
+                        it.next();
+                        it.remove();
+                    }
+                }
+            }
+        }
+        return DeviceResolveDto.builder()
+                .device(r.device())
+                .reading(reading(r.device()))
+                .matchedBy(r.matchedBy())
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent e) {
+        invalidations.incrementAndGet();
+        synchronized (this) {
+            // payload changes move a device to another key: drop by device, not by scan
+            cache.values().removeIf(r -> e.wholePlant()
+                    ? e.plantId() != null && e.plantId().equals(r.device().getPlantId())
+                    : r.device().getId().equals(e.deviceId()));
+        }
+    }
+
+    private Resolved lookup(String scan) {
+        var byQr = deviceRepo.findIdByQrHash(QrCodes.hash(scan));
+        if (byQr.isPresent()) return new Resolved(devices.get(byQr.get()), "qr");
+        if (deviceRepo.existsById(scan)) return new Resolved(devices.get(scan), "id");
+        List<String> byCode = deviceRepo.findIdsByDeviceCode(scan);
+        if (byCode.size() == 1) return new Resolved(devices.get(byCode.get(0)), "code");
+        if (byCode.size() > 1) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Device code matches " + byCode.size() + " devices");
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No device for this code");
+    }
+
+    /** SCADA readings are keyed by tag, which is the device id ("PH-101"). */
+    private ScadaReadingDto reading(DeviceListItemDto d) {
+        ScadaDataSource source = scada.getIfAvailable();
+        if (source == null || d.getPlantId() == null) return null;
+        try {
+            for (var r : source.readSnapshot(d.getPlantId())) {
+                if (!d.getId().equalsIgnoreCase(r.tag())) continue;
+                return ScadaReadingDto.builder()
+                        .deviceId(d.getId())
+                        .name(d.getName())
+                        .type(r.type())
+                        .unit(r.unit() == null ? "" : r.unit())
+                        .value(r.value())
+                        .quality(QualityRules.quality(r.type(), r.value()))
+                        .timestamp(r.timestamp())
+                        .plantId(d.getPlantId())
+                        .system(d.getSystem())
+                        .areaName(d.getArea() != null ? d.getArea().getName() : null)
+                        .areaLevel(d.getArea() != null ? d.getArea().getLevel() : null)
+                        .build();
+            }
+        } catch (RuntimeException e) {
+            // the device page is still useful without a live value
+            log.warn("SCADA read failed for plant {}: {}", d.getPlantId(), e.toString());
+        }
+        return null;
+    }
+}
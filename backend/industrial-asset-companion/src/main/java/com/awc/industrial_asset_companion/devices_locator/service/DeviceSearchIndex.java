@@ -0,0 +1,261 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceSearchHitDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceSearchRow;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceTagRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-plant device search: every query token must prefix-match some term of the device
+ * (id, qr/device code, name, tags, type, system, panel, bucket, aisle, navText, area); hits are ranked
+ * by field weight, exact term matches scoring above prefix matches.
+ * <p>
+ * Terms are the lower-cased alphanumeric runs of each field plus the whole field with
+ * separators removed, so "PH-101" is found by "ph", "101", "ph-1" and "ph10".
+ * A plant is loaded on first search (two queries, outside any lock: {@link IndexCache}) and
+ * then patched per device from {@link DeviceChangedEvent}s; bulk changes drop it for a lazy rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceSearchIndex {
+
+    public static final int MAX_LIMIT = 100;
+
+    // field weights (relative importance of where a token matched)
+    private static final int W_ID = 10, W_CODE = 9, W_NAME = 8, W_TAG = 6, W_PANEL = 5,
+            W_TYPE = 4, W_SYSTEM = 4, W_AREA = 3, W_BUCKET = 3, W_AISLE = 3, W_LEVEL = 2, W_NAV = 2;
+    // beyond this many dictionary terms a token's range is considered "broad"
+    private static final int SELECTIVITY_PROBE = 256;
+
+    private final DeviceRepository deviceRepo;
+    private final IndexCache<String, PlantIndex> plants = new IndexCache<>();
+
+    public List<DeviceSearchHitDto> search(String plantId, String query, int limit) {
+        String[] tokens = tokenize(query);
+        if (tokens.length == 0) return List.of();
+        return plant(plantId).search(tokens, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent e) {
+        if (e.plantId() == null) return;
+        if (e.wholePlant()) {
+            plants.evict(e.plantId());
+            return;
+        }
+        // not loaded -> nothing to patch, the next search loads committed rows
+        PlantIndex p = plants.changed(e.plantId());
+        if (p == null) return;
+        // up to two primary-key reads; serialized per plant so an older read cannot overwrite a newer one
+        synchronized (p.patches) {
+            var row = e.removal() ? null : deviceRepo.findSearchRowById(e.deviceId()).orElse(null);
+            if (row == null || !e.plantId().equals(row.plantId())) {
+                p.remove(e.deviceId());
+            } else {
+                List<String> tags = deviceRepo.findTagRowsByDeviceId(e.deviceId()).stream().map(DeviceTagRow::tag).toList();
+                p.put(Doc.of(row, tags));
+            }
+        }
+    }
+
+    private PlantIndex plant(String plantId) {
+        return plants.get(plantId, this::load);
+    }
+
+    private PlantIndex load(String plantId) {
+        Map<String, List<String>> tags = new HashMap<>();
+        for (DeviceTagRow r : deviceRepo.findTagRowsByPlantId(plantId)) {
+            tags.computeIfAbsent(r.deviceId(), k -> new ArrayList<>()).add(r.tag());
+        }
+        var index = new PlantIndex();
+        for (DeviceSearchRow r : deviceRepo.findSearchRowsByPlantId(plantId)) {
+            index.put(Doc.of(r, tags.getOrDefault(r.id(), List.of())));
+        }
+        return index;
+    }
+
+    /* ---------------- tokenization ---------------- */
+
+    static String[] tokenize(String s) {
+        if (s == null) return new String[0];
+        return Arrays.stream(s.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /** term -> best weight for one field value: its tokens plus the separator-free whole. */
+    private static void addTerms(Map<String, Integer> out, String value, int weight) {
+        if (value == null || value.isBlank()) return;
+        String[] tokens = tokenize(value);
+        for (String t : tokens) out.merge(t, weight, Math::max);
+        if (tokens.length > 1) out.merge(String.join("", tokens), weight, Math::max);
+    }
+
+    /* ---------------- documents ---------------- */
+
+    /** One device: sorted unique terms with weights, plus what a hit displays. */
+    private record Doc(String id, String[] terms, byte[] weights, DeviceSearchHitDto display) {
+
+        static Doc of(DeviceSearchRow r, List<String> tags) {
+            Map<String, Integer> w = new HashMap<>();
+            addTerms(w, r.id(), W_ID);
+            addTerms(w, r.qrPayload(), W_CODE);
+            addTerms(w, r.deviceCode(), W_CODE);
+            addTerms(w, r.name(), W_NAME);
+            for (String t : tags) addTerms(w, t, W_TAG);
+            addTerms(w, r.panel(), W_PANEL);
+            addTerms(w, r.type(), W_TYPE);
+            addTerms(w, r.system(), W_SYSTEM);
+            addTerms(w, r.areaName(), W_AREA);
+            addTerms(w, r.bucket(), W_BUCKET);
+            addTerms(w, r.aisle(), W_AISLE);
+            addTerms(w, r.areaLevel(), W_LEVEL);
+            addTerms(w, r.navText(), W_NAV);
+
+            String[] terms = w.keySet().toArray(String[]::new);
+            Arrays.sort(terms);
+            byte[] weights = new byte[terms.length];
+            for (int i = 0; i < terms.length; i++) weights[i] = w.get(terms[i]).byteValue();
+            return new Doc(r.id(), terms, weights,
+                    new DeviceSearchHitDto(r.id(), r.name(), r.type(), r.system(), r.areaName(), r.panel(), 0));
+        }
+
+        /** Best score of any term starting with token (exact x3, prefix x2), 0 if none. */
+        int match(String token) {
+            int i = Arrays.binarySearch(terms, token);
+            if (i >= 0) {
+                int best = weights[i] * 3;
+                for (int j = i + 1; j < terms.length && terms[j].startsWith(token); j++) best = Math.max(best, weights[j] * 2);
+                return best;
+            }
+            int best = 0;
+            for (int j = -i - 1; j < terms.length && terms[j].startsWith(token); j++) best = Math.max(best, weights[j] * 2);
+            return best;
+        }
+    }
+
+    /* ---------------- one plant ---------------- */
+
+    private static final class PlantIndex {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Object patches = new Object();                            // orders event patches, never held by search
+        final Map<String, Integer> ordinals = new HashMap<>();
+        final List<Doc> docs = new ArrayList<>();                       // by ordinal, null once removed
+        final TreeMap<String, BitSet> postings = new TreeMap<>();      // term -> ordinals
+
+        void put(Doc doc) {
+            lock.writeLock().lock();
+            try {
+                Integer ord = ordinals.get(doc.id());
+                if (ord == null) {
+                    ord = docs.size();
+                    ordinals.put(doc.id(), ord);
+                    docs.add(null);
+                } else {
+                    unindex(ord);
+                }
+                docs.set(ord, doc);
+                for (String t : doc.terms()) postings.computeIfAbsent(t, k -> new BitSet()).set(ord);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(String deviceId) {
+            lock.writeLock().lock();
+            try {
+                Integer ord = ordinals.remove(deviceId);
+                if (ord != null) {
+                    unindex(ord);
+                    docs.set(ord, null);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void unindex(int ord) {
+            Doc old = docs.get(ord);
+            if (old == null) return;
+            for (String t : old.terms()) {
+                BitSet b = postings.get(t);
+                if (b == null) continue;
+                b.clear(ord);
+                if (b.isEmpty()) postings.remove(t);
+            }
+        }
+
+        List<DeviceSearchHitDto> search(String[] tokens, int limit) {
+            lock.readLock().lock();
+            try {
+                // candidates from the most selective token; the others are checked per candidate
+                String seed = mostSelective(tokens);
+                BitSet candidates = new BitSet();
+                for (BitSet b : prefixRange(seed).values()) candidates.or(b);
+
+                PriorityQueue<DeviceSearchHitDto> top = new PriorityQueue<>(limit + 1,
+                        Comparator.comparingInt(DeviceSearchHitDto::score)
+                                .thenComparing(DeviceSearchHitDto::id, Comparator.reverseOrder()));
+                for (int ord = candidates.nextSetBit(0); ord >= 0; ord = candidates.nextSetBit(ord + 1)) {
+                    Doc d = docs.get(ord);
+                    int score = 0;
+                    for (String t : tokens) {
+                        int s = d.match(t);
+                        if (s == 0) { score = 0; break; }
+                        score += s;
+                    }
+                    if (score == 0) continue;
+                    // full queue: skip anything that would be polled straight away, without allocating a hit
+                    var worst = top.size() == limit ? top.peek() : null;
+                    if (worst != null && (score < worst.score() || (score == worst.score() && d.id().compareTo(worst.id()) > 0))) continue;
+                    var h = d.display();
+                    top.add(new DeviceSearchHitDto(h.id(), h.name(), h.type(), h.system(), h.area(), h.panel(), score));
+                    if (top.size() > limit) top.poll();
+                }
+
+                List<DeviceSearchHitDto> out = new ArrayList<>(top);
+                out.sort(Comparator.comparingInt(DeviceSearchHitDto::score).reversed()
+                        .thenComparing(DeviceSearchHitDto::id));
+                return out;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private NavigableMap<String, BitSet> prefixRange(String token) {
+            return postings.subMap(token, true, token + Character.MAX_VALUE, false);
+        }
+
+        /** Fewest dictionary terms under its prefix (probe capped); ties go to the longer token. */
+        private String mostSelective(String[] tokens) {
+            String best = tokens[0];
+            int bestCount = Integer.MAX_VALUE;
+            for (String t : tokens) {
+                int n = 0;
+                for (var it = prefixRange(t).keySet().iterator(); it.hasNext() && n < SELECTIVITY_PROBE; it.next()) n++;
+                if (n < bestCount || (n == bestCount && t.length() > best.length())) {
+                    best = t;
+                    bestCount = n;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.TagFacetDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceTagRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-plant inverted index: normalized tag -> bitmap of device ordinals.
+ * A plant is loaded on first use (one tag query, outside any lock: {@link IndexCache}) and then
+ * kept current from {@link DeviceChangedEvent}s after commit; bulk changes drop it for a lazy rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceTagIndex {
+
+    private final DeviceRepository deviceRepo;
+    private final IndexCache<String, PlantTags> plants = new IndexCache<>();
+
+    /** Ids of devices carrying ALL of the given tags, sorted. */
+    public List<String> deviceIds(String plantId, Collection<String> tags) {
+        List<String> wanted = Tags.normalize(tags);
+        if (wanted.isEmpty()) return List.of();
+        return plant(plantId).matchAll(wanted);
+    }
+
+    /** Tag -> number of devices in the plant, most used first. */
+    public List<TagFacetDto> facets(String plantId) {
+        return plant(plantId).facets();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent e) {
+        if (e.plantId() == null) return;
+        if (e.wholePlant()) {
+            plants.evict(e.plantId());
+            return;
+        }
+        // not loaded yet -> nothing to patch; the next load reads committed rows
+        PlantTags p = plants.changed(e.plantId());
+        if (p == null) return;
+        if (e.removal()) p.remove(e.deviceId());
+        else p.put(e.deviceId(), Tags.normalize(e.tags()));
+    }
+
+    private PlantTags plant(String plantId) {
+        return plants.get(plantId, this::load);
+    }
+
+    private PlantTags load(String plantId) {
+        Map<String, List<String>> byDevice = new HashMap<>();
+        for (DeviceTagRow r : deviceRepo.findTagRowsByPlantId(plantId)) {
+            byDevice.computeIfAbsent(r.deviceId(), k -> new ArrayList<>()).add(r.tag());
+        }
+        var p = new PlantTags();
+        byDevice.forEach((id, tags) -> p.put(id, Tags.normalize(tags)));
+        return p;
+    }
+
+    /** One plant; all access synchronized on the instance. Ordinals are never reused. */
+    private static final class PlantTags {
+        final Map<String, Integer> ordinals = new HashMap<>();
+        final List<String> ids = new ArrayList<>();
+        final Map<Integer, Set<String>> tagsOf = new HashMap<>();
+        final Map<String, BitSet> devicesWith = new HashMap<>();
+
+        synchronized void put(String deviceId, List<String> tags) {
+            int ord = ordinals.computeIfAbsent(deviceId, k -> {
+                ids.add(k);
+                return ids.size() - 1;
+            });
+            clear(ord);
+            if (tags.isEmpty()) return;
+            tagsOf.put(ord, new HashSet<>(tags));
+            for (String t : tags) devicesWith.computeIfAbsent(t, k -> new BitSet()).set(ord);
+        }
+
+        synchronized void remove(String deviceId) {
+            Integer ord = ordinals.get(deviceId);
+            if (ord != null) clear(ord);
+        }
+
+        private void clear(int ord) {
+            Set<String> old = tagsOf.remove(ord);
+            if (old == null) return;
+            for (String t : old) {
+                BitSet b = devicesWith.get(t);
+                if (b == null) continue;
+                b.clear(ord);
+                if (b.isEmpty()) devicesWith.remove(t);
+            }
+        }
+
+        synchronized List<String> matchAll(List<String> tags) {
+            BitSet acc = null;
+            for (String t : tags) {
+                BitSet b = devicesWith.get(t);
+                if (b == null) return List.of();
+                if (acc == null) acc = (BitSet) b.clone();
+                else acc.and(b);
+                if (acc.isEmpty()) return List.of();
+            }
+            List<String> out = new ArrayList<>(acc.cardinality());
+            for (int i = acc.nextSetBit(0); i >= 0; i = acc.nextSetBit(i + 1)) out.add(ids.get(i));
+            out.sort(Comparator.naturalOrder());
+            return out;
+        }
+
+        synchronized List<TagFacetDto> facets() {
+            List<TagFacetDto> out = new ArrayList<>(devicesWith.size());
+            devicesWith.forEach((t, b) -> out.add(new TagFacetDto(t, b.cardinality())));
+            out.sort(Comparator.comparingInt(TagFacetDto::count).reversed().thenComparing(TagFacetDto::tag));
+            return out;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thumbnails and previews of document blobs, stored next to the blob as
+ * {@code <blobKey>.<variant>.<jpg|png>}. New uploads are queued for derivation on a bounded
+ * pool; a variant that is still missing when asked for is derived on demand. Concurrent
+ * requests for the same variant share one derivation (single flight).
+ * <p>
+ * Photos are decoded with source subsampling, so a 12 MP JPEG never becomes a 12 MP raster;
+ * PDFs are opened from the file with a temp-file stream cache and only page 1 is rendered.
+ */
+@Slf4j
+@Service
+public class DocumentDerivativeService {
+
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final int MAX_FAILURES_REMEMBERED = 10_000;
+
+    private final BlobStore blobs;
+    private final MeterRegistry metrics;
+    private final ThreadPoolExecutor pool;
+    private final long waitMillis;
+
+    // blobKey.variant -> derivation in progress
+    private final Map<String, CompletableFuture<Path>> inflight = new ConcurrentHashMap<>();
+    // derivations that failed (corrupt/unsupported file): not retried on every request
+    private final Map<String, Boolean> failed = new ConcurrentHashMap<>();
+
+    public DocumentDerivativeService(BlobStore blobs, MeterRegistry metrics,
+                                     @Value("${app.documents.derivatives.threads:2}") int threads,
+                                     @Value("${app.documents.derivatives.queue:256}") int queue,
+                                     @Value("${app.documents.derivatives.wait-ms:20000}") long waitMillis) {
+        this.blobs = blobs;
+        this.metrics = metrics;
+        this.waitMillis = waitMillis;
+        var seq = new AtomicInteger();
+        int n = Math.max(1, threads);
+        this.pool = new ThreadPoolExecutor(n, n, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, queue)), r -> {
+            Thread t = new Thread(r, "doc-derive-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);   // never compete with request threads
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /** Queue every variant of a new upload; a full queue just leaves them to on-demand derivation. */
+    public void schedule(String blobKey, String mime) {
+        for (DocumentVariant v : DocumentVariant.forMime(mime)) {
+            if (blobs.derived(blobKey, suffix(v, mime)) != null) continue;
+            try {
+                derive(blobKey, mime, v);
+            } catch (RejectedExecutionException e) {
+                log.debug("Derivation queue full; {} of {} left for on demand", v.id(), blobKey);
+            }
+        }
+    }
+
+    /**
+     * The variant file, deriving it now if missing (waits up to app.documents.derivatives.wait-ms).
+     * Null when the document cannot have this variant or its derivation failed.
+     */
+    public Path get(String blobKey, String mime, DocumentVariant v) throws TimeoutException {
+        if (!DocumentVariant.forMime(mime).contains(v)) return null;
+        String suffix = suffix(v, mime);
+        Path file = blobs.derived(blobKey, suffix);
+        if (file != null) return file;
+        if (failed.containsKey(blobKey + "." + suffix)) return null;
+
+        CompletableFuture<Path> f;
+        try {
+            f = derive(blobKey, mime, v);
+        } catch (RejectedExecutionException e) {
+            throw new TimeoutException("Derivation queue full");
+        }
+        try {
+            return f.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted");
+        } catch (ExecutionException e) {
+            return null;   // logged and remembered by the worker
+        }
+    }
+
+    /** Mime type of a variant file. */
+    public static String mimeOf(String sourceMime) {
+        return DocumentVariant.isPdf(sourceMime) ? "image/png" : "image/jpeg";
+    }
+
+    /* ---------------- single flight ---------------- */
+
+    private CompletableFuture<Path> derive(String blobKey, String mime, DocumentVariant v) {
+        String suffix = suffix(v, mime);
+        String flight = blobKey + "." + suffix;
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> running = inflight.putIfAbsent(flight, mine);
+        if (running != null) return running;
+
+        try {
+            pool.execute(() -> {
+                try {
+                    Path file = blobs.derived(blobKey, suffix);   // a previous flight may have just finished
+                    if (file == null) {
+                        Timer.Sample t = Timer.start(metrics);
+                        file = blobs.putDerived(blobKey, suffix, out -> render(blobKey, mime, v, out));
+                        t.stop(metrics.timer("documents.derivatives", "variant", v.id()));
+                    }
+                    mine.complete(file);
+                } catch (Throwable e) {
+                    log.warn("Could not derive {} of blob {} ({}): {}", v.id(), blobKey, mime, e.toString());
+                    if (failed.size() >= MAX_FAILURES_REMEMBERED) failed.clear();
+                    failed.put(flight, Boolean.TRUE);
+                    mine.completeExceptionally(e);
+                } finally {
+                    inflight.remove(flight, mine);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inflight.remove(flight, mine);
+            throw e;
+        }
+        return mine;
+    }
+
+    private static String suffix(DocumentVariant v, String mime) {
+        return v.id() + (DocumentVariant.isPdf(mime) ? ".png" : ".jpg");
+    }
+
+    /* ---------------- rendering ---------------- */
+
+    private void render(String blobKey, String mime, DocumentVariant v, OutputStream out) throws IOException {
+        Path source = blobs.path(blobKey);
+        if (source == null) throw new IOException("Blob missing");
+        if (DocumentVariant.isPdf(mime)) {
+            ImageIO.write(pdfFirstPage(source, v.maxEdge), "png", out);
+        } else {
+            writeJpeg(fit(readSubsampled(source, v.maxEdge), v.maxEdge), out);
+        }
+    }
+
+    private static BufferedImage pdfFirstPage(Path source, int maxEdge) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(source.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            if (pdf.getNumberOfPages() == 0) throw new IOException("PDF has no pages");
+            PDRectangle box = pdf.getPage(0).getCropBox();
+            float scale = maxEdge / Math.max(box.getWidth(), box.getHeight());
+            return new PDFRenderer(pdf).renderImage(0, scale, ImageType.RGB);
+        }
+    }
+
+    /** Decodes at roughly twice the target size: every n-th pixel, n chosen from the header. */
+    private static BufferedImage readSubsampled(Path source, int maxEdge) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) throw new IOException("Unsupported image");
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int edge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, edge / (maxEdge * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage fit(BufferedImage src, int maxEdge) {
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(src.getWidth(), src.getHeight()));
+        int w = Math.max(1, (int) Math.round(src.getWidth() * scale));
+        int h = Math.max(1, (int) Math.round(src.getHeight() * scale));
+        BufferedImage dst = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);   // JPEG: no alpha
+        Graphics2D g = dst.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, w, h);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(src, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return dst;
+    }
+
+    private static void writeJpeg(BufferedImage img, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam p = writer.getDefaultWriteParam();
+            p.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            p.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(img, null, null), p);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.DocDto;
+import com.awc.industrial_asset_companion.devices_locator.entity.DeviceDocument;
+import com.awc.industrial_asset_companion.devices_locator.entity.Document;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DocumentRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceTagRow;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+
+/** Document uploads (blob first, then the row) and content lookup for streaming. */
+@Service
+@RequiredArgsConstructor
+public class DocumentService {
+
+    /** What the content endpoint needs: no entity, no bytes. */
+    public record Content(Path file, long size, String mime, String title, String etag) {}
+
+    private final BlobStore blobs;
+    private final DocumentDerivativeService derivatives;
+    private final DocumentRepository documentRepo;
+    private final DeviceRepository deviceRepo;
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Stores the body, then records the document (and links it to the device if given).
+     * The upload runs outside any transaction so a slow client never holds a connection.
+     */
+    public DocDto upload(InputStream body, String mime, String title, String kind, String deviceId) throws IOException {
+        String plantId = deviceId == null ? null : deviceRepo.findPlantIdById(deviceId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Device not found"));
+
+        BlobStore.Stored stored = blobs.put(body);
+
+        Document doc = tx.execute(status -> {
+            Document saved = documentRepo.save(Document.builder()
+                    .title(title)
+                    .kind(kind)
+                    .mime(mime)
+                    .blobKey(stored.key())
+                    .sizeBytes(stored.size())
+                    .build());
+            if (deviceId != null) {
+                em.persist(DeviceDocument.builder().deviceId(deviceId).documentId(saved.getId()).build());
+                // device views (list, resolve cache) carry their document list
+                events.publishEvent(DeviceChangedEvent.upserted(plantId, deviceId,
+                        deviceRepo.findTagRowsByDeviceId(deviceId).stream().map(DeviceTagRow::tag).toList()));
+            }
+            return saved;
+        });
+        derivatives.schedule(stored.key(), mime);
+
+        return DocDto.builder()
+                .id(doc.getId().toString())
+                .kind(doc.getKind())
+                .title(doc.getTitle())
+                .mime(doc.getMime())
+                .variants(DocDto.variantUrls(doc.getId().toString(), doc.getMime()))
+                .build();
+    }
+
+    public Content content(UUID id) {
+        Document doc = find(id);
+        Path file = blobs.path(doc.getBlobKey());
+        if (file == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Document has no content");
+        long size = file.toFile().length();
+        return new Content(file, size, doc.getMime(), doc.getTitle(), "\"" + doc.getBlobKey() + "\"");
+    }
+
+    /** Thumbnail / preview, derived now if it does not exist yet (503 if that takes too long). */
+    public Content variant(UUID id, String name) {
+        Document doc = find(id);
+        DocumentVariant v = DocumentVariant.parse(name);
+        if (v == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown variant " + name);
+        if (blobs.path(doc.getBlobKey()) == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Document has no content");
+        Path file;
+        try {
+            file = derivatives.get(doc.getBlobKey(), doc.getMime(), v);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Variant is still being generated");
+        }
+        if (file == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No " + v.id() + " for this document");
+        String title = (doc.getTitle() == null ? id.toString() : doc.getTitle()) + " (" + v.id() + ")";
+        return new Content(file, file.toFile().length(), DocumentDerivativeService.mimeOf(doc.getMime()), title,
+                "\"" + doc.getBlobKey() + "-" + v.id() + "\"");
+    }
+
+    private Document find(UUID id) {
+        return documentRepo.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Document not found"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/** Derived renditions of a document: longest edge in px; photos as JPEG, PDF pages as PNG. */
+public enum DocumentVariant {
+    THUMB(256),
+    PREVIEW(1600);
+
+    public final int maxEdge;
+
+    DocumentVariant(int maxEdge) {
+        this.maxEdge = maxEdge;
+    }
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static DocumentVariant parse(String s) {
+        for (DocumentVariant v : values()) {
+            if (v.id().equalsIgnoreCase(s)) return v;
+        }
+        return null;
+    }
+
+    /** Variants a document of this mime type can have (none for e.g. spreadsheets). */
+    public static List<DocumentVariant> forMime(String mime) {
+        return isPdf(mime) || isRaster(mime) ? Arrays.asList(values()) : List.of();
+    }
+
+    static boolean isPdf(String mime) {
+        return mime != null && mime.toLowerCase(Locale.ROOT).startsWith("application/pdf");
+    }
+
+    static boolean isRaster(String mime) {
+        if (mime == null) return false;
+        String m = mime.toLowerCase(Locale.ROOT);
+        return m.startsWith("image/jpeg") || m.startsWith("image/png") || m.startsWith("image/gif") || m.startsWith("image/bmp");
+    }
+}
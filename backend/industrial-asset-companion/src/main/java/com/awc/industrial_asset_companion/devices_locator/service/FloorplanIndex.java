@@ -0,0 +1,256 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.FloorplanPointDto;
+import com.awc.industrial_asset_companion.devices_locator.dto.RouteQueryDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceLocationRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DevicePointRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * Per-layer point quadtree over placed devices (device_location with x/y). A layer is built
+ * on first query from one projection query (outside any lock: {@link IndexCache}) and is
+ * immutable afterwards; location writes drop it ({@link #evictAfterCommit}) and the next
+ * query rebuilds it. Device edits and removals drop the layers that show the device.
+ * <p>
+ * Nodes keep the tight bounding box of their points and a contiguous slice of the layer's
+ * point array, so a node fully inside a viewport is emitted without visiting its children.
+ */
+@Component
+@RequiredArgsConstructor
+public class FloorplanIndex {
+
+    public static final int MAX_RESULTS = 10_000;
+
+    private static final int LEAF_SIZE = 16;
+    private static final int MAX_DEPTH = 24;
+
+    private final DeviceLocationRepository locationRepo;
+    private final IndexCache<UUID, Layer> layers = new IndexCache<>();
+
+    /** Devices inside the axis-aligned viewport (inclusive), at most limit of them. */
+    public List<FloorplanPointDto> within(UUID layerId, double minX, double minY, double maxX, double maxY, int limit) {
+        Layer layer = layer(layerId);
+        var box = new Box(Math.min(minX, maxX), Math.min(minY, maxY), Math.max(minX, maxX), Math.max(minY, maxY));
+        List<FloorplanPointDto> out = new ArrayList<>();
+        if (layer.root != null) layer.collect(layer.root, box, out, clamp(limit));
+        return out;
+    }
+
+    /** Up to k devices closest to (x, y), nearest first; maxDistance <= 0 means unbounded. */
+    public List<FloorplanPointDto> nearest(UUID layerId, double x, double y, int k, double maxDistance) {
+        Layer layer = layer(layerId);
+        if (layer.root == null) return List.of();
+        double max2 = maxDistance > 0 ? maxDistance * maxDistance : Double.POSITIVE_INFINITY;
+        int want = clamp(k);
+
+        // best-first: nodes keyed by the distance to their box (a lower bound), points by exact distance
+        record Candidate(double d2, Node node, int point) {}
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparingDouble(Candidate::d2));
+        queue.add(new Candidate(layer.root.box.dist2(x, y), layer.root, -1));
+        List<FloorplanPointDto> out = new ArrayList<>(Math.min(want, 64));
+        while (!queue.isEmpty() && out.size() < want) {
+            Candidate c = queue.poll();
+            if (c.d2() > max2) break;
+            if (c.node() == null) {
+                out.add(layer.dto(c.point(), Math.sqrt(c.d2()), null));
+            } else if (c.node().kids == null) {
+                for (int i = c.node().from; i < c.node().to; i++) {
+                    double dx = layer.points[i].x() - x, dy = layer.points[i].y() - y;
+                    double d2 = dx * dx + dy * dy;
+                    if (d2 <= max2) queue.add(new Candidate(d2, null, i));
+                }
+            } else {
+                for (Node kid : c.node().kids) queue.add(new Candidate(kid.box.dist2(x, y), kid, -1));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Devices within radius of the polyline, in walk order (position along the route), each
+     * reported once at its closest segment.
+     */
+    public List<FloorplanPointDto> alongRoute(UUID layerId, List<RouteQueryDto.Point> route, double radius, int limit) {
+        Layer layer = layer(layerId);
+        if (layer.root == null || route == null || route.isEmpty()) return List.of();
+        double r = Math.max(0, radius);
+
+        Map<Integer, double[]> best = new HashMap<>();   // point -> {distance, along}
+        double walked = 0;
+        for (int s = 0; s < Math.max(1, route.size() - 1); s++) {
+            var a = route.get(s);
+            var b = route.get(Math.min(s + 1, route.size() - 1));
+            double len = Math.hypot(b.x() - a.x(), b.y() - a.y());
+            var box = new Box(Math.min(a.x(), b.x()) - r, Math.min(a.y(), b.y()) - r,
+                    Math.max(a.x(), b.x()) + r, Math.max(a.y(), b.y()) + r);
+            final double offset = walked;
+            layer.visit(layer.root, box, i -> {
+                double px = layer.points[i].x(), py = layer.points[i].y();
+                double t = len == 0 ? 0 : Math.max(0, Math.min(1,
+                        ((px - a.x()) * (b.x() - a.x()) + (py - a.y()) * (b.y() - a.y())) / (len * len)));
+                double d = Math.hypot(px - (a.x() + t * (b.x() - a.x())), py - (a.y() + t * (b.y() - a.y())));
+                if (d > r) return;
+                double[] prev = best.get(i);
+                if (prev == null || d < prev[0]) best.put(i, new double[]{d, offset + t * len});
+            });
+            walked += len;
+        }
+
+        List<FloorplanPointDto> out = new ArrayList<>(best.size());
+        best.forEach((i, v) -> out.add(layer.dto(i, v[0], v[1])));
+        out.sort(Comparator.comparingDouble(FloorplanPointDto::along).thenComparingDouble(FloorplanPointDto::distance));
+        return out.size() > clamp(limit) ? List.copyOf(out.subList(0, clamp(limit))) : out;
+    }
+
+    /** Drop the layer now (call after the write is committed). */
+    public void evict(UUID layerId) {
+        if (layerId != null) layers.evict(layerId);
+    }
+
+    /** Drop the layers once the surrounding transaction commits (immediately if there is none). */
+    public void evictAfterCommit(UUID... layerIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override public void afterCompletion(int status) { for (UUID id : layerIds) evict(id); }
+            });
+        } else {
+            for (UUID id : layerIds) evict(id);
+        }
+    }
+
+    /** Names/types shown on markers may have changed, or the device is gone. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent e) {
+        layers.evictIf(l -> e.wholePlant()
+                ? l.plants.contains(e.plantId())
+                : l.slots.containsKey(e.deviceId()));
+    }
+
+    private Layer layer(UUID layerId) {
+        return layers.get(layerId, id -> new Layer(locationRepo.findPointsByLayerId(id)));
+    }
+
+    private static int clamp(int n) {
+        return Math.max(1, Math.min(n, MAX_RESULTS));
+    }
+
+    /* ---------------- quadtree ---------------- */
+
+    private record Box(double minX, double minY, double maxX, double maxY) {
+        boolean intersects(Box o) {
+            return minX <= o.maxX && o.minX <= maxX && minY <= o.maxY && o.minY <= maxY;
+        }
+        boolean contains(Box o) {
+            return minX <= o.minX && o.maxX <= maxX && minY <= o.minY && o.maxY <= maxY;
+        }
+        boolean contains(double x, double y) {
+            return minX <= x && x <= maxX && minY <= y && y <= maxY;
+        }
+        double dist2(double x, double y) {
+            double dx = Math.max(0, Math.max(minX - x, x - maxX));
+            double dy = Math.max(0, Math.max(minY - y, y - maxY));
+            return dx * dx + dy * dy;
+        }
+    }
+
+    /** Tight box of points[from, to); kids null for a leaf. */
+    private record Node(Box box, int from, int to, Node[] kids) {}
+
+    private static final class Layer {
+        final DevicePointRow[] points;          // permuted so every node is a contiguous slice
+        final Map<String, Integer> slots = new HashMap<>();
+        final Set<String> plants = new HashSet<>();
+        final Node root;
+
+        Layer(List<DevicePointRow> rows) {
+            points = rows.toArray(DevicePointRow[]::new);
+            root = points.length == 0 ? null : build(0, points.length, 0);
+            for (int i = 0; i < points.length; i++) {
+                slots.put(points[i].deviceId(), i);
+                plants.add(points[i].plantId());
+            }
+        }
+
+        private Node build(int from, int to, int depth) {
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                minX = Math.min(minX, points[i].x());
+                minY = Math.min(minY, points[i].y());
+                maxX = Math.max(maxX, points[i].x());
+                maxY = Math.max(maxY, points[i].y());
+            }
+            var box = new Box(minX, minY, maxX, maxY);
+            if (to - from <= LEAF_SIZE || depth >= MAX_DEPTH || (minX == maxX && minY == maxY)) {
+                return new Node(box, from, to, null);
+            }
+
+            // quadrants around the box centre: split on y, then each half on x
+            double cx = (minX + maxX) / 2, cy = (minY + maxY) / 2;
+            int midY = partition(from, to, false, cy);
+            int[] cuts = {from, partition(from, midY, true, cx), midY, partition(midY, to, true, cx), to};
+            List<Node> kids = new ArrayList<>(4);
+            for (int q = 0; q < 4; q++) {
+                if (cuts[q] < cuts[q + 1]) kids.add(build(cuts[q], cuts[q + 1], depth + 1));
+            }
+            return new Node(box, from, to, kids.toArray(Node[]::new));
+        }
+
+        /** Moves points with coordinate < pivot to the front of [from, to); returns the boundary. */
+        private int partition(int from, int to, boolean onX, double pivot) {
+            int lo = from;
+            for (int i = from; i < to; i++) {
+                double v = onX ? points[i].x() : points[i].y();
+                if (v < pivot) {
+                    DevicePointRow tmp = points[i];
+                    points[i] = points[lo];
+                    points[lo++] = tmp;
+                }
+            }
+            return lo;
+        }
+
+        void collect(Node n, Box box, List<FloorplanPointDto> out, int limit) {
+            if (out.size() >= limit || !box.intersects(n.box)) return;
+            if (n.kids == null || box.contains(n.box)) {
+                boolean all = box.contains(n.box);
+                for (int i = n.from; i < n.to && out.size() < limit; i++) {
+                    if (all || box.contains(points[i].x(), points[i].y())) out.add(dto(i, null, null));
+                }
+                return;
+            }
+            for (Node kid : n.kids) collect(kid, box, out, limit);
+        }
+
+        void visit(Node n, Box box, IntConsumer action) {
+            if (!box.intersects(n.box)) return;
+            if (n.kids == null) {
+                for (int i = n.from; i < n.to; i++) {
+                    if (box.contains(points[i].x(), points[i].y())) action.accept(i);
+                }
+                return;
+            }
+            for (Node kid : n.kids) visit(kid, box, action);
+        }
+
+        FloorplanPointDto dto(int i, Double distance, Double along) {
+            DevicePointRow p = points[i];
+            return new FloorplanPointDto(p.deviceId(), p.name(), p.type(), p.system(), p.x(), p.y(), distance, along);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Lazily loaded per-plant / per-layer values of the in-memory indexes. Loads run outside the map
+ * (no ConcurrentHashMap bin lock is held while they query) and are published with putIfAbsent;
+ * a load that overlapped a change announced for its key is served to its caller but dropped
+ * from the cache, so the next caller reloads committed rows.
+ * <p>
+ * Writers call {@link #changed} / {@link #evict} after commit: the version bump comes before
+ * the map read, the loader's version check after its put, so either the writer sees the new
+ * value (and patches it) or the loader sees the bump (and drops it).
+ */
+final class IndexCache<K, V> {
+
+    private final ConcurrentMap<K, V> values = new ConcurrentHashMap<>();
+    private final ConcurrentMap<K, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();   // bumped by evictIf, which has no key
+
+    V get(K key, Function<K, V> loader) {
+        V v = values.get(key);
+        if (v != null) return v;
+
+        long version = version(key).get(), evicted = evictions.get();
+        V loaded = loader.apply(key);
+        V prev = values.putIfAbsent(key, loaded);
+        if (prev != null) return prev;
+        if (version(key).get() != version || evictions.get() != evicted) values.remove(key, loaded);
+        return loaded;
+    }
+
+    /** A change to key is about to be applied: the loaded value to patch, or null if there is none. */
+    V changed(K key) {
+        version(key).incrementAndGet();
+        return values.get(key);
+    }
+
+    void evict(K key) {
+        version(key).incrementAndGet();
+        values.remove(key);
+    }
+
+    void evictIf(Predicate<V> stale) {
+        evictions.incrementAndGet();
+        values.values().removeIf(stale);
+    }
+
+    private AtomicLong version(K key) {
+        return versions.computeIfAbsent(key, k -> new AtomicLong());
+    }
+}
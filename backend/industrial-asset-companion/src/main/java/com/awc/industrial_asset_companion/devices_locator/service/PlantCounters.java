@@ -0,0 +1,69 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.PlantCountsDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.AreaRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.PlantCountRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-plant counts (devices, areas, linked documents) for plant lists and overview pages.
+ * The first read fills every plant with three GROUP BY queries; a plant touched by a
+ * {@link DeviceChangedEvent} is dropped and recounted alone (three index-backed counts)
+ * the next time it is read.
+ */
+@Component
+@RequiredArgsConstructor
+public class PlantCounters {
+
+    private final DeviceRepository deviceRepo;
+    private final AreaRepository areaRepo;
+
+    private final ConcurrentMap<String, PlantCountsDto> counts = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile boolean warm;
+
+    public PlantCountsDto get(String plantId) {
+        if (!warm) warmUp();
+        return counts.computeIfAbsent(plantId, id -> new PlantCountsDto(
+                deviceRepo.countByPlantId(id), areaRepo.countByPlantId(id), deviceRepo.countDocumentsByPlantId(id)));
+    }
+
+    public void evict(String plantId) {
+        if (plantId == null) return;
+        invalidations.incrementAndGet();
+        counts.remove(plantId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent e) {
+        evict(e.plantId());
+    }
+
+    private synchronized void warmUp() {
+        if (warm) return;
+        long seen = invalidations.get();
+        Map<String, long[]> all = new HashMap<>();
+        add(all, deviceRepo.countGroupedByPlant(), 0);
+        add(all, areaRepo.countGroupedByPlant(), 1);
+        add(all, deviceRepo.countDocumentsGroupedByPlant(), 2);
+        // a write raced the bulk read: leave every plant to its own recount
+        if (invalidations.get() == seen) {
+            all.forEach((id, c) -> counts.putIfAbsent(id, new PlantCountsDto(c[0], c[1], c[2])));
+        }
+        warm = true;
+    }
+
+    private static void add(Map<String, long[]> all, List<PlantCountRow> rows, int slot) {
+        for (PlantCountRow r : rows) all.computeIfAbsent(r.plantId(), k -> new long[3])[slot] = r.count();
+    }
+}
@@ -9,6 +9,8 @@ public interface PlantCrudService {
     Plant create(PlantCreateDto dto);
     Plant update(String id, PlantUpdateDto dto);
     void delete(String id);          // will fail if devices still reference the plant
-    List<Plant> listPlants();
-    Plant get(String id);
+    List<Plant> listPlants();        // sorted by name; served from PlantDirectory
+    List<PlantSummaryDto> listSummaries();  // plants + device/area/document counts, one cached read
+    PlantCountsDto counts(String id);
+    Plant get(String id);            // 404 if missing; use PlantDirectory.find for lookups that may miss
 }
\ No newline at end of file
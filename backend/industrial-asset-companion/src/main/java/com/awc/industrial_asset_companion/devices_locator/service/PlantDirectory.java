@@ -0,0 +1,159 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.PlantOptionDto;
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import com.awc.industrial_asset_companion.devices_locator.repositories.PlantRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Read-optimized view of the plant table: an immutable snapshot (id -> plant, normalized
+ * name -> plant, name-sorted list with pre-lower-cased search keys) behind one atomic
+ * reference. Reads are plain hash lookups on whatever snapshot is current and never throw;
+ * writes build a new snapshot and swap it in after their transaction commits.
+ * <p>
+ * Plants handed out are detached copies of the entities shared by all readers: treat them as read-only.
+ */
+@Component
+@RequiredArgsConstructor
+public class PlantDirectory {
+
+    private record Option(Plant plant, String idLower, String nameLower) {}
+
+    private record Snapshot(Map<String, Plant> byId, Map<String, Plant> byName, List<Plant> sorted, List<Option> options) {
+
+        static Snapshot of(Collection<Plant> plants) {
+            List<Plant> sorted = plants.stream()
+                    .map(Snapshot::copy)
+                    .sorted(Comparator.comparing((Plant p) -> p.getName() == null ? "" : p.getName(), String.CASE_INSENSITIVE_ORDER)
+                            .thenComparing(Plant::getId))
+                    .toList();
+            Map<String, Plant> byId = new HashMap<>();
+            Map<String, Plant> byName = new HashMap<>();
+            List<Option> options = new ArrayList<>(sorted.size());
+            for (Plant p : sorted) {
+                byId.put(p.getId(), p);
+                String name = normalize(p.getName());
+                if (name != null) byName.putIfAbsent(name, p);
+                options.add(new Option(p, p.getId().toLowerCase(Locale.ROOT),
+                        p.getName() == null ? "" : p.getName().toLowerCase(Locale.ROOT)));
+            }
+            return new Snapshot(Map.copyOf(byId), Map.copyOf(byName), sorted, List.copyOf(options));
+        }
+
+        static Plant copy(Plant p) {
+            return new Plant(p.getId(), p.getName(), p.getKind(), p.getIsActive());
+        }
+    }
+
+    private final PlantRepository plantRepo;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // bumped by every write; a load that raced one reads again
+    private final AtomicLong writes = new AtomicLong();
+
+    public Optional<Plant> find(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    public boolean exists(String id) {
+        return id != null && snapshot().byId().containsKey(id);
+    }
+
+    /** Case- and whitespace-insensitive exact name match. */
+    public Optional<Plant> findByName(String name) {
+        String n = normalize(name);
+        return n == null ? Optional.empty() : Optional.ofNullable(snapshot().byName().get(n));
+    }
+
+    /** All plants, sorted by name (case-insensitive). */
+    public List<Plant> all() {
+        return snapshot().sorted();
+    }
+
+    /** Plants whose id or name contains q (case-insensitive), sorted by name; all for a blank q. */
+    public List<PlantOptionDto> options(String q) {
+        String needle = q == null ? "" : q.trim().toLowerCase(Locale.ROOT);
+        List<PlantOptionDto> out = new ArrayList<>();
+        for (Option o : snapshot().options()) {
+            if (needle.isEmpty() || o.nameLower().contains(needle) || o.idLower().contains(needle)) {
+                out.add(new PlantOptionDto(o.plant().getId(), o.plant().getName()));
+            }
+        }
+        return out;
+    }
+
+    /** Swap in the saved plant once the surrounding transaction commits. */
+    public void putAfterCommit(Plant plant) {
+        Plant copy = Snapshot.copy(plant);
+        afterCommit(() -> {
+            writes.incrementAndGet();
+            current.updateAndGet(s -> {
+                if (s == null) return null;           // not loaded yet: the first read loads committed rows
+                Map<String, Plant> next = new HashMap<>(s.byId());
+                next.put(copy.getId(), copy);
+                return Snapshot.of(next.values());
+            });
+        });
+    }
+
+    /** Drop the plant once the surrounding transaction commits. */
+    public void removeAfterCommit(String id) {
+        afterCommit(() -> {
+            writes.incrementAndGet();
+            current.updateAndGet(s -> {
+                if (s == null || !s.byId().containsKey(id)) return s;
+                Map<String, Plant> next = new HashMap<>(s.byId());
+                next.remove(id);
+                return Snapshot.of(next.values());
+            });
+        });
+    }
+
+    /* ---------------- internals ---------------- */
+
+    private Snapshot snapshot() {
+        Snapshot s = current.get();
+        return s != null ? s : load();
+    }
+
+    private synchronized Snapshot load() {
+        Snapshot s = current.get();
+        if (s != null) return s;
+        while (true) {
+            long seen = writes.get();
+            Snapshot loaded = Snapshot.of(plantRepo.findAll());
+            if (writes.get() == seen && current.compareAndSet(null, loaded)) return loaded;
+            s = current.get();
+            if (s != null) return s;
+        }
+    }
+
+    private static void afterCommit(Runnable r) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override public void afterCommit() { r.run(); }
+            });
+        } else {
+            r.run();
+        }
+    }
+
+    private static String normalize(String name) {
+        if (name == null) return null;
+        String n = name.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return n.isEmpty() ? null : n;
+    }
+}
@@ -0,0 +1,168 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceListItemDto;
+import com.awc.industrial_asset_companion.devices_locator.entity.Area;
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import com.awc.industrial_asset_companion.devices_locator.repositories.AreaRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Whole-plant hierarchy (plant -> areas -> devices) for offline clients, kept per plant as
+ * ready-to-send JSON. Built from flat indexed reads (areas by plant_id, then the device list's
+ * rows/tags/docs queries), grouped by area in one pass and written with a JsonGenerator
+ * straight into the cached body. Any device change in the plant, or a plant write, drops it.
+ */
+@Component
+public class PlantTreeCache {
+
+    /** Serialized tree plus a strong ETag over its content. */
+    public record Cached(byte[] json, String etag) {}
+
+    private final PlantDirectory plants;
+    private final AreaRepository areaRepo;
+    private final DeviceCrudService devices;
+    private final ObjectMapper json;
+    private final int maxPlants;
+
+    // access-ordered => LRU; guarded by "this"
+    private final LinkedHashMap<String, Cached> cache = new LinkedHashMap<>(16, 0.75f, true);
+    // bumped on every eviction; a build that raced one is served but not stored
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PlantTreeCache(PlantDirectory plants, AreaRepository areaRepo, DeviceCrudService devices, ObjectMapper json,
+                          @Value("${app.plants.tree-cache.max-plants:64}") int maxPlants) {
+        this.plants = plants;
+        this.areaRepo = areaRepo;
+        this.devices = devices;
+        this.json = json;
+        this.maxPlants = maxPlants;
+    }
+
+    /** The plant's tree; empty if the plant does not exist. */
+    public Optional<Cached> tree(String plantId) {
+        Plant plant = plants.find(plantId).orElse(null);
+        if (plant == null) return Optional.empty();
+        synchronized (this) {
+            Cached hit = cache.get(plantId);
+            if (hit != null) return Optional.of(hit);
+        }
+
+        long seen = invalidations.get();
+        Cached built = build(plant);
+        synchronized (this) {
+            if (invalidations.get() != seen) return Optional.of(built);
+            cache.put(plantId, built);
+            if (cache.size() > maxPlants) {
+                var it = cache.keySet().iterator();
+                it.next();
+                it.remove();
+            }
+        }
+        return Optional.of(built);
+    }
+
+    public void evict(String plantId) {
+        invalidations.incrementAndGet();
+        synchronized (this) {
+            if (plantId == null) cache.clear();
+            else cache.remove(plantId);
+        }
+    }
+
+    /** Drop the plant once the surrounding transaction commits (immediately if there is none). */
+    public void evictAfterCommit(String plantId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override public void afterCompletion(int status) { evict(plantId); }
+            });
+        } else {
+            evict(plantId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent e) {
+        evict(e.plantId());
+    }
+
+    /* ---------------- build ---------------- */
+
+    private Cached build(Plant plant) {
+        List<Area> areas = areaRepo.findByPlantId(plant.getId());
+        List<DeviceListItemDto> items = devices.listByPlant(plant.getId());
+
+        // one pass: area id -> its devices; devices without an area (or with a foreign one) go to "unassigned"
+        Map<String, List<DeviceListItemDto>> byArea = new HashMap<>(areas.size() * 2);
+        for (Area a : areas) byArea.put(a.getId().toString(), new ArrayList<>());
+        List<DeviceListItemDto> unassigned = new ArrayList<>();
+        for (DeviceListItemDto d : items) {
+            List<DeviceListItemDto> bucket = d.getArea() == null ? null : byArea.get(d.getArea().getId());
+            (bucket != null ? bucket : unassigned).add(d);
+        }
+
+        ObjectWriter deviceWriter = json.writerFor(DeviceListItemDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(Math.max(1024, items.size() * 512));
+        try (JsonGenerator gen = json.getFactory().createGenerator(buf)) {
+            gen.writeStartObject();
+            gen.writeStringField("id", plant.getId());
+            gen.writeStringField("name", plant.getName());
+            gen.writeStringField("kind", plant.getKind());
+            if (plant.getIsActive() == null) gen.writeNullField("isActive");
+            else gen.writeBooleanField("isActive", plant.getIsActive());
+            gen.writeNumberField("deviceCount", items.size());
+
+            gen.writeArrayFieldStart("areas");
+            for (Area a : areas) {
+                String id = a.getId().toString();
+                gen.writeStartObject();
+                gen.writeStringField("id", id);
+                gen.writeStringField("name", a.getName());
+                gen.writeStringField("level", a.getLevel());
+                gen.writeArrayFieldStart("devices");
+                for (DeviceListItemDto d : byArea.get(id)) deviceWriter.writeValue(gen, d);
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("unassigned");
+            for (DeviceListItemDto d : unassigned) deviceWriter.writeValue(gen, d);
+            gen.writeEndArray();
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize plant tree", e);
+        }
+        byte[] bytes = buf.toByteArray();
+        return new Cached(bytes, etag(bytes));
+    }
+
+    private static String etag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Canonical scan form: trimmed, inner whitespace collapsed. Case is kept, payloads that differ
+ * only in case are different codes. {@link #hash} of that form is what device.qr_hash stores
+ * (unique), so a scan resolves with one index probe however long the payload is.
+ */
+public final class QrCodes {
+    private QrCodes() {}
+
+    public static String normalize(String payload) {
+        if (payload == null) return null;
+        String p = payload.strip().replaceAll("\\s+", " ");
+        return p.isEmpty() ? null : p;
+    }
+
+    /** SHA-256 of the normalized payload; null when there is nothing to scan. */
+    public static byte[] hash(String payload) {
+        String n = normalize(payload);
+        if (n == null) return null;
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(n.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);   // every JRE ships SHA-256
+        }
+    }
+}
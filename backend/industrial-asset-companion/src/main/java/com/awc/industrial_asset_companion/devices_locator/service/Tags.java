@@ -0,0 +1,27 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+/** Canonical tag form: trimmed, lower-case; blanks dropped, duplicates collapsed (first order kept). */
+public final class Tags {
+    private Tags() {}
+
+    public static String normalize(String tag) {
+        if (tag == null) return null;
+        String t = tag.trim().toLowerCase(Locale.ROOT);
+        return t.isEmpty() ? null : t;
+    }
+
+    public static List<String> normalize(Collection<String> tags) {
+        if (tags == null) return List.of();
+        LinkedHashSet<String> out = new LinkedHashSet<>();
+        for (String t : tags) {
+            String n = normalize(t);
+            if (n != null) out.add(n);
+        }
+        return List.copyOf(out);
+    }
+}
@@ -1,21 +1,40 @@
 package com.awc.industrial_asset_companion.devices_locator.service.impl;
 
 import com.awc.industrial_asset_companion.devices_locator.dto.*;
-import com.awc.industrial_asset_companion.devices_locator.entity.Area;
 import com.awc.industrial_asset_companion.devices_locator.entity.Device;
+import com.awc.industrial_asset_companion.devices_locator.entity.DeviceLocation;
 import com.awc.industrial_asset_companion.devices_locator.repositories.AreaRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceLocationRepository;
 import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceDocRow;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceListRow;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceTagRow;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceChangedEvent;
 import com.awc.industrial_asset_companion.devices_locator.service.DeviceCrudService;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceSearchIndex;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceTagIndex;
+import com.awc.industrial_asset_companion.devices_locator.service.FloorplanIndex;
+import com.awc.industrial_asset_companion.devices_locator.service.QrCodes;
+import com.awc.industrial_asset_companion.devices_locator.service.Tags;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -25,31 +44,75 @@ public class DeviceCrudServiceImpl implements DeviceCrudService {
 
     private final DeviceRepository deviceRepo;
     private final AreaRepository areaRepo;
+    private final DeviceLocationRepository locationRepo;
+    private final DeviceTagIndex tagIndex;
+    private final DeviceSearchIndex searchIndex;
+    private final FloorplanIndex floorplan;
+    private final ApplicationEventPublisher events;
+
+    private static final int MAX_PAGE = 1000;
 
     @Override
     @Transactional
     public List<DeviceListItemDto> listByPlant(String plantId) {
-        List<Device> devices = deviceRepo.findByPlantIdFetchArea(plantId);
+        // rows (+ area, location), tags, docs: three queries whatever the plant size
+        return assemble(deviceRepo.findListRowsByPlantId(plantId),
+                deviceRepo.findTagRowsByPlantId(plantId),
+                deviceRepo.findDocRowsByPlantId(plantId));
+    }
+
+    @Override
+    public DevicePageDto listPage(String plantId, String after, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE));
+        // fetch one extra row to know whether another page exists
+        List<DeviceListRow> rows = deviceRepo.findListRowsAfter(plantId, after == null ? "" : after,
+                PageRequest.of(0, size + 1));
+        boolean more = rows.size() > size;
+        if (more) rows = rows.subList(0, size);
+        if (rows.isEmpty()) return DevicePageDto.builder().items(List.of()).build();
+
+        List<String> ids = rows.stream().map(DeviceListRow::id).toList();
+        return DevicePageDto.builder()
+                .items(assemble(rows, deviceRepo.findTagRowsByDeviceIds(ids), deviceRepo.findDocRowsByDeviceIds(ids)))
+                .nextCursor(more ? ids.get(ids.size() - 1) : null)
+                .build();
+    }
+
+    @Override
+    public List<DeviceListItemDto> listByTags(String plantId, List<String> tags) {
+        return listByIds(tagIndex.deviceIds(plantId, tags));
+    }
 
-        // force-load tags for each device so Json can’t blow up later
-        for (Device d : devices) {
-            Hibernate.initialize(d.getTags());
+    @Override
+    public List<DeviceListItemDto> listByIds(Collection<String> deviceIds) {
+        List<String> ids = List.copyOf(deviceIds);
+        List<DeviceListItemDto> out = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_PAGE) {
+            List<String> chunk = ids.subList(from, Math.min(from + MAX_PAGE, ids.size()));
+            out.addAll(assemble(deviceRepo.findListRowsByIds(chunk),
+                    deviceRepo.findTagRowsByDeviceIds(chunk),
+                    deviceRepo.findDocRowsByDeviceIds(chunk)));
         }
+        return out;
+    }
 
-        return devices.stream()
-                .map(this::toDto)
-                .toList();
+    @Override
+    public List<TagFacetDto> tagFacets(String plantId) {
+        return tagIndex.facets(plantId);
+    }
+
+    @Override
+    public List<DeviceSearchHitDto> search(String plantId, String q, int limit) {
+        return searchIndex.search(plantId, q, limit);
     }
 
     @Override
     public DeviceListItemDto get(String id) {
-        Device dev = deviceRepo.findById(id)
+        DeviceListRow row = deviceRepo.findListRowById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Device not found"));
-
-        // force-load tags
-        Hibernate.initialize(dev.getTags());
-
-        return toDto(dev);
+        return assemble(List.of(row),
+                deviceRepo.findTagRowsByDeviceId(id),
+                deviceRepo.findDocRowsByDeviceId(id)).get(0);
     }
 
     @Override
@@ -65,8 +128,9 @@ public class DeviceCrudServiceImpl implements DeviceCrudService {
                 .aisle(ns(dto.getAisle()))
                 .navText(ns(dto.getNavText()))
                 .qrPayload(ns(dto.getQr()))
+                .qrHash(QrCodes.hash(dto.getQr()))
                 .deviceCode(ns(dto.getDeviceCode()))
-                .tags(dto.getTags() != null ? new ArrayList<>(dto.getTags()) : new ArrayList<>())
+                .tags(new LinkedHashSet<>(Tags.normalize(dto.getTags())))
                 .build();
 
         // 🔴 this was throwing
@@ -81,8 +145,8 @@ public class DeviceCrudServiceImpl implements DeviceCrudService {
         }
 
         Device saved = deviceRepo.save(dev);
-        Hibernate.initialize(saved.getTags());
-        return toDto(saved);
+        events.publishEvent(DeviceChangedEvent.upserted(saved.getPlantId(), saved.getId(), saved.getTags()));
+        return get(saved.getId());   // projection queries auto-flush the pending write
     }
 
     @Override
@@ -90,6 +154,7 @@ public class DeviceCrudServiceImpl implements DeviceCrudService {
         Device dev = deviceRepo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Device not found"));
 
+        String oldPlantId = dev.getPlantId();
         if (dto.getPlantId() != null) dev.setPlantId(dto.getPlantId());
         if (dto.getType() != null) dev.setType(dto.getType());
         if (dto.getName() != null) dev.setName(dto.getName());
@@ -98,8 +163,12 @@ public class DeviceCrudServiceImpl implements DeviceCrudService {
         if (dto.getBucket() != null) dev.setBucket(dto.getBucket());
         if (dto.getAisle() != null) dev.setAisle(dto.getAisle());
         if (dto.getNavText() != null) dev.setNavText(dto.getNavText());
-        if (dto.getQr() != null) dev.setQrPayload(dto.getQr());
+        if (dto.getQr() != null) {
+            dev.setQrPayload(dto.getQr());
+            dev.setQrHash(QrCodes.hash(dto.getQr()));
+        }
         if (dto.getDeviceCode() != null) dev.setDeviceCode(dto.getDeviceCode());
+        if (dto.getTags() != null) dev.setTags(new LinkedHashSet<>(Tags.normalize(dto.getTags())));
 
         // area
         if (dto.getAreaId() != null) {
@@ -116,84 +185,197 @@ public class DeviceCrudServiceImpl implements DeviceCrudService {
         }
 
         Device saved = deviceRepo.save(dev);
-        Hibernate.initialize(saved.getTags());
-        return toDto(saved);
+        if (!Objects.equals(oldPlantId, saved.getPlantId())) {
+            events.publishEvent(DeviceChangedEvent.removed(oldPlantId, saved.getId()));
+        }
+        events.publishEvent(DeviceChangedEvent.upserted(saved.getPlantId(), saved.getId(), saved.getTags()));
+        return get(saved.getId());   // projection queries auto-flush the pending write
     }
 
     @Override
     public void delete(String id) {
-        if (deviceRepo.existsById(id)) {
-            deviceRepo.deleteById(id);
-        }
+        // the removed event covers every plant-level view; only the floor layer needs dropping here
+        locationRepo.findById(id).ifPresent(loc -> {
+            locationRepo.delete(loc);
+            floorplan.evictAfterCommit(loc.getLayerId());
+        });
+        deviceRepo.findById(id).ifPresent(dev -> {
+            deviceRepo.delete(dev);
+            events.publishEvent(DeviceChangedEvent.removed(dev.getPlantId(), dev.getId()));
+        });
     }
 
     @Override
-    public List<String> replaceTags(String id, List<String> tags) {
+    public DeviceListItemDto setLocation(String id, LocationUpdateDto dto) {
         Device dev = deviceRepo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Device not found"));
-        dev.setTags(tags != null ? new ArrayList<>(tags) : new ArrayList<>());
-        deviceRepo.save(dev);
-        Hibernate.initialize(dev.getTags());
-        return dev.getTags();
+        UUID layerId;
+        try {
+            layerId = UUID.fromString(dto.getLayerId() == null ? "" : dto.getLayerId().trim());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "layerId must be a UUID");
+        }
+        if (dto.getX() == null || dto.getY() == null || !Double.isFinite(dto.getX()) || !Double.isFinite(dto.getY())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "x and y are required");
+        }
+
+        DeviceLocation loc = locationRepo.findById(id)
+                .orElseGet(() -> DeviceLocation.builder().device(dev).build());
+        UUID oldLayer = loc.getLayerId();
+        loc.setLayerId(layerId);
+        loc.setX(dto.getX());
+        loc.setY(dto.getY());
+        locationRepo.save(loc);
+        floorplan.evictAfterCommit(oldLayer, layerId);
+        // plant-level views (tree, resolve cache) carry the location too
+        events.publishEvent(DeviceChangedEvent.upserted(dev.getPlantId(), id, dev.getTags()));
+        return get(id);
+    }
+
+    @Override
+    public void clearLocation(String id) {
+        locationRepo.findById(id).ifPresent(loc -> {
+            locationRepo.delete(loc);
+            floorplan.evictAfterCommit(loc.getLayerId());
+            deviceRepo.findPlantIdById(id).ifPresent(plantId -> events.publishEvent(DeviceChangedEvent.upserted(
+                    plantId, id, deviceRepo.findTagRowsByDeviceId(id).stream().map(DeviceTagRow::tag).toList())));
+        });
+    }
+
+    @Override
+    public List<String> replaceTags(String id, List<String> tags) {
+        String plantId = plantOf(id);
+        Map<String, String> current = currentTags(id);
+        List<String> wanted = Tags.normalize(tags);
+        current.forEach((normalized, stored) -> {
+            if (!wanted.contains(normalized)) deviceRepo.deleteTag(id, stored);
+        });
+        for (String t : wanted) {
+            if (!current.containsKey(t)) deviceRepo.insertTag(id, t);
+        }
+        return tagsChanged(plantId, id);
     }
 
     @Override
     public List<String> addTags(String id, List<String> tagsToAdd) {
-        Device dev = deviceRepo.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Device not found"));
-        if (dev.getTags() == null) dev.setTags(new ArrayList<>());
-        if (tagsToAdd != null) dev.getTags().addAll(tagsToAdd);
-        deviceRepo.save(dev);
-        Hibernate.initialize(dev.getTags());
-        return dev.getTags();
+        String plantId = plantOf(id);
+        for (String t : Tags.normalize(tagsToAdd)) deviceRepo.insertTag(id, t);   // INSERT IGNORE: no-op if present
+        return tagsChanged(plantId, id);
     }
 
     @Override
     public List<String> removeTag(String id, String tag) {
-        Device dev = deviceRepo.findById(id)
+        String plantId = plantOf(id);
+        String normalized = Tags.normalize(tag);
+        if (normalized != null) deviceRepo.deleteTag(id, normalized);
+        return tagsChanged(plantId, id);
+    }
+
+    @Override
+    public int bulkTag(BulkTagDto dto, boolean remove) {
+        String tag = Tags.normalize(dto.getTag());
+        if (tag == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "tag is required");
+
+        int affected = 0;
+        Set<String> plants = new HashSet<>();
+        if (dto.getDeviceIds() != null && !dto.getDeviceIds().isEmpty()) {
+            List<String> ids = List.copyOf(new LinkedHashSet<>(dto.getDeviceIds()));
+            for (int from = 0; from < ids.size(); from += MAX_PAGE) {
+                List<String> chunk = ids.subList(from, Math.min(from + MAX_PAGE, ids.size()));
+                plants.addAll(deviceRepo.findPlantIdsByIds(chunk));
+                affected += remove ? deviceRepo.deleteTagForDevices(tag, chunk) : deviceRepo.insertTagForDevices(tag, chunk);
+            }
+        } else if (ns(dto.getPlantId()) != null) {
+            String system = ns(dto.getSystem());
+            affected = remove
+                    ? deviceRepo.deleteTagForPlant(tag, dto.getPlantId(), system)
+                    : deviceRepo.insertTagForPlant(tag, dto.getPlantId(), system);
+            plants.add(dto.getPlantId());
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "deviceIds or plantId is required");
+        }
+        plants.forEach(p -> events.publishEvent(DeviceChangedEvent.plantChanged(p)));
+        return affected;
+    }
+
+    private String plantOf(String id) {
+        return deviceRepo.findPlantIdById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Device not found"));
-        if (dev.getTags() != null) {
-            dev.getTags().removeIf(t -> t.equalsIgnoreCase(tag));
+    }
+
+    /** normalized -> stored form (rows written before normalization may differ in case). */
+    private Map<String, String> currentTags(String id) {
+        Map<String, String> out = new LinkedHashMap<>();
+        for (DeviceTagRow r : deviceRepo.findTagRowsByDeviceId(id)) {
+            String n = Tags.normalize(r.tag());
+            if (n != null) out.putIfAbsent(n, r.tag());
         }
-        deviceRepo.save(dev);
-        Hibernate.initialize(dev.getTags());
-        return dev.getTags() != null ? dev.getTags() : List.of();
-    }
-
-    private DeviceListItemDto toDto(Device dev) {
-        AreaDto areaDto = null;
-        Area area = dev.getArea();
-        if (area != null) {
-            areaDto = AreaDto.builder()
-                    .id(area.getId() != null ? area.getId().toString() : null)
-                    .name(ns(area.getName()))
-                    .level(ns(area.getLevel()))
-                    .build();
+        return out;
+    }
+
+    private List<String> tagsChanged(String plantId, String id) {
+        List<String> now = deviceRepo.findTagRowsByDeviceId(id).stream().map(DeviceTagRow::tag).toList();
+        events.publishEvent(DeviceChangedEvent.upserted(plantId, id, now));
+        return now;
+    }
+
+    private static List<DeviceListItemDto> assemble(List<DeviceListRow> rows,
+                                                    List<DeviceTagRow> tagRows,
+                                                    List<DeviceDocRow> docRows) {
+        Map<String, List<String>> tags = new HashMap<>();
+        for (DeviceTagRow t : tagRows) {
+            tags.computeIfAbsent(t.deviceId(), k -> new ArrayList<>()).add(t.tag());
+        }
+        Map<String, List<DocDto>> docs = new HashMap<>();
+        for (DeviceDocRow d : docRows) {
+            docs.computeIfAbsent(d.deviceId(), k -> new ArrayList<>()).add(DocDto.builder()
+                    .id(d.documentId().toString())
+                    .kind(ns(d.kind()))
+                    .title(ns(d.title()))
+                    .mime(ns(d.mime()))
+                    .variants(DocDto.variantUrls(d.documentId().toString(), d.mime()))
+                    .build());
         }
 
-        LocationDto loc = LocationDto.builder()
-                .panel(ns(dev.getPanel()))
-                .bucket(ns(dev.getBucket()))
-                .aisle(ns(dev.getAisle()))
-                .navText(ns(dev.getNavText()))
-                .build();
+        List<DeviceListItemDto> out = new ArrayList<>(rows.size());
+        for (DeviceListRow r : rows) {
+            AreaDto areaDto = null;
+            if (r.areaId() != null) {
+                areaDto = AreaDto.builder()
+                        .id(r.areaId().toString())
+                        .name(ns(r.areaName()))
+                        .level(ns(r.areaLevel()))
+                        .build();
+            }
 
-        ScanDto scan = ScanDto.builder()
-                .qr(ns(dev.getQrPayload()))
-                .build();
+            LocationDto loc = LocationDto.builder()
+                    .panel(ns(r.panel()))
+                    .bucket(ns(r.bucket()))
+                    .aisle(ns(r.aisle()))
+                    .navText(ns(r.navText()))
+                    .layerId(r.layerId() != null ? r.layerId().toString() : null)
+                    .x(r.x())
+                    .y(r.y())
+                    .build();
 
-        return DeviceListItemDto.builder()
-                .id(dev.getId())
-                .plantId(ns(dev.getPlantId()))
-                .type(ns(dev.getType()))
-                .name(ns(dev.getName()))
-                .system(ns(dev.getSystem()))
-                .area(areaDto)
-                .loc(loc)
-                .scan(scan)
-                .docs(Collections.emptyList())
-                .tags(dev.getTags() != null ? dev.getTags() : Collections.emptyList())
-                .build();
+            ScanDto scan = ScanDto.builder()
+                    .qr(ns(r.qrPayload()))
+                    .build();
+
+            out.add(DeviceListItemDto.builder()
+                    .id(r.id())
+                    .plantId(ns(r.plantId()))
+                    .type(ns(r.type()))
+                    .name(ns(r.name()))
+                    .system(ns(r.system()))
+                    .area(areaDto)
+                    .loc(loc)
+                    .scan(scan)
+                    .docs(docs.getOrDefault(r.id(), Collections.emptyList()))
+                    .tags(tags.getOrDefault(r.id(), Collections.emptyList()))
+                    .build());
+        }
+        return out;
     }
 
     private static String ns(String s) {
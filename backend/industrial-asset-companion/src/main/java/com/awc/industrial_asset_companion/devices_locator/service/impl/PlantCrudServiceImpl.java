@@ -5,6 +5,9 @@ import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
 import com.awc.industrial_asset_companion.devices_locator.repositories.PlantRepository;
 import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
 import com.awc.industrial_asset_companion.devices_locator.service.PlantCrudService;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantCounters;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantDirectory;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantTreeCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -17,32 +20,51 @@ import java.util.List;
 public class PlantCrudServiceImpl implements PlantCrudService {
     private final PlantRepository plantRepo;
     private final DeviceRepository deviceRepo;
+    private final PlantDirectory directory;
+    private final PlantCounters counters;
+    private final PlantTreeCache trees;
 
     @Override @Transactional
     public Plant create(PlantCreateDto dto) {
         if (plantRepo.existsById(dto.getId()))
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Plant already exists");
         var p = Plant.builder().id(dto.getId()).name(dto.getName()).isActive(true).build();
-        return plantRepo.save(p);
+        Plant saved = plantRepo.save(p);
+        directory.putAfterCommit(saved);
+        return saved;
     }
 
     @Override @Transactional
     public Plant update(String id, PlantUpdateDto dto) {
         var p = plantRepo.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         p.setName(dto.getName());
-        return plantRepo.save(p);
+        Plant saved = plantRepo.save(p);
+        directory.putAfterCommit(saved);
+        trees.evictAfterCommit(id);
+        return saved;
     }
 
     @Override @Transactional
     public void delete(String id) {
         if (!plantRepo.existsById(id)) return;
-        if (!deviceRepo.findByPlantId(id).isEmpty())
+        if (deviceRepo.existsByPlantId(id))
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Plant has devices; move/delete them first");
         plantRepo.deleteById(id);
+        directory.removeAfterCommit(id);
+        counters.evict(id);
+        trees.evictAfterCommit(id);
     }
 
-    @Override public List<Plant> listPlants() { return plantRepo.findAll(); }
+    // reads come from the in-memory directory (sorted by name), not MySQL
+    @Override public List<Plant> listPlants() { return directory.all(); }
+    @Override public List<PlantSummaryDto> listSummaries() {
+        return directory.all().stream().map(p -> PlantSummaryDto.of(p, counters.get(p.getId()))).toList();
+    }
+    @Override public PlantCountsDto counts(String id) {
+        get(id);   // 404 for unknown plants
+        return counters.get(id);
+    }
     @Override public Plant get(String id) {
-        return plantRepo.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        return directory.find(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 }
\ No newline at end of file
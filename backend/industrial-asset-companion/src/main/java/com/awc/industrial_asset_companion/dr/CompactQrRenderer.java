@@ -0,0 +1,243 @@
+package com.awc.industrial_asset_companion.dr;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Rasterizes encoded QR matrices without a BufferedImage ARGB / ImageIO round trip
+ * (encoding itself lives in {@link QrEngine}):
+ * <ul>
+ *   <li>single codes: BitMatrix -> 1-bit grayscale PNG, packed straight from the matrix</li>
+ *   <li>labels: QRs blitted into an 8-bit gray canvas (1 byte/px instead of 4), captions drawn
+ *       with AWT on that canvas, raster bytes encoded as an 8-bit grayscale PNG</li>
+ *   <li>SVG: one path, horizontal runs merged, from the module matrix</li>
+ * </ul>
+ * Deflater, CRC, row and output buffers are reused per thread.
+ */
+public final class CompactQrRenderer {
+    private CompactQrRenderer() {}
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /** A rendered 8-bit gray raster (0 = black, 255 = white), row-major. */
+    public record GrayImage(byte[] pixels, int width, int height) {}
+
+    /** Two QR codes side by side with captions underneath, drawn on a gray canvas. */
+    public static GrayImage label(BitMatrix left, String leftCaption,
+                                  BitMatrix right, String rightCaption,
+                                  int padding, int captionHeight) {
+        int w = left.getWidth() + right.getWidth() + padding * 3;
+        int h = Math.max(left.getHeight(), right.getHeight()) + captionHeight + padding * 3;
+
+        BufferedImage canvas = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] px = ((DataBufferByte) canvas.getRaster().getDataBuffer()).getData();
+        Arrays.fill(px, (byte) 0xFF);
+
+        int xLeft = padding;
+        int xRight = padding * 2 + left.getWidth();
+        blit(left, px, w, xLeft, padding);
+        blit(right, px, w, xRight, padding);
+
+        Graphics2D g = canvas.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.BLACK);
+        g.setFont(new Font("Arial", Font.BOLD, 16));
+        FontMetrics fm = g.getFontMetrics();
+
+        int yCap = padding + Math.max(left.getHeight(), right.getHeight()) + fm.getAscent() + padding;
+        int lx = xLeft + (left.getWidth() - fm.stringWidth(leftCaption)) / 2;
+        int rx = xRight + (right.getWidth() - fm.stringWidth(rightCaption)) / 2;
+        g.drawString(leftCaption, Math.max(lx, padding), yCap);
+        g.drawString(rightCaption, Math.max(rx, padding), yCap);
+        g.dispose();
+
+        return new GrayImage(px, w, h);
+    }
+
+    /* ---------------- PNG encoding ---------------- */
+
+    /** BitMatrix (set = black) -> 1-bit grayscale PNG (0 = black). */
+    public static byte[] png1Bit(BitMatrix m) {
+        int w = m.getWidth(), h = m.getHeight();
+        int rowBytes = (w + 7) >>> 3;
+        Buffers b = BUFFERS.get();
+        byte[] row = b.row(rowBytes + 1);
+
+        b.begin(w, h, 1);
+        for (int y = 0; y < h; y++) {
+            row[0] = 0; // filter: none
+            Arrays.fill(row, 1, rowBytes + 1, (byte) 0xFF);
+            for (int x = 0; x < w; x++) {
+                if (m.get(x, y)) row[1 + (x >>> 3)] &= (byte) ~(0x80 >>> (x & 7));
+            }
+            b.deflate(row, rowBytes + 1);
+        }
+        return b.finish();
+    }
+
+    /** 8-bit grayscale raster -> PNG. Rows use the Up filter (QR/label rows repeat a lot). */
+    public static byte[] pngGray8(GrayImage img) {
+        int w = img.width(), h = img.height();
+        byte[] px = img.pixels();
+        Buffers b = BUFFERS.get();
+        byte[] row = b.row(w + 1);
+
+        b.begin(w, h, 8);
+        for (int y = 0; y < h; y++) {
+            int off = y * w;
+            if (y == 0) {
+                row[0] = 0; // none
+                System.arraycopy(px, 0, row, 1, w);
+            } else {
+                row[0] = 2; // up
+                int prev = off - w;
+                for (int x = 0; x < w; x++) row[1 + x] = (byte) (px[off + x] - px[prev + x]);
+            }
+            b.deflate(row, w + 1);
+        }
+        return b.finish();
+    }
+
+    /* ---------------- SVG ---------------- */
+
+    /** Module matrix (1 = dark) -> SVG in module units, {@code margin} quiet-zone modules each side. */
+    public static String svg(ByteMatrix m, int margin) {
+        int n = m.getWidth();
+        int size = n + margin * 2;
+        StringBuilder sb = new StringBuilder(64 + n * n / 2);
+        sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ").append(size).append(' ').append(size)
+          .append("\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path fill=\"#000\" d=\"");
+        for (int y = 0; y < m.getHeight(); y++) {
+            int x = 0;
+            while (x < n) {
+                if (m.get(x, y) != 1) { x++; continue; }
+                int start = x;
+                while (x < n && m.get(x, y) == 1) x++;
+                sb.append('M').append(start + margin).append(' ').append(y + margin)
+                  .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+        return sb.append("\"/></svg>").toString();
+    }
+
+    /* ---------------- internals ---------------- */
+
+    private static void blit(BitMatrix m, byte[] px, int stride, int x0, int y0) {
+        for (int y = 0; y < m.getHeight(); y++) {
+            int off = (y0 + y) * stride + x0;
+            for (int x = 0; x < m.getWidth(); x++) {
+                if (m.get(x, y)) px[off + x] = 0;
+            }
+        }
+    }
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    /** Per-thread scratch: growable output, row buffer, deflater, crc. */
+    private static final class Buffers {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        final CRC32 crc = new CRC32();
+        final byte[] chunk = new byte[16 * 1024];
+        byte[] rowBuf = new byte[1024];
+        byte[] out = new byte[32 * 1024];
+        int len;
+        int idatStart;
+
+        byte[] row(int n) {
+            if (rowBuf.length < n) rowBuf = new byte[n];
+            return rowBuf;
+        }
+
+        void begin(int w, int h, int bitDepth) {
+            len = 0;
+            deflater.reset();
+            put(PNG_SIGNATURE, 0, PNG_SIGNATURE.length);
+
+            // IHDR: width, height, bit depth, color type 0 (gray), compression, filter, interlace
+            int ihdr = len;
+            putInt(13);
+            putAscii("IHDR");
+            putInt(w);
+            putInt(h);
+            putByte(bitDepth);
+            putByte(0);
+            putByte(0);
+            putByte(0);
+            putByte(0);
+            putCrc(ihdr + 4);
+
+            // single IDAT; length patched in finish()
+            idatStart = len;
+            putInt(0);
+            putAscii("IDAT");
+        }
+
+        void deflate(byte[] data, int n) {
+            deflater.setInput(data, 0, n);
+            while (!deflater.needsInput()) drain(Deflater.NO_FLUSH);
+        }
+
+        byte[] finish() {
+            deflater.finish();
+            while (!deflater.finished()) drain(Deflater.NO_FLUSH);
+
+            int dataLen = len - idatStart - 8;
+            int save = len;
+            len = idatStart;
+            putInt(dataLen);
+            len = save;
+            putCrc(idatStart + 4);
+
+            int iend = len;
+            putInt(0);
+            putAscii("IEND");
+            putCrc(iend + 4);
+            return Arrays.copyOf(out, len);
+        }
+
+        private void drain(int flush) {
+            int n = deflater.deflate(chunk, 0, chunk.length, flush);
+            put(chunk, 0, n);
+        }
+
+        private void putCrc(int from) {
+            crc.reset();
+            crc.update(out, from, len - from);
+            putInt((int) crc.getValue());
+        }
+
+        private void ensure(int extra) {
+            if (len + extra > out.length) out = Arrays.copyOf(out, Math.max(out.length * 2, len + extra));
+        }
+
+        private void put(byte[] src, int off, int n) {
+            ensure(n);
+            System.arraycopy(src, off, out, len, n);
+            len += n;
+        }
+
+        private void putByte(int v) {
+            ensure(1);
+            out[len++] = (byte) v;
+        }
+
+        private void putInt(int v) {
+            ensure(4);
+            out[len++] = (byte) (v >>> 24);
+            out[len++] = (byte) (v >>> 16);
+            out[len++] = (byte) (v >>> 8);
+            out[len++] = (byte) v;
+        }
+
+        private void putAscii(String s) {
+            for (int i = 0; i < s.length(); i++) putByte(s.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.awc.industrial_asset_companion.dr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Minimal streaming PDF writer: one grayscale image per page.
+ * Pages are flushed as they are added; only object offsets are kept until {@link #close()},
+ * so a sheet of thousands of labels never sits in memory.
+ * Grayscale PNGs (as written by {@link CompactQrRenderer}) are embedded without decoding:
+ * their IDAT stream is already Flate data with PNG row predictors, which PDF understands.
+ */
+public class PdfLabelSheetWriter implements Closeable {
+
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final CountingStream out;
+    private final float dpi;
+    private final List<Long> offsets = new ArrayList<>();   // index = object number - 1
+    private final List<Integer> pageObjects = new ArrayList<>();
+
+    public PdfLabelSheetWriter(OutputStream target, float dpi) throws IOException {
+        this.out = new CountingStream(target);
+        this.dpi = dpi;
+        offsets.add(0L); // catalog, written on close
+        offsets.add(0L); // pages tree, written on close
+        ascii("%PDF-1.4\n%âãÏÓ\n");
+    }
+
+    /** Adds one page showing {@code gray} (row-major, 1 byte/pixel, 0=black) at the writer's dpi. */
+    public void addPage(byte[] gray, int width, int height) throws IOException {
+        writeImagePage(deflate(gray), width, height, 8, "");
+    }
+
+    private void writeImagePage(byte[] deflated, int width, int height, int bitDepth, String decodeParms) throws IOException {
+        float wPt = width * 72f / dpi;
+        float hPt = height * 72f / dpi;
+
+        int image = nextObject();
+        ascii(image + " 0 obj\n<< /Type /XObject /Subtype /Image /Width " + width + " /Height " + height
+                + " /ColorSpace /DeviceGray /BitsPerComponent " + bitDepth + " /Filter /FlateDecode" + decodeParms
+                + " /Length " + deflated.length + " >>\nstream\n");
+        out.write(deflated);
+        ascii("\nendstream\nendobj\n");
+
+        int content = nextObject();
+        byte[] ops = String.format(Locale.US, "q %.2f 0 0 %.2f 0 0 cm /Im0 Do Q", wPt, hPt)
+                .getBytes(StandardCharsets.US_ASCII);
+        ascii(content + " 0 obj\n<< /Length " + ops.length + " >>\nstream\n");
+        out.write(ops);
+        ascii("\nendstream\nendobj\n");
+
+        int page = nextObject();
+        ascii(page + " 0 obj\n<< /Type /Page /Parent " + PAGES + " 0 R"
+                + String.format(Locale.US, " /MediaBox [0 0 %.2f %.2f]", wPt, hPt)
+                + " /Resources << /XObject << /Im0 " + image + " 0 R >> >> /Contents " + content + " 0 R >>\nendobj\n");
+        pageObjects.add(page);
+        out.flush();
+    }
+
+    /**
+     * Adds one page from a non-interlaced 1- or 8-bit grayscale PNG, copying its IDAT data as-is.
+     * Returns false (nothing written) for any other PNG flavour; callers then decode and use {@link #addPage}.
+     */
+    public boolean addPngPage(byte[] png) throws IOException {
+        if (png.length < 33 || !Arrays.equals(png, 0, 8, PNG_SIGNATURE, 0, 8)
+                || !"IHDR".equals(new String(png, 12, 4, StandardCharsets.ISO_8859_1))) return false;
+        int width = readInt(png, 16);
+        int height = readInt(png, 20);
+        int bitDepth = png[24];
+        int colorType = png[25];
+        int interlace = png[28];
+        if (colorType != 0 || interlace != 0 || (bitDepth != 1 && bitDepth != 8)) return false;
+
+        var idat = new ByteArrayOutputStream(png.length);
+        for (int pos = 8; pos + 8 <= png.length; ) {
+            int len = readInt(png, pos);
+            String type = new String(png, pos + 4, 4, StandardCharsets.ISO_8859_1);
+            if ("IDAT".equals(type)) idat.write(png, pos + 8, len);
+            if ("IEND".equals(type)) break;
+            pos += 12 + len;
+        }
+
+        String decodeParms = " /DecodeParms << /Predictor 15 /Colors 1 /BitsPerComponent " + bitDepth
+                + " /Columns " + width + " >>";
+        writeImagePage(idat.toByteArray(), width, height, bitDepth, decodeParms);
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        offsets.set(PAGES - 1, out.count);
+        StringBuilder kids = new StringBuilder();
+        for (int p : pageObjects) kids.append(p).append(" 0 R ");
+        ascii(PAGES + " 0 obj\n<< /Type /Pages /Kids [" + kids + "] /Count " + pageObjects.size() + " >>\nendobj\n");
+
+        offsets.set(CATALOG - 1, out.count);
+        ascii(CATALOG + " 0 obj\n<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+
+        long xref = out.count;
+        StringBuilder sb = new StringBuilder();
+        sb.append("xref\n0 ").append(offsets.size() + 1).append('\n');
+        sb.append("0000000000 65535 f \n");
+        for (long off : offsets) sb.append(String.format(Locale.US, "%010d 00000 n \n", off));
+        sb.append("trailer\n<< /Size ").append(offsets.size() + 1).append(" /Root ").append(CATALOG).append(" 0 R >>\n");
+        sb.append("startxref\n").append(xref).append("\n%%EOF\n");
+        ascii(sb.toString());
+        out.flush();
+    }
+
+    private int nextObject() {
+        offsets.add(out.count);
+        return offsets.size();
+    }
+
+    private static int readInt(byte[] b, int off) {
+        return ((b[off] & 0xFF) << 24) | ((b[off + 1] & 0xFF) << 16) | ((b[off + 2] & 0xFF) << 8) | (b[off + 3] & 0xFF);
+    }
+
+    private void ascii(String s) throws IOException {
+        out.write(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static byte[] deflate(byte[] raw) throws IOException {
+        var buf = new ByteArrayOutputStream(raw.length / 8 + 64);
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try (var z = new DeflaterOutputStream(buf, deflater)) {
+            z.write(raw);
+        } finally {
+            deflater.end();
+        }
+        return buf.toByteArray();
+    }
+
+    /** Tracks byte offsets for the xref table. Does not close the wrapped stream. */
+    private static final class CountingStream extends OutputStream {
+        private final OutputStream target;
+        long count;
+
+        CountingStream(OutputStream target) { this.target = target; }
+
+        @Override public void write(int b) throws IOException { target.write(b); count++; }
+        @Override public void write(byte[] b, int off, int len) throws IOException { target.write(b, off, len); count += len; }
+        @Override public void flush() throws IOException { target.flush(); }
+    }
+}
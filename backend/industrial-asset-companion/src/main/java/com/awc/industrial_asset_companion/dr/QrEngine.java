@@ -0,0 +1,157 @@
+package com.awc.industrial_asset_companion.dr;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The one QR stack: encodes payloads (ZXing), rasterizes via {@link CompactQrRenderer},
+ * and serves everything through {@link QrRenderCache}.
+ * Writer and hint maps are created once and reused; PNG buffers are per-thread.
+ * Metrics: qr.renders (timer per format; its count rate = renders/s),
+ * qr.cache.requests{result=hit|miss}, qr.cache.hit.ratio.
+ */
+@Service
+public class QrEngine {
+
+    public static final int LABEL_PADDING = 40;
+    public static final int LABEL_CAPTION_HEIGHT = 60;
+    private static final float PDF_DPI = 300f;
+
+    private final QRCodeWriter writer = new QRCodeWriter();   // stateless, thread-safe
+    private final ConcurrentMap<String, Map<EncodeHintType, Object>> hints = new ConcurrentHashMap<>();
+    private final QrRenderCache cache;
+
+    private final Map<QrFormat, Timer> renderTimers = new EnumMap<>(QrFormat.class);
+    private final Timer labelTimer;
+    private final Counter hits;
+    private final Counter misses;
+
+    public QrEngine(QrRenderCache cache, MeterRegistry registry) {
+        this.cache = cache;
+        for (QrFormat f : QrFormat.values()) {
+            renderTimers.put(f, Timer.builder("qr.renders").tag("format", f.extension())
+                    .description("QR renders (cache misses)").register(registry));
+        }
+        this.labelTimer = Timer.builder("qr.renders").tag("format", "label").register(registry);
+        this.hits = Counter.builder("qr.cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("qr.cache.requests").tag("result", "miss").register(registry);
+        Gauge.builder("qr.cache.hit.ratio", this, QrEngine::hitRatio).register(registry);
+    }
+
+    /* ---------------- single codes ---------------- */
+
+    /** Cache key / ETag for a spec, without rendering. */
+    public String key(QrSpec spec) {
+        return QrRenderCache.key(kind(spec), spec.payload(), cacheSize(spec));
+    }
+
+    public QrRenderCache.Entry render(QrSpec spec) throws Exception {
+        return cached(kind(spec), spec.payload(), cacheSize(spec), renderTimers.get(spec.format()), true,
+                () -> renderBytes(spec));
+    }
+
+    /** Same, memory tier only: for caller-chosen text / sizes, which must not grow the disk tier. */
+    public QrRenderCache.Entry renderInMemory(QrSpec spec) throws Exception {
+        return cached(kind(spec), spec.payload(), cacheSize(spec), renderTimers.get(spec.format()), false,
+                () -> renderBytes(spec));
+    }
+
+    /** Uncached render (bulk paths that manage their own reuse). */
+    public byte[] renderBytes(QrSpec spec) throws WriterException, IOException {
+        return switch (spec.format()) {
+            case PNG -> CompactQrRenderer.png1Bit(matrix(spec.payload(), spec.sizePx(), spec.ecc(), spec.margin()));
+            case SVG -> CompactQrRenderer.svg(
+                    Encoder.encode(spec.payload(), spec.ecc(), hints(spec.ecc(), spec.margin())).getMatrix(),
+                    spec.margin()).getBytes(StandardCharsets.UTF_8);
+            case PDF -> singlePagePdf(
+                    CompactQrRenderer.png1Bit(matrix(spec.payload(), spec.sizePx(), spec.ecc(), spec.margin())));
+        };
+    }
+
+    /* ---------------- two-code labels ---------------- */
+
+    public String labelKey(String left, String right, int qrSizePx) {
+        return QrRenderCache.key("label", left + "\n" + right, qrSizePx);
+    }
+
+    /** Two codes side by side with captions (8-bit gray PNG), ready to print. */
+    public QrRenderCache.Entry label(String left, String leftCaption,
+                                     String right, String rightCaption, int qrSizePx) throws Exception {
+        QrSpec.Preset p = QrSpec.Preset.LABEL;
+        return cached("label", left + "\n" + right, qrSizePx, labelTimer, true, () -> CompactQrRenderer.pngGray8(
+                CompactQrRenderer.label(
+                        matrix(left, qrSizePx, ErrorCorrectionLevel.L, p.margin), leftCaption,
+                        matrix(right, qrSizePx, ErrorCorrectionLevel.L, p.margin), rightCaption,
+                        LABEL_PADDING, LABEL_CAPTION_HEIGHT)));
+    }
+
+    /** Drops every rendering (any format/size/label) of this payload. */
+    public void evict(String payload) {
+        cache.evictPayload(payload);
+    }
+
+    /* ---------------- internals ---------------- */
+
+    private QrRenderCache.Entry cached(String kind, String payload, int size, Timer timer, boolean disk,
+                                       QrRenderCache.Renderer renderer) throws Exception {
+        boolean[] rendered = {false};
+        QrRenderCache.Renderer timed = () -> {
+            rendered[0] = true;
+            return timer.recordCallable(renderer::render);
+        };
+        var entry = disk ? cache.getOrRender(kind, payload, size, timed)
+                : cache.getOrRenderInMemory(kind, payload, size, timed);
+        (rendered[0] ? misses : hits).increment();
+        return entry;
+    }
+
+    private BitMatrix matrix(String payload, int sizePx, ErrorCorrectionLevel ecc, int margin) throws WriterException {
+        return writer.encode(payload, BarcodeFormat.QR_CODE, sizePx, sizePx, hints(ecc, margin));
+    }
+
+    private Map<EncodeHintType, Object> hints(ErrorCorrectionLevel ecc, int margin) {
+        return hints.computeIfAbsent(ecc.name() + "/" + margin, k -> Map.of(
+                EncodeHintType.ERROR_CORRECTION, ecc,
+                EncodeHintType.MARGIN, margin));
+    }
+
+    private static String kind(QrSpec spec) {
+        return spec.format().extension() + "-" + spec.ecc().name() + "-m" + spec.margin();
+    }
+
+    /** SVG is resolution independent: one cache entry regardless of requested size. */
+    private static int cacheSize(QrSpec spec) {
+        return spec.format() == QrFormat.SVG ? 0 : spec.sizePx();
+    }
+
+    private static byte[] singlePagePdf(byte[] png) throws IOException {
+        var out = new ByteArrayOutputStream(png.length + 1024);
+        try (var pdf = new PdfLabelSheetWriter(out, PDF_DPI)) {
+            pdf.addPngPage(png);
+        }
+        return out.toByteArray();
+    }
+
+    private double hitRatio() {
+        double h = hits.count(), m = misses.count();
+        return (h + m) == 0 ? 0 : h / (h + m);
+    }
+}
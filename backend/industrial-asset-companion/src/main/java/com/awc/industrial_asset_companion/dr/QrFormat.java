@@ -0,0 +1,24 @@
+package com.awc.industrial_asset_companion.dr;
+
+public enum QrFormat {
+    PNG("image/png", "png"),
+    SVG("image/svg+xml", "svg"),
+    PDF("application/pdf", "pdf");
+
+    private final String mediaType;
+    private final String extension;
+
+    QrFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String mediaType() { return mediaType; }
+    public String extension() { return extension; }
+
+    /** Lenient parse for request params ("png", "SVG", null -> PNG). */
+    public static QrFormat parse(String s) {
+        if (s == null || s.isBlank()) return PNG;
+        return valueOf(s.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,182 @@
+package com.awc.industrial_asset_companion.dr;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content-addressed cache for rendered QR / label images.
+ * Key = sha256(payload) + kind + size + {@link #FORMAT}, so a station whose name or coordinates
+ * change simply produces a new key; {@link #evictPayload(String)} only frees the old bytes.
+ * Two tiers: a byte-bounded LRU in memory, backed by a sharded directory on local disk.
+ * The disk tier is unbounded, so only renders from a bounded set of payloads (stations) go
+ * there; caller-chosen text and sizes use {@link #getOrRenderInMemory} and stay in memory.
+ * Entries of an older format are deleted from disk at startup.
+ */
+@Slf4j
+@Component
+public class QrRenderCache {
+
+    /** Render-format version; part of every key and ETag. Bump whenever the renderers produce different bytes. */
+    static final String FORMAT = "v2";
+
+    /** Rendered bytes plus the key they are stored under (doubles as a strong ETag). */
+    public record Entry(String key, byte[] bytes) {
+        public String etag() { return "\"" + key + "\""; }
+    }
+
+    @FunctionalInterface
+    public interface Renderer {
+        byte[] render() throws Exception;
+    }
+
+    private final long maxMemoryBytes;
+    private final Path dir;
+
+    // access-ordered => LRU; guarded by "this"
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    public QrRenderCache(@Value("${app.qr.cache.memory-max-bytes:33554432}") long maxMemoryBytes,
+                         @Value("${app.qr.cache.dir:${java.io.tmpdir}/iac-qr-cache}") String dir) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.dir = Path.of(dir);
+    }
+
+    /** Cache key for a payload rendered as {@code kind} at {@code sizePx}. Cheap: no rendering involved. */
+    public static String key(String kind, String payload, int sizePx) {
+        return payloadHash(payload) + "-" + kind + "-" + sizePx + "-" + FORMAT;
+    }
+
+    /** Delete disk entries written under another {@link #FORMAT} (or left half-written); nothing will ask for them again. */
+    @PostConstruct
+    void pruneDisk() {
+        if (!Files.isDirectory(dir)) return;
+        String suffix = "-" + FORMAT;
+        int deleted = 0;
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(dir, Files::isDirectory)) {
+            for (Path shard : shards) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(shard, f -> !f.getFileName().toString().endsWith(suffix))) {
+                    for (Path f : files) if (Files.deleteIfExists(f)) deleted++;
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("QR cache: could not prune {}", dir, ex);
+        }
+        if (deleted > 0) log.info("QR cache: deleted {} disk entries of an older render format", deleted);
+    }
+
+    /** Memory tier, then disk tier, then render (and populate both tiers). */
+    public Entry getOrRender(String kind, String payload, int sizePx, Renderer renderer) throws Exception {
+        String key = key(kind, payload, sizePx);
+
+        byte[] bytes = fromMemory(key);
+        if (bytes != null) return new Entry(key, bytes);
+
+        Path file = fileFor(key);
+        if (Files.isRegularFile(file)) {
+            try {
+                bytes = Files.readAllBytes(file);
+                toMemory(key, bytes);
+                return new Entry(key, bytes);
+            } catch (IOException ex) {
+                log.warn("QR cache: unreadable disk entry {}, re-rendering", file, ex);
+            }
+        }
+
+        bytes = renderer.render();
+        toDisk(file, bytes);
+        toMemory(key, bytes);
+        return new Entry(key, bytes);
+    }
+
+    /** Memory tier, then render; never reads or writes the disk tier. */
+    public Entry getOrRenderInMemory(String kind, String payload, int sizePx, Renderer renderer) throws Exception {
+        String key = key(kind, payload, sizePx);
+        byte[] bytes = fromMemory(key);
+        if (bytes != null) return new Entry(key, bytes);
+        bytes = renderer.render();
+        toMemory(key, bytes);
+        return new Entry(key, bytes);
+    }
+
+    /** Drop every size/kind rendered for this payload (both tiers). */
+    public void evictPayload(String payload) {
+        String prefix = payloadHash(payload);
+        synchronized (this) {
+            Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+            while (it.hasNext()) {
+                var e = it.next();
+                if (e.getKey().startsWith(prefix)) {
+                    memoryBytes -= e.getValue().length;
+                    it.remove();
+                }
+            }
+        }
+        Path shard = dir.resolve(prefix.substring(0, 2));
+        if (!Files.isDirectory(shard)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(shard, prefix + "*")) {
+            for (Path f : files) Files.deleteIfExists(f);
+        } catch (IOException ex) {
+            log.warn("QR cache: could not evict {} from disk", prefix, ex);
+        }
+    }
+
+    /* ---------------- internals ---------------- */
+
+    private synchronized byte[] fromMemory(String key) {
+        return memory.get(key);
+    }
+
+    private synchronized void toMemory(String key, byte[] bytes) {
+        if (bytes.length > maxMemoryBytes) return;
+        byte[] prev = memory.put(key, bytes);
+        memoryBytes += bytes.length - (prev == null ? 0 : prev.length);
+
+        Iterator<byte[]> it = memory.values().iterator();
+        while (memoryBytes > maxMemoryBytes && it.hasNext()) {
+            memoryBytes -= it.next().length;
+            it.remove();
+        }
+    }
+
+    private void toDisk(Path file, byte[] bytes) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "qr", ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            // disk tier is best-effort; memory tier still serves
+            log.warn("QR cache: could not write {}", file, ex);
+        }
+    }
+
+    private Path fileFor(String key) {
+        return dir.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static String payloadHash(String payload) {
+        try {
+            var md = MessageDigest.getInstance("SHA-256");
+            byte[] digest = md.digest((payload == null ? "" : payload).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.awc.industrial_asset_companion.dr;
+
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import lombok.Builder;
+
+/**
+ * What to render. Null fields fall back to the {@link Preset#SCREEN} defaults.
+ * sizePx is the raster edge for PNG/PDF; SVG is emitted in module units and ignores it.
+ */
+@Builder(toBuilder = true)
+public record QrSpec(String payload, QrFormat format, ErrorCorrectionLevel ecc, Integer sizePx, Integer margin) {
+
+    /** Size + quiet-zone presets (margin in modules). */
+    public enum Preset {
+        SCREEN(300, 1),
+        STATION(600, 1),
+        LABEL(500, 1),
+        PRINT(1200, 4);
+
+        public final int sizePx;
+        public final int margin;
+
+        Preset(int sizePx, int margin) {
+            this.sizePx = sizePx;
+            this.margin = margin;
+        }
+    }
+
+    public QrSpec {
+        if (payload == null) payload = "";
+        if (format == null) format = QrFormat.PNG;
+        if (ecc == null) ecc = ErrorCorrectionLevel.L;
+        if (sizePx == null) sizePx = Preset.SCREEN.sizePx;
+        if (margin == null) margin = Preset.SCREEN.margin;
+        sizePx = Math.max(21, Math.min(sizePx, 4000));
+        margin = Math.max(0, Math.min(margin, 16));
+    }
+
+    public static QrSpec of(String payload, Preset preset) {
+        return new QrSpec(payload, QrFormat.PNG, ErrorCorrectionLevel.L, preset.sizePx, preset.margin);
+    }
+
+    /**
+     * From loose request params; explicit size/margin override the preset.
+     * Throws IllegalArgumentException on an unknown format, ecc (L/M/Q/H) or preset.
+     */
+    public static QrSpec parse(String payload, String format, String ecc, String preset, Integer sizePx, Integer margin) {
+        Preset p = preset == null || preset.isBlank() ? Preset.SCREEN : Preset.valueOf(preset.trim().toUpperCase());
+        return new QrSpec(payload, QrFormat.parse(format),
+                ecc == null || ecc.isBlank() ? ErrorCorrectionLevel.L : ErrorCorrectionLevel.valueOf(ecc.trim().toUpperCase()),
+                sizePx != null ? sizePx : p.sizePx,
+                margin != null ? margin : p.margin);
+    }
+
+    public QrSpec withFormat(QrFormat f) {
+        return toBuilder().format(f).build();
+    }
+}
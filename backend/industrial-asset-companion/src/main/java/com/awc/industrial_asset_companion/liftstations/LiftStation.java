@@ -1,6 +1,7 @@
 package com.awc.industrial_asset_companion.liftstations;
 
 import com.awc.industrial_asset_companion.liftstations.shared.Ids;
+import com.awc.industrial_asset_companion.sync.ChangeTracker;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 
@@ -8,7 +9,7 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@EntityListeners(Ids.class)
+@EntityListeners({Ids.class, ChangeTracker.class})
 @Table(name="lift_stations", indexes = {
         @Index(name="ix_ls_code", columnList="code", unique=true),
         @Index(name="ix_ls_geo", columnList="latitude,longitude")
@@ -41,4 +41,19 @@ public interface LiftStationRepo extends JpaRepository<LiftStation, UUID> {
     Page<LiftStation> findInBbox(@Param("minLng") double minLng, @Param("minLat") double minLat,
                                  @Param("maxLng") double maxLng, @Param("maxLat") double maxLat,
                                  Pageable pageable);
+
+    // Label export filter: every argument optional (null = no constraint); page caps the rows read
+    @Query("""
+           select s from LiftStation s
+           where (:serviceArea is null or lower(s.serviceArea) = lower(:serviceArea))
+             and (:minLat is null or s.latitude  >= :minLat)
+             and (:maxLat is null or s.latitude  <= :maxLat)
+             and (:minLng is null or s.longitude >= :minLng)
+             and (:maxLng is null or s.longitude <= :maxLng)
+           order by s.code
+           """)
+    List<LiftStation> findForLabels(@Param("serviceArea") String serviceArea,
+                                    @Param("minLng") Double minLng, @Param("minLat") Double minLat,
+                                    @Param("maxLng") Double maxLng, @Param("maxLat") Double maxLat,
+                                    Pageable page);
 }
@@ -0,0 +1,127 @@
+package com.awc.industrial_asset_companion.liftstations;
+
+import com.awc.industrial_asset_companion.dr.PdfLabelSheetWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Bulk QR label export (ZIP of PNGs or one multi-page PDF).
+ * Labels render in parallel on a fixed pool, but are written in station order through a
+ * small look-ahead window, so memory stays at ~window labels whatever the station count.
+ */
+@Slf4j
+@Service
+public class StationLabelExportService {
+
+    /** Print resolution used to size PDF pages. */
+    private static final float PDF_DPI = 200f;
+
+    private final StationQrService qr;
+    private final ExecutorService pool;
+    private final int window;
+
+    public StationLabelExportService(StationQrService qr,
+                                     @Value("${app.qr.export.threads:0}") int threads) {
+        this.qr = qr;
+        int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        var seq = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(n, r -> {
+            Thread t = new Thread(r, "qr-export-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.window = n * 2;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public void writeZip(List<LiftStation> stations, OutputStream out) throws IOException {
+        try (var zip = new ZipOutputStream(out)) {
+            zip.setLevel(Deflater.NO_COMPRESSION); // PNG is already deflated
+            Set<String> names = new HashSet<>();
+            renderInOrder(stations, ls -> qr.labelPng(ls).bytes(), (ls, png) -> {
+                zip.putNextEntry(new ZipEntry(entryName(ls, names)));
+                zip.write(png);
+                zip.closeEntry();
+                zip.flush();
+            });
+        }
+    }
+
+    public void writePdf(List<LiftStation> stations, OutputStream out) throws IOException {
+        try (var pdf = new PdfLabelSheetWriter(out, PDF_DPI)) {
+            renderInOrder(stations, ls -> qr.labelPng(ls).bytes(), (ls, png) -> {
+                // labels are gray PNGs (QrRenderCache.FORMAT): IDAT copied, no decode
+                if (!pdf.addPngPage(png)) throw new IOException("Label for station " + ls.getCode() + " is not a gray PNG");
+            });
+        }
+    }
+
+    /* ---------------- internals ---------------- */
+
+    @FunctionalInterface
+    private interface Render<T> { T apply(LiftStation ls) throws Exception; }
+
+    @FunctionalInterface
+    private interface Sink<T> { void accept(LiftStation ls, T item) throws IOException; }
+
+    private record Pending<T>(LiftStation station, Future<T> result) {}
+
+    private <T> void renderInOrder(List<LiftStation> stations, Render<T> render, Sink<T> sink) throws IOException {
+        var inFlight = new ArrayDeque<Pending<T>>(window);
+        Iterator<LiftStation> it = stations.iterator();
+        try {
+            while (it.hasNext() || !inFlight.isEmpty()) {
+                while (it.hasNext() && inFlight.size() < window) {
+                    LiftStation ls = it.next();
+                    inFlight.add(new Pending<>(ls, pool.submit(() -> render.apply(ls))));
+                }
+                var next = inFlight.poll();
+                sink.accept(next.station(), await(next));
+            }
+        } finally {
+            // client went away / render failed: don't keep burning CPU on the rest
+            for (var p : inFlight) p.result().cancel(true);
+        }
+    }
+
+    private static <T> T await(Pending<T> p) throws IOException {
+        try {
+            return p.result().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Label export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Label render failed for station " + p.station().getCode(), e.getCause());
+        }
+    }
+
+    private static String entryName(LiftStation ls, Set<String> used) {
+        String base = (ls.getCode() == null || ls.getCode().isBlank()) ? String.valueOf(ls.getId()) : ls.getCode();
+        base = base.replaceAll("[^A-Za-z0-9._-]", "_");
+        String name = base + "-label.png";
+        for (int i = 2; !used.add(name); i++) name = base + "-label-" + i + ".png";
+        return name;
+    }
+}
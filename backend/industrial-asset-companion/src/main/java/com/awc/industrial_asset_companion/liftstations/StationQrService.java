@@ -0,0 +1,69 @@
+package com.awc.industrial_asset_companion.liftstations;
+
+import com.awc.industrial_asset_companion.dr.QrEngine;
+import com.awc.industrial_asset_companion.dr.QrFormat;
+import com.awc.industrial_asset_companion.dr.QrRenderCache;
+import com.awc.industrial_asset_companion.dr.QrSpec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/** Station QR images (single codes + printable label), rendered and cached by {@link QrEngine}. */
+@Service
+@RequiredArgsConstructor
+public class StationQrService {
+
+    public static final int LABEL_QR_SIZE = QrSpec.Preset.LABEL.sizePx;
+
+    private final QrEngine engine;
+
+    public static String androidPayload(LiftStation ls) {
+        return MapLinks.androidGeo(ls.getLatitude(), ls.getLongitude(), ls.getName());
+    }
+
+    public static String iosPayload(LiftStation ls) {
+        return MapLinks.appleMapsAppDirections(ls.getLatitude(), ls.getLongitude(), ls.getName());
+    }
+
+    private static QrSpec single(String payload) {
+        return QrSpec.of(payload, QrSpec.Preset.STATION);
+    }
+
+    private static QrSpec svgSpec(String payload) {
+        return single(payload).withFormat(QrFormat.SVG);
+    }
+
+    /* ---- keys (cheap; lets controllers answer If-None-Match without rendering) ---- */
+
+    public String androidKey(LiftStation ls) { return engine.key(single(androidPayload(ls))); }
+    public String iosKey(LiftStation ls)     { return engine.key(single(iosPayload(ls))); }
+    public String labelKey(LiftStation ls)   { return engine.labelKey(androidPayload(ls), iosPayload(ls), LABEL_QR_SIZE); }
+    public String svgKey(String payload)     { return engine.key(svgSpec(payload)); }
+
+    /* ---- rendered bytes ---- */
+
+    public QrRenderCache.Entry androidPng(LiftStation ls) throws Exception {
+        return engine.render(single(androidPayload(ls)));
+    }
+
+    public QrRenderCache.Entry iosPng(LiftStation ls) throws Exception {
+        return engine.render(single(iosPayload(ls)));
+    }
+
+    public QrRenderCache.Entry svg(String payload) throws Exception {
+        return engine.render(svgSpec(payload));
+    }
+
+    /** Composite label with both QRs and captions (ready to print). */
+    public QrRenderCache.Entry labelPng(LiftStation ls) throws Exception {
+        return engine.label(androidPayload(ls), "Android (geo:)", iosPayload(ls), "iPhone (maps://)", LABEL_QR_SIZE);
+    }
+
+    /** Call with the station as it is BEFORE a name/coordinate change or delete. */
+    public void evict(LiftStation ls) {
+        String android = androidPayload(ls);
+        String ios = iosPayload(ls);
+        engine.evict(android);
+        engine.evict(ios);
+        engine.evict(android + "\n" + ios);
+    }
+}
@@ -0,0 +1,141 @@
+package com.awc.industrial_asset_companion.liftstations;
+
+import com.awc.industrial_asset_companion.alarms.AlarmRepo;
+import com.awc.industrial_asset_companion.alarms.alarmDto.PublicAlarmDto;
+import com.awc.industrial_asset_companion.liftstations.dto.LiftStationDtos;
+import com.awc.industrial_asset_companion.liftstations.dto.LiftStationPublicDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-station view models (detail + public page) kept as ready-to-send JSON bytes.
+ * Map links are built once per station version and the recent-alarm query runs once per
+ * invalidation; every variant (detail, public with N alarms, public without) is serialized once.
+ * Invalidated by station writes ({@link #evict}) and alarm writes ({@link StationViewInvalidator}).
+ */
+@Component
+public class StationViewCache {
+
+    public static final int MAX_PUBLIC_ALARMS = 50;
+
+    /** Serialized body plus a strong ETag over its content (stable across restarts). */
+    public record Cached(byte[] json, String etag) {}
+
+    private static final class Station {
+        final LiftStationDtos.LiftStationViewDto view;
+        final List<PublicAlarmDto> recentAlarms;     // newest first, up to MAX_PUBLIC_ALARMS
+        final Map<String, Cached> variants = new ConcurrentHashMap<>();
+
+        Station(LiftStationDtos.LiftStationViewDto view, List<PublicAlarmDto> recentAlarms) {
+            this.view = view;
+            this.recentAlarms = recentAlarms;
+        }
+    }
+
+    private final LiftStationRepo stations;
+    private final AlarmRepo alarms;
+    private final ObjectMapper json;
+    private final int maxStations;
+
+    // access-ordered => LRU; guarded by "this"
+    private final LinkedHashMap<UUID, Station> cache = new LinkedHashMap<>(64, 0.75f, true);
+    // bumped on every eviction; a load that raced one is served but not stored
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public StationViewCache(LiftStationRepo stations, AlarmRepo alarms, ObjectMapper json,
+                            @Value("${app.stations.view-cache.max-stations:10000}") int maxStations) {
+        this.stations = stations;
+        this.alarms = alarms;
+        this.json = json;
+        this.maxStations = maxStations;
+    }
+
+    /** Detail view (GET /api/stations/{id}); empty if the station does not exist. */
+    public Optional<Cached> view(UUID id) {
+        return station(id).map(s -> s.variants.computeIfAbsent("view", k -> serialize(s.view)));
+    }
+
+    /** Public page (GET /api/stations/{id}/public); alarmLimit is clamped to 1..50. */
+    public Optional<Cached> publicView(UUID id, boolean includeAlarms, int alarmLimit) {
+        int limit = includeAlarms ? Math.max(1, Math.min(alarmLimit, MAX_PUBLIC_ALARMS)) : 0;
+        return station(id).map(s -> s.variants.computeIfAbsent("public-" + limit, k -> serialize(
+                LiftStationPublicDto.from(s.view,
+                        s.recentAlarms.subList(0, Math.min(limit, s.recentAlarms.size()))))));
+    }
+
+    /** Drop the station now (call after the write is committed). */
+    public void evict(UUID id) {
+        if (id == null) return;
+        invalidations.incrementAndGet();
+        synchronized (this) {
+            cache.remove(id);
+        }
+    }
+
+    /** Drop the station once the surrounding transaction commits (immediately if there is none). */
+    public void evictAfterCommit(UUID id) {
+        if (id == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override public void afterCompletion(int status) { evict(id); }
+            });
+        } else {
+            evict(id);
+        }
+    }
+
+    /* ---------------- internals ---------------- */
+
+    private Optional<Station> station(UUID id) {
+        synchronized (this) {
+            Station hit = cache.get(id);
+            if (hit != null) return Optional.of(hit);
+        }
+
+        long seen = invalidations.get();
+        var ls = stations.findById(id).orElse(null);
+        if (ls == null) return Optional.empty();
+        List<PublicAlarmDto> recent = alarms
+                .findByStationIdOrderByRaisedAtDesc(id, PageRequest.of(0, MAX_PUBLIC_ALARMS))
+                .map(PublicAlarmDto::from)
+                .getContent();
+        var loaded = new Station(LiftStationDtos.LiftStationViewDto.of(ls), List.copyOf(recent));
+
+        synchronized (this) {
+            if (invalidations.get() != seen) return Optional.of(loaded);
+            Station raced = cache.putIfAbsent(id, loaded);
+            if (cache.size() > maxStations) {
+                var it = cache.keySet().iterator();
+                it.next();
+                it.remove();
+            }
+            return Optional.of(raced != null ? raced : loaded);
+        }
+    }
+
+    private Cached serialize(Object dto) {
+        try {
+            byte[] bytes = json.writeValueAsBytes(dto);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return new Cached(bytes, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not serialize station view", e);
+        }
+    }
+}
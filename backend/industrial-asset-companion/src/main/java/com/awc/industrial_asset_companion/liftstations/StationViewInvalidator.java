@@ -0,0 +1,31 @@
+package com.awc.industrial_asset_companion.liftstations;
+
+import com.awc.industrial_asset_companion.alarms.Alarm;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on {@link Alarm}: raising, acknowledging or deleting an alarm changes the
+ * station's public page, so its cached view is dropped after commit.
+ * Hibernate obtains this listener from the Spring context (SpringBeanContainer); the cache is
+ * looked up lazily because it depends on repositories that need the EntityManagerFactory.
+ */
+@Component
+public class StationViewInvalidator {
+
+    private final ObjectProvider<StationViewCache> views;
+
+    public StationViewInvalidator(ObjectProvider<StationViewCache> views) {
+        this.views = views;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void alarmChanged(Alarm alarm) {
+        views.getObject().evictAfterCommit(alarm.getStationId());
+    }
+}
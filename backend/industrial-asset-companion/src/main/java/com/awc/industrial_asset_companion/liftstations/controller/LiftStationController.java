@@ -2,20 +2,25 @@ package com.awc.industrial_asset_companion.liftstations.controller;
 
 import com.awc.industrial_asset_companion.liftstations.LiftStation;
 import com.awc.industrial_asset_companion.liftstations.LiftStationRepo;
-import com.awc.industrial_asset_companion.liftstations.MapLinks;
+import com.awc.industrial_asset_companion.liftstations.StationQrService;
+import com.awc.industrial_asset_companion.liftstations.StationViewCache;
 import com.awc.industrial_asset_companion.liftstations.dto.LiftStationDtos;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.awt.image.BufferedImage;
 import java.net.URI;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -30,24 +35,20 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/stations")
 public class LiftStationController {
     private final LiftStationRepo repo;
-    public LiftStationController(LiftStationRepo repo){ this.repo = repo; }
+    private final StationQrService qr;
+    private final StationViewCache views;
+    public LiftStationController(LiftStationRepo repo, StationQrService qr, StationViewCache views){
+        this.repo = repo; this.qr = qr; this.views = views;
+    }
 
-    private LiftStationDtos.LiftStationViewDto viewOf(LiftStation ls){
-        return new LiftStationDtos.LiftStationViewDto(
-                ls.getId(), ls.getCode(), ls.getName(),
-                ls.getAddressLine1(), ls.getCity(), ls.getState(), ls.getZip(),
-                ls.getLatitude(), ls.getLongitude(),
-                ls.getServiceArea(), ls.getWetWellDepthFt(),
-                ls.getPumpsCount(), ls.getCommsType(),
-                ls.getNotes(),
-
-                // names must match DTO fields above
-                MapLinks.googleMaps(ls.getLatitude(), ls.getLongitude()),
-                MapLinks.googleDirections(ls.getLatitude(), ls.getLongitude()),
-                MapLinks.appleMapsAppPin(ls.getLatitude(), ls.getLongitude(), ls.getName()),
-                MapLinks.appleMapsAppDirections(ls.getLatitude(), ls.getLongitude(), ls.getName()),
-                MapLinks.androidGeo(ls.getLatitude(), ls.getLongitude(), ls.getName())
-        );
+    /** Pre-serialized view-model JSON; 304 when If-None-Match still matches. */
+    static ResponseEntity<byte[]> cachedJson(StationViewCache.Cached c, WebRequest request) {
+        if (request.checkNotModified(c.etag())) return null;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .eTag(c.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(c.json());
     }
 
 //    @GetMapping
@@ -83,8 +84,8 @@ public class LiftStationController {
     }
 
     @GetMapping("/{id}")
-    public LiftStationDtos.LiftStationViewDto get(@PathVariable java.util.UUID id){
-        return repo.findById(id).map(this::viewOf).orElseThrow();
+    public ResponseEntity<byte[]> get(@PathVariable java.util.UUID id, WebRequest request){
+        return cachedJson(views.view(id).orElseThrow(), request);
     }
 
   /*  @GetMapping
@@ -157,6 +158,12 @@ public class LiftStationController {
     @PutMapping("/{id}")
     public LiftStation update(@PathVariable UUID id, @RequestBody LiftStationDtos.LiftStationCreateDto dto) {
         var ls = repo.findById(id).orElseThrow();
+        // QR payloads are built from name + coordinates; drop the old renders if those move
+        if (!Objects.equals(ls.getName(), dto.name())
+                || !Objects.equals(ls.getLatitude(), dto.latitude())
+                || !Objects.equals(ls.getLongitude(), dto.longitude())) {
+            qr.evict(ls);
+        }
         ls.setName(dto.name());
         ls.setAddressLine1(dto.addressLine1());
         ls.setCity(dto.city());
@@ -169,13 +176,18 @@ public class LiftStationController {
         ls.setPumpsCount(dto.pumpsCount());
         ls.setCommsType(dto.commsType());
         ls.setNotes(dto.notes());
-        return repo.save(ls);
+        var saved = repo.save(ls);
+        views.evict(id);
+        return saved;
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable UUID id){
-        if (!repo.existsById(id)) return ResponseEntity.notFound().build();
+        var ls = repo.findById(id).orElse(null);
+        if (ls == null) return ResponseEntity.notFound().build();
+        qr.evict(ls);
         repo.deleteById(id);
+        views.evict(id);
         return ResponseEntity.noContent().build();
     }
 
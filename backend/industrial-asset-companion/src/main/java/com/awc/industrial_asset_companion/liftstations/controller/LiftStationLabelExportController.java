@@ -0,0 +1,93 @@
+package com.awc.industrial_asset_companion.liftstations.controller;
+
+import com.awc.industrial_asset_companion.liftstations.LiftStation;
+import com.awc.industrial_asset_companion.liftstations.LiftStationRepo;
+import com.awc.industrial_asset_companion.liftstations.StationLabelExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// GET http://localhost:8080/api/stations/qr/labels?serviceArea=North            -> ZIP of label PNGs
+// GET http://localhost:8080/api/stations/qr/labels?ids=<uuid>,<uuid>&format=pdf -> one PDF, a label per page
+// GET http://localhost:8080/api/stations/qr/labels?minLng=..&minLat=..&maxLng=..&maxLat=..
+@RestController
+@RequestMapping("/api/stations")
+public class LiftStationLabelExportController {
+    private final LiftStationRepo repo;
+    private final StationLabelExportService export;
+    private final int maxStations;
+
+    public LiftStationLabelExportController(LiftStationRepo repo, StationLabelExportService export,
+                                            @Value("${app.qr.export.max-stations:5000}") int maxStations) {
+        this.repo = repo;
+        this.export = export;
+        this.maxStations = maxStations;
+    }
+
+    @GetMapping("/qr/labels")
+    public ResponseEntity<StreamingResponseBody> labels(
+            @RequestParam(required = false) List<UUID> ids,
+            @RequestParam(required = false) String serviceArea,
+            @RequestParam(required = false) Double minLng,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLng,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(defaultValue = "zip") String format) {
+
+        boolean pdf = "pdf".equalsIgnoreCase(format);
+        if (!pdf && !"zip".equalsIgnoreCase(format))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be zip or pdf");
+
+        String area = (serviceArea == null || serviceArea.isBlank()) ? null : serviceArea.trim();
+        String tooMany = "Too many stations; narrow the filter to at most " + maxStations;
+        List<LiftStation> stations;
+        if (ids != null && !ids.isEmpty()) {
+            Set<UUID> wanted = new LinkedHashSet<>(ids);
+            if (wanted.size() > maxStations) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, tooMany);
+            stations = repo.findAllById(wanted).stream()
+                    .filter(s -> area == null || area.equalsIgnoreCase(s.getServiceArea()))
+                    .filter(s -> inBox(s, minLng, minLat, maxLng, maxLat))
+                    .sorted(Comparator.comparing(LiftStation::getCode))
+                    .toList();
+        } else {
+            // one row past the cap is enough to know the filter is too wide, without loading all of it
+            stations = repo.findForLabels(area, minLng, minLat, maxLng, maxLat, PageRequest.of(0, maxStations + 1));
+            if (stations.size() > maxStations) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, tooMany);
+        }
+
+        if (stations.isEmpty())
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No stations match the filter");
+
+        StreamingResponseBody body = pdf
+                ? out -> export.writePdf(stations, out)
+                : out -> export.writeZip(stations, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"station-labels." + (pdf ? "pdf" : "zip") + "\"")
+                .contentType(pdf ? MediaType.APPLICATION_PDF : MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    private static boolean inBox(LiftStation s, Double minLng, Double minLat, Double maxLng, Double maxLat) {
+        return (minLat == null || s.getLatitude() >= minLat)
+                && (maxLat == null || s.getLatitude() <= maxLat)
+                && (minLng == null || s.getLongitude() >= minLng)
+                && (maxLng == null || s.getLongitude() <= maxLng);
+    }
+}
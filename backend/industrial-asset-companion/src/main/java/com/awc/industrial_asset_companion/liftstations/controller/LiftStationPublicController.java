@@ -1,43 +1,31 @@
 package com.awc.industrial_asset_companion.liftstations.controller;
 
-import com.awc.industrial_asset_companion.alarms.AlarmRepo;
-import com.awc.industrial_asset_companion.alarms.alarmDto.PublicAlarmDto;
-import com.awc.industrial_asset_companion.liftstations.LiftStationRepo;
-import com.awc.industrial_asset_companion.liftstations.dto.LiftStationPublicDto;
+import com.awc.industrial_asset_companion.liftstations.StationViewCache;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/stations")
 @RequiredArgsConstructor
 public class LiftStationPublicController {
-    private final LiftStationRepo stations;
-    private final AlarmRepo alarms;
+    private final StationViewCache views;
 
-    /** Public, read-only station; include recent safe alarms. */
+    /** Public, read-only station; include recent safe alarms. Served from the view-model cache. */
     @GetMapping("/{id}/public")
-    public LiftStationPublicDto getPublic(
+    public ResponseEntity<byte[]> getPublic(
             @PathVariable UUID id,
             @RequestParam(defaultValue = "true") boolean includeAlarms,
-            @RequestParam(defaultValue = "10") int alarmLimit
+            @RequestParam(defaultValue = "10") int alarmLimit,
+            WebRequest request
     ) {
-        var s = stations.findById(id)
+        var cached = views.publicView(id, includeAlarms, alarmLimit)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Station not found"));
-
-        List<PublicAlarmDto> alarmDtos = List.of();
-        if (includeAlarms) {
-            int limit = Math.max(1, Math.min(alarmLimit, 50));
-            alarmDtos = alarms
-                    .findByStationIdOrderByRaisedAtDesc(id, PageRequest.of(0, limit))
-                    .map(PublicAlarmDto::from)
-                    .getContent();
-        }
-        return LiftStationPublicDto.from(s, alarmDtos);
+        return LiftStationController.cachedJson(cached, request);
     }
 }
@@ -1,58 +1,93 @@
 package com.awc.industrial_asset_companion.liftstations.controller;
 
-import com.awc.industrial_asset_companion.dr.QrMaker;
+import com.awc.industrial_asset_companion.dr.QrRenderCache;
 import com.awc.industrial_asset_companion.liftstations.LiftStationRepo;
-import com.awc.industrial_asset_companion.liftstations.MapLinks;
+import com.awc.industrial_asset_companion.liftstations.StationQrService;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.util.UUID;
 
 
 @RestController
 @RequestMapping("/api/stations")
 public class LiftStationQrController {
+    // Version-pinned URLs (?v=<etag>) never change content -> cache forever.
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    // Plain URLs follow the station; clients revalidate (cheap 304 via ETag).
+    private static final String REVALIDATE = "no-cache";
+
     private final LiftStationRepo repo;
-    public LiftStationQrController(LiftStationRepo repo){ this.repo = repo; }
+    private final StationQrService qr;
+    public LiftStationQrController(LiftStationRepo repo, StationQrService qr){ this.repo = repo; this.qr = qr; }
 
     @GetMapping("/{id}/qr/android")
-    public ResponseEntity<byte[]> qrAndroid(@PathVariable UUID id) throws Exception {
+    public ResponseEntity<byte[]> qrAndroid(@PathVariable UUID id,
+                                            @RequestParam(name = "v", required = false) String version,
+                                            WebRequest request) throws Exception {
         var ls = repo.findById(id).orElseThrow();
-        String payload = MapLinks.androidGeo(ls.getLatitude(), ls.getLongitude(), ls.getName());
-        return pngResponse(QrMaker.qrPng(payload, 600), "station-android-qr.png");
+        String key = qr.androidKey(ls);
+        if (request.checkNotModified(key)) return null;
+        return pngResponse(qr.androidPng(ls), version, "station-android-qr.png");
     }
 
     @GetMapping("/{id}/qr/ios")
-    public ResponseEntity<byte[]> qrIos(@PathVariable UUID id) throws Exception {
+    public ResponseEntity<byte[]> qrIos(@PathVariable UUID id,
+                                        @RequestParam(name = "v", required = false) String version,
+                                        WebRequest request) throws Exception {
         var ls = repo.findById(id).orElseThrow();
-        String payload = MapLinks.appleMapsAppDirections(ls.getLatitude(), ls.getLongitude(), ls.getName());
-        return pngResponse(QrMaker.qrPng(payload, 600), "station-ios-qr.png");
+        String key = qr.iosKey(ls);
+        if (request.checkNotModified(key)) return null;
+        return pngResponse(qr.iosPng(ls), version, "station-ios-qr.png");
+    }
+
+    /** Vector variant for print shops: /qr/android.svg or /qr/ios.svg */
+    @GetMapping("/{id}/qr/{platform}.svg")
+    public ResponseEntity<byte[]> qrSvg(@PathVariable UUID id, @PathVariable String platform,
+                                        @RequestParam(name = "v", required = false) String version,
+                                        WebRequest request) throws Exception {
+        var ls = repo.findById(id).orElseThrow();
+        String payload = switch (platform) {
+            case "android" -> StationQrService.androidPayload(ls);
+            case "ios" -> StationQrService.iosPayload(ls);
+            default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown QR platform");
+        };
+        if (request.checkNotModified(qr.svgKey(payload))) return null;
+        var img = qr.svg(payload);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"station-" + platform + "-qr.svg\"")
+                .header(HttpHeaders.CACHE_CONTROL, img.key().equals(version) ? IMMUTABLE : REVALIDATE)
+                .eTag(img.etag())
+                .contentType(MediaType.valueOf("image/svg+xml"))
+                .body(img.bytes());
     }
 
     /** Composite label with both QRs and captions (ready to print). */
     @GetMapping("/{id}/qr/label")
-    public ResponseEntity<byte[]> qrLabel(@PathVariable UUID id) throws Exception {
+    public ResponseEntity<byte[]> qrLabel(@PathVariable UUID id,
+                                          @RequestParam(name = "v", required = false) String version,
+                                          WebRequest request) throws Exception {
         var ls = repo.findById(id).orElseThrow();
-        var android = QrMaker.qrPng(MapLinks.androidGeo(ls.getLatitude(), ls.getLongitude(), ls.getName()), 500);
-        var ios     = QrMaker.qrPng(MapLinks.appleMapsAppDirections(ls.getLatitude(), ls.getLongitude(), ls.getName()), 500);
-        BufferedImage label = QrMaker.labelWithTwoQrs(android, "Android (geo:)", ios, "iPhone (maps://)", 40, 60);
-        return pngResponse(label, "station-qrs-label.png");
+        String key = qr.labelKey(ls);
+        if (request.checkNotModified(key)) return null;
+        return pngResponse(qr.labelPng(ls), version, "station-qrs-label.png");
     }
 
-    private ResponseEntity<byte[]> pngResponse(BufferedImage img, String filename) throws Exception {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(img, "png", baos);
+    private ResponseEntity<byte[]> pngResponse(QrRenderCache.Entry img, String version, String filename) {
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
+                .header(HttpHeaders.CACHE_CONTROL, img.key().equals(version) ? IMMUTABLE : REVALIDATE)
+                .eTag(img.etag())
                 .contentType(MediaType.IMAGE_PNG)
-                .body(baos.toByteArray());
+                .body(img.bytes());
     }
 }
@@ -1,34 +1,60 @@
 package com.awc.industrial_asset_companion.liftstations.controller;
 
-import com.awc.industrial_asset_companion.service.QrCodeService;
-import com.google.zxing.WriterException;
+import com.awc.industrial_asset_companion.dr.QrEngine;
+import com.awc.industrial_asset_companion.dr.QrSpec;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.io.IOException;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/qrcode")
 public class QrCodeController {
-    private final QrCodeService qrCodeService;
+    private final QrEngine engine;
 
-    public QrCodeController(QrCodeService qrCodeService) {
-        this.qrCodeService = qrCodeService;
+    public QrCodeController(QrEngine engine) {
+        this.engine = engine;
     }
 
-    @GetMapping(produces = MediaType.IMAGE_PNG_VALUE)
-    public ResponseEntity<byte[]> generateQr(@RequestParam String text) throws WriterException, IOException {
-        byte[] qrImage = qrCodeService.generateQrCode(text, 300, 300);
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"qrcode.png\"")
-                .body(qrImage);
+    /** Any text as PNG (default), SVG or PDF; preset = screen|station|label|print, ecc = L|M|Q|H. */
+    @GetMapping
+    public ResponseEntity<byte[]> generateQr(@RequestParam String text,
+                                             @RequestParam(required = false) String format,
+                                             @RequestParam(required = false) String ecc,
+                                             @RequestParam(required = false) String preset,
+                                             @RequestParam(required = false) Integer size,
+                                             @RequestParam(required = false) Integer margin,
+                                             WebRequest request) throws Exception {
+        return render(engine, spec(text, format, ecc, preset, size, margin), "qrcode", request);
     }
 
+    public static QrSpec spec(String payload, String format, String ecc, String preset, Integer size, Integer margin) {
+        try {
+            return QrSpec.parse(payload, format, ecc, preset, size, margin);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid QR format, ecc or preset");
+        }
+    }
 
+    /**
+     * Shared with other QR endpoints: 304 on matching ETag, else bytes with the format's content type.
+     * Text, format and size are the caller's, so renders stay in the memory tier (never on disk).
+     */
+    public static ResponseEntity<byte[]> render(QrEngine engine, QrSpec spec, String filename, WebRequest request) throws Exception {
+        if (request.checkNotModified(engine.key(spec))) return null;
+        var img = engine.renderInMemory(spec);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "inline; filename=\"" + filename + "." + spec.format().extension() + "\"")
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .eTag(img.etag())
+                .contentType(MediaType.valueOf(spec.format().mediaType()))
+                .body(img.bytes());
+    }
 }
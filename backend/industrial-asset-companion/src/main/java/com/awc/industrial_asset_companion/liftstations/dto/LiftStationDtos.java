@@ -1,5 +1,7 @@
 package com.awc.industrial_asset_companion.liftstations.dto;
 
+import com.awc.industrial_asset_companion.liftstations.LiftStation;
+import com.awc.industrial_asset_companion.liftstations.MapLinks;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.util.UUID;
@@ -39,5 +41,21 @@ public final class LiftStationDtos {
             String appleMapsPin,          // React reads appleMaps OR appleMapsPin (we send appleMapsPin)
             String appleMapsDirections,
             String androidGeoUri          // React reads androidGeoUri
-    ) {}
+    ) {
+        public static LiftStationViewDto of(LiftStation ls) {
+            return new LiftStationViewDto(
+                    ls.getId(), ls.getCode(), ls.getName(),
+                    ls.getAddressLine1(), ls.getCity(), ls.getState(), ls.getZip(),
+                    ls.getLatitude(), ls.getLongitude(),
+                    ls.getServiceArea(), ls.getWetWellDepthFt(),
+                    ls.getPumpsCount(), ls.getCommsType(),
+                    ls.getNotes(),
+                    MapLinks.googleMaps(ls.getLatitude(), ls.getLongitude()),
+                    MapLinks.googleDirections(ls.getLatitude(), ls.getLongitude()),
+                    MapLinks.appleMapsAppPin(ls.getLatitude(), ls.getLongitude(), ls.getName()),
+                    MapLinks.appleMapsAppDirections(ls.getLatitude(), ls.getLongitude(), ls.getName()),
+                    MapLinks.androidGeo(ls.getLatitude(), ls.getLongitude(), ls.getName())
+            );
+        }
+    }
 }
@@ -2,7 +2,6 @@ package com.awc.industrial_asset_companion.liftstations.dto;
 
 import com.awc.industrial_asset_companion.alarms.alarmDto.PublicAlarmDto;
 import com.awc.industrial_asset_companion.liftstations.LiftStation;
-import com.awc.industrial_asset_companion.liftstations.MapLinks;
 
 import java.util.List;
 import java.util.UUID;
@@ -25,25 +24,26 @@ public record LiftStationPublicDto(
         List<PublicAlarmDto> alarms // optional, safe fields only
 ) {
     public static LiftStationPublicDto from(LiftStation s, List<PublicAlarmDto> alarms) {
-        Double lat = s.getLatitude();
-        Double lng = s.getLongitude();
-        String name = s.getName();
+        return from(LiftStationDtos.LiftStationViewDto.of(s), alarms);
+    }
 
+    /** Reuses the links already built for the detail view. */
+    public static LiftStationPublicDto from(LiftStationDtos.LiftStationViewDto v, List<PublicAlarmDto> alarms) {
         return new LiftStationPublicDto(
-                s.getId(),
-                s.getCode(),
-                s.getName(),
-                s.getAddressLine1(),
-                s.getCity(),
-                s.getState(),
-                s.getZip(),
-                lat,
-                lng,
-                MapLinks.googleMaps(lat, lng),
-                MapLinks.googleDirections(lat, lng),
-                MapLinks.appleMapsAppPin(lat,lng,name),
-                MapLinks.appleMapsAppDirections(lat, lng, name),
-                MapLinks.androidGeo(lat, lng, name),
+                v.id(),
+                v.code(),
+                v.name(),
+                v.addressLine1(),
+                v.city(),
+                v.state(),
+                v.zip(),
+                v.latitude(),
+                v.longitude(),
+                v.googleMaps(),
+                v.googleDirections(),
+                v.appleMapsPin(),
+                v.appleMapsDirections(),
+                v.androidGeoUri(),
                 alarms
         );
     }
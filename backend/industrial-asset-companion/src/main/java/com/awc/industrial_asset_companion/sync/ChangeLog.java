@@ -0,0 +1,42 @@
+package com.awc.industrial_asset_companion.sync;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One committed change to a synced entity, in commit-ish order (seq is the sync token).
+ * Rows are written by {@link ChangeTracker} in the writer's own transaction, just before it
+ * commits, so a rolled-back write leaves no entry; they are only read by {@link SyncService}
+ * and pruned by age (the newest row is always kept).
+ */
+@Entity
+@Table(name = "change_log", indexes = @Index(name = "ix_change_log_changed_at", columnList = "changed_at"))
+@Getter
+@NoArgsConstructor
+public class ChangeLog {
+
+    public static final String PLANT = "plant";
+    public static final String AREA = "area";
+    public static final String DEVICE = "device";
+    public static final String DOCUMENT = "document";
+    public static final String STATION = "station";
+    public static final String ALARM = "alarm";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(nullable = false, length = 16) private String entity;
+    @Column(name = "entity_id", nullable = false, length = 64) private String entityId;
+    @Column(nullable = false) private boolean deleted;
+    @Column(name = "changed_at", nullable = false) private Instant changedAt;
+}
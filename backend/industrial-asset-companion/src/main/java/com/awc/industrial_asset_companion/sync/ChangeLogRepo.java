@@ -0,0 +1,27 @@
+package com.awc.industrial_asset_companion.sync;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ChangeLogRepo extends JpaRepository<ChangeLog, Long> {
+
+    List<ChangeLog> findBySeqGreaterThanOrderBySeq(long seq, Pageable limit);
+
+    @Query("select coalesce(max(c.seq), 0) from ChangeLog c")
+    long maxSeq();
+
+    @Query("select min(c.seq) from ChangeLog c")
+    Long minSeq();
+
+    @Modifying
+    @Transactional
+    @Query("delete from ChangeLog c where c.changedAt < :cutoff and c.seq < :keep")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff, @Param("keep") long keepFromSeq);
+}
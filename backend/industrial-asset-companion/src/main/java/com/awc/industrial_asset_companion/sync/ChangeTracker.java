@@ -0,0 +1,125 @@
+package com.awc.industrial_asset_companion.sync;
+
+import com.awc.industrial_asset_companion.alarms.Alarm;
+import com.awc.industrial_asset_companion.devices_locator.entity.Area;
+import com.awc.industrial_asset_companion.devices_locator.entity.Document;
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceChangedEvent;
+import com.awc.industrial_asset_companion.liftstations.LiftStation;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes {@link ChangeLog} rows for the sync feed, on the writer's JDBC connection so the entry
+ * commits (or rolls back) with the change itself. Inside a transaction the rows are held until
+ * just before commit, so their seq and changed_at are taken at commit time however long the
+ * transaction ran (see {@link SyncService} on the settle window); without one they go straight in.
+ * <ul>
+ *   <li>Plant, Area, Document, LiftStation, Alarm: JPA listener (Hibernate gets it from the Spring context).</li>
+ *   <li>Device: {@link DeviceChangedEvent}, handled synchronously inside the publishing transaction;
+ *       it also covers the JDBC paths (import, tag bulk ops, locations, document links) the JPA callbacks never see.</li>
+ * </ul>
+ */
+@Component
+public class ChangeTracker {
+
+    private static final String INSERT =
+            "insert into change_log (entity, entity_id, deleted, changed_at) values (?, ?, ?, ?)";
+    // bulk import / bulk tag edit: every device of the plant is (potentially) new
+    private static final String INSERT_PLANT_DEVICES =
+            "insert into change_log (entity, entity_id, deleted, changed_at) " +
+            "select '" + ChangeLog.DEVICE + "', d.id, false, ? from device d where d.plant_id = ?";
+
+    // looked up lazily: JdbcTemplate needs the DataSource, which JPA listeners are created before
+    private final ObjectProvider<JdbcTemplate> jdbc;
+
+    public ChangeTracker(ObjectProvider<JdbcTemplate> jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Object entity) {
+        record(entity, false);
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        record(entity, true);
+    }
+
+    @EventListener
+    public void onDeviceChanged(DeviceChangedEvent e) {
+        if (e.wholePlant()) {
+            if (e.plantId() != null) write(at -> jdbc.getObject().update(INSERT_PLANT_DEVICES, at, e.plantId()));
+        } else {
+            write(at -> jdbc.getObject().update(INSERT, ChangeLog.DEVICE, e.deviceId(), e.removal(), at));
+        }
+    }
+
+    private void record(Object entity, boolean deleted) {
+        String kind;
+        Object id;
+        switch (entity) {
+            case Plant p -> { kind = ChangeLog.PLANT; id = p.getId(); }
+            case Area a -> { kind = ChangeLog.AREA; id = a.getId(); }
+            case Document d -> { kind = ChangeLog.DOCUMENT; id = d.getId(); }
+            case LiftStation s -> { kind = ChangeLog.STATION; id = s.getId(); }
+            case Alarm a -> { kind = ChangeLog.ALARM; id = a.getId(); }
+            default -> { return; }
+        }
+        if (id == null) return;
+        String entityId = id.toString();
+        write(at -> jdbc.getObject().update(INSERT, kind, entityId, deleted, at));
+    }
+
+    private static void write(Consumer<Timestamp> insert) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            insert.accept(Timestamp.from(Instant.now()));
+            return;
+        }
+        // one per transaction; a suspended outer transaction's synchronizations are not listed here
+        Deferred d = null;
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            if (s instanceof Deferred found) d = found;
+        }
+        if (d == null) {
+            d = new Deferred();
+            TransactionSynchronizationManager.registerSynchronization(d);
+        }
+        d.add(insert);
+    }
+
+    /** A transaction's change_log rows, inserted in beforeCommit; later ones (flush during commit) go straight in. */
+    private static final class Deferred implements TransactionSynchronization {
+        private final List<Consumer<Timestamp>> inserts = new ArrayList<>();
+        private boolean committing;
+
+        void add(Consumer<Timestamp> insert) {
+            if (committing) insert.accept(Timestamp.from(Instant.now()));
+            else inserts.add(insert);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            committing = true;
+            Timestamp now = Timestamp.from(Instant.now());
+            for (Consumer<Timestamp> insert : inserts) insert.accept(now);
+            inserts.clear();
+        }
+    }
+}
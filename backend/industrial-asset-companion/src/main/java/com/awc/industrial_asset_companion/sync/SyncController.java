@@ -0,0 +1,27 @@
+package com.awc.industrial_asset_companion.sync;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping({"/api/sync", "/v1/sync"})
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService sync;
+
+    /**
+     * Changes since the token of the previous call (no token: reset + current token; take it
+     * before the full download). Keep calling while {@code more} is true; changes younger than
+     * app.sync.settle-ms come with a later call. Responses are gzip'd
+     * for clients that accept it (server.compression).
+     */
+    @GetMapping
+    public SyncDto changes(@RequestParam(required = false) String since,
+                           @RequestParam(defaultValue = "1000") int limit) {
+        return sync.since(since, limit);
+    }
+}
@@ -0,0 +1,21 @@
+package com.awc.industrial_asset_companion.sync;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of the change feed. upserts: entity kind -> current rows (same shapes as the regular
+ * read endpoints); deleted: entity kind -> ids. reset: the token is unknown or too old; reload
+ * everything through the regular endpoints and continue from {@code token}.
+ */
+public record SyncDto(
+        String token,
+        boolean reset,
+        boolean more,
+        Map<String, List<?>> upserts,
+        Map<String, List<String>> deleted
+) {
+    static SyncDto reset(long head) {
+        return new SyncDto(Long.toString(head), true, false, Map.of(), Map.of());
+    }
+}
@@ -0,0 +1,201 @@
+package com.awc.industrial_asset_companion.sync;
+
+import com.awc.industrial_asset_companion.alarms.Alarm;
+import com.awc.industrial_asset_companion.alarms.AlarmRepo;
+import com.awc.industrial_asset_companion.alarms.alarmDto.AlarmDto;
+import com.awc.industrial_asset_companion.devices_locator.dto.DocDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.AreaRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DocumentRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.PlantRepository;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceCrudService;
+import com.awc.industrial_asset_companion.liftstations.LiftStation;
+import com.awc.industrial_asset_companion.liftstations.LiftStationRepo;
+import com.awc.industrial_asset_companion.liftstations.dto.LiftStationDtos;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental change feed for offline clients. A page of change_log rows after the client's
+ * token is collapsed to the last change per entity, then upserted entities are read in one
+ * batch per kind; anything that no longer exists is reported as deleted.
+ * <p>
+ * Sequence numbers are handed out at insert, and {@link ChangeTracker} inserts a transaction's
+ * rows just before it commits, so a lower seq can still commit after a higher one was served,
+ * but only by the time the commit itself takes. A page therefore ends before the first row younger
+ * than app.sync.settle-ms: those rows (and anything that commits late below them) go out on a
+ * later call, once settled. A page cut short that way has more=false, so clients go back to
+ * their normal sync interval instead of asking again for the same rows. A commit slower than
+ * settle-ms can still be missed; keep the window well above commit latency.
+ */
+@Slf4j
+@Service
+public class SyncService {
+
+    public static final int MAX_PAGE = 5000;
+
+    private final ChangeLogRepo changes;
+    private final PlantRepository plants;
+    private final AreaRepository areas;
+    private final DeviceCrudService devices;
+    private final DocumentRepository documents;
+    private final LiftStationRepo stations;
+    private final AlarmRepo alarms;
+    private final Duration settle;
+    private final Duration retention;
+
+    public SyncService(ChangeLogRepo changes, PlantRepository plants, AreaRepository areas, DeviceCrudService devices,
+                       DocumentRepository documents, LiftStationRepo stations, AlarmRepo alarms,
+                       @Value("${app.sync.settle-ms:10000}") long settleMillis,
+                       @Value("${app.sync.retention-days:30}") long retentionDays) {
+        this.changes = changes;
+        this.plants = plants;
+        this.areas = areas;
+        this.devices = devices;
+        this.documents = documents;
+        this.stations = stations;
+        this.alarms = alarms;
+        this.settle = Duration.ofMillis(settleMillis);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    public SyncDto since(String token, int limit) {
+        long head = changes.maxSeq();
+        Long since = parse(token);
+        if (since == null || since > head || since < oldestRetained()) return SyncDto.reset(head);
+
+        int size = Math.max(1, Math.min(limit, MAX_PAGE));
+        List<ChangeLog> page = changes.findBySeqGreaterThanOrderBySeq(since, PageRequest.of(0, size + 1));
+        boolean more = page.size() > size;
+        if (more) page = page.subList(0, size);
+
+        // last change per entity wins; the page ends before the first row still inside the settle window
+        Instant settled = Instant.now().minus(settle);
+        long next = since;
+        Map<String, Map<String, Boolean>> latest = new LinkedHashMap<>();
+        for (ChangeLog c : page) {
+            if (c.getChangedAt().isAfter(settled)) {
+                more = false;
+                break;
+            }
+            latest.computeIfAbsent(c.getEntity(), k -> new LinkedHashMap<>()).put(c.getEntityId(), c.isDeleted());
+            next = c.getSeq();
+        }
+
+        Map<String, List<?>> upserts = new LinkedHashMap<>();
+        Map<String, List<String>> deleted = new LinkedHashMap<>();
+        latest.forEach((kind, byId) -> {
+            List<String> gone = new ArrayList<>();
+            List<String> live = new ArrayList<>();
+            byId.forEach((id, del) -> (del ? gone : live).add(id));
+            if (!live.isEmpty()) {
+                Loaded rows = load(kind, live);
+                if (rows == null) return;   // kind from a newer/older build: skip
+                if (!rows.items().isEmpty()) upserts.put(kind, rows.items());
+                for (String id : live) if (!rows.ids().contains(id)) gone.add(id);
+            }
+            if (!gone.isEmpty()) deleted.put(kind, gone);
+        });
+        return new SyncDto(Long.toString(next), false, more, upserts, deleted);
+    }
+
+    /**
+     * Drops entries older than app.sync.retention-days; clients behind that get a reset. The newest
+     * row always stays, so an idle feed keeps its head (current tokens stay valid, and an empty
+     * table never lets seq restart below tokens already handed out).
+     */
+    @Scheduled(cron = "${app.sync.prune-cron:0 17 3 * * *}")
+    public void prune() {
+        int n = changes.deleteOlderThan(Instant.now().minus(retention), changes.maxSeq());
+        if (n > 0) log.info("Pruned {} change_log rows older than {}", n, retention);
+    }
+
+    /* ---------------- internals ---------------- */
+
+    private record Loaded(List<?> items, Set<String> ids) {}
+
+    private Loaded load(String kind, List<String> ids) {
+        return switch (kind) {
+            case ChangeLog.PLANT -> loaded(plants.findAllById(ids), p -> p.getId(), p -> p);
+            case ChangeLog.AREA -> loaded(areas.findAllById(uuids(ids)), a -> a.getId().toString(), a -> a);
+            case ChangeLog.DEVICE -> loaded(devices.listByIds(ids), d -> d.getId(), d -> d);
+            case ChangeLog.DOCUMENT -> loaded(documents.findAllById(uuids(ids)), d -> d.getId().toString(), d -> DocDto.builder()
+                    .id(d.getId().toString())
+                    .kind(d.getKind())
+                    .title(d.getTitle())
+                    .mime(d.getMime())
+                    .variants(DocDto.variantUrls(d.getId().toString(), d.getMime()))
+                    .build());
+            case ChangeLog.STATION -> loaded(stations.findAllById(uuids(ids)), s -> s.getId().toString(),
+                    LiftStationDtos.LiftStationViewDto::of);
+            case ChangeLog.ALARM -> alarms(ids);
+            default -> null;
+        };
+    }
+
+    private Loaded alarms(List<String> ids) {
+        List<Alarm> rows = alarms.findAllById(uuids(ids));
+        Map<UUID, LiftStation> byStation = stations.findAllById(rows.stream().map(Alarm::getStationId)
+                        .filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(LiftStation::getId, s -> s));
+        return loaded(rows, a -> a.getId().toString(), a -> {
+            LiftStation s = a.getStationId() == null ? null : byStation.get(a.getStationId());
+            return AlarmDto.from(a, s == null ? null : s.getCode(), s == null ? null : s.getName());
+        });
+    }
+
+    private static <E> Loaded loaded(List<E> rows, Function<E, String> id, Function<E, ?> dto) {
+        List<Object> items = new ArrayList<>(rows.size());
+        Set<String> found = new HashSet<>(rows.size() * 2);
+        for (E e : rows) {
+            found.add(id.apply(e));
+            items.add(dto.apply(e));
+        }
+        return new Loaded(items, found);
+    }
+
+    private long oldestRetained() {
+        Long min = changes.minSeq();
+        return min == null ? 0 : min - 1;
+    }
+
+    private static Long parse(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            long v = Long.parseLong(token.trim());
+            if (v < 0) throw new NumberFormatException();
+            return v;
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must be a token from a previous sync");
+        }
+    }
+
+    private static List<UUID> uuids(List<String> ids) {
+        List<UUID> out = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            try {
+                out.add(UUID.fromString(id));
+            } catch (IllegalArgumentException ignored) {
+                // not a row id of this kind: reported as deleted
+            }
+        }
+        return out;
+    }
+}
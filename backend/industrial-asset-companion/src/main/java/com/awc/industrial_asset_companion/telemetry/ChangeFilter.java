@@ -0,0 +1,67 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Change-of-value stage in front of everything a station reading fans out to (SSE clients,
+ * latest_telemetry, sample history). A reading goes through if any value moved beyond its
+ * deadband since the last reading that went through, a pump started or stopped, a value
+ * appeared or went missing, or max-silence-ms has passed (heartbeat, so clients and the
+ * database still see the station alive). Jitter inside the deadbands stops here.
+ */
+@Component
+public class ChangeFilter {
+
+    private final Map<UUID, TelemetryReading> forwarded = new ConcurrentHashMap<>();
+    private final Deadbands deadbands;
+    private final boolean enabled;
+    private final Counter passed;
+    private final Counter suppressed;
+
+    public ChangeFilter(Deadbands deadbands, MeterRegistry metrics,
+                        @Value("${app.telemetry.cov.enabled:true}") boolean enabled) {
+        this.deadbands = deadbands;
+        this.enabled = enabled;
+        this.passed = Counter.builder("telemetry.cov").tag("result", "passed").register(metrics);
+        this.suppressed = Counter.builder("telemetry.cov").tag("result", "suppressed").register(metrics);
+    }
+
+    /** True if the reading should go downstream; it then becomes the station's new reference. */
+    public boolean accept(TelemetryReading r) {
+        if (!enabled) return true;
+        boolean[] pass = new boolean[1];
+        forwarded.compute(r.stationId(), (id, last) -> {
+            if (last != null && !r.supersedes(last)) return last;   // late arrival: never goes back in time
+            pass[0] = last == null || changed(last, r);
+            return pass[0] ? r : last;
+        });
+        (pass[0] ? passed : suppressed).increment();
+        return pass[0];
+    }
+
+    private boolean changed(TelemetryReading last, TelemetryReading r) {
+        return !Objects.equals(last.pump1Running(), r.pump1Running())
+                || !Objects.equals(last.pump2Running(), r.pump2Running())
+                || deadbands.band("wetWellLevelFt").exceeded(num(last.wetWellLevelFt()), num(r.wetWellLevelFt()))
+                || deadbands.band("flowGpm").exceeded(num(last.flowGpm()), num(r.flowGpm()))
+                || silentFor(last.ts(), r.ts()) >= deadbands.maxSilenceNanos();
+    }
+
+    private static long silentFor(Instant last, Instant now) {
+        if (last == null || now == null) return Long.MAX_VALUE;
+        return TelemetrySamples.epochNanos(now) - TelemetrySamples.epochNanos(last);
+    }
+
+    private static double num(Double v) {
+        return v == null ? Double.NaN : v;
+    }
+}
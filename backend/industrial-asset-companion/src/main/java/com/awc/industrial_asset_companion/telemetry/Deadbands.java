@@ -0,0 +1,73 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-tag deadbands shared by the change-of-value filter and history compression. A tag is
+ * keyed by SCADA reading type ("pH", "Flow", ...) or station telemetry field ("flowGpm", ...);
+ * app.telemetry.cov.deadbands=KEY:abs, KEY:pct% or KEY:abs/pct%, unlisted keys get
+ * app.telemetry.cov.abs / .pct. Width = max(abs, pct % of the reference value).
+ */
+@Component
+public class Deadbands {
+
+    public record Band(double abs, double pct) {
+
+        /** A band that lets any change through. */
+        public static final Band ANY_CHANGE = new Band(0, 0);
+
+        public double width(double reference) {
+            double rel = Double.isNaN(reference) ? 0 : Math.abs(reference) * pct / 100.0;
+            return Math.max(abs, rel);
+        }
+
+        /** True if v moved beyond the band around last; a change to or from NaN always counts. */
+        public boolean exceeded(double last, double v) {
+            if (Double.isNaN(last) || Double.isNaN(v)) return Double.isNaN(last) != Double.isNaN(v);
+            return Math.abs(v - last) > width(last);
+        }
+    }
+
+    private final Map<String, Band> bands;
+    private final Band defaults;
+    private final long maxSilenceNanos;
+
+    public Deadbands(@Value("${app.telemetry.cov.abs:0}") double abs,
+                     @Value("${app.telemetry.cov.pct:0}") double pct,
+                     @Value("${app.telemetry.cov.deadbands:}") String spec,
+                     @Value("${app.telemetry.cov.max-silence-ms:60000}") long maxSilenceMs) {
+        this.defaults = new Band(Math.max(0, abs), Math.max(0, pct));
+        this.bands = parse(spec);
+        this.maxSilenceNanos = Math.max(1, maxSilenceMs) * 1_000_000L;
+    }
+
+    public Band band(String key) {
+        return key == null ? defaults : bands.getOrDefault(key, defaults);
+    }
+
+    /** Heartbeat: an unchanged value still goes through once this long has passed. */
+    public long maxSilenceNanos() {
+        return maxSilenceNanos;
+    }
+
+    private static Map<String, Band> parse(String spec) {
+        Map<String, Band> out = new HashMap<>();
+        if (spec == null || spec.isBlank()) return out;
+        for (String part : spec.split(",")) {
+            int c = part.lastIndexOf(':');
+            if (c <= 0) throw new IllegalArgumentException("app.telemetry.cov.deadbands: expected KEY:band, got '" + part.trim() + "'");
+            double abs = 0, pct = 0;
+            for (String b : part.substring(c + 1).split("/")) {
+                b = b.trim();
+                if (b.endsWith("%")) pct = Double.parseDouble(b.substring(0, b.length() - 1).trim());
+                else abs = Double.parseDouble(b);
+            }
+            out.put(part.substring(0, c).trim(), new Band(Math.max(0, abs), Math.max(0, pct)));
+        }
+        return Map.copyOf(out);
+    }
+}
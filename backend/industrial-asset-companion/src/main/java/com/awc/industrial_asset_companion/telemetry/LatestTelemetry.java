@@ -1,5 +1,6 @@
 package com.awc.industrial_asset_companion.telemetry;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
@@ -7,14 +8,15 @@ import jakarta.persistence.Table;
 import java.time.Instant;
 import java.util.UUID;
 
+// schema only: rows are written in batches by TelemetryWriteBehind (plain JDBC), names pinned for its SQL
 @Entity
 @Table(name="latest_telemetry")
 public class LatestTelemetry {
     @Id
-    private UUID stationId;
-    private Double wetWellLevelFt;
-    private Boolean pump1Running;
-    private Boolean pump2Running;
-    private Double flowGpm;
-    private Instant ts;
+    @Column(name="station_id") private UUID stationId;
+    @Column(name="wet_well_level_ft") private Double wetWellLevelFt;
+    @Column(name="pump1_running") private Boolean pump1Running;
+    @Column(name="pump2_running") private Boolean pump2Running;
+    @Column(name="flow_gpm") private Double flowGpm;
+    @Column(name="ts") private Instant ts;
 }
@@ -0,0 +1,28 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+/** Sample quality as one byte (same vocabulary as scada.QualityRules). */
+public final class SampleQuality {
+
+    public static final byte GOOD = 0;
+    public static final byte WARN = 1;
+    public static final byte ALARM = 2;
+    public static final byte UNKNOWN = 3;
+
+    private static final String[] NAMES = {"GOOD", "WARN", "ALARM", "UNKNOWN"};
+
+    private SampleQuality() {}
+
+    public static String name(byte q) {
+        return q >= 0 && q < NAMES.length ? NAMES[q] : "UNKNOWN";
+    }
+
+    public static byte of(String name) {
+        if (name == null) return UNKNOWN;
+        return switch (name) {
+            case "GOOD" -> GOOD;
+            case "WARN" -> WARN;
+            case "ALARM" -> ALARM;
+            default -> UNKNOWN;
+        };
+    }
+}
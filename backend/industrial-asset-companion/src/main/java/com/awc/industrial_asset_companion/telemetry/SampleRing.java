@@ -0,0 +1,109 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Fixed-size history of one station/tag as parallel primitive arrays (epoch nanos, value,
+ * quality), in timestamp order: appending never allocates, drops samples that are not newer
+ * than the newest one, and overwrites the oldest. Readers get the
+ * newest sample through a {@link SampleConsumer} callback or copy a window into primitive
+ * arrays, so nothing is boxed on the way out either.
+ * <p>
+ * One writer at a time (the lock's write mode, uncontended on the ingest path); the newest
+ * sample is read optimistically and only falls back to the read lock if a write overlapped.
+ */
+public final class SampleRing {
+
+    @FunctionalInterface
+    public interface SampleConsumer {
+        void accept(long epochNanos, double value, byte quality);
+    }
+
+    private final int tag;
+    private final int mask;
+    private final long[] nanos;
+    private final double[] values;
+    private final byte[] quality;
+    private final StampedLock lock = new StampedLock();
+    private long count;   // samples ever appended; guarded by lock
+
+    /** Capacity is rounded up to a power of two. */
+    public SampleRing(int tag, int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.tag = tag;
+        this.mask = cap - 1;
+        this.nanos = new long[cap];
+        this.values = new double[cap];
+        this.quality = new byte[cap];
+    }
+
+    public int tag() {
+        return tag;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Appends a sample newer than the newest one; false (and nothing stored) for a late or repeated timestamp. */
+    public boolean append(long epochNanos, double value, byte q) {
+        long stamp = lock.writeLock();
+        try {
+            if (count > 0 && epochNanos <= nanos[(int) ((count - 1) & mask)]) return false;
+            int i = (int) (count & mask);
+            nanos[i] = epochNanos;
+            values[i] = value;
+            quality[i] = q;
+            count++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Hands the newest sample to {@code c}; false (and no call) if the ring is empty. */
+    public boolean latest(SampleConsumer c) {
+        long stamp = lock.tryOptimisticRead();
+        long n = count;
+        int i = (int) ((n - 1) & mask);
+        long t = nanos[i];
+        double v = values[i];
+        byte q = quality[i];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                n = count;
+                i = (int) ((n - 1) & mask);
+                t = nanos[i];
+                v = values[i];
+                q = quality[i];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (n == 0) return false;
+        c.accept(t, v, q);
+        return true;
+    }
+
+    /**
+     * Copies up to {@code t.length} newest samples into the arrays, oldest first; returns how many.
+     * Callers format from their copy, so a slow consumer never holds up ingest.
+     */
+    public int copyRecent(long[] t, double[] v, byte[] q) {
+        long stamp = lock.readLock();
+        try {
+            int n = (int) Math.min(Math.min(count, capacity()), t.length);
+            long first = count - n;
+            for (int k = 0; k < n; k++) {
+                int i = (int) ((first + k) & mask);
+                t[k] = nanos[i];
+                v[k] = values[i];
+                q[k] = quality[i];
+            }
+            return n;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
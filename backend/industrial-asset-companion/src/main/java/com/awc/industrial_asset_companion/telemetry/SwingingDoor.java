@@ -0,0 +1,97 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+/**
+ * Swinging-door compression of one tag's history. From the last archived point two "doors"
+ * pivot to ±width around every new sample and only ever close; the newest sample is held, not
+ * stored. When a sample no longer fits between the doors, the held one is archived and becomes
+ * the new pivot. Every stored line stays within width of the samples it replaced (the held
+ * value is pulled onto the doors when needed, by at most width), so a slow wave or a flat
+ * value costs a handful of points instead of one per poll.
+ * <p>
+ * Quality changes and values going to / coming from NaN are archived exactly (both sides of
+ * the transition), and a held point older than maxSilenceNanos past the pivot is archived
+ * regardless, so the history never goes quiet for longer than that. Callers serialize access.
+ */
+public final class SwingingDoor {
+
+    private boolean started;
+    private long t0;              // pivot: last archived point
+    private double v0;
+    private byte q0;
+    private boolean holding;      // newest sample, not yet archived
+    private long th;
+    private double vh;
+    private byte qh;
+    private double upper;         // tightest door slopes so far, per nanosecond
+    private double lower;
+
+    /** Offers a sample; points worth keeping are handed to archive (zero, one or two of them). */
+    public void offer(long t, double v, byte q, double width, long maxSilenceNanos, SampleRing.SampleConsumer archive) {
+        if (!started) {
+            archive(t, v, q, archive);
+            return;
+        }
+        if (t <= t0 || (holding && t <= th)) return;   // out of order: the history only moves forward
+
+        boolean bothNaN = Double.isNaN(v) && Double.isNaN(v0);
+        if (q != q0 || Double.isNaN(v) != Double.isNaN(v0)) {
+            // transition: keep its exact shape
+            if (holding) archiveHeld(archive);
+            archive(t, v, q, archive);
+            return;
+        }
+        if (!bothNaN) {
+            double dt = t - t0;
+            double up = Math.min(upper, (v + width - v0) / dt);
+            double lo = Math.max(lower, (v - width - v0) / dt);
+            if (lo > up) {
+                // the doors opened: the held sample ends this line and pivots the next one
+                archiveHeld(archive);
+                double dt2 = t - t0;
+                upper = (v + width - v0) / dt2;
+                lower = (v - width - v0) / dt2;
+            } else {
+                upper = up;
+                lower = lo;
+            }
+        }
+        hold(t, v, q);
+        if (t - t0 >= maxSilenceNanos) archiveHeld(archive);   // heartbeat
+    }
+
+    /** Hands the held (newest, not yet archived) sample to c; false if there is none. */
+    public boolean held(SampleRing.SampleConsumer c) {
+        if (!holding) return false;
+        c.accept(th, vh, qh);
+        return true;
+    }
+
+    private void hold(long t, double v, byte q) {
+        holding = true;
+        th = t;
+        vh = v;
+        qh = q;
+    }
+
+    /** The held sample, its value moved onto the doors if the line to it would leave them. */
+    private void archiveHeld(SampleRing.SampleConsumer archive) {
+        if (Double.isNaN(vh)) {
+            archive(th, vh, qh, archive);
+            return;
+        }
+        double dt = th - t0;
+        double slope = Math.max(lower, Math.min(upper, (vh - v0) / dt));
+        archive(th, v0 + slope * dt, qh, archive);
+    }
+
+    private void archive(long t, double v, byte q, SampleRing.SampleConsumer archive) {
+        archive.accept(t, v, q);
+        started = true;
+        holding = false;
+        t0 = t;
+        v0 = v;
+        q0 = q;
+        upper = Double.POSITIVE_INFINITY;
+        lower = Double.NEGATIVE_INFINITY;
+    }
+}
@@ -0,0 +1,43 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Interns tag names to dense int indexes (0, 1, 2, ...) so samples carry an int, not a String. */
+public final class TagRegistry {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[0];
+
+    public int index(String tag) {
+        Integer i = ids.get(tag);
+        return i != null ? i : register(tag);
+    }
+
+    /** Index of an already registered tag, or -1 (never registers). */
+    public int find(String tag) {
+        Integer i = tag == null ? null : ids.get(tag);
+        return i != null ? i : -1;
+    }
+
+    /** Name of an index handed out by {@link #index}; null for unknown indexes. */
+    public String name(int index) {
+        String[] n = names;
+        return index >= 0 && index < n.length ? n[index] : null;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    private synchronized int register(String tag) {
+        Integer i = ids.get(tag);
+        if (i != null) return i;
+        String[] n = Arrays.copyOf(names, names.length + 1);
+        n[n.length - 1] = tag;
+        names = n;                      // publish the name before the index
+        ids.put(tag, n.length - 1);
+        return n.length - 1;
+    }
+}
@@ -1,12 +1,20 @@
 package com.awc.industrial_asset_companion.telemetry;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -20,19 +28,56 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class TelemetryController {
     // in-memory demo emitter registry
     private final Map<UUID, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final TelemetryWriteBehind telemetry;
+    private final TelemetrySamples samples;
+    private final ChangeFilter changes;
+    private final ObjectMapper json;
+
+    public TelemetryController(TelemetryWriteBehind telemetry, TelemetrySamples samples, ChangeFilter changes, ObjectMapper json) {
+        this.telemetry = telemetry;
+        this.samples = samples;
+        this.changes = changes;
+        this.json = json;
+    }
 
     @GetMapping("/{id}/telemetry")
-    public Map<String, Object> latest(@PathVariable UUID id){
+    public void latest(@PathVariable UUID id, HttpServletResponse res) throws IOException {
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator gen = json.getFactory().createGenerator(res.getOutputStream())) {
+            // sample rings first: written straight from primitives
+            if (samples.writeLatest(id, gen)) return;
+
+            // buffered readings are never older than latest_telemetry
+            var reading = telemetry.latest(id);
+            if (reading.isPresent()) {
+                json.writeValue(gen, reading.get().toPayload());
+                return;
+            }
 
-        // TODO: load from DB or SCADA adapter; mocked for now
+            // no SCADA data for this station yet; mocked for now
+            json.writeValue(gen, Map.of(
+                    "ts", Instant.now().toString(),
+                    "wetWellLevelFt", 11.2,
+                    "pump1Running", true,
+                    "pump2Running", false,
+                    "flowGpm", 320.0
+            ));
+        }
+    }
 
-        return Map.of(
-                "ts", Instant.now().toString(),
-                "wetWellLevelFt", 11.2,
-                "pump1Running", true,
-                "pump2Running", false,
-                "flowGpm", 320.0
-        );
+    /** Recent samples of one value (wetWellLevelFt, pump1Running, ...) as columnar arrays, oldest first. */
+    @GetMapping("/{id}/telemetry/history")
+    public void history(@PathVariable UUID id, @RequestParam String tag,
+                        @RequestParam(defaultValue = "120") int limit, HttpServletResponse res) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+        try (JsonGenerator gen = json.getFactory().createGenerator(body)) {
+            if (!samples.writeHistory(id, tag, limit, gen)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No samples for " + tag);
+            }
+        }
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        res.setContentLength(body.size());
+        body.writeTo(res.getOutputStream());
     }
 
     @GetMapping(value="/{id}/telemetry/stream", produces= MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -44,6 +89,15 @@ public class TelemetryController {
         return em;
     }
 
+    // Call this from your SCADA adapter: buffers the reading for latest_telemetry and pushes it live,
+    // unless nothing moved beyond its deadband (ChangeFilter)
+    public void publish(TelemetryReading reading){
+        if (!changes.accept(reading)) return;
+        telemetry.record(reading);
+        samples.record(reading);
+        push(reading.stationId(), reading.toPayload());
+    }
+
     // Call this from your SCADA adapter to push live updates
     public void push(UUID id, Map<String,Object> payload){
         var list = emitters.getOrDefault(id, List.of());
@@ -0,0 +1,33 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/** Latest SCADA values of one lift station (one latest_telemetry row). */
+public record TelemetryReading(
+        UUID stationId,
+        Double wetWellLevelFt,
+        Boolean pump1Running,
+        Boolean pump2Running,
+        Double flowGpm,
+        Instant ts
+) {
+    /** True if this reading is at least as recent as {@code other} (missing timestamps count as oldest). */
+    public boolean supersedes(TelemetryReading other) {
+        if (other == null || other.ts == null) return true;
+        return ts != null && !ts.isBefore(other.ts);
+    }
+
+    /** Payload shape of GET /api/stations/{id}/telemetry and the SSE stream. */
+    public Map<String, Object> toPayload() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("ts", ts == null ? null : ts.toString());
+        m.put("wetWellLevelFt", wetWellLevelFt);
+        m.put("pump1Running", pump1Running);
+        m.put("pump2Running", pump2Running);
+        m.put("flowGpm", flowGpm);
+        return m;
+    }
+}
@@ -0,0 +1,181 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory sample history per station and tag ({@link SampleRing}s, app.telemetry.samples.capacity
+ * each). The four lift-station values have fixed tag indexes; SCADA tags get theirs from
+ * {@link #tag}. JSON is written straight from the rings' primitives into a JsonGenerator:
+ * no reading record, no Map, no boxed values per request.
+ */
+@Component
+public class TelemetrySamples {
+
+    public static final int WET_WELL_LEVEL_FT = 0;
+    public static final int PUMP1_RUNNING = 1;
+    public static final int PUMP2_RUNNING = 2;
+    public static final int FLOW_GPM = 3;
+
+    // newest sample of each fixed tag, copied out of the rings once per writeLatest call
+    private static final class Latest implements SampleRing.SampleConsumer {
+        final double[] values = new double[FLOW_GPM + 1];
+        long ts = Long.MIN_VALUE;
+        int tag;
+
+        Latest(SampleRing[] rings) {
+            Arrays.fill(values, Double.NaN);
+            for (tag = 0; tag <= FLOW_GPM && tag < rings.length; tag++) {
+                if (rings[tag] != null) rings[tag].latest(this);
+            }
+        }
+
+        @Override public void accept(long epochNanos, double value, byte quality) {
+            values[tag] = value;
+            ts = Math.max(ts, epochNanos);
+        }
+    }
+
+    private static final class Station {
+        volatile SampleRing[] rings = new SampleRing[0];
+    }
+
+    private final TagRegistry tags = new TagRegistry();
+    private final Map<UUID, Station> stations = new ConcurrentHashMap<>();
+    private final int capacity;
+
+    public TelemetrySamples(@Value("${app.telemetry.samples.capacity:512}") int capacity) {
+        this.capacity = capacity;
+        tags.index("wetWellLevelFt");
+        tags.index("pump1Running");
+        tags.index("pump2Running");
+        tags.index("flowGpm");
+    }
+
+    /** Dense index for a tag name (stable for the life of the process). */
+    public int tag(String name) {
+        return tags.index(name);
+    }
+
+    /** False (nothing stored) if the sample is not newer than the tag's newest one. */
+    public boolean append(UUID stationId, int tag, long epochNanos, double value, byte quality) {
+        return ring(stationId, tag).append(epochNanos, value, quality);
+    }
+
+    /**
+     * Boxed reading -> four primitive samples; null values become NaN / UNKNOWN. A reading that is
+     * not newer than what a tag already holds (retry, out-of-order delivery) is dropped for that tag.
+     */
+    public void record(TelemetryReading r) {
+        long t = epochNanos(r.ts() != null ? r.ts() : Instant.now());
+        append(r.stationId(), WET_WELL_LEVEL_FT, t, r.wetWellLevelFt());
+        append(r.stationId(), PUMP1_RUNNING, t, r.pump1Running());
+        append(r.stationId(), PUMP2_RUNNING, t, r.pump2Running());
+        append(r.stationId(), FLOW_GPM, t, r.flowGpm());
+    }
+
+    public boolean has(UUID stationId) {
+        return stations.containsKey(stationId);
+    }
+
+    /** Same shape as TelemetryReading.toPayload(); false (nothing written) if the station has no samples. */
+    public boolean writeLatest(UUID stationId, JsonGenerator gen) throws IOException {
+        Station s = stations.get(stationId);
+        if (s == null) return false;
+        Latest l = new Latest(s.rings);
+        long ts = l.ts;
+        if (ts == Long.MIN_VALUE) return false;
+
+        gen.writeStartObject();
+        gen.writeFieldName("ts");
+        gen.writeString(Instant.ofEpochSecond(Math.floorDiv(ts, 1_000_000_000L), Math.floorMod(ts, 1_000_000_000L)).toString());
+        writeNumber(gen, "wetWellLevelFt", l.values[WET_WELL_LEVEL_FT]);
+        writeBoolean(gen, "pump1Running", l.values[PUMP1_RUNNING]);
+        writeBoolean(gen, "pump2Running", l.values[PUMP2_RUNNING]);
+        writeNumber(gen, "flowGpm", l.values[FLOW_GPM]);
+        gen.writeEndObject();
+        return true;
+    }
+
+    /** {"tag":..,"t":[epoch ms..],"v":[..],"q":[..]} with up to {@code limit} newest samples, oldest first. */
+    public boolean writeHistory(UUID stationId, String tagName, int limit, JsonGenerator gen) throws IOException {
+        Station s = stations.get(stationId);
+        int tag = tags.find(tagName);
+        SampleRing ring = s == null || tag < 0 || tag >= s.rings.length ? null : s.rings[tag];
+        if (ring == null) return false;
+
+        // columnar arrays: three compact arrays instead of one object per sample
+        int cap = Math.max(0, Math.min(limit, ring.capacity()));
+        long[] t = new long[cap];
+        double[] val = new double[cap];
+        byte[] q = new byte[cap];
+        int n = ring.copyRecent(t, val, q);
+
+        gen.writeStartObject();
+        gen.writeStringField("tag", tagName);
+        gen.writeArrayFieldStart("t");
+        for (int i = 0; i < n; i++) gen.writeNumber(t[i] / 1_000_000L);
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("v");
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(val[i])) gen.writeNull();
+            else gen.writeNumber(val[i]);
+        }
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("q");
+        for (int i = 0; i < n; i++) gen.writeString(SampleQuality.name(q[i]));
+        gen.writeEndArray();
+        gen.writeEndObject();
+        return true;
+    }
+
+    public static long epochNanos(Instant t) {
+        return Math.addExact(Math.multiplyExact(t.getEpochSecond(), 1_000_000_000L), t.getNano());
+    }
+
+    /* ---------------- internals ---------------- */
+
+    private void append(UUID stationId, int tag, long t, Double v) {
+        append(stationId, tag, t, v == null ? Double.NaN : v, v == null ? SampleQuality.UNKNOWN : SampleQuality.GOOD);
+    }
+
+    private void append(UUID stationId, int tag, long t, Boolean b) {
+        append(stationId, tag, t, b == null ? Double.NaN : (b ? 1.0 : 0.0), b == null ? SampleQuality.UNKNOWN : SampleQuality.GOOD);
+    }
+
+    private SampleRing ring(UUID stationId, int tag) {
+        Station s = stations.computeIfAbsent(stationId, k -> new Station());
+        SampleRing[] rings = s.rings;
+        if (tag < rings.length && rings[tag] != null) return rings[tag];
+        synchronized (s) {
+            rings = s.rings;
+            if (tag >= rings.length) rings = Arrays.copyOf(rings, Math.max(tag + 1, FLOW_GPM + 1));
+            else if (rings[tag] != null) return rings[tag];
+            else rings = rings.clone();
+            SampleRing r = new SampleRing(tag, capacity);
+            rings[tag] = r;
+            s.rings = rings;
+            return r;
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, String field, double v) throws IOException {
+        gen.writeFieldName(field);
+        if (!Double.isNaN(v)) gen.writeNumber(v);
+        else gen.writeNull();
+    }
+
+    private static void writeBoolean(JsonGenerator gen, String field, double v) throws IOException {
+        gen.writeFieldName(field);
+        if (!Double.isNaN(v)) gen.writeBoolean(v != 0);
+        else gen.writeNull();
+    }
+}
@@ -0,0 +1,230 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind layer for latest_telemetry. Readings land in two maps keyed by station:
+ * {@code latest} (what reads see, never older than the DB) and {@code pending} (dirty rows,
+ * last write wins). One flusher thread writes pending rows as a single batched
+ * INSERT ... ON DUPLICATE KEY UPDATE (one statement with rewriteBatchedStatements) every
+ * app.telemetry.write-behind.flush-ms, or sooner once batch-rows stations are dirty.
+ * <p>
+ * Pending is bounded by the number of stations, so a slow or down database never grows memory;
+ * instead {@link #backedUp()} turns true and the lag gauge climbs, and producers may poll less.
+ * The table is loaded into {@code latest} once the application is ready, never on a producer's thread.
+ */
+@Slf4j
+@Component
+public class TelemetryWriteBehind {
+
+    private static final String UPSERT = """
+            insert into latest_telemetry (station_id, wet_well_level_ft, pump1_running, pump2_running, flow_gpm, ts)
+            values (?, ?, ?, ?, ?, ?)
+            on duplicate key update wet_well_level_ft = values(wet_well_level_ft),
+              pump1_running = values(pump1_running), pump2_running = values(pump2_running),
+              flow_gpm = values(flow_gpm), ts = values(ts)
+            """;
+    private static final String SELECT_ALL = """
+            select station_id, wet_well_level_ft, pump1_running, pump2_running, flow_gpm, ts from latest_telemetry
+            """;
+
+    // reading + when the station first became dirty since its last successful write
+    record Pending(TelemetryReading reading, long dirtySince) {}
+
+    private final JdbcTemplate jdbc;
+    private final int batchRows;
+    private final long backpressureNanos;
+    private final ScheduledThreadPoolExecutor flusher;
+
+    private final Map<UUID, TelemetryReading> latest = new ConcurrentHashMap<>();
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private volatile boolean warm;
+    private volatile long lastFlushOk = System.nanoTime();
+
+    private final Counter coalesced;
+    private final Counter stale;
+    private final Counter failures;
+    private final Timer flushTimer;
+    private final Timer staleness;
+    private final DistributionSummary batchSize;
+
+    public TelemetryWriteBehind(JdbcTemplate jdbc, MeterRegistry registry,
+                                @Value("${app.telemetry.write-behind.flush-ms:1000}") long flushMillis,
+                                @Value("${app.telemetry.write-behind.batch-rows:500}") int batchRows,
+                                @Value("${app.telemetry.write-behind.backpressure-ms:10000}") long backpressureMillis) {
+        this.jdbc = jdbc;
+        this.batchRows = Math.max(1, batchRows);
+        this.backpressureNanos = TimeUnit.MILLISECONDS.toNanos(backpressureMillis);
+
+        this.coalesced = Counter.builder("telemetry.writebehind.coalesced")
+                .description("Readings overwritten in the buffer before they were written").register(registry);
+        this.stale = Counter.builder("telemetry.writebehind.stale")
+                .description("Readings older than the one already held (dropped)").register(registry);
+        this.failures = Counter.builder("telemetry.writebehind.failures").register(registry);
+        this.flushTimer = Timer.builder("telemetry.writebehind.flush")
+                .description("One batched upsert").register(registry);
+        this.staleness = Timer.builder("telemetry.writebehind.staleness")
+                .description("Time from a station becoming dirty to its row being written").register(registry);
+        this.batchSize = DistributionSummary.builder("telemetry.writebehind.batch.rows").register(registry);
+        Gauge.builder("telemetry.writebehind.pending", pending, Map::size).register(registry);
+        Gauge.builder("telemetry.writebehind.lag.seconds", this, TelemetryWriteBehind::lagSeconds).register(registry);
+
+        this.flusher = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "telemetry-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(10, flushMillis);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();   // last chance for whatever is still buffered
+    }
+
+    /** Accepts a reading; older-than-held readings are ignored. Never blocks on the database. */
+    public void record(TelemetryReading r) {
+        UUID id = Objects.requireNonNull(r.stationId(), "stationId");
+        if (latest.merge(id, r, (held, nu) -> nu.supersedes(held) ? nu : held) != r) {
+            stale.increment();
+            return;
+        }
+        pending.merge(id, new Pending(r, System.nanoTime()), (old, nu) -> {
+            coalesced.increment();
+            return nu.reading().supersedes(old.reading()) ? new Pending(nu.reading(), old.dirtySince()) : old;
+        });
+        if (pending.size() >= batchRows && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /** Freshest known reading: the buffer first, the table only as loaded at startup. */
+    public Optional<TelemetryReading> latest(UUID stationId) {
+        if (!warm) warmUp();   // only a read that beats the ready event waits for the load
+        return Optional.ofNullable(latest.get(stationId));
+    }
+
+    /** Rows have been waiting longer than app.telemetry.write-behind.backpressure-ms. */
+    public boolean backedUp() {
+        return !pending.isEmpty() && System.nanoTime() - lastFlushOk > backpressureNanos;
+    }
+
+    /** Loads latest_telemetry once; readings recorded before it are kept where they are newer. */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        if (warm) return;
+        try {
+            jdbc.query(SELECT_ALL, rs -> {
+                ByteBuffer b = ByteBuffer.wrap(rs.getBytes(1));
+                Timestamp ts = rs.getTimestamp(6);
+                TelemetryReading r = new TelemetryReading(new UUID(b.getLong(), b.getLong()),
+                        rs.getObject(2, Double.class), rs.getObject(3, Boolean.class), rs.getObject(4, Boolean.class),
+                        rs.getObject(5, Double.class), ts == null ? null : ts.toInstant());
+                latest.merge(r.stationId(), r, (held, loaded) -> held.supersedes(loaded) ? held : loaded);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not load latest_telemetry; serving buffered readings only: {}", e.toString());
+        }
+        warm = true;
+    }
+
+    /* ---------------- flushing ---------------- */
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Telemetry write-behind flush failed; {} stations kept for the next attempt: {}", pending.size(), e.toString());
+        }
+    }
+
+    /** Writes everything pending in batches of batch-rows; failed batches go back into the buffer. */
+    synchronized void flush() {
+        flushRequested.set(false);
+        while (!pending.isEmpty()) {
+            List<Pending> batch = drain();
+            if (batch.isEmpty()) break;
+            try {
+                flushTimer.record(() -> write(batch));
+            } catch (RuntimeException e) {
+                failures.increment();
+                // a newer reading may have arrived meanwhile: keep whichever is newer, and the older dirty time
+                for (Pending p : batch) {
+                    pending.merge(p.reading().stationId(), p, (cur, old) -> new Pending(
+                            cur.reading().supersedes(old.reading()) ? cur.reading() : old.reading(),
+                            Math.min(cur.dirtySince(), old.dirtySince())));
+                }
+                throw e;
+            }
+            long now = System.nanoTime();
+            lastFlushOk = now;
+            batchSize.record(batch.size());
+            for (Pending p : batch) staleness.record(now - p.dirtySince(), TimeUnit.NANOSECONDS);
+        }
+        lastFlushOk = System.nanoTime();
+    }
+
+    private List<Pending> drain() {
+        List<Pending> batch = new ArrayList<>(Math.min(batchRows, pending.size()));
+        for (Iterator<UUID> it = pending.keySet().iterator(); it.hasNext() && batch.size() < batchRows; ) {
+            Pending p = pending.remove(it.next());
+            if (p != null) batch.add(p);
+        }
+        return batch;
+    }
+
+    private void write(List<Pending> batch) {
+        jdbc.batchUpdate(UPSERT, batch, batch.size(), (ps, p) -> {
+            TelemetryReading r = p.reading();
+            ps.setBytes(1, uuidBytes(r.stationId()));   // Hibernate maps UUID to binary(16) on MySQL
+            ps.setObject(2, r.wetWellLevelFt(), Types.DOUBLE);
+            ps.setObject(3, r.pump1Running(), Types.BOOLEAN);
+            ps.setObject(4, r.pump2Running(), Types.BOOLEAN);
+            ps.setObject(5, r.flowGpm(), Types.DOUBLE);
+            ps.setTimestamp(6, r.ts() == null ? null : Timestamp.from(r.ts()));
+        });
+    }
+
+    /* ---------------- internals ---------------- */
+
+    private double lagSeconds() {
+        return pending.isEmpty() ? 0 : (System.nanoTime() - lastFlushOk) / 1e9;
+    }
+
+    private static byte[] uuidBytes(UUID u) {
+        return ByteBuffer.allocate(16)
+                .putLong(u.getMostSignificantBits())
+                .putLong(u.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,32 @@
+package db.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/** information_schema probes: migrations run before Hibernate, so on a new database the tables are not there yet. */
+final class Schema {
+    private Schema() {}
+
+    static boolean tableExists(JdbcTemplate jdbc, String table) {
+        return count(jdbc, "select count(*) from information_schema.tables where table_schema = database() and table_name = ?",
+                table) > 0;
+    }
+
+    static boolean columnExists(JdbcTemplate jdbc, String table, String column) {
+        return count(jdbc, """
+                select count(*) from information_schema.columns
+                where table_schema = database() and table_name = ? and column_name = ?
+                """, table, column) > 0;
+    }
+
+    static boolean constraintExists(JdbcTemplate jdbc, String table, String constraint) {
+        return count(jdbc, """
+                select count(*) from information_schema.table_constraints
+                where table_schema = database() and table_name = ? and constraint_name = ?
+                """, table, constraint) > 0;
+    }
+
+    private static int count(JdbcTemplate jdbc, String sql, Object... args) {
+        Integer n = jdbc.queryForObject(sql, Integer.class, args);
+        return n == null ? 0 : n;
+    }
+}
@@ -0,0 +1,32 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Normalizes existing device_tag rows (trim + lower-case, as service.Tags writes them), drops
+ * the duplicates that leaves, and adds uk_device_tag. ddl-auto cannot do this: the constraint
+ * fails to create on duplicate rows and Hibernate only logs it. On a new database the table
+ * does not exist yet and Hibernate creates it with the constraint.
+ */
+public class V1__device_tag_unique extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        if (!Schema.tableExists(jdbc, "device_tag") || Schema.constraintExists(jdbc, "device_tag", "uk_device_tag")) return;
+
+        // distinct under the column collation: exactly the rows the unique key will accept
+        jdbc.execute("""
+                create table device_tag_v1 as
+                select distinct device_id, lower(trim(tag)) as tag from device_tag
+                where tag is not null and trim(tag) <> ''
+                """);
+        jdbc.execute("delete from device_tag");
+        jdbc.execute("insert into device_tag (device_id, tag) select device_id, tag from device_tag_v1");
+        jdbc.execute("drop table device_tag_v1");
+        jdbc.execute("alter table device_tag add constraint uk_device_tag unique (device_id, tag)");
+    }
+}
@@ -0,0 +1,67 @@
+package db.migration;
+
+import com.awc.industrial_asset_companion.devices_locator.service.QrCodes;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds device.qr_hash, hashes every existing payload (service.QrCodes) and adds uk_device_qr_hash.
+ * Where two devices carry the same payload the first by id keeps the hash and the others stay
+ * unhashed (they still resolve by id / device code); they are logged here, once. On a new
+ * database the table does not exist yet and Hibernate creates it with the constraint.
+ */
+@Slf4j
+public class V2__device_qr_hash extends BaseJavaMigration {
+
+    private static final int BATCH = 1000;
+
+    private record Row(String id, byte[] hash) {}
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        if (!Schema.tableExists(jdbc, "device")) return;
+        if (!Schema.columnExists(jdbc, "device", "qr_hash")) {
+            jdbc.execute("alter table device add column qr_hash varbinary(32) null");
+        }
+        if (Schema.constraintExists(jdbc, "device", "uk_device_qr_hash")) {
+            jdbc.execute("alter table device drop index uk_device_qr_hash");
+        }
+
+        Map<String, String> owner = new HashMap<>();   // hash (hex) -> device id
+        List<Row> changed = new ArrayList<>();
+        jdbc.query("select id, qr_payload, qr_hash from device order by id", rs -> {
+            String id = rs.getString(1);
+            byte[] h = QrCodes.hash(rs.getString(2));
+            if (h != null) {
+                String prev = owner.putIfAbsent(HexFormat.of().formatHex(h), id);
+                if (prev != null) {
+                    log.warn("Device {}: QR payload duplicates device {}, not indexed", id, prev);
+                    h = null;
+                }
+            }
+            if (!Arrays.equals(h, rs.getBytes(3))) changed.add(new Row(id, h));
+        });
+        for (int from = 0; from < changed.size(); from += BATCH) {
+            List<Row> batch = changed.subList(from, Math.min(from + BATCH, changed.size()));
+            jdbc.batchUpdate("update device set qr_hash = ? where id = ?", batch, batch.size(),
+                    (ps, r) -> {
+                        ps.setBytes(1, r.hash());
+                        ps.setString(2, r.id());
+                    });
+        }
+
+        jdbc.execute("alter table device add constraint uk_device_qr_hash unique (qr_hash)");
+        if (!changed.isEmpty()) log.info("QR hashes: {} devices updated", changed.size());
+    }
+}
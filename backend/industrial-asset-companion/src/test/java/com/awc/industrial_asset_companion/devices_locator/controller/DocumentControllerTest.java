@@ -0,0 +1,136 @@
+package com.awc.industrial_asset_companion.devices_locator.controller;
+
+import com.awc.industrial_asset_companion.devices_locator.service.DocumentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/** Range, conditional and content-type handling of document downloads. */
+class DocumentControllerTest {
+
+    private static final UUID ID = UUID.randomUUID();
+    private static final String ETAG = "\"abc\"";
+    private static final String BODY = "0123456789";
+
+    @TempDir
+    Path dir;
+
+    private DocumentService documents;
+    private DocumentController controller;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        documents = mock(DocumentService.class);
+        controller = new DocumentController(documents);
+        file = Files.writeString(dir.resolve("blob"), BODY);
+        serve("application/pdf");
+    }
+
+    @Test
+    void wholeDocument() throws Exception {
+        var res = get(null);
+
+        assertEquals(200, res.getStatus());
+        assertEquals(BODY, res.getContentAsString());
+        assertEquals("bytes", res.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(ETAG, res.getHeader(HttpHeaders.ETAG));
+        assertTrue(res.getHeader(HttpHeaders.CONTENT_DISPOSITION).startsWith("inline"));
+    }
+
+    @Test
+    void singleRangeIs206() throws Exception {
+        var res = get(req -> req.addHeader(HttpHeaders.RANGE, "bytes=2-4"));
+
+        assertEquals(206, res.getStatus());
+        assertEquals("234", res.getContentAsString());
+        assertEquals("bytes 2-4/10", res.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(3, res.getContentLengthLong());
+
+        assertEquals("789", get(req -> req.addHeader(HttpHeaders.RANGE, "bytes=-3")).getContentAsString());
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws Exception {
+        var res = get(req -> req.addHeader(HttpHeaders.RANGE, "bytes=20-30"));
+
+        assertEquals(416, res.getStatus());
+        assertEquals("bytes */10", res.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("", res.getContentAsString());
+    }
+
+    @Test
+    void staleIfRangeAndMultipleRangesGetTheWholeDocument() throws Exception {
+        var stale = get(req -> {
+            req.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+            req.addHeader(HttpHeaders.IF_RANGE, "\"old\"");
+        });
+        var multi = get(req -> req.addHeader(HttpHeaders.RANGE, "bytes=0-1,5-6"));
+        var malformed = get(req -> req.addHeader(HttpHeaders.RANGE, "lines=1-2"));
+
+        assertEquals(200, stale.getStatus());
+        assertEquals(BODY, multi.getContentAsString());
+        assertEquals(BODY, malformed.getContentAsString());
+    }
+
+    @Test
+    void matchingEtagIs304() throws Exception {
+        var res = get(req -> req.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG));
+
+        assertEquals(304, res.getStatus());
+        assertEquals("", res.getContentAsString());
+    }
+
+    @Test
+    void tomcatSendfileIsHandedTheFileInsteadOfCopying() throws Exception {
+        var req = new MockHttpServletRequest("GET", "/api/documents/" + ID + "/content");
+        req.setAttribute("org.apache.tomcat.sendfile.support", true);
+        req.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+        var res = new MockHttpServletResponse();
+
+        controller.content(ID, req, res);
+
+        assertEquals(file.toAbsolutePath().toString(), req.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(2L, req.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(5L, req.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals("", res.getContentAsString());
+    }
+
+    @Test
+    void scriptableTypesAreDownloadedNotRendered() throws Exception {
+        serve("text/html; charset=utf-8");
+        var html = get(null);
+        assertEquals("application/octet-stream", html.getContentType());
+        assertTrue(html.getHeader(HttpHeaders.CONTENT_DISPOSITION).startsWith("attachment"));
+        assertEquals("nosniff", html.getHeader("X-Content-Type-Options"));
+
+        serve("Text/Plain");
+        assertEquals("text/plain;charset=UTF-8", get(null).getContentType());
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private void serve(String mime) {
+        when(documents.content(ID)).thenReturn(new DocumentService.Content(file, BODY.length(), mime, "Pump manual", ETAG));
+    }
+
+    private MockHttpServletResponse get(Consumer<MockHttpServletRequest> headers) throws Exception {
+        var req = new MockHttpServletRequest("GET", "/api/documents/" + ID + "/content");
+        if (headers != null) headers.accept(req);
+        var res = new MockHttpServletResponse();
+        controller.content(ID, req, res);
+        return res;
+    }
+}
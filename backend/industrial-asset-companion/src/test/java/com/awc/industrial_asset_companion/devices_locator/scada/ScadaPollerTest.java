@@ -0,0 +1,86 @@
+package com.awc.industrial_asset_companion.devices_locator.scada;
+
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantDirectory;
+import com.awc.industrial_asset_companion.telemetry.Deadbands;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/** Poll results, failed ones included, landing in the reading store. */
+class ScadaPollerTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private ScadaDataSource source;
+    private ScadaReadingStore store;
+    private ScadaPoller poller;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        source = mock(ScadaDataSource.class);
+        when(source.sourceFor(anyString())).thenReturn("opcua");
+        ObjectProvider<ScadaDataSource> sources = mock(ObjectProvider.class);
+        when(sources.getIfAvailable()).thenReturn(source);
+        PlantDirectory plants = mock(PlantDirectory.class);
+        when(plants.all()).thenReturn(List.of(Plant.builder().id("ULL").name("Ullrich").isActive(true).build()));
+        store = new ScadaReadingStore(new Deadbands(0, 0, "", 60_000), 16, true);
+        poller = new ScadaPoller(sources, plants, store, new SimpleMeterRegistry(), true, 100, "", 0, 1, 1, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        poller.shutdown();
+    }
+
+    @Test
+    void plantThatNeverReadIsStoredWithItsError() throws Exception {
+        when(source.readPlants("ULL")).thenThrow(new IllegalStateException("no route to RTU"));
+
+        poller.syncPlants();
+
+        ScadaDataSource.PlantReadings p = awaitStored(r -> true);
+        assertTrue(p.stale());
+        assertEquals("opcua", p.source());
+        assertTrue(p.readings().isEmpty());
+        assertNull(p.readAt());
+        assertTrue(p.error().contains("no route to RTU"));
+    }
+
+    @Test
+    void staleResultKeepsTheLastGoodReadingsWithTheNewError() throws Exception {
+        var reading = new ScadaDataSource.Reading("PH-101", "pH", "", 7.1, T0, "ULL");
+        when(source.readPlants("ULL"))
+                .thenReturn(List.of(new ScadaDataSource.PlantReadings("ULL", "opcua", List.of(reading), T0, false, null)))
+                .thenReturn(List.of(new ScadaDataSource.PlantReadings("ULL", "opcua", List.of(), null, true, "Timed out after 3000 ms")));
+
+        poller.syncPlants();
+
+        ScadaDataSource.PlantReadings p = awaitStored(ScadaDataSource.PlantReadings::stale);
+        assertEquals(List.of(reading), p.readings());
+        assertEquals(T0, p.readAt());
+        assertEquals("Timed out after 3000 ms", p.error());
+    }
+
+    private ScadaDataSource.PlantReadings awaitStored(Predicate<ScadaDataSource.PlantReadings> done)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            ScadaDataSource.PlantReadings p = store.latest("ULL");
+            if (p != null && done.test(p)) return p;
+            Thread.sleep(10);
+        }
+        return fail("nothing stored for ULL");
+    }
+}
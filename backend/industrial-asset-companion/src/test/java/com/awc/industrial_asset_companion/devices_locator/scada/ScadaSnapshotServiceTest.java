@@ -0,0 +1,90 @@
+package com.awc.industrial_asset_companion.devices_locator.scada;
+
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantDirectory;
+import com.awc.industrial_asset_companion.telemetry.Deadbands;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/** Snapshot assembly from polled plants: id resolution, read-through and de-duplication. */
+class ScadaSnapshotServiceTest {
+
+    private ScadaDataSource source;
+    private PlantDirectory plants;
+    private ScadaReadingStore store;
+    private ScadaSnapshotService snapshots;
+
+    @BeforeEach
+    void setUp() {
+        source = mock(ScadaDataSource.class);
+        plants = mock(PlantDirectory.class);
+        when(plants.find(anyString())).thenReturn(Optional.empty());
+        ScadaPoller poller = mock(ScadaPoller.class);
+        when(poller.enabled()).thenReturn(true);
+        store = new ScadaReadingStore(new Deadbands(0, 0, "", 60_000), 16, false);
+        snapshots = new ScadaSnapshotService(source, plants, poller, store);
+        snapshots.staleMs = 60_000;
+    }
+
+    @Test
+    void exactPlantIdIsServedFromTheStore() {
+        store.put(polled("ULL-WTP", reading("PH-101", "ULLRICH")));
+
+        assertEquals(List.of("PH-101"), tags(snapshots.getSnapshot("ULL-WTP")));
+        verifyNoInteractions(source);
+    }
+
+    @Test
+    void plantNameOrIdIgnoringCaseResolvesToThePolledPlant() {
+        store.put(polled("ULL-WTP", reading("PH-101", "ULLRICH")));
+        when(plants.find("ULL-WTP")).thenReturn(Optional.of(Plant.builder().id("ULL-WTP").name("Ullrich").build()));
+
+        assertEquals(List.of("PH-101"), tags(snapshots.getSnapshot("ULLRICH")));
+        assertEquals(List.of("PH-101"), tags(snapshots.getSnapshot("ull-wtp")));
+        verifyNoInteractions(source);
+    }
+
+    @Test
+    void unknownIdIsReadThroughTheDataSource() {
+        when(source.readPlants("DAVIS")).thenReturn(List.of(polled("DAVIS", reading("PH-501", "DAVIS"))));
+
+        assertEquals(List.of("PH-501"), tags(snapshots.getSnapshot("DAVIS")));
+    }
+
+    @Test
+    void allListsReadingsSharedByTwoPlantsOnce() {
+        store.put(polled("ULL-WTP", reading("PH-101", "ULLRICH"), reading("FLOW-701", "ULLRICH")));
+        store.put(polled("ULL-REMOTE", reading("PH-101", "ULLRICH"), reading("FLOW-701", "ULLRICH")));
+        store.put(polled("DAV", reading("PH-501", "DAVIS")));
+
+        Map<String, Object> res = snapshots.getSnapshot("ALL");
+
+        assertEquals(List.of("PH-101", "PH-501", "FLOW-701"), tags(res));
+        assertEquals(3, ((List<?>) res.get("plants")).size());   // every plant still reports its status
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static ScadaDataSource.PlantReadings polled(String plantId, ScadaDataSource.Reading... readings) {
+        return new ScadaDataSource.PlantReadings(plantId, "mock", List.of(readings), Instant.now(), false, null);
+    }
+
+    private static ScadaDataSource.Reading reading(String tag, String plantId) {
+        String type = tag.startsWith("PH") ? "pH" : "Flow";
+        return new ScadaDataSource.Reading(tag, type, "", 7.0, Instant.now(), plantId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> tags(Map<String, Object> res) {
+        return ((List<Map<String, Object>>) res.get("metrics")).stream().map(m -> (String) m.get("tag")).toList();
+    }
+}
@@ -0,0 +1,139 @@
+package com.awc.industrial_asset_companion.devices_locator.scada.modbus;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process Modbus TCP slave on a loopback port: holding and input registers 0..size-1,
+ * function 3 and 4 only (anything else, or a range past size, gets an exception response).
+ * Every request is answered on its own virtual thread after delayMs, so pipelined requests
+ * are served side by side and may be answered out of order, as a gateway would.
+ */
+final class ModbusSlaveSimulator implements AutoCloseable {
+
+    final short[] holding;
+    final short[] input;
+    private final long delayMs;
+    private final ServerSocket server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger maxOutstanding = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    ModbusSlaveSimulator(int size, long delayMs) throws IOException {
+        this.holding = new short[size];
+        this.input = new short[size];
+        this.delayMs = delayMs;
+        this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().name("modbus-sim-accept").start(this::accept);
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    /** Requests received so far. */
+    int requests() {
+        return requests.get();
+    }
+
+    /** Most requests received and not yet answered at one time. */
+    int maxOutstanding() {
+        return maxOutstanding.get();
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    void setFloat(short[] table, int address, float value) {
+        int bits = Float.floatToIntBits(value);
+        table[address] = (short) (bits >>> 16);
+        table[address + 1] = (short) bits;
+    }
+
+    void setInt32(short[] table, int address, int value) {
+        table[address] = (short) (value >>> 16);
+        table[address + 1] = (short) value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket s = server.accept();
+                connections.incrementAndGet();
+                Thread.ofVirtual().name("modbus-sim-conn").start(() -> serve(s));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket s) {
+        ReentrantLock writeLock = new ReentrantLock();
+        try (s) {
+            DataInputStream in = new DataInputStream(s.getInputStream());
+            OutputStream out = s.getOutputStream();
+            byte[] header = new byte[7];
+            while (true) {
+                in.readFully(header);
+                ByteBuffer h = ByteBuffer.wrap(header);
+                short tx = h.getShort();
+                h.getShort();
+                int length = h.getShort() & 0xFFFF;
+                byte unit = h.get();
+                byte[] pdu = new byte[length - 1];
+                in.readFully(pdu);
+                requests.incrementAndGet();
+                maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+                Thread.ofVirtual().start(() -> {
+                    try {
+                        Thread.sleep(delayMs);
+                        byte[] reply = answer(tx, unit, pdu);
+                        outstanding.decrementAndGet();
+                        writeLock.lock();
+                        try {
+                            out.write(reply);
+                        } finally {
+                            writeLock.unlock();
+                        }
+                    } catch (IOException | InterruptedException ignored) {
+                        // client went away
+                    }
+                });
+            }
+        } catch (IOException ignored) {
+            // client closed the connection
+        }
+    }
+
+    private byte[] answer(short tx, byte unit, byte[] pdu) {
+        ByteBuffer req = ByteBuffer.wrap(pdu);
+        int function = req.get() & 0xFF;
+        int start = req.getShort() & 0xFFFF;
+        int count = req.getShort() & 0xFFFF;
+        short[] table = function == 3 ? holding : function == 4 ? input : null;
+        if (table == null || count < 1 || count > 125 || start + count > table.length) {
+            int code = table == null ? 1 : 2;   // illegal function / illegal data address
+            return ByteBuffer.allocate(9).putShort(tx).putShort((short) 0).putShort((short) 3)
+                    .put(unit).put((byte) (function | 0x80)).put((byte) code).array();
+        }
+        ByteBuffer res = ByteBuffer.allocate(9 + count * 2)
+                .putShort(tx).putShort((short) 0).putShort((short) (3 + count * 2))
+                .put(unit).put((byte) function).put((byte) (count * 2));
+        for (int i = 0; i < count; i++) res.putShort(table[start + i]);
+        return res.array();
+    }
+}
@@ -0,0 +1,166 @@
+package com.awc.industrial_asset_companion.devices_locator.scada.modbus;
+
+import com.awc.industrial_asset_companion.devices_locator.scada.ScadaDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Modbus adapter against the in-process slave simulator: block planning, decoding, pipelining, failures. */
+class ModbusTcpAdapterTest {
+
+    private static final String HEADER = "plant,host,port,slave,tag,type,unit,table,address,format,scale,offset\n";
+
+    @TempDir
+    Path dir;
+
+    private ModbusSlaveSimulator sim;
+    private ModbusTcpAdapter adapter;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (adapter != null) adapter.shutdown();
+        if (sim != null) sim.close();
+    }
+
+    @Test
+    void plannerMergesNearbyRegistersAndSplitsTablesAndFarAddresses() {
+        List<ModbusBlockPlanner.Block> blocks = ModbusBlockPlanner.plan(List.of(
+                point(ModbusPoint.Table.HOLDING, 0, ModbusPoint.Format.INT16),
+                point(ModbusPoint.Table.HOLDING, 2, ModbusPoint.Format.FLOAT32),
+                point(ModbusPoint.Table.HOLDING, 10, ModbusPoint.Format.INT16),   // 6 unused registers: merged
+                point(ModbusPoint.Table.HOLDING, 200, ModbusPoint.Format.INT16),  // far away: own block
+                point(ModbusPoint.Table.INPUT, 1, ModbusPoint.Format.UINT16)), 8, 125);
+
+        assertEquals(3, blocks.size());
+        assertBlock(blocks.get(0), ModbusPoint.Table.HOLDING, 0, 11, 3);
+        assertBlock(blocks.get(1), ModbusPoint.Table.HOLDING, 200, 1, 1);
+        assertBlock(blocks.get(2), ModbusPoint.Table.INPUT, 1, 1, 1);
+    }
+
+    @Test
+    void plannerRespectsBlockLimit() {
+        List<ModbusBlockPlanner.Block> blocks = ModbusBlockPlanner.plan(List.of(
+                point(ModbusPoint.Table.HOLDING, 0, ModbusPoint.Format.INT16),
+                point(ModbusPoint.Table.HOLDING, 120, ModbusPoint.Format.FLOAT32),
+                point(ModbusPoint.Table.HOLDING, 124, ModbusPoint.Format.FLOAT32)), 200, 125);
+
+        assertEquals(2, blocks.size());
+        assertBlock(blocks.get(0), ModbusPoint.Table.HOLDING, 0, 122, 2);
+        assertBlock(blocks.get(1), ModbusPoint.Table.HOLDING, 124, 2, 1);
+    }
+
+    @Test
+    void decodesScaledIntegersAndFloatsInOneBlockRead() throws Exception {
+        sim = new ModbusSlaveSimulator(1000, 0);
+        sim.holding[0] = 1234;                          // level, 0.01 ft
+        sim.holding[1] = (short) 0xFFF6;                // -10 signed
+        sim.setInt32(sim.holding, 2, 100_000);          // totalizer
+        sim.setFloat(sim.holding, 4, 7.25f);            // pH
+        sim.holding[6] = (short) 0xC000;                // 49152 unsigned
+        sim.setFloat(sim.input, 0, 3.5f);
+        short hi = sim.input[0];                        // same float word-swapped at 10..11
+        sim.input[10] = sim.input[1];
+        sim.input[11] = hi;
+
+        adapter = adapter(HEADER
+                + "LS12,127.0.0.1," + sim.port() + ",1,LVL,Level,ft,holding,0,int16,0.01,0\n"
+                + "LS12,127.0.0.1," + sim.port() + ",1,TMP,Temperature,C,holding,1,int16,1,0\n"
+                + "LS12,127.0.0.1," + sim.port() + ",1,TOT,Flow,gal,holding,2,int32,1,0\n"
+                + "LS12,127.0.0.1," + sim.port() + ",1,PH,pH,,holding,4,float32,1,0\n"
+                + "LS12,127.0.0.1," + sim.port() + ",1,RUN,Runtime,h,holding,6,uint16,1,0\n"
+                + "LS12,127.0.0.1," + sim.port() + ",1,AMP,Current,A,input,10,float32_cdab,2,1\n", 1, 4);
+
+        Map<String, Double> v = values(adapter.read("LS12"));
+        assertEquals(12.34, v.get("LVL"), 1e-9);
+        assertEquals(-10.0, v.get("TMP"), 1e-9);
+        assertEquals(100_000.0, v.get("TOT"), 1e-9);
+        assertEquals(7.25, v.get("PH"), 1e-6);
+        assertEquals(49152.0, v.get("RUN"), 1e-9);
+        assertEquals(8.0, v.get("AMP"), 1e-6);          // 3.5 * 2 + 1
+        assertEquals(2, sim.requests());                // one holding block, one input block
+        assertTrue(adapter.read("OTHER").isEmpty());
+    }
+
+    @Test
+    void pipelinesBlockReadsOnOneConnection() throws Exception {
+        sim = new ModbusSlaveSimulator(1000, 200);
+        StringBuilder map = new StringBuilder(HEADER);
+        for (int i = 0; i < 5; i++) {
+            map.append("LS7,127.0.0.1,").append(sim.port()).append(",1,T").append(i)
+                    .append(",Level,ft,holding,").append(i * 100).append(",int16,1,0\n");
+        }
+        adapter = adapter(map.toString(), 1, 8);
+
+        long start = System.nanoTime();
+        List<ScadaDataSource.Reading> readings = adapter.read("LS7");
+        long ms = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(5, readings.size());
+        assertEquals(5, sim.requests());
+        assertEquals(1, sim.connections());
+        assertTrue(sim.maxOutstanding() > 1, "requests were not pipelined");
+        assertTrue(ms < 5 * 200, "five 200 ms blocks took " + ms + " ms");
+    }
+
+    @Test
+    void failedBlockGivesNullValuesAndAllFailedThrows() throws Exception {
+        sim = new ModbusSlaveSimulator(100, 0);
+        sim.holding[0] = 42;
+        adapter = adapter(HEADER
+                + "LS3,127.0.0.1," + sim.port() + ",1,OK,Level,ft,holding,0,int16,1,0\n"
+                + "LS3,127.0.0.1," + sim.port() + ",1,BAD,Level,ft,holding,500,int16,1,0\n"
+                + "LS4,127.0.0.1," + sim.port() + ",1,BAD,Level,ft,holding,500,int16,1,0\n", 1, 4);
+
+        Map<String, Double> v = values(adapter.read("LS3"));
+        assertEquals(42.0, v.get("OK"));
+        assertTrue(v.containsKey("BAD"));
+        assertNull(v.get("BAD"));
+
+        ModbusException e = assertThrows(ModbusException.class, () -> adapter.read("LS4"));
+        assertEquals(2, e.getCode());                   // illegal data address
+    }
+
+    @Test
+    void unreachableRtuThrows() throws Exception {
+        int port;
+        try (var s = new java.net.ServerSocket(0)) {
+            port = s.getLocalPort();                    // closed again: nothing listens here
+        }
+        adapter = adapter(HEADER + "LS9,127.0.0.1," + port + ",1,LVL,Level,ft,holding,0,int16,1,0\n", 1, 4);
+        assertThrows(IOException.class, () -> adapter.read("LS9"));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private ModbusTcpAdapter adapter(String csv, int connections, int maxInFlight) throws IOException {
+        Path map = dir.resolve("modbus.csv");
+        Files.writeString(map, csv);
+        return new ModbusTcpAdapter(map.toString(), connections, maxInFlight, 8, 125, 2000, 1000);
+    }
+
+    private static ModbusPoint point(ModbusPoint.Table table, int address, ModbusPoint.Format format) {
+        return new ModbusPoint("P", "localhost", 502, 1, "T" + address, "Level", "ft", table, address, format, 1, 0);
+    }
+
+    private static void assertBlock(ModbusBlockPlanner.Block b, ModbusPoint.Table table, int start, int count, int points) {
+        assertEquals(table, b.table());
+        assertEquals(start, b.start());
+        assertEquals(count, b.count());
+        assertEquals(points, b.points().size());
+    }
+
+    private static Map<String, Double> values(List<ScadaDataSource.Reading> readings) {
+        Map<String, Double> out = new HashMap<>();
+        for (ScadaDataSource.Reading r : readings) out.put(r.tag(), r.value());
+        return out;
+    }
+}
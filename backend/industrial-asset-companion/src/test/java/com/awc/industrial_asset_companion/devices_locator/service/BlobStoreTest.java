@@ -0,0 +1,82 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlobStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void contentIsStoredUnderItsHashOnce() throws Exception {
+        BlobStore blobs = new BlobStore(dir.toString(), 1 << 20);
+        byte[] body = "pump manual".getBytes(StandardCharsets.UTF_8);
+
+        var a = blobs.put(new ByteArrayInputStream(body));
+        var b = blobs.put(new ByteArrayInputStream(body));
+
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body)), a.key());
+        assertEquals(a, b);
+        assertEquals(body.length, a.size());
+        assertArrayEquals(body, Files.readAllBytes(blobs.path(a.key())));
+        assertEquals(1, blobFiles());
+    }
+
+    @Test
+    void oversizedUploadIs413AndLeavesNothingBehind() throws Exception {
+        BlobStore blobs = new BlobStore(dir.toString(), 100);
+
+        var ex = assertThrows(ResponseStatusException.class, () -> blobs.put(new ByteArrayInputStream(new byte[101])));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, ex.getStatusCode());
+        assertEquals(0, blobFiles());
+    }
+
+    @Test
+    void malformedKeysNeverReachTheFilesystem() throws Exception {
+        BlobStore blobs = new BlobStore(dir.toString(), 1 << 20);
+        String key = blobs.put(new ByteArrayInputStream(new byte[]{1})).key();
+
+        assertNull(blobs.path(null));
+        assertNull(blobs.path("../../etc/passwd"));
+        assertNull(blobs.path(key.toUpperCase()));
+        assertNull(blobs.path("0".repeat(64)));   // well formed, not stored
+        assertThrows(IllegalArgumentException.class, () -> blobs.putDerived(key, "../x", out -> {}));
+    }
+
+    @Test
+    void derivedFilesSitNextToTheirBlob() throws Exception {
+        BlobStore blobs = new BlobStore(dir.toString(), 1 << 20);
+        String key = blobs.put(new ByteArrayInputStream(new byte[]{1})).key();
+
+        assertNull(blobs.derived(key, "thumb.png"));
+        Path thumb = blobs.putDerived(key, "thumb.png", out -> out.write(new byte[]{9, 9}));
+
+        assertEquals(thumb, blobs.derived(key, "thumb.png"));
+        assertEquals(blobs.path(key).getParent(), thumb.getParent());
+        assertThrows(IOException.class, () -> blobs.putDerived(key, "preview.png", out -> { throw new IOException("bad image"); }));
+        assertNull(blobs.derived(key, "preview.png"));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private long blobFiles() throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            return s.filter(Files::isRegularFile).count();
+        }
+    }
+}
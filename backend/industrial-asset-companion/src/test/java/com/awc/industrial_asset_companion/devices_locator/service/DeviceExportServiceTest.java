@@ -0,0 +1,135 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/** Streaming export over a mocked connection: cursor setup, row formatting and session cleanup. */
+class DeviceExportServiceTest {
+
+    private static final String DOC = UUID.randomUUID().toString();
+
+    private Connection con;
+    private PreparedStatement ps;
+    private Statement session;
+    private DeviceExportService service;
+    private List<Map<String, String>> rows;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        con = mock(Connection.class);
+        ps = mock(PreparedStatement.class);
+        session = mock(Statement.class);
+        when(jdbc.execute(ArgumentMatchers.<ConnectionCallback<Object>>any())).thenAnswer(inv -> inv.<ConnectionCallback<?>>getArgument(0).doInConnection(con));
+        when(con.createStatement()).thenReturn(session);
+        when(con.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(ps);
+        when(ps.executeQuery()).thenAnswer(inv -> resultSet(rows));
+        service = new DeviceExportService(jdbc, new ObjectMapper());
+
+        rows = List.of(
+                row("FLOW-701", "Effluent flow meter", null, null, null),
+                row("PH-101", "Raw water, \"pH\" probe", "critical\u001Elab",
+                        DOC + "\u001Fmanual\u001FManual\u001Fapplication/pdf", "3.5"));
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLineWithTagsAndDocsSplit() throws Exception {
+        List<String> lines = export(DeviceExportService.Format.NDJSON).lines().toList();
+
+        assertEquals(2, lines.size());
+        JsonNode ph = new ObjectMapper().readTree(lines.get(1));
+        assertEquals("PH-101", ph.get("id").asText());
+        assertEquals(List.of("critical", "lab"), List.of(ph.get("tags").get(0).asText(), ph.get("tags").get(1).asText()));
+        assertEquals(DOC, ph.get("docs").get(0).get("id").asText());
+        assertEquals("application/pdf", ph.get("docs").get(0).get("mime").asText());
+        assertEquals(3.5, ph.get("loc").get("x").asDouble());
+        assertEquals(0, new ObjectMapper().readTree(lines.get(0)).get("tags").size());
+
+        verify(ps).setFetchSize(Integer.MIN_VALUE);
+        verify(ps).setString(1, "ULL");
+    }
+
+    @Test
+    void csvQuotesCellsAndJoinsListsWithPipes() throws Exception {
+        List<String> lines = export(DeviceExportService.Format.CSV).lines().toList();
+
+        assertTrue(lines.get(0).startsWith("id,plant_id,type,name,"));
+        assertTrue(lines.get(1).startsWith("FLOW-701,ULL,Meter,Effluent flow meter,"));
+        assertTrue(lines.get(2).contains(",\"Raw water, \"\"pH\"\" probe\","));
+        assertTrue(lines.get(2).endsWith(",critical|lab," + DOC));
+    }
+
+    @Test
+    void emptyPlantWritesNothingButTheCsvHeader() throws Exception {
+        rows = List.of();
+
+        assertEquals("", export(DeviceExportService.Format.NDJSON));
+        assertEquals(1, export(DeviceExportService.Format.CSV).lines().count());
+    }
+
+    @Test
+    void aClientDisconnectSurfacesAsIoExceptionAndTheSessionIsReset() throws Exception {
+        OutputStream gone = new OutputStream() {
+            @Override public void write(int b) throws IOException { throw new IOException("Broken pipe"); }
+        };
+
+        assertThrows(IOException.class, () -> service.export("ULL", DeviceExportService.Format.CSV, gone));
+        verify(session).execute("SET SESSION group_concat_max_len = 1048576");
+        verify(session).execute("SET SESSION group_concat_max_len = DEFAULT");
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private String export(DeviceExportService.Format format) throws IOException {
+        var out = new ByteArrayOutputStream();
+        service.export("ULL", format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> row(String id, String name, String tags, String docs, String x) {
+        Map<String, String> r = new HashMap<>();
+        r.put("id", id);
+        r.put("plant_id", "ULL");
+        r.put("type", id.startsWith("PH") ? "Analyzer" : "Meter");
+        r.put("name", name);
+        r.put("tags", tags);
+        r.put("docs", docs);
+        r.put("x", x);
+        return r;
+    }
+
+    /** A forward-only result set over the given rows; columns not in a row read as SQL NULL. */
+    private static ResultSet resultSet(List<Map<String, String>> rows) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        int[] at = {-1};
+        when(rs.next()).thenAnswer(inv -> ++at[0] < rows.size());
+        when(rs.getString(anyString())).thenAnswer(inv -> rows.get(at[0]).get(inv.<String>getArgument(0)));
+        when(rs.getObject(anyString(), eq(Double.class))).thenAnswer(inv -> {
+            String v = rows.get(at[0]).get(inv.<String>getArgument(0));
+            return v == null ? null : Double.valueOf(v);
+        });
+        return rs;
+    }
+}
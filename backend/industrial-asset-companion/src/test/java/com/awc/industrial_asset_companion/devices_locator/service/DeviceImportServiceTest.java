@@ -0,0 +1,160 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceImportReportDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.AreaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DeviceImportServiceTest {
+
+    private JdbcOperations ops;
+    private ApplicationEventPublisher events;
+    private DeviceImportService service;
+    private final List<String> written = new ArrayList<>();
+    private int deviceBatches;
+
+    @BeforeEach
+    void setUp() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        ops = mock(JdbcOperations.class);
+        when(jdbc.getJdbcOperations()).thenReturn(ops);
+        when(jdbc.queryForList(anyString(), anyMap(), eq(String.class))).thenReturn(List.of());   // no existing ids
+
+        TransactionTemplate tx = mock(TransactionTemplate.class);
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(tx).executeWithoutResult(any());
+
+        // device inserts: a batch holding an id starting with "BAD" fails as a whole, like a unique-key violation
+        when(ops.batchUpdate(startsWith("insert into device ("), any(), anyInt(), any())).thenAnswer(inv -> {
+            deviceBatches++;
+            List<String> ids = boundIds(inv.getArgument(1), inv.getArgument(3));
+            if (ids.stream().anyMatch(id -> id.startsWith("BAD"))) {
+                throw new DataIntegrityViolationException("Duplicate entry 'x' for key 'uk_device_qr_hash'");
+            }
+            written.addAll(ids);
+            return new int[0][];
+        });
+
+        PlantDirectory plants = mock(PlantDirectory.class);
+        when(plants.exists("ULL")).thenReturn(true);
+        events = mock(ApplicationEventPublisher.class);
+        service = new DeviceImportService(jdbc, tx, mock(AreaRepository.class), plants, new ObjectMapper(), events, 4);
+    }
+
+    @Test
+    void rejectedRowsAreFoundByHalvingAndOnlyThoseAreReported() throws Exception {
+        DeviceImportReportDto report = importCsv("""
+                id,plantId,name
+                A,ULL,one
+                B,ULL,two
+                BAD-1,ULL,three
+                C,ULL,four
+                D,ULL,five
+                BAD-2,ULL,six
+                E,ULL,seven
+                """);
+
+        assertEquals(7, report.getRows());
+        assertEquals(5, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(List.of("A", "B", "C", "D", "E"), written.stream().sorted().toList());
+        assertEquals(List.of(4L, 7L), report.getErrors().stream().map(DeviceImportReportDto.RowError::line).toList());
+        assertTrue(report.getErrors().get(0).message().contains("uk_device_qr_hash"));
+        verify(events).publishEvent(DeviceChangedEvent.plantChanged("ULL"));
+    }
+
+    @Test
+    void cleanBatchesAreWrittenOnce() throws Exception {
+        DeviceImportReportDto report = importCsv("id,plantId\nA,ULL\nB,ULL\nC,ULL\nD,ULL\nE,ULL\n");
+
+        assertEquals(5, report.getImported());
+        assertEquals(2, deviceBatches);   // batch size 4
+    }
+
+    @Test
+    void otherDatabaseFailuresFailTheBatchWithoutRetrying() throws Exception {
+        when(ops.batchUpdate(startsWith("insert into device ("), any(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Communications link failure"));
+
+        DeviceImportReportDto report = importCsv("id,plantId\nA,ULL\nB,ULL\nC,ULL\n");
+
+        assertEquals(0, report.getImported());
+        assertEquals(3, report.getFailed());
+        verify(ops, times(1)).batchUpdate(startsWith("insert into device ("), any(), anyInt(), any());
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    void invalidRowsAreReportedWithTheirLine() throws Exception {
+        DeviceImportReportDto report = importCsv("""
+                id,plantId,name
+                ,ULL,no id
+                A,NOPE,unknown plant
+                B,ULL,"a name over
+                two lines"
+                B,ULL,duplicate
+                """);
+
+        assertEquals(4, report.getRows());
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(2L, 3L, 6L), report.getErrors().stream().map(DeviceImportReportDto.RowError::line).toList());
+        assertEquals(List.of("id is required", "Unknown plant NOPE", "Duplicate id in file"),
+                report.getErrors().stream().map(DeviceImportReportDto.RowError::message).toList());
+    }
+
+    @Test
+    void ndjsonLinesAreImported() throws Exception {
+        DeviceImportReportDto report = service.importDevices(in("""
+                {"id":"A","plantId":"ULL","tags":["Pump"]}
+                not json
+                {"id":"B","plantId":"ULL"}
+                """), DeviceImportService.Format.NDJSON, false);
+
+        assertEquals(2, report.getImported());
+        assertEquals(2L, report.getErrors().get(0).line());
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private DeviceImportReportDto importCsv(String csv) throws Exception {
+        return service.importDevices(in(csv), DeviceImportService.Format.CSV, false);
+    }
+
+    private static ByteArrayInputStream in(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Runs the statement setter over the batch and collects what it binds as parameter 1 (the id). */
+    @SuppressWarnings("unchecked")
+    private static List<String> boundIds(Collection<?> batch, ParameterizedPreparedStatementSetter<?> setter) throws Exception {
+        var pss = (ParameterizedPreparedStatementSetter<Object>) setter;
+        List<String> ids = new ArrayList<>();
+        PreparedStatement ps = mock(PreparedStatement.class);
+        doAnswer(inv -> ids.add(inv.getArgument(1))).when(ps).setString(eq(1), anyString());
+        for (Object row : batch) pss.setValues(ps, row);
+        return ids;
+    }
+}
@@ -0,0 +1,149 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceListItemDto;
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceResolveDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.scada.ScadaDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DeviceResolveServiceTest {
+
+    private static final String PAYLOAD = "https://example.org/d/PH-101";
+
+    private DeviceRepository repo;
+    private DeviceCrudService devices;
+    private ScadaDataSource scada;
+    private DeviceResolveService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(DeviceRepository.class);
+        devices = mock(DeviceCrudService.class);
+        scada = mock(ScadaDataSource.class);
+        when(repo.findIdByQrHash(any())).thenReturn(Optional.empty());
+        when(repo.findIdByQrHash(QrCodes.hash(PAYLOAD))).thenReturn(Optional.of("PH-101"));
+        when(repo.findIdsByDeviceCode(anyString())).thenReturn(List.of());
+        when(devices.get(anyString())).thenAnswer(inv -> device(inv.getArgument(0), "ULL"));
+        service = new DeviceResolveService(repo, devices, provider(scada), 2);
+    }
+
+    @Test
+    void canonicalFormCollapsesWhitespaceButKeepsCase() {
+        assertEquals("a b c", QrCodes.normalize("  a \t b\n c "));
+        assertNull(QrCodes.normalize("   "));
+        assertNull(QrCodes.hash(null));
+        assertArrayEquals(QrCodes.hash("a b"), QrCodes.hash(" a  b "));
+        assertFalse(Arrays.equals(QrCodes.hash("ph-101"), QrCodes.hash("PH-101")));
+        assertEquals(32, QrCodes.hash("x").length);
+    }
+
+    @Test
+    void scansResolveByPayloadThenIdThenCode() {
+        when(repo.existsById("FLOW-701")).thenReturn(true);
+        when(repo.findIdsByDeviceCode("FT-7")).thenReturn(List.of("FLOW-701"));
+
+        assertEquals("qr", service.resolve("  " + PAYLOAD + " ").getMatchedBy());
+        assertEquals("id", service.resolve("FLOW-701").getMatchedBy());
+        assertEquals("code", service.resolve("FT-7").getMatchedBy());
+    }
+
+    @Test
+    void unknownAmbiguousAndBlankScans() {
+        when(repo.findIdsByDeviceCode("DUP")).thenReturn(List.of("A", "B"));
+
+        assertEquals(HttpStatus.NOT_FOUND, status(() -> service.resolve("nothing")));
+        assertEquals(HttpStatus.CONFLICT, status(() -> service.resolve("DUP")));
+        assertEquals(HttpStatus.BAD_REQUEST, status(() -> service.resolve(" ")));
+    }
+
+    @Test
+    void repeatScansAreCachedButTheReadingIsAlwaysLive() {
+        when(scada.readSnapshot("ULL"))
+                .thenReturn(List.of(reading("ph-101", 7.1)))
+                .thenReturn(List.of(reading("PH-101", 7.4)));
+
+        DeviceResolveDto first = service.resolve(PAYLOAD);
+        DeviceResolveDto second = service.resolve(PAYLOAD + "  ");
+
+        assertSame(first.getDevice(), second.getDevice());
+        assertEquals(7.1, first.getReading().getValue());
+        assertEquals(7.4, second.getReading().getValue());
+        verify(devices, times(1)).get("PH-101");
+    }
+
+    @Test
+    void scadaFailureStillResolves() {
+        when(scada.readSnapshot("ULL")).thenThrow(new IllegalStateException("PLC offline"));
+
+        DeviceResolveDto dto = service.resolve(PAYLOAD);
+        assertEquals("PH-101", dto.getDevice().getId());
+        assertNull(dto.getReading());
+    }
+
+    @Test
+    void deviceAndPlantEventsDropCachedScans() {
+        service.resolve(PAYLOAD);
+        service.onDeviceChanged(DeviceChangedEvent.upserted("ULL", "OTHER", List.of()));
+        service.resolve(PAYLOAD);
+        verify(devices, times(1)).get("PH-101");
+
+        service.onDeviceChanged(DeviceChangedEvent.upserted("ULL", "PH-101", List.of()));
+        service.resolve(PAYLOAD);
+        service.onDeviceChanged(DeviceChangedEvent.plantChanged("ULL"));
+        service.resolve(PAYLOAD);
+        verify(devices, times(3)).get("PH-101");
+    }
+
+    @Test
+    void cacheIsBoundedAndEventsDuringALookupAreNotLost() {
+        when(repo.existsById(anyString())).thenReturn(true);
+        service.resolve("A");
+        service.resolve("B");
+        service.resolve("C");   // max 2 entries: A goes
+        service.resolve("A");
+        verify(devices, times(2)).get("A");
+
+        when(devices.get("D")).thenAnswer(inv -> {
+            service.onDeviceChanged(DeviceChangedEvent.upserted("ULL", "D", List.of()));
+            return device("D", "ULL");
+        });
+        service.resolve("D");
+        service.resolve("D");
+        verify(devices, times(2)).get("D");
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static DeviceListItemDto device(String id, String plantId) {
+        return DeviceListItemDto.builder().id(id).plantId(plantId).name(id + " name").build();
+    }
+
+    private static ScadaDataSource.Reading reading(String tag, double value) {
+        return new ScadaDataSource.Reading(tag, "pH", null, value, Instant.parse("2026-01-01T00:00:00Z"), "ULL");
+    }
+
+    private static HttpStatus status(Runnable call) {
+        return HttpStatus.valueOf(assertThrows(ResponseStatusException.class, call::run).getStatusCode().value());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<ScadaDataSource> provider(ScadaDataSource source) {
+        ObjectProvider<ScadaDataSource> p = mock(ObjectProvider.class);
+        when(p.getIfAvailable()).thenReturn(source);
+        return p;
+    }
+}
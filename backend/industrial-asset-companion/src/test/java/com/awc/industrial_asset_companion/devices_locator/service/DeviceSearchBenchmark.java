@@ -0,0 +1,86 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceSearchHitDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceSearchRow;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceTagRow;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * DeviceSearchIndex query latency on one loaded plant of {@code devices} synthetic devices
+ * (the target is under 5 ms per search at 20k devices). Run main().
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceSearchBenchmark {
+
+    private static final String[] TYPES = {"Pump", "Valve", "Meter", "Analyzer", "Motor", "Blower", "Panel", "Tank"};
+    private static final String[] SYSTEMS = {"Raw water", "Filtration", "Chlorination", "Sludge", "Effluent", "Aeration"};
+
+    @Param({"20000"})
+    int devices;
+
+    private DeviceSearchIndex index;
+
+    @Setup
+    public void setup() {
+        List<DeviceSearchRow> rows = new ArrayList<>(devices);
+        List<DeviceTagRow> tags = new ArrayList<>(devices);
+        for (int i = 0; i < devices; i++) {
+            String type = TYPES[i % TYPES.length];
+            String system = SYSTEMS[i / TYPES.length % SYSTEMS.length];
+            String id = type.substring(0, 2).toUpperCase() + "-" + (1000 + i);
+            rows.add(new DeviceSearchRow(id, "ULL", type, system + " " + type.toLowerCase() + " " + i, system,
+                    "MCC-" + (i % 40), "B" + (i % 12), "A" + (i % 30), "Bay " + (i % 50), id, "D" + i,
+                    "Building " + (i % 9), "L" + (i % 3)));
+            tags.add(new DeviceTagRow(id, i % 5 == 0 ? "critical" : "spare"));
+        }
+        DeviceRepository repo = mock(DeviceRepository.class);
+        when(repo.findSearchRowsByPlantId("ULL")).thenReturn(rows);
+        when(repo.findTagRowsByPlantId("ULL")).thenReturn(tags);
+        index = new DeviceSearchIndex(repo);
+        index.search("ULL", "warm-up load", 1);
+    }
+
+    /** One very broad token: every pump matches, so ranking dominates. */
+    @Benchmark
+    public List<DeviceSearchHitDto> broadToken() {
+        return index.search("ULL", "pump", 20);
+    }
+
+    /** Broad prefix narrowed by a second token. */
+    @Benchmark
+    public List<DeviceSearchHitDto> twoTokens() {
+        return index.search("ULL", "p chlor", 20);
+    }
+
+    /** Typed device code: selective. */
+    @Benchmark
+    public List<DeviceSearchHitDto> deviceCode() {
+        return index.search("ULL", "pu-1234", 20);
+    }
+
+    /** Single-character prefix: the widest range of dictionary terms. */
+    @Benchmark
+    public List<DeviceSearchHitDto> oneCharacter() {
+        return index.search("ULL", "b", 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DeviceSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
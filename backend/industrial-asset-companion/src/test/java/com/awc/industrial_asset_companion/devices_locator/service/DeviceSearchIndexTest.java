@@ -0,0 +1,131 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceSearchHitDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceSearchRow;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceTagRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DeviceSearchIndexTest {
+
+    private DeviceRepository repo;
+    private DeviceSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(DeviceRepository.class);
+        index = new DeviceSearchIndex(repo);
+        when(repo.findSearchRowsByPlantId("ULL")).thenReturn(List.of(
+                row("PH-101", "ULL", "Raw water pH probe", "Analyzer"),
+                row("FLOW-701", "ULL", "Effluent flow meter", "Meter"),
+                row("PUMP-3", "ULL", "Phosphate dosing pump", "Pump")));
+        when(repo.findTagRowsByPlantId("ULL")).thenReturn(List.of(new DeviceTagRow("FLOW-701", "effluent")));
+    }
+
+    @Test
+    void tokensPrefixMatchFieldTermsAndTheSeparatorFreeWhole() {
+        assertEquals(List.of("PH-101"), ids(index.search("ULL", "ph-1", 10)));
+        assertEquals(List.of("PH-101"), ids(index.search("ULL", "ph10", 10)));
+        assertEquals(List.of("FLOW-701"), ids(index.search("ULL", "701", 10)));
+    }
+
+    @Test
+    void everyTokenMustMatchAndExactIdOutranksPrefixes() {
+        // "ph" is an exact id term of PH-101 and only a prefix of "phosphate"
+        assertEquals(List.of("PH-101", "PUMP-3"), ids(index.search("ULL", "ph", 10)));
+        assertEquals(List.of("PUMP-3"), ids(index.search("ULL", "ph pump", 10)));
+        assertEquals(List.of(), ids(index.search("ULL", "ph nothing", 10)));
+        assertEquals(1, index.search("ULL", "ph", 1).size());
+    }
+
+    @Test
+    void tagsAreSearchable() {
+        assertEquals(List.of("FLOW-701"), ids(index.search("ULL", "effl", 10)));
+    }
+
+    @Test
+    void deviceEventsPatchTheLoadedPlant() {
+        index.search("ULL", "ph", 10);
+        when(repo.findSearchRowById("PUMP-9")).thenReturn(Optional.of(row("PUMP-9", "ULL", "Backwash pump", "Pump")));
+        when(repo.findTagRowsByDeviceId("PUMP-9")).thenReturn(List.of());
+
+        index.onDeviceChanged(DeviceChangedEvent.upserted("ULL", "PUMP-9", List.of()));
+        index.onDeviceChanged(DeviceChangedEvent.removed("ULL", "PUMP-3"));
+
+        assertEquals(List.of("PUMP-9"), ids(index.search("ULL", "pump", 10)));
+        verify(repo, times(1)).findSearchRowsByPlantId("ULL");
+    }
+
+    @Test
+    void deviceMovedToAnotherPlantLeavesThisOne() {
+        index.search("ULL", "ph", 10);
+        when(repo.findSearchRowById("PH-101")).thenReturn(Optional.of(row("PH-101", "DAV", "Raw water pH probe", "Analyzer")));
+
+        index.onDeviceChanged(DeviceChangedEvent.upserted("ULL", "PH-101", List.of()));
+
+        assertEquals(List.of("PUMP-3"), ids(index.search("ULL", "ph", 10)));
+    }
+
+    @Test
+    void wholePlantChangeReloads() {
+        index.search("ULL", "ph", 10);
+        index.onDeviceChanged(DeviceChangedEvent.plantChanged("ULL"));
+        index.search("ULL", "ph", 10);
+
+        verify(repo, times(2)).findSearchRowsByPlantId("ULL");
+    }
+
+    @Test
+    void changeDuringALoadIsNotLost() {
+        // the event lands while the plant is loading: the loaded copy may predate it, so it is not kept
+        when(repo.findSearchRowsByPlantId("ULL")).thenAnswer(inv -> {
+            index.onDeviceChanged(DeviceChangedEvent.removed("ULL", "PUMP-3"));
+            return List.of(row("PUMP-3", "ULL", "Phosphate dosing pump", "Pump"));
+        }).thenReturn(List.of());
+
+        assertEquals(List.of("PUMP-3"), ids(index.search("ULL", "pump", 10)));
+        assertEquals(List.of(), ids(index.search("ULL", "pump", 10)));
+        verify(repo, times(2)).findSearchRowsByPlantId("ULL");
+    }
+
+    @Test
+    void eventsDoNotWaitForALoadInProgress() throws Exception {
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(repo.findSearchRowsByPlantId("ULL")).thenAnswer(inv -> {
+            loading.countDown();
+            release.await();
+            return List.of();
+        });
+        var search = CompletableFuture.runAsync(() -> index.search("ULL", "ph", 10));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // neither an event for the loading plant nor a search of another plant blocks on it
+        CompletableFuture.runAsync(() -> index.onDeviceChanged(DeviceChangedEvent.removed("ULL", "PH-101")))
+                .get(5, TimeUnit.SECONDS);
+        CompletableFuture.runAsync(() -> index.search("DAV", "ph", 10)).get(5, TimeUnit.SECONDS);
+
+        release.countDown();
+        search.get(5, TimeUnit.SECONDS);
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static DeviceSearchRow row(String id, String plantId, String name, String type) {
+        return new DeviceSearchRow(id, plantId, type, name, null, null, null, null, null, null, null, null, null);
+    }
+
+    private static List<String> ids(List<DeviceSearchHitDto> hits) {
+        return hits.stream().map(DeviceSearchHitDto::id).toList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.TagFacetDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceTagRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DeviceTagIndexTest {
+
+    private DeviceRepository repo;
+    private DeviceTagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(DeviceRepository.class);
+        index = new DeviceTagIndex(repo);
+        when(repo.findTagRowsByPlantId("ULL")).thenReturn(List.of(
+                new DeviceTagRow("P-1", "Critical"), new DeviceTagRow("P-1", " pump "),
+                new DeviceTagRow("P-2", "pump"), new DeviceTagRow("P-2", "PUMP"),
+                new DeviceTagRow("V-1", "critical")));
+    }
+
+    @Test
+    void matchesDevicesCarryingAllTagsIgnoringCaseAndBlanks() {
+        assertEquals(List.of("P-1", "P-2"), index.deviceIds("ULL", List.of("Pump")));
+        assertEquals(List.of("P-1"), index.deviceIds("ULL", List.of("pump", " CRITICAL ")));
+        assertEquals(List.of(), index.deviceIds("ULL", List.of("pump", "spare")));
+        assertEquals(List.of(), index.deviceIds("ULL", List.of(" ")));
+    }
+
+    @Test
+    void facetsCountDevicesMostUsedFirst() {
+        assertEquals(List.of(new TagFacetDto("critical", 2), new TagFacetDto("pump", 2)), index.facets("ULL"));
+    }
+
+    @Test
+    void deviceEventsPatchTheLoadedPlant() {
+        index.facets("ULL");
+
+        index.onDeviceChanged(DeviceChangedEvent.upserted("ULL", "V-1", List.of("Spare")));
+        index.onDeviceChanged(DeviceChangedEvent.removed("ULL", "P-2"));
+
+        assertEquals(List.of(new TagFacetDto("critical", 1), new TagFacetDto("pump", 1), new TagFacetDto("spare", 1)),
+                index.facets("ULL"));
+        verify(repo, times(1)).findTagRowsByPlantId("ULL");
+    }
+
+    @Test
+    void eventForAPlantNotLoadedLoadsNothing() {
+        index.onDeviceChanged(DeviceChangedEvent.upserted("ULL", "V-1", List.of("spare")));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void changeDuringALoadIsNotLost() {
+        when(repo.findTagRowsByPlantId("ULL")).thenAnswer(inv -> {
+            index.onDeviceChanged(DeviceChangedEvent.removed("ULL", "V-1"));
+            return List.of(new DeviceTagRow("V-1", "critical"));
+        }).thenReturn(List.of());
+
+        assertEquals(List.of("V-1"), index.deviceIds("ULL", List.of("critical")));
+        assertEquals(List.of(), index.deviceIds("ULL", List.of("critical")));
+    }
+
+    @Test
+    void wholePlantChangeReloads() {
+        index.facets("ULL");
+        index.onDeviceChanged(DeviceChangedEvent.plantChanged("ULL"));
+        index.facets("ULL");
+
+        verify(repo, times(2)).findTagRowsByPlantId("ULL");
+    }
+}
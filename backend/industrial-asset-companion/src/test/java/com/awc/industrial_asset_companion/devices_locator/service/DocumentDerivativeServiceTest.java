@@ -0,0 +1,145 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentDerivativeServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private SimpleMeterRegistry metrics;
+    private BlobStore blobs;
+    private DocumentDerivativeService derivatives;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new SimpleMeterRegistry();
+        blobs = new BlobStore(dir.toString(), 64 << 20);
+        derivatives = new DocumentDerivativeService(blobs, metrics, 2, 16, 20_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        derivatives.shutdown();
+    }
+
+    @Test
+    void photosBecomeJpegsFittedToTheVariantEdge() throws Exception {
+        String key = store(png(2000, 1000));
+
+        Path thumb = derivatives.get(key, "image/png", DocumentVariant.THUMB);
+        Path preview = derivatives.get(key, "image/png", DocumentVariant.PREVIEW);
+
+        assertTrue(thumb.getFileName().toString().endsWith(".thumb.jpg"));
+        BufferedImage t = ImageIO.read(thumb.toFile());
+        assertEquals(256, t.getWidth());
+        assertEquals(128, t.getHeight());
+        assertEquals(1600, ImageIO.read(preview.toFile()).getWidth());
+        assertEquals("image/jpeg", DocumentDerivativeService.mimeOf("image/png"));
+    }
+
+    @Test
+    void smallPhotosAreNotUpscaled() throws Exception {
+        String key = store(png(100, 40));
+
+        BufferedImage t = ImageIO.read(derivatives.get(key, "image/png", DocumentVariant.THUMB).toFile());
+        assertEquals(100, t.getWidth());
+        assertEquals(40, t.getHeight());
+    }
+
+    @Test
+    void pdfsRenderTheirFirstPageAsPng() throws Exception {
+        String key = store(pdf(2));
+
+        Path thumb = derivatives.get(key, "application/pdf", DocumentVariant.THUMB);
+
+        assertTrue(thumb.getFileName().toString().endsWith(".thumb.png"));
+        BufferedImage t = ImageIO.read(thumb.toFile());
+        assertEquals(256, Math.max(t.getWidth(), t.getHeight()), 1);
+        assertEquals("image/png", DocumentDerivativeService.mimeOf("application/pdf"));
+    }
+
+    @Test
+    void derivedFilesAreReusedAndTimed() throws Exception {
+        String key = store(png(300, 300));
+
+        Path first = derivatives.get(key, "image/png", DocumentVariant.THUMB);
+        Path second = derivatives.get(key, "image/png", DocumentVariant.THUMB);
+
+        assertEquals(first, second);
+        assertEquals(1, metrics.get("documents.derivatives").tag("variant", "thumb").timer().count());
+    }
+
+    @Test
+    void unsupportedAndCorruptDocumentsHaveNoVariant() throws Exception {
+        String sheet = store(new byte[]{1, 2, 3});
+        String broken = store("not really a png".getBytes());
+
+        assertNull(derivatives.get(sheet, "application/vnd.ms-excel", DocumentVariant.THUMB));
+        assertNull(derivatives.get(broken, "image/png", DocumentVariant.THUMB));
+        assertNull(derivatives.get(broken, "image/png", DocumentVariant.THUMB));   // remembered, not retried
+        assertEquals(0, metrics.find("documents.derivatives").timers().size());
+    }
+
+    @Test
+    void scheduleDerivesEveryVariantInTheBackground() throws Exception {
+        String key = store(png(800, 600));
+
+        derivatives.schedule(key, "image/jpeg; charset=binary");
+
+        for (int i = 0; i < 500 && (blobs.derived(key, "thumb.jpg") == null || blobs.derived(key, "preview.jpg") == null); i++) {
+            Thread.sleep(10);
+        }
+        assertNotNull(blobs.derived(key, "thumb.jpg"));
+        assertNotNull(blobs.derived(key, "preview.jpg"));
+    }
+
+    @Test
+    void variantNamesAndMimeTypes() {
+        assertEquals(DocumentVariant.PREVIEW, DocumentVariant.parse("Preview"));
+        assertNull(DocumentVariant.parse("poster"));
+        assertEquals(List.of(DocumentVariant.THUMB, DocumentVariant.PREVIEW), DocumentVariant.forMime("IMAGE/GIF"));
+        assertEquals(List.of(), DocumentVariant.forMime("text/html"));
+        assertEquals(List.of(), DocumentVariant.forMime(null));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private String store(byte[] body) throws Exception {
+        return blobs.put(new ByteArrayInputStream(body)).key();
+    }
+
+    private static byte[] png(int w, int h) throws Exception {
+        var img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < h; y++) for (int x = 0; x < w; x++) img.setRGB(x, y, (x * 7 + y * 13) & 0xFFFFFF);
+        var out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] pdf(int pages) throws Exception {
+        try (var doc = new PDDocument()) {
+            for (int i = 0; i < pages; i++) doc.addPage(new PDPage(PDRectangle.A4));
+            var out = new ByteArrayOutputStream();
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.FloorplanPointDto;
+import com.awc.industrial_asset_companion.devices_locator.dto.RouteQueryDto.Point;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceLocationRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DevicePointRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/** Quadtree queries checked against brute force, plus the degenerate layers and cache invalidation. */
+class FloorplanIndexTest {
+
+    private static final UUID LAYER = UUID.randomUUID();
+
+    private DeviceLocationRepository repo;
+    private FloorplanIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(DeviceLocationRepository.class);
+        index = new FloorplanIndex(repo);
+    }
+
+    @Test
+    void viewportMatchesBruteForce() {
+        List<DevicePointRow> rows = scattered(2_000, 7);
+        given(rows);
+        var rnd = new Random(11);
+        for (int q = 0; q < 200; q++) {
+            double x1 = rnd.nextDouble() * 1000, y1 = rnd.nextDouble() * 1000;
+            double x2 = x1 + (rnd.nextDouble() - 0.5) * 400, y2 = y1 + (rnd.nextDouble() - 0.5) * 400;   // corners in any order
+
+            Set<String> expected = rows.stream()
+                    .filter(r -> between(r.x(), x1, x2) && between(r.y(), y1, y2))
+                    .map(DevicePointRow::deviceId).collect(Collectors.toCollection(TreeSet::new));
+
+            assertEquals(expected, ids(index.within(LAYER, x1, y1, x2, y2, FloorplanIndex.MAX_RESULTS)));
+        }
+        verify(repo, times(1)).findPointsByLayerId(LAYER);
+    }
+
+    @Test
+    void viewportStopsAtTheLimit() {
+        given(scattered(500, 3));
+        assertEquals(25, index.within(LAYER, 0, 0, 1000, 1000, 25).size());
+        assertEquals(1, index.within(LAYER, 0, 0, 1000, 1000, 0).size());   // clamped to at least one
+    }
+
+    @Test
+    void nearestMatchesBruteForceOrder() {
+        List<DevicePointRow> rows = scattered(2_000, 5);
+        given(rows);
+        var rnd = new Random(13);
+        for (int q = 0; q < 100; q++) {
+            double x = rnd.nextDouble() * 1000, y = rnd.nextDouble() * 1000;
+
+            List<Double> expected = rows.stream().map(r -> Math.hypot(r.x() - x, r.y() - y)).sorted().limit(10).toList();
+            List<Double> actual = index.nearest(LAYER, x, y, 10, 0).stream().map(FloorplanPointDto::distance).toList();
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) assertEquals(expected.get(i), actual.get(i), 1e-9);
+        }
+    }
+
+    @Test
+    void nearestStopsAtMaxDistance() {
+        given(List.of(point("A", 0, 0), point("B", 3, 4), point("C", 6, 8)));
+
+        assertEquals(List.of("A", "B"), order(index.nearest(LAYER, 0, 0, 10, 5)));       // B at exactly 5 is in
+        assertEquals(List.of("A"), order(index.nearest(LAYER, 0, 0, 10, 4.99)));
+        assertEquals(List.of("A", "B", "C"), order(index.nearest(LAYER, 0, 0, 10, 0)));   // <= 0: unbounded
+        assertEquals(List.of("A", "B"), order(index.nearest(LAYER, 0, 0, 2, 0)));
+    }
+
+    @Test
+    void duplicatePointsAreAllReturned() {
+        List<DevicePointRow> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) rows.add(point("D" + i, 5, 5));
+        rows.add(point("far", 50, 50));
+        given(rows);
+
+        assertEquals(100, index.within(LAYER, 0, 0, 10, 10, 1000).size());
+        assertEquals(100, index.nearest(LAYER, 5, 5, 100, 1).size());
+        assertEquals("far", index.nearest(LAYER, 60, 60, 1, 0).get(0).id());
+    }
+
+    @Test
+    void deepClustersStopSplittingAtMaxDepth() {
+        // each halving separates one point, so without MAX_DEPTH the tree would be ~80 levels deep
+        List<DevicePointRow> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) rows.add(point("P" + i, Math.scalb(1.0, -i), 0));
+        given(rows);
+
+        assertEquals(100, index.within(LAYER, 0, 0, 1, 0, 1000).size());
+        assertEquals(List.of("P99", "P98", "P97"), order(index.nearest(LAYER, 0, 0, 3, 0)));
+        assertEquals(2, index.within(LAYER, 0.5, 0, 1, 0, 1000).size());
+    }
+
+    @Test
+    void emptyLayerAnswersEmpty() {
+        given(List.of());
+
+        assertEquals(List.of(), index.within(LAYER, 0, 0, 10, 10, 100));
+        assertEquals(List.of(), index.nearest(LAYER, 0, 0, 5, 0));
+        assertEquals(List.of(), index.alongRoute(LAYER, List.of(new Point(0, 0), new Point(10, 0)), 5, 100));
+    }
+
+    @Test
+    void alongRouteIsInWalkOrderWithEachDeviceOnceAtItsClosestSegment() {
+        given(List.of(point("start", 1, 1), point("corner", 11, -1), point("end", 9, 10), point("off", 5, 5)));
+        List<Point> route = List.of(new Point(0, 0), new Point(10, 0), new Point(10, 10));
+
+        List<FloorplanPointDto> hits = index.alongRoute(LAYER, route, 2, 100);
+
+        assertEquals(List.of("start", "corner", "end"), order(hits));
+        assertEquals(1, hits.get(0).along(), 1e-9);
+        assertEquals(1, hits.get(0).distance(), 1e-9);
+        // the corner is sqrt(2) from the vertex on both segments: reported once, where the walk reaches it first
+        assertEquals(10, hits.get(1).along(), 1e-9);
+        assertEquals(Math.sqrt(2), hits.get(1).distance(), 1e-9);
+        assertEquals(20, hits.get(2).along(), 1e-9);
+        assertEquals(2, index.alongRoute(LAYER, route, 2, 2).size());
+    }
+
+    @Test
+    void zeroLengthSegmentsActAsCircles() {
+        given(List.of(point("in", 1, 1), point("out", 3, 3)));
+
+        assertEquals(List.of("in"), order(index.alongRoute(LAYER, List.of(new Point(0, 0)), 2, 100)));
+        assertEquals(List.of("in"), order(index.alongRoute(LAYER, List.of(new Point(0, 0), new Point(0, 0)), 2, 100)));
+        assertEquals(List.of(), index.alongRoute(LAYER, List.of(), 2, 100));
+    }
+
+    @Test
+    void deviceEventsDropTheLayersShowingTheDevice() {
+        given(List.of(point("A", 0, 0)));
+        index.within(LAYER, 0, 0, 1, 1, 10);
+
+        index.onDeviceChanged(DeviceChangedEvent.upserted("ULL", "not-on-this-layer", List.of()));
+        index.within(LAYER, 0, 0, 1, 1, 10);
+        verify(repo, times(1)).findPointsByLayerId(LAYER);
+
+        index.onDeviceChanged(DeviceChangedEvent.removed("ULL", "A"));
+        index.within(LAYER, 0, 0, 1, 1, 10);
+        index.onDeviceChanged(DeviceChangedEvent.plantChanged("ULL"));
+        index.within(LAYER, 0, 0, 1, 1, 10);
+        verify(repo, times(3)).findPointsByLayerId(LAYER);
+    }
+
+    @Test
+    void evictionDuringABuildIsNotLost() {
+        when(repo.findPointsByLayerId(LAYER)).thenAnswer(inv -> {
+            index.evict(LAYER);   // a location write committed while the layer was loading
+            return List.of(point("old", 0, 0));
+        }).thenReturn(List.of(point("new", 0, 0)));
+
+        assertEquals(List.of("old"), order(index.within(LAYER, 0, 0, 1, 1, 10)));
+        assertEquals(List.of("new"), order(index.within(LAYER, 0, 0, 1, 1, 10)));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private void given(List<DevicePointRow> rows) {
+        when(repo.findPointsByLayerId(LAYER)).thenReturn(rows);
+    }
+
+    private static List<DevicePointRow> scattered(int n, long seed) {
+        var rnd = new Random(seed);
+        List<DevicePointRow> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            // a dense cluster plus uniform noise, coordinates rounded so some points coincide
+            boolean cluster = i % 3 == 0;
+            double x = cluster ? 200 + rnd.nextGaussian() * 5 : rnd.nextDouble() * 1000;
+            double y = cluster ? 300 + rnd.nextGaussian() * 5 : rnd.nextDouble() * 1000;
+            rows.add(point("D" + i, Math.round(x * 10) / 10.0, Math.round(y * 10) / 10.0));
+        }
+        return rows;
+    }
+
+    private static DevicePointRow point(String id, double x, double y) {
+        return new DevicePointRow(id, "ULL", id, "Pump", "Raw water", x, y);
+    }
+
+    private static boolean between(double v, double a, double b) {
+        return Math.min(a, b) <= v && v <= Math.max(a, b);
+    }
+
+    private static Set<String> ids(List<FloorplanPointDto> hits) {
+        return hits.stream().map(FloorplanPointDto::id).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static List<String> order(List<FloorplanPointDto> hits) {
+        return hits.stream().map(FloorplanPointDto::id).toList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.PlantCountsDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.AreaRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.PlantCountRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PlantCountersTest {
+
+    private DeviceRepository devices;
+    private AreaRepository areas;
+    private PlantCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        devices = mock(DeviceRepository.class);
+        areas = mock(AreaRepository.class);
+        when(devices.countGroupedByPlant()).thenReturn(List.of(new PlantCountRow("ULL", 120L), new PlantCountRow("DAV", 4L)));
+        when(areas.countGroupedByPlant()).thenReturn(List.of(new PlantCountRow("ULL", 9L)));
+        when(devices.countDocumentsGroupedByPlant()).thenReturn(List.of(new PlantCountRow("ULL", 30L)));
+        counters = new PlantCounters(devices, areas);
+    }
+
+    @Test
+    void firstReadFillsEveryPlantWithThreeGroupedQueries() {
+        assertEquals(new PlantCountsDto(120, 9, 30), counters.get("ULL"));
+        assertEquals(new PlantCountsDto(4, 0, 0), counters.get("DAV"));
+        counters.get("ULL");
+
+        verify(devices, times(1)).countGroupedByPlant();
+        verify(areas, times(1)).countGroupedByPlant();
+        verify(devices, times(1)).countDocumentsGroupedByPlant();
+        verify(devices, never()).countByPlantId(anyString());
+    }
+
+    @Test
+    void plantsWithoutRowsAreCountedAloneOnce() {
+        counters.get("ULL");
+
+        assertEquals(PlantCountsDto.EMPTY, counters.get("EMPTY"));
+        counters.get("EMPTY");
+        verify(devices, times(1)).countByPlantId("EMPTY");
+    }
+
+    @Test
+    void aDeviceChangeRecountsOnlyItsPlant() {
+        counters.get("ULL");
+        when(devices.countByPlantId("ULL")).thenReturn(121L);
+        when(areas.countByPlantId("ULL")).thenReturn(9L);
+        when(devices.countDocumentsByPlantId("ULL")).thenReturn(30L);
+
+        counters.onDeviceChanged(DeviceChangedEvent.upserted("ULL", "PH-9", List.of()));
+
+        assertEquals(new PlantCountsDto(121, 9, 30), counters.get("ULL"));
+        assertEquals(new PlantCountsDto(4, 0, 0), counters.get("DAV"));
+        verify(devices, never()).countByPlantId("DAV");
+        verify(devices, times(1)).countGroupedByPlant();
+    }
+
+    @Test
+    void aWriteRacingTheBulkReadLeavesEveryPlantToItsOwnCount() {
+        when(devices.countGroupedByPlant()).thenAnswer(inv -> {
+            counters.evict("ULL");
+            return List.of(new PlantCountRow("ULL", 120L));
+        });
+        when(devices.countByPlantId("ULL")).thenReturn(121L);
+
+        assertEquals(121, counters.get("ULL").devices());
+        verify(devices).countByPlantId("ULL");
+    }
+}
@@ -0,0 +1,104 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.PlantOptionDto;
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import com.awc.industrial_asset_companion.devices_locator.repositories.PlantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PlantDirectoryTest {
+
+    private PlantRepository repo;
+    private PlantDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(PlantRepository.class);
+        when(repo.findAll()).thenReturn(List.of(plant("ULL", "Ullrich WTP"), plant("DAV", "davis  lift"), plant("AAA", null)));
+        directory = new PlantDirectory(repo);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void lookupsComeFromOneLoad() {
+        assertTrue(directory.exists("ULL"));
+        assertFalse(directory.exists("ull"));
+        assertFalse(directory.exists(null));
+        assertEquals("Ullrich WTP", directory.find("ULL").orElseThrow().getName());
+        assertTrue(directory.find(null).isEmpty());
+        assertEquals("DAV", directory.findByName(" Davis lift ").orElseThrow().getId());
+        assertTrue(directory.findByName("  ").isEmpty());
+        verify(repo, times(1)).findAll();
+    }
+
+    @Test
+    void listsAreSortedByNameIgnoringCase() {
+        assertEquals(List.of("AAA", "DAV", "ULL"), directory.all().stream().map(Plant::getId).toList());
+        assertEquals(List.of(new PlantOptionDto("DAV", "davis  lift")), directory.options(" LIFT"));
+        assertEquals(List.of(new PlantOptionDto("ULL", "Ullrich WTP")), directory.options("ull"));
+        assertEquals(3, directory.options(null).size());
+    }
+
+    @Test
+    void handedOutPlantsAreCopiesNotTheEntities() {
+        Plant entity = plant("NEW", "New plant");
+        directory.all();
+        directory.putAfterCommit(entity);
+        entity.setName("changed after save");
+
+        assertEquals("New plant", directory.find("NEW").orElseThrow().getName());
+    }
+
+    @Test
+    void writesApplyOnlyAfterCommit() {
+        directory.all();
+        TransactionSynchronizationManager.initSynchronization();
+
+        directory.putAfterCommit(plant("ULL", "Ullrich Water Plant"));
+        directory.removeAfterCommit("DAV");
+        assertEquals("Ullrich WTP", directory.find("ULL").orElseThrow().getName());
+        assertTrue(directory.exists("DAV"));
+
+        commit();
+        assertEquals("Ullrich Water Plant", directory.find("ULL").orElseThrow().getName());
+        assertTrue(directory.findByName("ullrich water plant").isPresent());
+        assertTrue(directory.findByName("Ullrich WTP").isEmpty());
+        assertFalse(directory.exists("DAV"));
+    }
+
+    @Test
+    void aWriteRacingTheFirstLoadMakesItReload() {
+        when(repo.findAll()).thenAnswer(inv -> {
+            directory.removeAfterCommit("DAV");   // committed while the table was being read
+            return List.of(plant("ULL", "Ullrich WTP"), plant("DAV", "Davis"));
+        }).thenReturn(List.of(plant("ULL", "Ullrich WTP")));
+
+        assertFalse(directory.exists("DAV"));
+        verify(repo, times(2)).findAll();
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static Plant plant(String id, String name) {
+        return Plant.builder().id(id).name(name).kind("Water").isActive(true).build();
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> syncs = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+        syncs.forEach(TransactionSynchronization::afterCommit);
+    }
+}
@@ -0,0 +1,94 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.AreaDto;
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceListItemDto;
+import com.awc.industrial_asset_companion.devices_locator.entity.Area;
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import com.awc.industrial_asset_companion.devices_locator.repositories.AreaRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PlantTreeCacheTest {
+
+    private static final UUID GALLERY = UUID.randomUUID();
+
+    private final ObjectMapper json = new ObjectMapper();
+    private AreaRepository areaRepo;
+    private DeviceCrudService devices;
+    private PlantTreeCache cache;
+
+    @BeforeEach
+    void setUp() {
+        PlantDirectory plants = mock(PlantDirectory.class);
+        when(plants.find(anyString())).thenReturn(Optional.empty());
+        when(plants.find("ULL")).thenReturn(Optional.of(Plant.builder().id("ULL").name("Ullrich").kind("Water").isActive(true).build()));
+        areaRepo = mock(AreaRepository.class);
+        when(areaRepo.findByPlantId("ULL")).thenReturn(List.of(Area.builder().id(GALLERY).plantId("ULL").name("Filter Gallery").level("L1").build()));
+        devices = mock(DeviceCrudService.class);
+        when(devices.listByPlant("ULL")).thenReturn(List.of(
+                device("PH-101", GALLERY.toString()), device("FLOW-701", null), device("P-9", UUID.randomUUID().toString())));
+        cache = new PlantTreeCache(plants, areaRepo, devices, json, 2);
+    }
+
+    @Test
+    void devicesAreNestedUnderTheirAreaOrUnassigned() throws Exception {
+        JsonNode tree = json.readTree(cache.tree("ULL").orElseThrow().json());
+
+        assertEquals("Ullrich", tree.get("name").asText());
+        assertEquals(3, tree.get("deviceCount").asInt());
+        JsonNode area = tree.get("areas").get(0);
+        assertEquals("Filter Gallery", area.get("name").asText());
+        assertEquals("PH-101", area.get("devices").get(0).get("id").asText());
+        // no area, or an area of another plant
+        assertEquals(2, tree.get("unassigned").size());
+    }
+
+    @Test
+    void unknownPlantHasNoTree() {
+        assertTrue(cache.tree("NOPE").isEmpty());
+        verifyNoInteractions(devices);
+    }
+
+    @Test
+    void repeatsAreServedFromTheCacheUntilADeviceChanges() {
+        var first = cache.tree("ULL").orElseThrow();
+        assertSame(first, cache.tree("ULL").orElseThrow());
+
+        cache.onDeviceChanged(DeviceChangedEvent.removed("ULL", "P-9"));
+        var rebuilt = cache.tree("ULL").orElseThrow();
+
+        assertNotSame(first, rebuilt);
+        assertEquals(first.etag(), rebuilt.etag());   // same content, same ETag
+        verify(devices, times(2)).listByPlant("ULL");
+    }
+
+    @Test
+    void buildThatRacedAnEvictionIsNotKept() {
+        when(areaRepo.findByPlantId("ULL")).thenAnswer(inv -> {
+            cache.evict("ULL");
+            return List.of();
+        }).thenReturn(List.of());
+
+        cache.tree("ULL");
+        cache.tree("ULL");
+
+        verify(devices, times(2)).listByPlant("ULL");
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static DeviceListItemDto device(String id, String areaId) {
+        return DeviceListItemDto.builder().id(id).plantId("ULL").name(id)
+                .area(areaId == null ? null : new AreaDto(areaId, "Area", "L1")).build();
+    }
+}
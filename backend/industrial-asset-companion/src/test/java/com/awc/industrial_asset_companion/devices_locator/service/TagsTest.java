@@ -0,0 +1,24 @@
+package com.awc.industrial_asset_companion.devices_locator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagsTest {
+
+    @Test
+    void trimsLowerCasesAndDropsBlanks() {
+        assertEquals("pump", Tags.normalize("  PUMP "));
+        assertNull(Tags.normalize("   "));
+        assertNull(Tags.normalize((String) null));
+    }
+
+    @Test
+    void collapsesDuplicatesKeepingFirstOrder() {
+        assertEquals(List.of("spare", "pump"), Tags.normalize(Arrays.asList("Spare", "pump", null, " SPARE", "", "Pump")));
+        assertEquals(List.of(), Tags.normalize((List<String>) null));
+    }
+}
@@ -0,0 +1,235 @@
+package com.awc.industrial_asset_companion.devices_locator.service.impl;
+
+import com.awc.industrial_asset_companion.devices_locator.dto.BulkTagDto;
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceListItemDto;
+import com.awc.industrial_asset_companion.devices_locator.dto.DevicePageDto;
+import com.awc.industrial_asset_companion.devices_locator.entity.Device;
+import com.awc.industrial_asset_companion.devices_locator.entity.DeviceLocation;
+import com.awc.industrial_asset_companion.devices_locator.repositories.AreaRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceLocationRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceDocRow;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceListRow;
+import com.awc.industrial_asset_companion.devices_locator.repositories.projection.DeviceTagRow;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceChangedEvent;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceSearchIndex;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceTagIndex;
+import com.awc.industrial_asset_companion.devices_locator.service.FloorplanIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DeviceCrudServiceImplTest {
+
+    private static final UUID LAYER = UUID.randomUUID();
+    private static final UUID AREA = UUID.randomUUID();
+    private static final UUID DOC = UUID.randomUUID();
+
+    private DeviceRepository deviceRepo;
+    private DeviceLocationRepository locationRepo;
+    private FloorplanIndex floorplan;
+    private ApplicationEventPublisher events;
+    private DeviceCrudServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepo = mock(DeviceRepository.class);
+        locationRepo = mock(DeviceLocationRepository.class);
+        floorplan = mock(FloorplanIndex.class);
+        events = mock(ApplicationEventPublisher.class);
+        service = new DeviceCrudServiceImpl(deviceRepo, mock(AreaRepository.class), locationRepo,
+                mock(DeviceTagIndex.class), mock(DeviceSearchIndex.class), floorplan, events);
+    }
+
+    @Test
+    void deleteDropsTheFloorLayerAndPublishesOnlyTheRemoval() {
+        Device dev = Device.builder().id("PH-101").plantId("ULL").build();
+        DeviceLocation loc = DeviceLocation.builder().device(dev).layerId(LAYER).build();
+        when(locationRepo.findById("PH-101")).thenReturn(Optional.of(loc));
+        when(deviceRepo.findById("PH-101")).thenReturn(Optional.of(dev));
+
+        service.delete("PH-101");
+
+        verify(locationRepo).delete(loc);
+        verify(floorplan).evictAfterCommit(LAYER);
+        verify(deviceRepo).delete(dev);
+        verify(events).publishEvent(DeviceChangedEvent.removed("ULL", "PH-101"));
+        verifyNoMoreInteractions(events);
+        verify(deviceRepo, never()).findPlantIdById(any());
+        verify(deviceRepo, never()).findTagRowsByDeviceId(any());
+    }
+
+    @Test
+    void deleteOfAnUnplacedDeviceTouchesNoLayer() {
+        Device dev = Device.builder().id("PH-101").plantId("ULL").build();
+        when(deviceRepo.findById("PH-101")).thenReturn(Optional.of(dev));
+
+        service.delete("PH-101");
+
+        verifyNoInteractions(floorplan);
+        verify(events).publishEvent(DeviceChangedEvent.removed("ULL", "PH-101"));
+    }
+
+    @Test
+    void clearingALocationRefreshesPlantViewsWithTheCurrentTags() {
+        Device dev = Device.builder().id("PH-101").plantId("ULL").build();
+        when(locationRepo.findById("PH-101")).thenReturn(Optional.of(DeviceLocation.builder().device(dev).layerId(LAYER).build()));
+        when(deviceRepo.findPlantIdById("PH-101")).thenReturn(Optional.of("ULL"));
+        when(deviceRepo.findTagRowsByDeviceId("PH-101")).thenReturn(List.of(new DeviceTagRow("PH-101", "critical")));
+
+        service.clearLocation("PH-101");
+
+        verify(floorplan).evictAfterCommit(LAYER);
+        verify(events).publishEvent(DeviceChangedEvent.upserted("ULL", "PH-101", List.of("critical")));
+    }
+
+    @Test
+    void plantListIsAssembledFromThreeQueries() {
+        when(deviceRepo.findListRowsByPlantId("ULL")).thenReturn(List.of(listRow("PH-101", AREA), listRow("FLOW-701", null)));
+        when(deviceRepo.findTagRowsByPlantId("ULL")).thenReturn(List.of(
+                new DeviceTagRow("PH-101", "critical"), new DeviceTagRow("PH-101", "lab"), new DeviceTagRow("FLOW-701", "effluent")));
+        when(deviceRepo.findDocRowsByPlantId("ULL")).thenReturn(List.of(new DeviceDocRow("PH-101", DOC, "manual", "Manual", "application/pdf")));
+
+        List<DeviceListItemDto> list = service.listByPlant("ULL");
+
+        assertEquals(List.of("PH-101", "FLOW-701"), list.stream().map(DeviceListItemDto::getId).toList());
+        DeviceListItemDto ph = list.get(0);
+        assertEquals(List.of("critical", "lab"), ph.getTags());
+        assertEquals(AREA.toString(), ph.getArea().getId());
+        assertEquals(LAYER.toString(), ph.getLoc().getLayerId());
+        assertNull(ph.getLoc().getPanel());   // blank columns come back as null
+        assertEquals(DOC.toString(), ph.getDocs().get(0).getId());
+        assertNotNull(ph.getDocs().get(0).getVariants());
+
+        DeviceListItemDto flow = list.get(1);
+        assertNull(flow.getArea());
+        assertEquals(List.of(), flow.getDocs());
+        verify(deviceRepo, never()).findTagRowsByDeviceId(any());
+        verify(deviceRepo, never()).findById(any());
+    }
+
+    @Test
+    void idListsAreQueriedInChunks() {
+        List<String> ids = IntStream.range(0, 2_500).mapToObj(i -> "D" + i).toList();
+        when(deviceRepo.findListRowsByIds(anyList())).thenAnswer(inv ->
+                inv.<List<String>>getArgument(0).stream().map(id -> listRow(id, null)).toList());
+
+        List<DeviceListItemDto> list = service.listByIds(ids);
+
+        assertEquals(ids, list.stream().map(DeviceListItemDto::getId).toList());
+        verify(deviceRepo, times(3)).findListRowsByIds(anyList());
+        verify(deviceRepo, times(3)).findTagRowsByDeviceIds(anyList());
+        verify(deviceRepo, times(3)).findDocRowsByDeviceIds(anyList());
+    }
+
+    @Test
+    void pagesFollowTheKeysetCursor() {
+        when(deviceRepo.findListRowsAfter(eq("ULL"), anyString(), any())).thenReturn(List.of(
+                listRow("A", null), listRow("B", null), listRow("C", null)));
+
+        DevicePageDto first = service.listPage("ULL", null, 2);
+
+        assertEquals(List.of("A", "B"), first.getItems().stream().map(DeviceListItemDto::getId).toList());
+        assertEquals("B", first.getNextCursor());
+        verify(deviceRepo).findListRowsAfter("ULL", "", PageRequest.of(0, 3));   // one extra row says "more"
+        verify(deviceRepo).findTagRowsByDeviceIds(List.of("A", "B"));
+
+        when(deviceRepo.findListRowsAfter("ULL", "B", PageRequest.of(0, 3))).thenReturn(List.of(listRow("C", null)));
+        DevicePageDto last = service.listPage("ULL", "B", 2);
+        assertEquals(1, last.getItems().size());
+        assertNull(last.getNextCursor());
+
+        service.listPage("ULL", "Z", 50_000);
+        verify(deviceRepo).findListRowsAfter("ULL", "Z", PageRequest.of(0, 1001));
+    }
+
+    @Test
+    void getOfAnUnknownDeviceIs404() {
+        when(deviceRepo.findListRowById("NOPE")).thenReturn(Optional.empty());
+
+        var ex = assertThrows(ResponseStatusException.class, () -> service.get("NOPE"));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    void replaceTagsWritesOnlyTheDifference() {
+        when(deviceRepo.findPlantIdById("PH-101")).thenReturn(Optional.of("ULL"));
+        // "Lab" predates normalization: it is kept as stored, and deleted by its stored form
+        when(deviceRepo.findTagRowsByDeviceId("PH-101"))
+                .thenReturn(List.of(new DeviceTagRow("PH-101", "critical"), new DeviceTagRow("PH-101", "Lab")))
+                .thenReturn(List.of(new DeviceTagRow("PH-101", "critical"), new DeviceTagRow("PH-101", "spare")));
+
+        List<String> now = service.replaceTags("PH-101", List.of(" Critical ", "spare", "SPARE", ""));
+
+        assertEquals(List.of("critical", "spare"), now);
+        verify(deviceRepo).deleteTag("PH-101", "Lab");
+        verify(deviceRepo).insertTag("PH-101", "spare");
+        verify(deviceRepo, never()).insertTag("PH-101", "critical");
+        verify(events).publishEvent(DeviceChangedEvent.upserted("ULL", "PH-101", now));
+    }
+
+    @Test
+    void addAndRemoveNormalizeAndUnknownDevicesAre404() {
+        when(deviceRepo.findPlantIdById("PH-101")).thenReturn(Optional.of("ULL"));
+
+        service.addTags("PH-101", List.of("Spare", " spare"));
+        service.removeTag("PH-101", " Critical");
+        service.removeTag("PH-101", "  ");
+
+        verify(deviceRepo, times(1)).insertTag("PH-101", "spare");
+        verify(deviceRepo, times(1)).deleteTag(any(), any());
+        verify(deviceRepo).deleteTag("PH-101", "critical");
+        var ex = assertThrows(ResponseStatusException.class, () -> service.addTags("NOPE", List.of("x")));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    void bulkTagOnIdsIsOneStatementPerChunkAndOneEventPerPlant() {
+        List<String> ids = IntStream.range(0, 1_500).mapToObj(i -> "D" + (i % 1_200)).toList();   // 1,200 distinct
+        when(deviceRepo.findPlantIdsByIds(anyList())).thenReturn(List.of("ULL", "DAV"));
+        when(deviceRepo.insertTagForDevices(eq("critical"), anyList())).thenAnswer(inv -> inv.<List<String>>getArgument(1).size());
+
+        int affected = service.bulkTag(BulkTagDto.builder().tag(" Critical").deviceIds(ids).build(), false);
+
+        assertEquals(1_200, affected);
+        verify(deviceRepo, times(2)).insertTagForDevices(eq("critical"), anyList());
+        verify(events).publishEvent(DeviceChangedEvent.plantChanged("ULL"));
+        verify(events).publishEvent(DeviceChangedEvent.plantChanged("DAV"));
+        verifyNoMoreInteractions(events);
+    }
+
+    @Test
+    void bulkTagOnAPlantSystemAndBadRequests() {
+        when(deviceRepo.deleteTagForPlant("spare", "ULL", "Filters")).thenReturn(7);
+
+        assertEquals(7, service.bulkTag(BulkTagDto.builder().tag("spare").plantId("ULL").system("Filters").build(), true));
+        verify(events).publishEvent(DeviceChangedEvent.plantChanged("ULL"));
+
+        var noTag = assertThrows(ResponseStatusException.class, () -> service.bulkTag(BulkTagDto.builder().tag(" ").plantId("ULL").build(), false));
+        var noTarget = assertThrows(ResponseStatusException.class, () -> service.bulkTag(BulkTagDto.builder().tag("spare").build(), false));
+        assertEquals(HttpStatus.BAD_REQUEST, noTag.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, noTarget.getStatusCode());
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static DeviceListRow listRow(String id, UUID area) {
+        return new DeviceListRow(id, "ULL", "Analyzer", id + " name", "Raw water", " ", "B1", "A1", null, "qr:" + id,
+                area, area == null ? null : "Filter hall", area == null ? null : "L1", LAYER, 1.0, 2.0);
+    }
+}
@@ -0,0 +1,68 @@
+package com.awc.industrial_asset_companion.devices_locator.service.impl;
+
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DeviceRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.PlantRepository;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantCounters;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantDirectory;
+import com.awc.industrial_asset_companion.devices_locator.service.PlantTreeCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PlantCrudServiceImplTest {
+
+    private PlantRepository plantRepo;
+    private DeviceRepository deviceRepo;
+    private PlantDirectory directory;
+    private PlantCounters counters;
+    private PlantCrudServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        plantRepo = mock(PlantRepository.class);
+        deviceRepo = mock(DeviceRepository.class);
+        directory = mock(PlantDirectory.class);
+        counters = mock(PlantCounters.class);
+        service = new PlantCrudServiceImpl(plantRepo, deviceRepo, directory, counters, mock(PlantTreeCache.class));
+        when(plantRepo.existsById("ULL")).thenReturn(true);
+    }
+
+    @Test
+    void plantWithDevicesIsNotDeleted() {
+        when(deviceRepo.existsByPlantId("ULL")).thenReturn(true);
+
+        var ex = assertThrows(ResponseStatusException.class, () -> service.delete("ULL"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verify(plantRepo, never()).deleteById(any());
+        verifyNoInteractions(directory, counters);
+    }
+
+    @Test
+    void emptyPlantIsDeletedAndDroppedFromTheCaches() {
+        service.delete("ULL");
+
+        verify(plantRepo).deleteById("ULL");
+        verify(directory).removeAfterCommit("ULL");
+        verify(counters).evict("ULL");
+    }
+
+    @Test
+    void countsOfAnUnknownPlantAre404() {
+        when(directory.find("NOPE")).thenReturn(Optional.empty());
+        when(directory.find("ULL")).thenReturn(Optional.of(Plant.builder().id("ULL").name("Ullrich").build()));
+
+        assertThrows(ResponseStatusException.class, () -> service.counts("NOPE"));
+        service.counts("ULL");
+        verify(counters).get("ULL");
+        verify(counters, never()).get("NOPE");
+    }
+}
@@ -0,0 +1,88 @@
+package com.awc.industrial_asset_companion.dr;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** The PNGs decode to exactly what was drawn, and stay smaller than the ImageIO output they replace. */
+class CompactQrRendererTest {
+
+    private static final String PAYLOAD = "geo:30.267153,-97.743057?q=30.267153,-97.743057(Riverside%20Lift%20Station)";
+
+    @Test
+    void png1BitDecodesToTheMatrix() throws Exception {
+        BitMatrix m = matrix(PAYLOAD, 301);   // width not a multiple of 8: exercises the row padding
+
+        BufferedImage img = decode(CompactQrRenderer.png1Bit(m));
+
+        assertEquals(m.getWidth(), img.getWidth());
+        assertEquals(m.getHeight(), img.getHeight());
+        for (int y = 0; y < m.getHeight(); y++) {
+            for (int x = 0; x < m.getWidth(); x++) {
+                assertEquals(m.get(x, y) ? 0x000000 : 0xFFFFFF, img.getRGB(x, y) & 0xFFFFFF, "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void pngGray8DecodesToTheRaster() throws Exception {
+        var label = CompactQrRenderer.label(matrix(PAYLOAD, 200), "Android (geo:)", matrix("maps://?q=x", 200), "iPhone", 20, 30);
+
+        BufferedImage img = decode(CompactQrRenderer.pngGray8(label));
+
+        assertEquals(label.width(), img.getWidth());
+        assertEquals(label.height(), img.getHeight());
+        for (int y = 0; y < label.height(); y++) {
+            for (int x = 0; x < label.width(); x++) {
+                assertEquals(label.pixels()[y * label.width() + x] & 0xFF, img.getRaster().getSample(x, y, 0), "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void compactPngsAreSmallerThanTheImageIoOutputTheyReplace() throws Exception {
+        BitMatrix m = matrix(PAYLOAD, 600);
+        var label = CompactQrRenderer.label(matrix(PAYLOAD, 500), "Android (geo:)", matrix(PAYLOAD, 500), "iPhone (maps://)", 40, 60);
+
+        assertTrue(CompactQrRenderer.png1Bit(m).length < write(MatrixToImageWriter.toBufferedImage(m)).length);
+        assertTrue(CompactQrRenderer.pngGray8(label).length < imageIoArgb(label).length);
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static BitMatrix matrix(String text, int sizePx) throws Exception {
+        return new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, sizePx, sizePx, Map.of(EncodeHintType.MARGIN, 1));
+    }
+
+    private static BufferedImage decode(byte[] png) throws Exception {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    private static byte[] imageIoArgb(CompactQrRenderer.GrayImage g) throws Exception {
+        var img = new BufferedImage(g.width(), g.height(), BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < g.height(); y++) {
+            for (int x = 0; x < g.width(); x++) {
+                int v = g.pixels()[y * g.width() + x] & 0xFF;
+                img.setRGB(x, y, 0xFF000000 | v << 16 | v << 8 | v);
+            }
+        }
+        return write(img);
+    }
+
+    private static byte[] write(BufferedImage img) throws Exception {
+        var out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,44 @@
+package com.awc.industrial_asset_companion.dr;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfLabelSheetWriterTest {
+
+    @Test
+    void grayPngPagesAreCopiedWithoutDecoding() throws Exception {
+        var gray = new CompactQrRenderer.GrayImage(new byte[]{0, (byte) 255, (byte) 255, 0}, 2, 2);
+        var out = new ByteArrayOutputStream();
+
+        try (var pdf = new PdfLabelSheetWriter(out, 300)) {
+            assertTrue(pdf.addPngPage(CompactQrRenderer.pngGray8(gray)));
+            assertTrue(pdf.addPngPage(CompactQrRenderer.pngGray8(gray)));
+        }
+
+        String text = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(text.startsWith("%PDF-"));
+        assertTrue(text.contains("/Count 2"));
+        assertTrue(text.contains("/Predictor 15"));
+        assertTrue(text.stripTrailing().endsWith("%%EOF"));
+    }
+
+    @Test
+    void otherPngFlavoursAreRefused() throws Exception {
+        var rgba = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB), "png", rgba);
+        var out = new ByteArrayOutputStream();
+
+        try (var pdf = new PdfLabelSheetWriter(out, 300)) {
+            assertFalse(pdf.addPngPage(rgba.toByteArray()));
+            assertFalse(pdf.addPngPage(new byte[]{1, 2, 3}));
+        }
+
+        assertTrue(out.toString(StandardCharsets.ISO_8859_1).contains("/Count 0"));
+    }
+}
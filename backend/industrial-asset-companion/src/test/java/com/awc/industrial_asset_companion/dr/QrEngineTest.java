@@ -0,0 +1,113 @@
+package com.awc.industrial_asset_companion.dr;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QrEngineTest {
+
+    private static final String PAYLOAD = "https://example.org/devices/PH-101";
+
+    @TempDir
+    Path dir;
+
+    private SimpleMeterRegistry metrics;
+    private QrEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new SimpleMeterRegistry();
+        engine = new QrEngine(new QrRenderCache(1 << 20, dir.toString()), metrics);
+    }
+
+    @Test
+    void everyFormatRendersThePayload() throws Exception {
+        byte[] png = engine.renderBytes(QrSpec.of(PAYLOAD, QrSpec.Preset.SCREEN));
+        byte[] svg = engine.renderBytes(QrSpec.of(PAYLOAD, QrSpec.Preset.SCREEN).withFormat(QrFormat.SVG));
+        byte[] pdf = engine.renderBytes(QrSpec.of(PAYLOAD, QrSpec.Preset.SCREEN).withFormat(QrFormat.PDF));
+
+        assertEquals(PAYLOAD, decode(png));
+        assertTrue(new String(svg, StandardCharsets.UTF_8).contains("<svg"));
+        assertTrue(new String(pdf, 0, 5, StandardCharsets.ISO_8859_1).startsWith("%PDF-"));
+    }
+
+    @Test
+    void keyMatchesTheRenderedEntryAndSvgIgnoresSize() throws Exception {
+        QrSpec spec = QrSpec.parse(PAYLOAD, "png", "h", "print", null, null);
+        assertEquals(engine.key(spec), engine.render(spec).key());
+
+        QrSpec small = QrSpec.parse(PAYLOAD, "svg", null, null, 100, null);
+        QrSpec large = small.toBuilder().sizePx(2000).build();
+        assertEquals(engine.key(small), engine.key(large));
+        assertNotEquals(engine.key(spec), engine.key(spec.toBuilder().ecc(ErrorCorrectionLevel.L).build()));
+    }
+
+    @Test
+    void hitsAndMissesAreCounted() throws Exception {
+        QrSpec spec = QrSpec.of(PAYLOAD, QrSpec.Preset.STATION);
+        engine.render(spec);
+        engine.render(spec);
+        engine.render(spec);
+
+        assertEquals(1, metrics.get("qr.cache.requests").tag("result", "miss").counter().count());
+        assertEquals(2, metrics.get("qr.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(2 / 3.0, metrics.get("qr.cache.hit.ratio").gauge().value(), 1e-9);
+        assertEquals(1, metrics.get("qr.renders").tag("format", "png").timer().count());
+    }
+
+    @Test
+    void inMemoryRendersStayOffDiskAndEvictDropsEveryVariant() throws Exception {
+        engine.renderInMemory(QrSpec.of("caller text", QrSpec.Preset.SCREEN));
+        assertEquals(0, files());
+
+        engine.render(QrSpec.of(PAYLOAD, QrSpec.Preset.STATION));
+        engine.render(QrSpec.of(PAYLOAD, QrSpec.Preset.PRINT));
+        assertEquals(2, files());
+
+        engine.evict(PAYLOAD);
+        assertEquals(0, files());
+    }
+
+    @Test
+    void specClampsAndRejectsUnknownValues() {
+        QrSpec spec = QrSpec.parse(null, null, null, null, 10_000, -3);
+        assertEquals("", spec.payload());
+        assertEquals(QrFormat.PNG, spec.format());
+        assertEquals(4000, spec.sizePx());
+        assertEquals(0, spec.margin());
+        assertEquals(QrSpec.Preset.LABEL.sizePx, QrSpec.parse("x", null, null, " label ", null, null).sizePx());
+
+        assertThrows(IllegalArgumentException.class, () -> QrSpec.parse("x", "gif", null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> QrSpec.parse("x", null, "Z", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> QrSpec.parse("x", null, null, "poster", null, null));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static String decode(byte[] png) throws Exception {
+        var img = ImageIO.read(new ByteArrayInputStream(png));
+        return new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(img)))).getText();
+    }
+
+    private long files() throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            return s.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.awc.industrial_asset_companion.dr;
+
+import com.awc.industrial_asset_companion.liftstations.MapLinks;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legacy path (old QrMaker: ARGB canvas -> ImageIO, kept below) vs CompactQrRenderer (bit matrix -> gray PNG).
+ * Run main(); GCProfiler's gc.alloc.rate.norm column is the allocation per label.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QrLabelRenderBenchmark {
+
+    private String android;
+    private String ios;
+    private final QRCodeWriter writer = new QRCodeWriter();
+    private final Map<EncodeHintType, Object> hints = Map.of(EncodeHintType.MARGIN, 1);
+
+    @Setup
+    public void setup() {
+        android = MapLinks.androidGeo(30.267153, -97.743057, "Riverside Lift Station");
+        ios = MapLinks.appleMapsAppDirections(30.267153, -97.743057, "Riverside Lift Station");
+    }
+
+    @Benchmark
+    public byte[] labelLegacyImageIo() throws Exception {
+        BufferedImage label = legacyLabel(
+                legacyQr(android, 500), "Android (geo:)",
+                legacyQr(ios, 500), "iPhone (maps://)", 40, 60);
+        var baos = new ByteArrayOutputStream();
+        ImageIO.write(label, "png", baos);
+        return baos.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] labelCompactGray() throws Exception {
+        return CompactQrRenderer.pngGray8(CompactQrRenderer.label(
+                matrix(android, 500), "Android (geo:)", matrix(ios, 500), "iPhone (maps://)", 40, 60));
+    }
+
+    @Benchmark
+    public byte[] singleLegacyImageIo() throws Exception {
+        var baos = new ByteArrayOutputStream();
+        ImageIO.write(legacyQr(android, 600), "png", baos);
+        return baos.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] singleCompact1Bit() throws Exception {
+        return CompactQrRenderer.png1Bit(matrix(android, 600));
+    }
+
+    @Benchmark
+    public String singleSvg() throws Exception {
+        return CompactQrRenderer.svg(Encoder.encode(android, ErrorCorrectionLevel.L, hints).getMatrix(), 1);
+    }
+
+    private BitMatrix matrix(String text, int sizePx) throws WriterException {
+        return writer.encode(text, BarcodeFormat.QR_CODE, sizePx, sizePx, hints);
+    }
+
+    /* ---- the pre-QrEngine implementation, verbatim ---- */
+
+    private static BufferedImage legacyQr(String text, int sizePx) throws WriterException {
+        QRCodeWriter writer = new QRCodeWriter();
+        Map<EncodeHintType, Object> hints = new HashMap<>();
+        hints.put(EncodeHintType.MARGIN, 1);
+        BitMatrix matrix = writer.encode(text, BarcodeFormat.QR_CODE, sizePx, sizePx, hints);
+        return MatrixToImageWriter.toBufferedImage(matrix);
+    }
+
+    private static BufferedImage legacyLabel(BufferedImage left, String leftCaption,
+                                             BufferedImage right, String rightCaption,
+                                             int padding, int captionHeight) {
+        int w = left.getWidth() + right.getWidth() + padding * 3;
+        int h = Math.max(left.getHeight(), right.getHeight()) + captionHeight + padding * 3;
+
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        g.setColor(Color.WHITE); g.fillRect(0, 0, w, h);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.BLACK);
+
+        int xLeft = padding;
+        int xRight = padding * 2 + left.getWidth();
+        g.drawImage(left, xLeft, padding, null);
+        g.drawImage(right, xRight, padding, null);
+
+        g.setFont(new Font("Arial", Font.BOLD, 16));
+        FontMetrics fm = g.getFontMetrics();
+        int yCap = padding + Math.max(left.getHeight(), right.getHeight()) + fm.getAscent() + padding;
+        int lx = xLeft + (left.getWidth() - fm.stringWidth(leftCaption)) / 2;
+        int rx = xRight + (right.getWidth() - fm.stringWidth(rightCaption)) / 2;
+        g.drawString(leftCaption, Math.max(lx, padding), yCap);
+        g.drawString(rightCaption, Math.max(rx, padding), yCap);
+        g.dispose();
+        return out;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QrLabelRenderBenchmark.class.getSimpleName())
+                .jvmArgsAppend("-Djava.awt.headless=true")
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
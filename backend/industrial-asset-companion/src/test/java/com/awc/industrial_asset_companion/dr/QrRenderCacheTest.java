@@ -0,0 +1,75 @@
+package com.awc.industrial_asset_companion.dr;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QrRenderCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void inMemoryRendersNeverTouchDisk() throws Exception {
+        QrRenderCache cache = new QrRenderCache(1 << 20, dir.toString());
+        int[] renders = {0};
+
+        for (int size = 100; size < 110; size++) {
+            cache.getOrRenderInMemory("png-L-m1", "any text " + size, size, () -> new byte[]{(byte) renders[0]++});
+        }
+        cache.getOrRenderInMemory("png-L-m1", "any text 100", 100, () -> new byte[]{(byte) renders[0]++});
+
+        assertEquals(10, renders[0]);   // the repeat came from memory
+        assertEquals(0, files());
+    }
+
+    @Test
+    void durableRendersGoToDiskAndSurviveMemoryEviction() throws Exception {
+        new QrRenderCache(1 << 20, dir.toString()).getOrRender("png-L-m1", "station", 256, () -> new byte[]{42});
+        assertEquals(1, files());
+
+        // a fresh cache (empty memory tier) serves the disk copy without rendering
+        var entry = new QrRenderCache(1 << 20, dir.toString()).getOrRender("png-L-m1", "station", 256,
+                () -> { throw new AssertionError("rendered again"); });
+        assertArrayEquals(new byte[]{42}, entry.bytes());
+    }
+
+    @Test
+    void keyAndEtagCarryTheRenderFormat() throws Exception {
+        var entry = new QrRenderCache(1 << 20, dir.toString()).getOrRender("label", "station", 512, () -> new byte[]{1});
+
+        assertTrue(entry.key().endsWith("-label-512-" + QrRenderCache.FORMAT));
+        assertEquals("\"" + entry.key() + "\"", entry.etag());
+        assertEquals(entry.key(), QrRenderCache.key("label", "station", 512));
+    }
+
+    @Test
+    void startupDeletesEntriesOfAnOlderFormat() throws Exception {
+        String current = QrRenderCache.key("label", "station", 512);
+        String unversioned = current.substring(0, current.lastIndexOf('-'));
+        Path shard = Files.createDirectories(dir.resolve(current.substring(0, 2)));
+        Files.write(shard.resolve(current), new byte[]{1});
+        Files.write(shard.resolve(unversioned), new byte[]{2});
+        Files.write(shard.resolve(unversioned + ".png"), new byte[]{3});
+        Files.write(shard.resolve("qr123.tmp"), new byte[]{4});
+
+        new QrRenderCache(1 << 20, dir.toString()).pruneDisk();
+
+        try (Stream<Path> s = Files.list(shard)) {
+            assertEquals(List.of(current), s.map(f -> f.getFileName().toString()).toList());
+        }
+    }
+
+    private long files() throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            return s.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.awc.industrial_asset_companion.liftstations;
+
+import com.awc.industrial_asset_companion.dr.CompactQrRenderer;
+import com.awc.industrial_asset_companion.dr.QrRenderCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StationLabelExportServiceTest {
+
+    private StationQrService qr;
+    private StationLabelExportService export;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        qr = mock(StationQrService.class);
+        // each label's single pixel carries the station's number, so order is checkable
+        when(qr.labelPng(any())).thenAnswer(inv -> {
+            LiftStation ls = inv.getArgument(0);
+            byte shade = (byte) Integer.parseInt(ls.getName());
+            return new QrRenderCache.Entry(ls.getCode(), CompactQrRenderer.pngGray8(new CompactQrRenderer.GrayImage(new byte[]{shade}, 1, 1)));
+        });
+        export = new StationLabelExportService(qr, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        export.shutdown();
+    }
+
+    @Test
+    void zipEntriesFollowStationOrderWithSafeUniqueNames() throws Exception {
+        List<LiftStation> stations = List.of(station("LS/1", 1), station("LS 2", 2), station("LS/1", 3), station(null, 4));
+
+        var out = new ByteArrayOutputStream();
+        export.writeZip(stations, out);
+
+        List<String> names = new ArrayList<>();
+        List<byte[]> bodies = new ArrayList<>();
+        try (var zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (var e = zip.getNextEntry(); e != null; e = zip.getNextEntry()) {
+                names.add(e.getName());
+                bodies.add(zip.readAllBytes());
+            }
+        }
+        assertEquals(List.of("LS_1-label.png", "LS_2-label.png", "LS_1-label-2.png", stations.get(3).getId() + "-label.png"), names);
+        for (int i = 0; i < stations.size(); i++) {
+            assertArrayEquals(qr.labelPng(stations.get(i)).bytes(), bodies.get(i));
+        }
+    }
+
+    @Test
+    void pdfHasOnePagePerStation() throws Exception {
+        List<LiftStation> stations = new ArrayList<>();
+        for (int i = 0; i < 9; i++) stations.add(station("LS-" + i, i));
+
+        var out = new ByteArrayOutputStream();
+        export.writePdf(stations, out);
+
+        assertTrue(out.toString(StandardCharsets.ISO_8859_1).contains("/Count 9"));
+    }
+
+    @Test
+    void aFailedRenderFailsTheExport() throws Exception {
+        List<LiftStation> stations = Arrays.asList(station("LS-1", 1), station("LS-2", 2));
+        when(qr.labelPng(stations.get(1))).thenThrow(new IllegalStateException("boom"));
+
+        var ex = assertThrows(IOException.class, () -> export.writeZip(stations, new ByteArrayOutputStream()));
+        assertTrue(ex.getMessage().contains("LS-2"));
+    }
+
+    @Test
+    void aNonGrayLabelIsRefusedByThePdf() throws Exception {
+        LiftStation ls = station("LS-1", 1);
+        when(qr.labelPng(ls)).thenReturn(new QrRenderCache.Entry("k", new byte[]{1, 2, 3}));
+
+        assertThrows(IOException.class, () -> export.writePdf(List.of(ls), new ByteArrayOutputStream()));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static LiftStation station(String code, int n) {
+        var ls = new LiftStation();
+        ls.setId(UUID.randomUUID());
+        ls.setCode(code);
+        ls.setName(String.valueOf(n));
+        return ls;
+    }
+}
@@ -0,0 +1,170 @@
+package com.awc.industrial_asset_companion.liftstations;
+
+import com.awc.industrial_asset_companion.alarms.Alarm;
+import com.awc.industrial_asset_companion.alarms.AlarmRepo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StationViewCacheTest {
+
+    private static final UUID A = UUID.randomUUID();
+    private static final UUID B = UUID.randomUUID();
+
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+    private LiftStationRepo stations;
+    private AlarmRepo alarms;
+    private StationViewCache cache;
+
+    @BeforeEach
+    void setUp() {
+        stations = mock(LiftStationRepo.class);
+        alarms = mock(AlarmRepo.class);
+        when(stations.findById(any())).thenAnswer(inv -> Optional.of(station(inv.getArgument(0), "Riverside")));
+        when(alarms.findByStationIdOrderByRaisedAtDesc(any(), any())).thenReturn(new PageImpl<>(alarms(5)));
+        cache = new StationViewCache(stations, alarms, json, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void variantsShareOneLoadAndAreSerializedOnce() throws Exception {
+        var view = cache.view(A).orElseThrow();
+        var pub3 = cache.publicView(A, true, 3).orElseThrow();
+        var pub0 = cache.publicView(A, false, 3).orElseThrow();
+
+        assertSame(view, cache.view(A).orElseThrow());
+        assertSame(pub3, cache.publicView(A, true, 3).orElseThrow());
+        assertEquals(3, json.readTree(pub3.json()).get("alarms").size());
+        assertEquals(0, json.readTree(pub0.json()).get("alarms").size());
+        assertNotEquals(pub3.etag(), pub0.etag());
+        verify(stations, times(1)).findById(A);
+        verify(alarms, times(1)).findByStationIdOrderByRaisedAtDesc(eq(A), eq(PageRequest.of(0, StationViewCache.MAX_PUBLIC_ALARMS)));
+    }
+
+    @Test
+    void alarmLimitIsClamped() throws Exception {
+        assertEquals(5, alarmsIn(cache.publicView(A, true, 500).orElseThrow()).size());
+        assertEquals(1, alarmsIn(cache.publicView(A, true, 0).orElseThrow()).size());
+        assertSame(cache.publicView(A, true, 50).orElseThrow(), cache.publicView(A, true, 80).orElseThrow());
+    }
+
+    @Test
+    void missingStationIsEmptyAndNotCached() {
+        when(stations.findById(B)).thenReturn(Optional.empty());
+
+        assertTrue(cache.view(B).isEmpty());
+        assertTrue(cache.publicView(B, true, 5).isEmpty());
+        verify(stations, times(2)).findById(B);
+    }
+
+    @Test
+    void evictReloadsAndTheEtagFollowsTheContent() {
+        String before = cache.view(A).orElseThrow().etag();
+        when(stations.findById(A)).thenReturn(Optional.of(station(A, "Riverside North")));
+
+        assertEquals(before, cache.view(A).orElseThrow().etag());   // still cached
+        cache.evict(A);
+        assertNotEquals(before, cache.view(A).orElseThrow().etag());
+    }
+
+    @Test
+    void leastRecentlyUsedStationIsDroppedPastTheCap() {
+        UUID c = UUID.randomUUID();
+        cache.view(A);
+        cache.view(B);
+        cache.view(A);
+        cache.view(c);   // over max-stations 2: B goes
+
+        cache.view(A);
+        cache.view(B);
+        verify(stations, times(1)).findById(A);
+        verify(stations, times(2)).findById(B);
+    }
+
+    @Test
+    void evictionDuringALoadIsNotCached() {
+        when(stations.findById(A)).thenAnswer(inv -> {
+            cache.evict(A);   // a station write committed while the view was loading
+            return Optional.of(station(A, "Riverside"));
+        }).thenReturn(Optional.of(station(A, "Riverside North")));
+
+        assertTrue(new String(cache.view(A).orElseThrow().json()).contains("\"Riverside\""));
+        assertTrue(new String(cache.view(A).orElseThrow().json()).contains("Riverside North"));
+    }
+
+    @Test
+    void alarmChangesEvictAfterCommit() {
+        cache.view(A);
+        var alarm = new Alarm();
+        alarm.setStationId(A);
+        TransactionSynchronizationManager.initSynchronization();
+
+        new StationViewInvalidator(provider(cache)).alarmChanged(alarm);
+        cache.view(A);
+        verify(stations, times(1)).findById(A);   // not before commit
+
+        List<TransactionSynchronization> syncs = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+        syncs.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cache.view(A);
+        verify(stations, times(2)).findById(A);
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static LiftStation station(UUID id, String name) {
+        var ls = new LiftStation();
+        ls.setId(id);
+        ls.setCode("LS-1");
+        ls.setName(name);
+        ls.setLatitude(33.45);
+        ls.setLongitude(-112.07);
+        return ls;
+    }
+
+    private static List<Alarm> alarms(int n) {
+        List<Alarm> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            var a = new Alarm();
+            a.setStationId(A);
+            a.setSeverity("WARNING");
+            a.setMessage("High level " + i);
+            a.setRaisedAt(Instant.parse("2026-01-01T00:00:00Z").minusSeconds(i));
+            list.add(a);
+        }
+        return list;
+    }
+
+    private JsonNode alarmsIn(StationViewCache.Cached c) throws Exception {
+        return json.readTree(c.json()).get("alarms");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<StationViewCache> provider(StationViewCache cache) {
+        var p = (ObjectProvider<StationViewCache>) mock(ObjectProvider.class);
+        when(p.getObject()).thenReturn(cache);
+        return p;
+    }
+}
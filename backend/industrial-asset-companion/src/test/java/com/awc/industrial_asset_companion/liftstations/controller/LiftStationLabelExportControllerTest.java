@@ -0,0 +1,98 @@
+package com.awc.industrial_asset_companion.liftstations.controller;
+
+import com.awc.industrial_asset_companion.liftstations.LiftStation;
+import com.awc.industrial_asset_companion.liftstations.LiftStationRepo;
+import com.awc.industrial_asset_companion.liftstations.StationLabelExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LiftStationLabelExportControllerTest {
+
+    private LiftStationRepo repo;
+    private StationLabelExportService export;
+    private LiftStationLabelExportController controller;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(LiftStationRepo.class);
+        export = mock(StationLabelExportService.class);
+        controller = new LiftStationLabelExportController(repo, export, 3);
+    }
+
+    @Test
+    void filterReadsAtMostOneRowPastTheCap() {
+        when(repo.findForLabels(any(), any(), any(), any(), any(), any())).thenReturn(stations(4));
+
+        var ex = assertThrows(ResponseStatusException.class,
+                () -> controller.labels(null, " North ", null, null, null, null, "zip"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verify(repo).findForLabels("North", null, null, null, null, PageRequest.of(0, 4));
+    }
+
+    @Test
+    void tooManyIdsAreRejectedBeforeAnyQuery() {
+        List<UUID> ids = IntStream.range(0, 4).mapToObj(i -> UUID.randomUUID()).toList();
+
+        var ex = assertThrows(ResponseStatusException.class, () -> controller.labels(ids, null, null, null, null, null, "pdf"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void repeatedIdsCountOnce() {
+        UUID id = UUID.randomUUID();
+        when(repo.findAllById(any())).thenReturn(stations(1));
+
+        var res = controller.labels(List.of(id, id, id, id), null, null, null, null, null, "zip");
+
+        assertEquals(HttpStatus.OK, res.getStatusCode());
+    }
+
+    @Test
+    void noMatchIsNotFound() {
+        when(repo.findForLabels(any(), any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        var ex = assertThrows(ResponseStatusException.class,
+                () -> controller.labels(null, null, 0.0, 0.0, 1.0, 1.0, "zip"));
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    void pdfBodyStreamsTheMatchedStations() throws Exception {
+        List<LiftStation> matched = stations(3);
+        when(repo.findForLabels(any(), any(), any(), any(), any(), any())).thenReturn(matched);
+
+        var res = controller.labels(null, null, null, null, null, null, "PDF");
+        res.getBody().writeTo(new ByteArrayOutputStream());
+
+        assertEquals("application/pdf", res.getHeaders().getContentType().toString());
+        verify(export).writePdf(eq(matched), any());
+        assertThrows(ResponseStatusException.class, () -> controller.labels(null, null, null, null, null, null, "tar"));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static List<LiftStation> stations(int n) {
+        return IntStream.range(0, n).mapToObj(i -> {
+            var ls = new LiftStation();
+            ls.setId(UUID.randomUUID());
+            ls.setCode("LS-" + i);
+            return ls;
+        }).toList();
+    }
+}
@@ -0,0 +1,122 @@
+package com.awc.industrial_asset_companion.liftstations.controller;
+
+import com.awc.industrial_asset_companion.dr.QrEngine;
+import com.awc.industrial_asset_companion.dr.QrRenderCache;
+import com.awc.industrial_asset_companion.liftstations.LiftStation;
+import com.awc.industrial_asset_companion.liftstations.LiftStationRepo;
+import com.awc.industrial_asset_companion.liftstations.StationQrService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/** ETag / Cache-Control handling of the station QR endpoints, over a real engine and a temp-dir cache. */
+class LiftStationQrControllerTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    @TempDir
+    Path dir;
+
+    private SimpleMeterRegistry metrics;
+    private LiftStation station;
+    private StationQrService qr;
+    private LiftStationQrController controller;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new SimpleMeterRegistry();
+        qr = spy(new StationQrService(new QrEngine(new QrRenderCache(1 << 20, dir.toString()), metrics)));
+        station = new LiftStation();
+        station.setId(ID);
+        station.setName("Riverside");
+        station.setLatitude(33.45);
+        station.setLongitude(-112.07);
+        LiftStationRepo repo = mock(LiftStationRepo.class);
+        when(repo.findById(ID)).thenReturn(Optional.of(station));
+        controller = new LiftStationQrController(repo, qr);
+    }
+
+    @Test
+    void plainUrlRevalidatesAndPinnedUrlIsImmutable() throws Exception {
+        var plain = controller.qrAndroid(ID, null, request(null));
+        String key = qr.androidKey(station);
+
+        assertEquals(HttpStatus.OK, plain.getStatusCode());
+        assertEquals("\"" + key + "\"", plain.getHeaders().getETag());
+        assertEquals("no-cache", plain.getHeaders().getCacheControl());
+
+        var pinned = controller.qrAndroid(ID, key, request(null));
+        assertTrue(pinned.getHeaders().getCacheControl().contains("immutable"));
+        assertArrayEquals(plain.getBody(), pinned.getBody());
+
+        var stale = controller.qrAndroid(ID, "old-version", request(null));
+        assertEquals("no-cache", stale.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void matchingIfNoneMatchAnswers304WithoutRendering() throws Exception {
+        var req = request("\"" + qr.labelKey(station) + "\"");
+
+        assertNull(controller.qrLabel(ID, null, req));
+        assertEquals(304, ((MockHttpServletResponse) req.getResponse()).getStatus());
+        verify(qr, never()).labelPng(any());
+    }
+
+    @Test
+    void renamingTheStationChangesTheEtag() throws Exception {
+        String before = controller.qrIos(ID, null, request(null)).getHeaders().getETag();
+        station.setName("Riverside North");
+
+        var after = controller.qrIos(ID, null, request(before));
+
+        assertEquals(HttpStatus.OK, after.getStatusCode());
+        assertNotEquals(before, after.getHeaders().getETag());
+    }
+
+    @Test
+    void svgVariantsAndUnknownPlatform() throws Exception {
+        var svg = controller.qrSvg(ID, "ios", null, request(null));
+
+        assertEquals("image/svg+xml", svg.getHeaders().getContentType().toString());
+        assertTrue(svg.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("station-ios-qr.svg"));
+        var ex = assertThrows(ResponseStatusException.class, () -> controller.qrSvg(ID, "windows", null, request(null)));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    void repeatRequestsAreServedFromTheCacheUntilEvicted() throws Exception {
+        controller.qrLabel(ID, null, request(null));
+        controller.qrLabel(ID, null, request(null));
+        assertEquals(1, renders("label"));
+
+        qr.evict(station);
+        controller.qrLabel(ID, null, request(null));
+        assertEquals(2, renders("label"));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        var req = new MockHttpServletRequest("GET", "/api/stations/" + ID + "/qr");
+        if (ifNoneMatch != null) req.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return new ServletWebRequest(req, new MockHttpServletResponse());
+    }
+
+    private long renders(String format) {
+        return metrics.get("qr.renders").tag("format", format).timer().count();
+    }
+}
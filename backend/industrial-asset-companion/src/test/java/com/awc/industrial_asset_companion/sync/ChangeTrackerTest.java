@@ -0,0 +1,105 @@
+package com.awc.industrial_asset_companion.sync;
+
+import com.awc.industrial_asset_companion.devices_locator.entity.Area;
+import com.awc.industrial_asset_companion.devices_locator.entity.Plant;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/** change_log rows written for entity callbacks and device events, deferred to commit inside a transaction. */
+class ChangeTrackerTest {
+
+    private static final String INSERT = "insert into change_log (entity, entity_id, deleted, changed_at) values";
+
+    private JdbcTemplate jdbc;
+    private ChangeTracker tracker;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbc = mock(JdbcTemplate.class);
+        ObjectProvider<JdbcTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(jdbc);
+        tracker = new ChangeTracker(provider);
+    }
+
+    @Test
+    void savedEntityIsLoggedAsUpsert() {
+        tracker.saved(Plant.builder().id("ULL").name("Upper").build());
+
+        verify(jdbc).update(startsWith(INSERT), eq(ChangeLog.PLANT), eq("ULL"), eq(false), any(Timestamp.class));
+    }
+
+    @Test
+    void removedEntityIsLoggedAsDeleted() {
+        UUID id = UUID.randomUUID();
+        tracker.removed(Area.builder().id(id).build());
+
+        verify(jdbc).update(startsWith(INSERT), eq(ChangeLog.AREA), eq(id.toString()), eq(true), any(Timestamp.class));
+    }
+
+    @Test
+    void unsavedAndUntrackedEntitiesAreIgnored() {
+        tracker.saved(Area.builder().build());   // no id yet
+        tracker.saved("not an entity");
+
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void deviceEventsAreLoggedPerDevice() {
+        tracker.onDeviceChanged(DeviceChangedEvent.upserted("ULL", "PH-101", List.of("ph")));
+        tracker.onDeviceChanged(DeviceChangedEvent.removed("ULL", "PH-102"));
+
+        verify(jdbc).update(startsWith(INSERT), eq(ChangeLog.DEVICE), eq("PH-101"), eq(false), any(Timestamp.class));
+        verify(jdbc).update(startsWith(INSERT), eq(ChangeLog.DEVICE), eq("PH-102"), eq(true), any(Timestamp.class));
+    }
+
+    @Test
+    void wholePlantEventLogsEveryDeviceOfThePlant() {
+        tracker.onDeviceChanged(DeviceChangedEvent.plantChanged("ULL"));
+        tracker.onDeviceChanged(DeviceChangedEvent.plantChanged(null));
+
+        verify(jdbc).update(contains("from device d where d.plant_id = ?"), any(Timestamp.class), eq("ULL"));
+        verifyNoMoreInteractions(jdbc);
+    }
+
+    @Test
+    void insideATransactionRowsAreWrittenJustBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            tracker.saved(Plant.builder().id("ULL").build());
+            tracker.onDeviceChanged(DeviceChangedEvent.removed("ULL", "PH-102"));
+            verifyNoInteractions(jdbc);
+
+            List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+            assertEquals(1, syncs.size());
+            syncs.get(0).beforeCommit(false);
+            verify(jdbc).update(startsWith(INSERT), eq(ChangeLog.PLANT), eq("ULL"), eq(false), any(Timestamp.class));
+            verify(jdbc).update(startsWith(INSERT), eq(ChangeLog.DEVICE), eq("PH-102"), eq(true), any(Timestamp.class));
+
+            // JPA flushes during commit: those callbacks come after beforeCommit and go straight in
+            tracker.saved(Plant.builder().id("NEW").build());
+            verify(jdbc).update(startsWith(INSERT), eq(ChangeLog.PLANT), eq("NEW"), eq(false), any(Timestamp.class));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
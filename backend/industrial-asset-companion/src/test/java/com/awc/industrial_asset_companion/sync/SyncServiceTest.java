@@ -0,0 +1,236 @@
+package com.awc.industrial_asset_companion.sync;
+
+import com.awc.industrial_asset_companion.alarms.AlarmRepo;
+import com.awc.industrial_asset_companion.devices_locator.dto.DeviceListItemDto;
+import com.awc.industrial_asset_companion.devices_locator.repositories.AreaRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.DocumentRepository;
+import com.awc.industrial_asset_companion.devices_locator.repositories.PlantRepository;
+import com.awc.industrial_asset_companion.devices_locator.service.DeviceCrudService;
+import com.awc.industrial_asset_companion.liftstations.LiftStationRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/** Change feed against a mocked change_log: collapsing, tombstones, resets and settle-window paging. */
+class SyncServiceTest {
+
+    private static final long SETTLE_MS = 10_000;
+
+    private ChangeLogRepo changes;
+    private DeviceCrudService devices;
+    private SyncService sync;
+    // device ids that still exist; listByIds skips the rest, as the real service does
+    private final Set<String> existing = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        changes = mock(ChangeLogRepo.class);
+        devices = mock(DeviceCrudService.class);
+        when(devices.listByIds(anyCollection())).thenAnswer(inv -> {
+            Collection<String> ids = inv.getArgument(0);
+            return ids.stream().filter(existing::contains).map(id -> DeviceListItemDto.builder().id(id).build()).toList();
+        });
+        when(changes.minSeq()).thenReturn(1L);
+        sync = new SyncService(changes, mock(PlantRepository.class), mock(AreaRepository.class), devices,
+                mock(DocumentRepository.class), mock(LiftStationRepo.class), mock(AlarmRepo.class), SETTLE_MS, 30);
+    }
+
+    @Test
+    void lastChangePerEntityWins() {
+        page(14, device(11, "d1", false, old()), device(12, "d1", true, old()),
+                device(13, "d2", true, old()), device(14, "d2", false, old()));
+        existing.remove("d1");
+
+        SyncDto res = sync.since("10", 100);
+
+        assertEquals("14", res.token());
+        assertFalse(res.reset());
+        assertFalse(res.more());
+        assertEquals(List.of("d2"), upsertedDeviceIds(res));
+        assertEquals(Map.of(ChangeLog.DEVICE, List.of("d1")), res.deleted());
+        verify(devices).listByIds(List.of("d2"));
+    }
+
+    @Test
+    void upsertOfARowThatIsGoneBecomesATombstone() {
+        page(12, device(11, "d1", false, old()), device(12, "d2", false, old()));
+        existing.remove("d2");
+
+        SyncDto res = sync.since("10", 100);
+
+        assertEquals(List.of("d1"), upsertedDeviceIds(res));
+        assertEquals(Map.of(ChangeLog.DEVICE, List.of("d2")), res.deleted());
+    }
+
+    @Test
+    void unknownKindsAreSkipped() {
+        ChangeLog future = device(11, "x1", false, old());
+        ReflectionTestUtils.setField(future, "entity", "gadget");
+        page(12, future, device(12, "d1", false, old()));
+
+        SyncDto res = sync.since("10", 100);
+
+        assertEquals("12", res.token());
+        assertEquals(List.of(ChangeLog.DEVICE), List.copyOf(res.upserts().keySet()));
+        assertTrue(res.deleted().isEmpty());
+    }
+
+    @Test
+    void missingTokenResetsToHead() {
+        page(14);
+
+        for (String token : new String[] {null, "", "  "}) {
+            SyncDto res = sync.since(token, 100);
+            assertTrue(res.reset());
+            assertEquals("14", res.token());
+            assertFalse(res.more());
+        }
+        verify(changes, never()).findBySeqGreaterThanOrderBySeq(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void tokenAheadOfTheLogResets() {
+        page(14);   // e.g. the database was restored from a backup
+
+        SyncDto res = sync.since("20", 100);
+
+        assertTrue(res.reset());
+        assertEquals("14", res.token());
+    }
+
+    @Test
+    void tokenOlderThanRetentionResets() {
+        page(60, device(60, "d1", false, old()));
+        when(changes.minSeq()).thenReturn(50L);
+
+        assertTrue(sync.since("48", 100).reset());       // seq 49 was pruned: changes may be missing
+
+        SyncDto res = sync.since("49", 100);              // everything after it is still there
+        assertFalse(res.reset());
+        assertEquals("60", res.token());
+    }
+
+    @Test
+    void emptyLogAcceptsTokenZero() {
+        page(0);
+        when(changes.minSeq()).thenReturn(null);
+
+        SyncDto res = sync.since("0", 100);
+
+        assertFalse(res.reset());
+        assertEquals("0", res.token());
+        assertTrue(res.upserts().isEmpty());
+    }
+
+    @Test
+    void malformedTokenIsABadRequest() {
+        page(14);
+
+        for (String token : new String[] {"abc", "-1", "1.5"}) {
+            var e = assertThrows(ResponseStatusException.class, () -> sync.since(token, 100));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+    }
+
+    @Test
+    void settledFullPageAsksForMore() {
+        page(14, device(11, "d11", false, old()), device(12, "d12", false, old()),
+                device(13, "d13", false, old()), device(14, "d14", false, old()));
+
+        SyncDto res = sync.since("10", 3);
+
+        assertEquals("13", res.token());
+        assertTrue(res.more());
+        assertEquals(List.of("d11", "d12", "d13"), upsertedDeviceIds(res));
+    }
+
+    @Test
+    void fullPageCutBySettleWindowEndsWithMoreFalse() {
+        page(14, device(11, "d11", false, old()), device(12, "d12", false, old()),
+                device(13, "d13", false, recent()), device(14, "d14", false, recent()));
+
+        SyncDto res = sync.since("10", 3);
+
+        assertEquals("12", res.token());
+        assertFalse(res.more(), "a page cut by the settle window must not ask the client to call again");
+        assertEquals(List.of("d11", "d12"), upsertedDeviceIds(res));   // nothing past the token
+    }
+
+    @Test
+    void settlingFirstRowReturnsSameTokenNothingAndNoMore() {
+        page(14, device(11, "d11", false, recent()), device(12, "d12", false, recent()),
+                device(13, "d13", false, recent()), device(14, "d14", false, recent()));
+
+        SyncDto res = sync.since("10", 3);
+
+        assertEquals("10", res.token());
+        assertFalse(res.more());
+        assertTrue(res.upserts().isEmpty());
+        assertTrue(res.deleted().isEmpty());
+        verify(devices, never()).listByIds(anyCollection());
+    }
+
+    @Test
+    void pruneAlwaysKeepsTheNewestRow() {
+        page(42);
+
+        sync.prune();
+
+        verify(changes).deleteOlderThan(any(Instant.class), eq(42L));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private void page(long head, ChangeLog... rows) {
+        when(changes.maxSeq()).thenReturn(head);
+        when(changes.findBySeqGreaterThanOrderBySeq(anyLong(), any(Pageable.class))).thenAnswer(inv -> {
+            long after = inv.getArgument(0);
+            Pageable p = inv.getArgument(1);
+            return Arrays.stream(rows).filter(r -> r.getSeq() > after).limit(p.getPageSize()).toList();
+        });
+        for (ChangeLog r : rows) {
+            if (!r.isDeleted()) existing.add(r.getEntityId());
+        }
+    }
+
+    private static ChangeLog device(long seq, String id, boolean deleted, Instant at) {
+        ChangeLog c = new ChangeLog();
+        ReflectionTestUtils.setField(c, "seq", seq);
+        ReflectionTestUtils.setField(c, "entity", ChangeLog.DEVICE);
+        ReflectionTestUtils.setField(c, "entityId", id);
+        ReflectionTestUtils.setField(c, "deleted", deleted);
+        ReflectionTestUtils.setField(c, "changedAt", at);
+        return c;
+    }
+
+    private static Instant old() {
+        return Instant.now().minusMillis(SETTLE_MS * 3);
+    }
+
+    private static Instant recent() {
+        return Instant.now().minusMillis(SETTLE_MS / 10);
+    }
+
+    private static List<String> upsertedDeviceIds(SyncDto res) {
+        List<?> items = res.upserts().getOrDefault(ChangeLog.DEVICE, List.of());
+        return items.stream().map(d -> ((DeviceListItemDto) d).getId()).toList();
+    }
+}
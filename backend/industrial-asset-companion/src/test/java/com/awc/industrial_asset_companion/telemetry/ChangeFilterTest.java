@@ -0,0 +1,109 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Change-of-value filtering of station readings against the last forwarded one. */
+class ChangeFilterTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final UUID STATION = UUID.randomUUID();
+
+    private SimpleMeterRegistry metrics;
+    private Deadbands deadbands;
+    private ChangeFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new SimpleMeterRegistry();
+        deadbands = new Deadbands(0, 0, "wetWellLevelFt:0.1, flowGpm:5%", 60_000);
+        filter = new ChangeFilter(deadbands, metrics, true);
+    }
+
+    @Test
+    void firstReadingPassesAndJitterInsideTheBandsStops() {
+        assertTrue(filter.accept(reading(0, 5.0, false, 100.0)));
+        assertFalse(filter.accept(reading(5, 5.05, false, 104.0)));
+        assertFalse(filter.accept(reading(10, 4.95, false, 96.0)));
+        assertTrue(filter.accept(reading(15, 5.0, false, 106.0)));   // flow beyond 5 %
+
+        assertEquals(2, count("passed"));
+        assertEquals(2, count("suppressed"));
+    }
+
+    @Test
+    void referenceIsTheLastForwardedReadingSoSlowCreepGetsThrough() {
+        assertTrue(filter.accept(reading(0, 5.0, false, 100.0)));
+        assertFalse(filter.accept(reading(5, 5.06, false, 100.0)));
+        assertTrue(filter.accept(reading(10, 5.12, false, 100.0)));  // 0.12 from 5.0, not 0.06 from 5.06
+        assertFalse(filter.accept(reading(15, 5.18, false, 100.0)));
+    }
+
+    @Test
+    void pumpChangesAlwaysPass() {
+        filter.accept(reading(0, 5.0, false, 100.0));
+
+        assertTrue(filter.accept(reading(5, 5.0, true, 100.0)));
+        assertTrue(filter.accept(reading(10, 5.0, false, 100.0)));
+    }
+
+    @Test
+    void valuesAppearingOrGoingMissingPass() {
+        filter.accept(reading(0, 5.0, false, null));
+
+        assertTrue(filter.accept(reading(5, 5.0, false, 100.0)));
+        assertTrue(filter.accept(reading(10, 5.0, false, null)));
+        assertFalse(filter.accept(reading(15, 5.0, false, null)));
+    }
+
+    @Test
+    void heartbeatPassesAnUnchangedReadingAfterMaxSilence() {
+        filter.accept(reading(0, 5.0, false, 100.0));
+
+        assertFalse(filter.accept(reading(59, 5.0, false, 100.0)));
+        assertTrue(filter.accept(reading(60, 5.0, false, 100.0)));
+        assertFalse(filter.accept(reading(61, 5.0, false, 100.0)));
+    }
+
+    @Test
+    void lateArrivalsAreSuppressedAndNeverBecomeTheReference() {
+        filter.accept(reading(10, 5.0, false, 100.0));
+
+        assertFalse(filter.accept(reading(5, 9.0, true, 300.0)));
+        assertFalse(filter.accept(reading(15, 5.0, false, 100.0)));   // still compared with t=10
+    }
+
+    @Test
+    void stationsAreFilteredIndependently() {
+        UUID other = UUID.randomUUID();
+        filter.accept(reading(0, 5.0, false, 100.0));
+
+        assertTrue(filter.accept(new TelemetryReading(other, 5.0, false, false, 100.0, T0.plusSeconds(5))));
+        assertFalse(filter.accept(reading(5, 5.0, false, 100.0)));
+    }
+
+    @Test
+    void disabledFilterPassesEverything() {
+        filter = new ChangeFilter(deadbands, new SimpleMeterRegistry(), false);
+
+        assertTrue(filter.accept(reading(0, 5.0, false, 100.0)));
+        assertTrue(filter.accept(reading(5, 5.0, false, 100.0)));
+        assertTrue(filter.accept(reading(1, 5.0, false, 100.0)));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static TelemetryReading reading(long seconds, Double level, Boolean pump1, Double flow) {
+        return new TelemetryReading(STATION, level, pump1, false, flow, T0.plusSeconds(seconds));
+    }
+
+    private double count(String result) {
+        return metrics.get("telemetry.cov").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,72 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Deadband spec parsing, band widths and the exceeded test. */
+class DeadbandsTest {
+
+    @Test
+    void parsesAbsolutePercentAndCombinedBands() {
+        Deadbands d = new Deadbands(0.5, 1, " pH:0.05, Flow:2%, flowGpm : 1/5% ", 60_000);
+
+        assertEquals(new Deadbands.Band(0.05, 0), d.band("pH"));
+        assertEquals(new Deadbands.Band(0, 2), d.band("Flow"));
+        assertEquals(new Deadbands.Band(1, 5), d.band("flowGpm"));
+        assertEquals(new Deadbands.Band(0.5, 1), d.band("Level"));   // unlisted: defaults
+        assertEquals(new Deadbands.Band(0.5, 1), d.band(null));
+    }
+
+    @Test
+    void keyMayContainColonsAndNegativeBandsClampToZero() {
+        Deadbands d = new Deadbands(-1, -1, "LS1:Flow:-3/-2%", 60_000);
+
+        assertEquals(new Deadbands.Band(0, 0), d.band("LS1:Flow"));
+        assertEquals(new Deadbands.Band(0, 0), d.band("other"));
+    }
+
+    @Test
+    void blankSpecUsesDefaultsEverywhere() {
+        Deadbands d = new Deadbands(0.2, 0, "", 60_000);
+
+        assertEquals(new Deadbands.Band(0.2, 0), d.band("pH"));
+    }
+
+    @Test
+    void rejectsMalformedSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> new Deadbands(0, 0, "pH", 60_000));
+        assertThrows(IllegalArgumentException.class, () -> new Deadbands(0, 0, ":0.1", 60_000));
+        assertThrows(IllegalArgumentException.class, () -> new Deadbands(0, 0, "pH:abc", 60_000));
+    }
+
+    @Test
+    void widthIsTheLargerOfAbsoluteAndPercentOfReference() {
+        Deadbands.Band b = new Deadbands.Band(1, 5);
+
+        assertEquals(5.0, b.width(100), 1e-9);
+        assertEquals(5.0, b.width(-100), 1e-9);
+        assertEquals(1.0, b.width(10), 1e-9);
+        assertEquals(1.0, b.width(Double.NaN), 1e-9);
+    }
+
+    @Test
+    void exceededIsStrictAndCountsNanTransitions() {
+        Deadbands.Band b = new Deadbands.Band(0.5, 0);
+
+        assertFalse(b.exceeded(10, 10.5));
+        assertTrue(b.exceeded(10, 10.51));
+        assertTrue(b.exceeded(10, 9.49));
+        assertTrue(b.exceeded(10, Double.NaN));
+        assertTrue(b.exceeded(Double.NaN, 10));
+        assertFalse(b.exceeded(Double.NaN, Double.NaN));
+        assertTrue(Deadbands.Band.ANY_CHANGE.exceeded(1, 1.000001));
+        assertFalse(Deadbands.Band.ANY_CHANGE.exceeded(1, 1));
+    }
+
+    @Test
+    void maxSilenceIsAtLeastOneMillisecond() {
+        assertEquals(60_000_000_000L, new Deadbands(0, 0, "", 60_000).maxSilenceNanos());
+        assertEquals(1_000_000L, new Deadbands(0, 0, "", 0).maxSilenceNanos());
+    }
+}
@@ -0,0 +1,176 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Swinging-door compression: door slopes, held-value clamping, transitions, heartbeat, and a 720-poll run. */
+class SwingingDoorTest {
+
+    private static final long S = 1_000_000_000L;
+    private static final long NO_HEARTBEAT = Long.MAX_VALUE;
+    private static final byte GOOD = 0, BAD = 1;
+
+    private final SwingingDoor door = new SwingingDoor();
+    private final List<Point> archived = new ArrayList<>();
+
+    private record Point(long t, double v, byte q) {}
+
+    @Test
+    void firstSampleIsArchivedAndTheNextOneHeld() {
+        offer(0, 5.0, 1.0);
+        offer(5, 5.0, 1.0);
+
+        assertEquals(List.of(new Point(0, 5.0, GOOD)), archived);
+        assertEquals(new Point(5 * S, 5.0, GOOD), held());
+    }
+
+    @Test
+    void straightLineStaysOneSegment() {
+        for (int i = 0; i <= 100; i++) offer(i, i * 0.1, 0.05);
+
+        assertEquals(1, archived.size());
+        assertEquals(100 * S, held().t());
+    }
+
+    @Test
+    void samplePastTheDoorsArchivesTheHeldOneAndPivots() {
+        offer(0, 0, 0.1);
+        offer(1, 0, 0.1);
+        offer(2, 0, 0.1);
+        offer(3, 5, 0.1);
+
+        assertEquals(List.of(new Point(0, 0, GOOD), new Point(2 * S, 0, GOOD)), archived);
+        assertEquals(3 * S, held().t());
+        // the new line starts at the archived point: 5 -> 10 keeps a steady slope from (2, 0)
+        offer(4, 10, 0.1);
+        assertEquals(2, archived.size());
+    }
+
+    @Test
+    void heldValueIsPulledOntoTheDoorsByAtMostWidth() {
+        offer(0, 0, 1);
+        offer(1, 0, 1);        // doors: slope within [-1, 1]
+        offer(10, 10.5, 1);    // doors: [0.95, 1]; the held slope 1.05 is above the upper door
+        offer(11, 0, 1);       // opens the doors
+
+        assertEquals(2, archived.size());
+        Point p = archived.get(1);
+        assertEquals(10 * S, p.t());
+        assertEquals(10.0, p.v(), 1e-9);   // clamped onto the upper door
+        assertTrue(Math.abs(p.v() - 10.5) <= 1);
+    }
+
+    @Test
+    void nanTransitionsAreArchivedOnBothSides() {
+        offer(0, 1.0, 0.1);
+        offer(1, 1.0, 0.1);
+        offer(2, Double.NaN, 0.1);
+        offer(3, Double.NaN, 0.1);
+        offer(4, 2.0, 0.1);
+
+        assertEquals(5, archived.size());
+        assertEquals(new Point(S, 1.0, GOOD), archived.get(1));
+        assertTrue(Double.isNaN(archived.get(2).v()) && archived.get(2).t() == 2 * S);
+        assertTrue(Double.isNaN(archived.get(3).v()) && archived.get(3).t() == 3 * S);
+        assertEquals(new Point(4 * S, 2.0, GOOD), archived.get(4));
+    }
+
+    @Test
+    void qualityTransitionsAreArchivedExactly() {
+        offer(0, 2.0, 0.1);
+        offer(1, 2.0, 0.1);
+        door.offer(2 * S, 2.0, BAD, 0.1, NO_HEARTBEAT, this::archive);
+        door.offer(3 * S, 2.0, BAD, 0.1, NO_HEARTBEAT, this::archive);
+        offer(4, 2.0, 0.1);
+
+        assertEquals(List.of(new Point(0, 2.0, GOOD), new Point(S, 2.0, GOOD), new Point(2 * S, 2.0, BAD),
+                new Point(3 * S, 2.0, BAD), new Point(4 * S, 2.0, GOOD)), archived);
+    }
+
+    @Test
+    void heartbeatArchivesAFlatValueOncePerSilencePeriod() {
+        for (int i = 0; i <= 120; i++) door.offer(i * 5 * S, 7.0, GOOD, 0.1, 60 * S, this::archive);
+
+        assertEquals(11, archived.size());   // 0, 60, ..., 600 s
+        for (int i = 1; i < archived.size(); i++) {
+            assertEquals(60 * S, archived.get(i).t() - archived.get(i - 1).t());
+        }
+    }
+
+    @Test
+    void lateArrivalsAreIgnored() {
+        offer(10, 1.0, 0.1);
+        offer(5, 9.0, 0.1);      // before the pivot
+        offer(20, 1.0, 0.1);
+        offer(15, 9.0, 0.1);     // before the held sample
+
+        assertEquals(List.of(new Point(10 * S, 1.0, GOOD)), archived);
+        assertEquals(new Point(20 * S, 1.0, GOOD), held());
+    }
+
+    @Test
+    void compressesAnHourOfSlowFlowWithinTheDoorWidth() {
+        double[] v = new double[720];
+        for (int i = 0; i < v.length; i++) v[i] = Math.round((11 + Math.sin(i * 5 / 700.0) * 1.2) * 100) / 100.0;
+
+        List<Point> kept = compress(v, 0.11);
+
+        assertTrue(v.length / kept.size() >= 50, "kept " + kept.size() + " of " + v.length);
+        assertTrue(maxError(v, kept) <= 0.11 + 1e-9, "error " + maxError(v, kept));
+    }
+
+    @Test
+    void compressesNoisyFlowWithinTheDoorWidth() {
+        Random rnd = new Random(1);
+        double[] v = new double[720];
+        for (int i = 0; i < v.length; i++) v[i] = 11 + Math.sin(i * 5 / 700.0) * 1.2 + rnd.nextGaussian() * 0.03;
+
+        List<Point> kept = compress(v, 0.11);
+
+        assertTrue(v.length / kept.size() >= 20, "kept " + kept.size() + " of " + v.length);
+        assertTrue(maxError(v, kept) <= 0.11 + 1e-9, "error " + maxError(v, kept));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private void offer(long seconds, double v, double width) {
+        door.offer(seconds * S, v, GOOD, width, NO_HEARTBEAT, this::archive);
+    }
+
+    private void archive(long t, double v, byte q) {
+        archived.add(new Point(t, v, q));
+    }
+
+    private Point held() {
+        List<Point> out = new ArrayList<>();
+        assertTrue(door.held((t, v, q) -> out.add(new Point(t, v, q))));
+        return out.get(0);
+    }
+
+    /** One poll every 5 s; what a reader would see: the archived points plus the held one. */
+    private List<Point> compress(double[] v, double width) {
+        for (int i = 0; i < v.length; i++) door.offer(i * 5 * S, v[i], GOOD, width, NO_HEARTBEAT, this::archive);
+        List<Point> out = new ArrayList<>(archived);
+        door.held((t, x, q) -> out.add(new Point(t, x, q)));
+        return out;
+    }
+
+    /** Largest distance between a polled value and the line through the kept points around it. */
+    private static double maxError(double[] v, List<Point> kept) {
+        double max = 0;
+        int seg = 0;
+        for (int i = 0; i < v.length; i++) {
+            long t = i * 5 * S;
+            while (seg < kept.size() - 2 && kept.get(seg + 1).t() < t) seg++;
+            Point a = kept.get(seg), b = kept.get(seg + 1);
+            double line = a.v() + (b.v() - a.v()) * (t - a.t()) / (double) (b.t() - a.t());
+            max = Math.max(max, Math.abs(line - v[i]));
+        }
+        return max;
+    }
+}
@@ -0,0 +1,108 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import com.awc.industrial_asset_companion.devices_locator.scada.ScadaDataSource;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boxed path (TelemetryReading / ScadaDataSource.Reading records, Map payload, ObjectMapper)
+ * vs primitive samples (SampleRing append, JsonGenerator straight from the rings).
+ * Run main(); GCProfiler's gc.alloc.rate.norm column is the allocation per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TelemetrySampleBenchmark {
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final UUID station = UUID.randomUUID();
+    private final Map<UUID, TelemetryReading> boxedLatest = new HashMap<>();
+    private final Map<String, ScadaDataSource.Reading> boxedTags = new HashMap<>();
+    private final ByteArrayOutputStream buf = new ByteArrayOutputStream(512);
+    private TelemetrySamples samples;
+    private int flowTag;
+    private long tick;
+    private long t0;   // samples must be newer than the ring's newest: t0 + tick, one nanosecond apart
+
+    @Setup
+    public void setup() {
+        samples = new TelemetrySamples(512);
+        flowTag = samples.tag("FLOW-701");
+        t0 = System.currentTimeMillis() * 1_000_000L;
+    }
+
+    /* ---- ingest: one station update (4 values) ---- */
+
+    @Benchmark
+    public Object ingestBoxedRecord() {
+        tick++;
+        return boxedLatest.put(station, new TelemetryReading(station, 11.0 + (tick & 7) * 0.1,
+                (tick & 1) == 0, true, 320.0 + (tick & 15), Instant.now()));
+    }
+
+    @Benchmark
+    public void ingestPrimitive() {
+        tick++;
+        long now = t0 + tick;
+        samples.append(station, TelemetrySamples.WET_WELL_LEVEL_FT, now, 11.0 + (tick & 7) * 0.1, SampleQuality.GOOD);
+        samples.append(station, TelemetrySamples.PUMP1_RUNNING, now, (tick & 1) == 0 ? 1 : 0, SampleQuality.GOOD);
+        samples.append(station, TelemetrySamples.PUMP2_RUNNING, now, 1, SampleQuality.GOOD);
+        samples.append(station, TelemetrySamples.FLOW_GPM, now, 320.0 + (tick & 15), SampleQuality.GOOD);
+    }
+
+    /* ---- ingest: one SCADA tag value ---- */
+
+    @Benchmark
+    public Object scadaTagBoxed() {
+        tick++;
+        return boxedTags.put("FLOW-701", new ScadaDataSource.Reading("FLOW-701", "Flow", "MGD",
+                11.0 + (tick & 15) * 0.1, Instant.now(), "ULLRICH"));
+    }
+
+    @Benchmark
+    public void scadaTagPrimitive() {
+        tick++;
+        samples.append(station, flowTag, t0 + tick, 11.0 + (tick & 15) * 0.1, SampleQuality.GOOD);
+    }
+
+    /* ---- GET /api/stations/{id}/telemetry: update + serialize ---- */
+
+    @Benchmark
+    public byte[] latestBoxedMapJson() throws IOException {
+        ingestBoxedRecord();
+        return json.writeValueAsBytes(boxedLatest.get(station).toPayload());
+    }
+
+    @Benchmark
+    public int latestPrimitiveJson() throws IOException {
+        ingestPrimitive();
+        buf.reset();
+        try (JsonGenerator gen = json.getFactory().createGenerator(buf)) {
+            samples.writeLatest(station, gen);
+        }
+        return buf.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TelemetrySampleBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelemetrySamplesTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final TelemetrySamples samples = new TelemetrySamples(8);
+    private final UUID station = UUID.randomUUID();
+
+    @Test
+    void readingsThatAreNotNewerAreDropped() throws Exception {
+        samples.record(new TelemetryReading(station, 10.0, true, false, 300.0, T0.plusSeconds(10)));
+        samples.record(new TelemetryReading(station, 99.0, false, true, 999.0, T0.plusSeconds(5)));    // late
+        samples.record(new TelemetryReading(station, 98.0, false, true, 998.0, T0.plusSeconds(10)));   // retry
+
+        JsonNode latest = latest();
+        assertEquals(T0.plusSeconds(10).toString(), latest.get("ts").asText());
+        assertEquals(10.0, latest.get("wetWellLevelFt").asDouble());
+        assertTrue(latest.get("pump1Running").asBoolean());
+        assertEquals(300.0, latest.get("flowGpm").asDouble());
+        assertEquals(1, history("flowGpm").get("t").size());
+    }
+
+    @Test
+    void appendReportsWhetherTheSampleWasKept() {
+        long t = TelemetrySamples.epochNanos(T0);
+        assertTrue(samples.append(station, TelemetrySamples.FLOW_GPM, t, 1, SampleQuality.GOOD));
+        assertFalse(samples.append(station, TelemetrySamples.FLOW_GPM, t, 2, SampleQuality.GOOD));
+        assertFalse(samples.append(station, TelemetrySamples.FLOW_GPM, t - 1, 3, SampleQuality.GOOD));
+        assertTrue(samples.append(station, TelemetrySamples.FLOW_GPM, t + 1, 4, SampleQuality.GOOD));
+        // other tags keep their own order
+        assertTrue(samples.append(station, TelemetrySamples.WET_WELL_LEVEL_FT, t - 1, 5, SampleQuality.GOOD));
+    }
+
+    @Test
+    void latestTakesEachTagsNewestSampleAndTheNewestTimestamp() throws Exception {
+        long t = TelemetrySamples.epochNanos(T0);
+        samples.append(station, TelemetrySamples.WET_WELL_LEVEL_FT, t, 12.5, SampleQuality.GOOD);
+        samples.append(station, TelemetrySamples.FLOW_GPM, t + 1_000_000_000L, 310, SampleQuality.GOOD);
+
+        JsonNode latest = latest();
+        assertEquals(T0.plusSeconds(1).toString(), latest.get("ts").asText());
+        assertEquals(12.5, latest.get("wetWellLevelFt").asDouble());
+        assertEquals(310.0, latest.get("flowGpm").asDouble());
+        assertTrue(latest.get("pump1Running").isNull());
+        assertTrue(latest.get("pump2Running").isNull());
+    }
+
+    @Test
+    void nullValuesStayNull() throws Exception {
+        samples.record(new TelemetryReading(station, null, null, true, null, T0));
+
+        JsonNode latest = latest();
+        assertTrue(latest.get("wetWellLevelFt").isNull());
+        assertTrue(latest.get("pump1Running").isNull());
+        assertTrue(latest.get("pump2Running").asBoolean());
+        assertEquals("UNKNOWN", history("flowGpm").get("q").get(0).asText());
+    }
+
+    @Test
+    void unknownStationWritesNothing() throws Exception {
+        var out = new StringWriter();
+        try (var gen = json.getFactory().createGenerator(out)) {
+            assertFalse(samples.writeLatest(UUID.randomUUID(), gen));
+        }
+        assertEquals("", out.toString());
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private JsonNode latest() throws Exception {
+        var out = new StringWriter();
+        try (var gen = json.getFactory().createGenerator(out)) {
+            assertTrue(samples.writeLatest(station, gen));
+        }
+        return json.readTree(out.toString());
+    }
+
+    private JsonNode history(String tag) throws Exception {
+        var out = new StringWriter();
+        try (var gen = json.getFactory().createGenerator(out)) {
+            assertTrue(samples.writeHistory(station, tag, 8, gen));
+        }
+        return json.readTree(out.toString());
+    }
+}
@@ -0,0 +1,183 @@
+package com.awc.industrial_asset_companion.telemetry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/** Buffering, coalescing and failure handling of the latest_telemetry write-behind, against a mocked JdbcTemplate. */
+class TelemetryWriteBehindTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final UUID A = UUID.randomUUID();
+    private static final UUID B = UUID.randomUUID();
+
+    private JdbcTemplate jdbc;
+    private SimpleMeterRegistry metrics;
+    private TelemetryWriteBehind buffer;
+    // one entry per batchUpdate call: the pending rows handed to it
+    private final List<List<TelemetryWriteBehind.Pending>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbc = mock(JdbcTemplate.class);
+        metrics = new SimpleMeterRegistry();
+        when(jdbc.batchUpdate(anyString(), anyCollection(), anyInt(), setter())).thenAnswer(inv -> {
+            batches.add(new ArrayList<>(inv.getArgument(1)));
+            return new int[0][];
+        });
+        // the scheduled flush never fires during a test; flush() is called explicitly
+        buffer = new TelemetryWriteBehind(jdbc, metrics, 3_600_000, 500, 10_000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        buffer.shutdown();
+    }
+
+    @Test
+    void recordNeverQueriesTheDatabase() {
+        buffer.record(reading(A, 10));
+
+        verifyNoInteractions(jdbc);   // the table is loaded by warmUp() at startup, not here
+    }
+
+    @Test
+    void staleReadingIsDroppedAndNeverWritten() throws Exception {
+        buffer.record(reading(A, 10));
+        buffer.record(reading(A, 5));
+
+        assertEquals(T0.plusSeconds(10), buffer.latest(A).orElseThrow().ts());
+        assertEquals(1, metrics.get("telemetry.writebehind.stale").counter().count());
+
+        buffer.flush();
+        assertEquals(1, batches.size());
+        assertEquals(List.of(T0.plusSeconds(10)), writtenTimes());
+    }
+
+    @Test
+    void readingsCoalesceToOneRowPerStationKeepingTheFirstDirtyTime() {
+        long before = System.nanoTime();
+        buffer.record(reading(A, 1));
+        long afterFirst = System.nanoTime();
+        buffer.record(reading(A, 2));
+        buffer.record(reading(A, 3));
+        buffer.record(reading(B, 1));
+
+        buffer.flush();
+
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        var a = rowOf(batches.get(0), A);
+        assertEquals(T0.plusSeconds(3), a.reading().ts());
+        assertTrue(a.dirtySince() >= before && a.dirtySince() <= afterFirst, "dirty time of the first reading");
+        assertEquals(2, metrics.get("telemetry.writebehind.coalesced").counter().count());
+    }
+
+    @Test
+    void failedBatchIsMergedBackKeepingTheNewerReadingAndTheOlderDirtyTime() {
+        long before = System.nanoTime();
+        buffer.record(reading(A, 10));
+        long afterFirst = System.nanoTime();
+        // a newer reading lands while the batch is being written, then the write fails
+        doAnswer(inv -> {
+            buffer.record(reading(A, 20));
+            throw new QueryTimeoutException("timeout");
+        }).doAnswer(inv -> {
+            batches.add(new ArrayList<>(inv.getArgument(1)));
+            return new int[0][];
+        }).when(jdbc).batchUpdate(anyString(), anyCollection(), anyInt(), setter());
+
+        assertThrows(QueryTimeoutException.class, buffer::flush);
+        assertEquals(1, metrics.get("telemetry.writebehind.failures").counter().count());
+
+        buffer.flush();
+        assertEquals(1, batches.size());
+        var a = rowOf(batches.get(0), A);
+        assertEquals(T0.plusSeconds(20), a.reading().ts());
+        assertTrue(a.dirtySince() >= before && a.dirtySince() <= afterFirst, "dirty time of the failed row");
+    }
+
+    @Test
+    void warmUpLoadsTheTableWithoutOverridingNewerReadings() throws Exception {
+        buffer.record(reading(A, 20));
+        ResultSet rs = row(A, 10);
+        ResultSet rsB = row(B, 5);
+        doAnswer(inv -> {
+            RowCallbackHandler h = inv.getArgument(1);
+            h.processRow(rs);
+            h.processRow(rsB);
+            return null;
+        }).when(jdbc).query(anyString(), any(RowCallbackHandler.class));
+
+        buffer.warmUp();
+        buffer.warmUp();   // once only
+
+        assertEquals(T0.plusSeconds(20), buffer.latest(A).orElseThrow().ts());
+        assertEquals(T0.plusSeconds(5), buffer.latest(B).orElseThrow().ts());
+        verify(jdbc, times(1)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static TelemetryReading reading(UUID station, long seconds) {
+        return new TelemetryReading(station, 5.0, true, false, 100.0, T0.plusSeconds(seconds));
+    }
+
+    private static ResultSet row(UUID station, long seconds) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getBytes(1)).thenReturn(ByteBuffer.allocate(16)
+                .putLong(station.getMostSignificantBits()).putLong(station.getLeastSignificantBits()).array());
+        when(rs.getObject(2, Double.class)).thenReturn(4.0);
+        when(rs.getObject(3, Boolean.class)).thenReturn(false);
+        when(rs.getObject(4, Boolean.class)).thenReturn(false);
+        when(rs.getObject(5, Double.class)).thenReturn(90.0);
+        when(rs.getTimestamp(6)).thenReturn(Timestamp.from(T0.plusSeconds(seconds)));
+        return rs;
+    }
+
+    private static ParameterizedPreparedStatementSetter<TelemetryWriteBehind.Pending> setter() {
+        return ArgumentMatchers.any();
+    }
+
+    private static TelemetryWriteBehind.Pending rowOf(List<TelemetryWriteBehind.Pending> batch, UUID station) {
+        return batch.stream().filter(p -> p.reading().stationId().equals(station)).findFirst().orElseThrow();
+    }
+
+    /** Runs the statement setter of the last batchUpdate call and collects the ts it binds (parameter 6). */
+    private List<Instant> writtenTimes() throws Exception {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<TelemetryWriteBehind.Pending>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbc, atLeastOnce()).batchUpdate(anyString(), anyCollection(), anyInt(), setter.capture());
+
+        List<Instant> times = new ArrayList<>();
+        PreparedStatement ps = mock(PreparedStatement.class);
+        doAnswer(inv -> times.add(inv.<Timestamp>getArgument(1).toInstant())).when(ps).setTimestamp(eq(6), any());
+        for (var p : batches.get(batches.size() - 1)) setter.getValue().setValues(ps, p);
+        return times;
+    }
+}